@@ -102,11 +102,13 @@ public class HiveClientConfig
 
     private boolean useParquetColumnNames;
     private boolean failOnCorruptedParquetStatistics = true;
+    private boolean parquetPageSkippingEnabled;
 
     private boolean assumeCanonicalPartitionKeys;
 
     private boolean useOrcColumnNames;
     private boolean orcBloomFiltersEnabled;
+    private boolean orcSelectiveReadingEnabled;
     private double orcDefaultBloomFilterFpp = 0.05;
     private DataSize orcMaxMergeDistance = new DataSize(1, MEGABYTE);
     private DataSize orcMaxBufferSize = new DataSize(8, MEGABYTE);
@@ -782,6 +784,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isOrcSelectiveReadingEnabled()
+    {
+        return orcSelectiveReadingEnabled;
+    }
+
+    @Config("hive.orc.selective-reading-enabled")
+    @ConfigDescription("Evaluate the pushed down predicate on ORC filter columns while reading and only decode matching rows of the other columns")
+    public HiveClientConfig setOrcSelectiveReadingEnabled(boolean orcSelectiveReadingEnabled)
+    {
+        this.orcSelectiveReadingEnabled = orcSelectiveReadingEnabled;
+        return this;
+    }
+
     public double getOrcDefaultBloomFilterFpp()
     {
         return orcDefaultBloomFilterFpp;
@@ -919,6 +934,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isParquetPageSkippingEnabled()
+    {
+        return parquetPageSkippingEnabled;
+    }
+
+    @Config("hive.parquet.page-skipping-enabled")
+    @ConfigDescription("Skip Parquet data pages whose statistics do not match the predicate")
+    public HiveClientConfig setParquetPageSkippingEnabled(boolean parquetPageSkippingEnabled)
+    {
+        this.parquetPageSkippingEnabled = parquetPageSkippingEnabled;
+        return this;
+    }
+
     public boolean isOptimizeMismatchedBucketCount()
     {
         return optimizeMismatchedBucketCount;
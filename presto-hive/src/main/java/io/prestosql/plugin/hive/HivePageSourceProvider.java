@@ -23,8 +23,11 @@ import io.prestosql.spi.connector.ConnectorPageSourceProvider;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import io.prestosql.spi.connector.FixedPageSource;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordPageSource;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
@@ -51,6 +54,7 @@ import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static io.prestosql.plugin.hive.HivePageSourceProvider.ColumnMapping.toColumnHandles;
 import static io.prestosql.plugin.hive.HiveUtil.getPrefilledColumnValue;
+import static io.prestosql.plugin.hive.HiveUtil.parsePartitionValue;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -82,12 +86,55 @@ public class HivePageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns)
+    {
+        HiveSplit hiveSplit = (HiveSplit) split;
+        return createPageSource(session, hiveSplit, columns, hiveSplit.getEffectivePredicate());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        HiveSplit hiveSplit = (HiveSplit) split;
+        TupleDomain<HiveColumnHandle> hiveDynamicFilter = dynamicFilter.transform(HiveColumnHandle.class::cast);
+        if (!partitionMatchesPredicate(hiveSplit, hiveDynamicFilter)) {
+            return new FixedPageSource(ImmutableList.of());
+        }
+
+        TupleDomain<HiveColumnHandle> effectivePredicate = hiveSplit.getEffectivePredicate();
+        // S3 Select renders the predicate into the query text, which is not a good fit for potentially large value sets
+        if (!hiveSplit.isS3SelectPushdownEnabled()) {
+            effectivePredicate = effectivePredicate.intersect(hiveDynamicFilter);
+        }
+        return createPageSource(session, hiveSplit, columns, effectivePredicate);
+    }
+
+    private boolean partitionMatchesPredicate(HiveSplit hiveSplit, TupleDomain<HiveColumnHandle> predicate)
+    {
+        if (predicate.isNone()) {
+            return false;
+        }
+
+        Map<String, HivePartitionKey> partitionKeys = uniqueIndex(hiveSplit.getPartitionKeys(), HivePartitionKey::getName);
+        for (Map.Entry<HiveColumnHandle, Domain> entry : predicate.getDomains().get().entrySet()) {
+            HiveColumnHandle column = entry.getKey();
+            HivePartitionKey partitionKey = partitionKeys.get(column.getName());
+            if (!column.isPartitionKey() || partitionKey == null) {
+                continue;
+            }
+            NullableValue value = parsePartitionValue(hiveSplit.getPartitionName(), partitionKey.getValue(), typeManager.getType(column.getTypeSignature()), hiveStorageTimeZone);
+            if (!entry.getValue().includesNullableValue(value.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ConnectorPageSource createPageSource(ConnectorSession session, HiveSplit hiveSplit, List<ColumnHandle> columns, TupleDomain<HiveColumnHandle> effectivePredicate)
     {
         List<HiveColumnHandle> hiveColumns = columns.stream()
                 .map(HiveColumnHandle.class::cast)
                 .collect(toList());
 
-        HiveSplit hiveSplit = (HiveSplit) split;
         Path path = new Path(hiveSplit.getPath());
 
         Configuration configuration = hdfsEnvironment.getConfiguration(new HdfsContext(session, hiveSplit.getDatabase(), hiveSplit.getTable()), path);
@@ -103,7 +150,7 @@ public class HivePageSourceProvider
                 hiveSplit.getLength(),
                 hiveSplit.getFileSize(),
                 hiveSplit.getSchema(),
-                hiveSplit.getEffectivePredicate(),
+                effectivePredicate,
                 hiveColumns,
                 hiveSplit.getPartitionKeys(),
                 hiveStorageTimeZone,
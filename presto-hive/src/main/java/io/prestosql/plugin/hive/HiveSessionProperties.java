@@ -50,6 +50,7 @@ public final class HiveSessionProperties
     private static final String ORC_TINY_STRIPE_THRESHOLD = "orc_tiny_stripe_threshold";
     private static final String ORC_MAX_READ_BLOCK_SIZE = "orc_max_read_block_size";
     private static final String ORC_LAZY_READ_SMALL_RANGES = "orc_lazy_read_small_ranges";
+    private static final String ORC_SELECTIVE_READING_ENABLED = "orc_selective_reading_enabled";
     private static final String ORC_STRING_STATISTICS_LIMIT = "orc_string_statistics_limit";
     private static final String ORC_OPTIMIZED_WRITER_ENABLED = "orc_optimized_writer_enabled";
     private static final String ORC_OPTIMIZED_WRITER_VALIDATE = "orc_optimized_writer_validate";
@@ -63,6 +64,7 @@ public final class HiveSessionProperties
     private static final String RESPECT_TABLE_FORMAT = "respect_table_format";
     private static final String PARQUET_USE_COLUMN_NAME = "parquet_use_column_names";
     private static final String PARQUET_FAIL_WITH_CORRUPTED_STATISTICS = "parquet_fail_with_corrupted_statistics";
+    private static final String PARQUET_PAGE_SKIPPING_ENABLED = "parquet_page_skipping_enabled";
     private static final String PARQUET_WRITER_BLOCK_SIZE = "parquet_writer_block_size";
     private static final String PARQUET_WRITER_PAGE_SIZE = "parquet_writer_page_size";
     private static final String MAX_SPLIT_SIZE = "max_split_size";
@@ -155,6 +157,11 @@ public final class HiveSessionProperties
                         "Experimental: ORC: Read small file segments lazily",
                         hiveClientConfig.isOrcLazyReadSmallRanges(),
                         false),
+                booleanProperty(
+                        ORC_SELECTIVE_READING_ENABLED,
+                        "Experimental: ORC: Filter rows on predicate columns before decoding other columns",
+                        hiveClientConfig.isOrcSelectiveReadingEnabled(),
+                        false),
                 dataSizeSessionProperty(
                         ORC_STRING_STATISTICS_LIMIT,
                         "ORC: Maximum size of string statistics; drop if exceeding",
@@ -232,6 +239,11 @@ public final class HiveSessionProperties
                         "Parquet: Fail when scanning Parquet files with corrupted statistics",
                         hiveClientConfig.isFailOnCorruptedParquetStatistics(),
                         false),
+                booleanProperty(
+                        PARQUET_PAGE_SKIPPING_ENABLED,
+                        "Parquet: Skip data pages whose statistics do not match the predicate",
+                        hiveClientConfig.isParquetPageSkippingEnabled(),
+                        false),
                 dataSizeSessionProperty(
                         PARQUET_WRITER_BLOCK_SIZE,
                         "Parquet: Writer block size",
@@ -354,6 +366,11 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_LAZY_READ_SMALL_RANGES, Boolean.class);
     }
 
+    public static boolean isOrcSelectiveReadingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ORC_SELECTIVE_READING_ENABLED, Boolean.class);
+    }
+
     public static DataSize getOrcStringStatisticsLimit(ConnectorSession session)
     {
         return session.getProperty(ORC_STRING_STATISTICS_LIMIT, DataSize.class);
@@ -426,6 +443,11 @@ public final class HiveSessionProperties
         return session.getProperty(PARQUET_FAIL_WITH_CORRUPTED_STATISTICS, Boolean.class);
     }
 
+    public static boolean isParquetPageSkippingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_PAGE_SKIPPING_ENABLED, Boolean.class);
+    }
+
     public static DataSize getParquetWriterBlockSize(ConnectorSession session)
     {
         return session.getProperty(PARQUET_WRITER_BLOCK_SIZE, DataSize.class);
@@ -39,6 +39,7 @@ public class HiveSplit
     private final long start;
     private final long length;
     private final long fileSize;
+    private final long fileModifiedTime;
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<HostAddress> addresses;
@@ -61,6 +62,7 @@ public class HiveSplit
             @JsonProperty("start") long start,
             @JsonProperty("length") long length,
             @JsonProperty("fileSize") long fileSize,
+            @JsonProperty("fileModifiedTime") long fileModifiedTime,
             @JsonProperty("schema") Properties schema,
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
@@ -93,6 +95,7 @@ public class HiveSplit
         this.start = start;
         this.length = length;
         this.fileSize = fileSize;
+        this.fileModifiedTime = fileModifiedTime;
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.addresses = ImmutableList.copyOf(addresses);
@@ -146,6 +149,12 @@ public class HiveSplit
         return fileSize;
     }
 
+    @JsonProperty
+    public long getFileModifiedTime()
+    {
+        return fileModifiedTime;
+    }
+
     @JsonProperty
     public Properties getSchema()
     {
@@ -215,6 +224,7 @@ public class HiveSplit
                 .put("start", start)
                 .put("length", length)
                 .put("fileSize", fileSize)
+                .put("fileModifiedTime", fileModifiedTime)
                 .put("hosts", addresses)
                 .put("database", database)
                 .put("table", table)
@@ -224,6 +234,28 @@ public class HiveSplit
                 .build();
     }
 
+    @Override
+    public Optional<String> getSplitIdentifier()
+    {
+        // bucket conversion filters rows based on the table bucketing, which is not part of the split
+        if (bucketConversion.isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(toStringHelper(this)
+                .add("path", path)
+                .add("start", start)
+                .add("length", length)
+                .add("fileSize", fileSize)
+                .add("fileModifiedTime", fileModifiedTime)
+                .add("database", database)
+                .add("table", table)
+                .add("partitionName", partitionName)
+                .add("bucketNumber", bucketNumber)
+                .add("columnCoercions", columnCoercions)
+                .add("s3SelectPushdownEnabled", s3SelectPushdownEnabled)
+                .toString());
+    }
+
     @Override
     public String toString()
     {
@@ -47,11 +47,14 @@ import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.function.Supplier;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.prestosql.orc.OrcEncoding.DWRF;
 import static io.prestosql.orc.OrcEncoding.ORC;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITE_VALIDATION_FAILED;
+import static io.prestosql.plugin.hive.HiveMetadata.ORC_BLOOM_FILTER_COLUMNS_KEY;
+import static io.prestosql.plugin.hive.HiveMetadata.ORC_BLOOM_FILTER_FPP_KEY;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxBufferSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxMergeDistance;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcOptimizedWriterMaxDictionaryMemory;
@@ -62,6 +65,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcOptimizedWrit
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStringStatisticsLimit;
 import static io.prestosql.plugin.hive.HiveType.toHiveTypes;
+import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -157,6 +161,16 @@ public class OrcFileWriterFactory
                 .mapToInt(inputColumnNames::indexOf)
                 .toArray();
 
+        OrcWriterOptions options = orcWriterOptions
+                .withStripeMinSize(getOrcOptimizedWriterMinStripeSize(session))
+                .withStripeMaxSize(getOrcOptimizedWriterMaxStripeSize(session))
+                .withStripeMaxRowCount(getOrcOptimizedWriterMaxStripeRows(session))
+                .withDictionaryMaxMemory(getOrcOptimizedWriterMaxDictionaryMemory(session))
+                .withMaxStringStatisticsLimit(getOrcStringStatisticsLimit(session));
+        if (orcEncoding == ORC) {
+            options = withBloomFilterOptions(options, schema);
+        }
+
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(session.getUser(), path, configuration);
             OrcDataSink orcDataSink = createOrcDataSink(session, fileSystem, path);
@@ -193,12 +207,7 @@ public class OrcFileWriterFactory
                     fileColumnNames,
                     fileColumnTypes,
                     compression,
-                    orcWriterOptions
-                            .withStripeMinSize(getOrcOptimizedWriterMinStripeSize(session))
-                            .withStripeMaxSize(getOrcOptimizedWriterMaxStripeSize(session))
-                            .withStripeMaxRowCount(getOrcOptimizedWriterMaxStripeRows(session))
-                            .withDictionaryMaxMemory(getOrcOptimizedWriterMaxDictionaryMemory(session))
-                            .withMaxStringStatisticsLimit(getOrcStringStatisticsLimit(session)),
+                    options,
                     fileInputColumnIndexes,
                     ImmutableMap.<String, String>builder()
                             .put(HiveMetadata.PRESTO_VERSION_NAME, nodeVersion.toString())
@@ -223,6 +232,28 @@ public class OrcFileWriterFactory
         return new OutputStreamOrcDataSink(fileSystem.create(path));
     }
 
+    private static OrcWriterOptions withBloomFilterOptions(OrcWriterOptions options, Properties schema)
+    {
+        String bloomFilterColumns = schema.getProperty(ORC_BLOOM_FILTER_COLUMNS_KEY);
+        if (bloomFilterColumns == null) {
+            return options;
+        }
+
+        options = options.withBloomFilterColumns(Splitter.on(',').trimResults().omitEmptyStrings().splitToList(bloomFilterColumns).stream()
+                .map(name -> name.toLowerCase(ENGLISH))
+                .collect(toImmutableSet()));
+        String bloomFilterFpp = schema.getProperty(ORC_BLOOM_FILTER_FPP_KEY);
+        if (bloomFilterFpp != null) {
+            try {
+                options = options.withBloomFilterFpp(Double.parseDouble(bloomFilterFpp));
+            }
+            catch (IllegalArgumentException e) {
+                throw new PrestoException(HIVE_UNSUPPORTED_FORMAT, format("Invalid ORC bloom filter false positive probability %s", bloomFilterFpp), e);
+            }
+        }
+        return options;
+    }
+
     private static CompressionKind getCompression(Properties schema, JobConf configuration, OrcEncoding orcEncoding)
     {
         String compressionName = schema.getProperty(OrcTableProperties.COMPRESSION.getPropName());
@@ -41,6 +41,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxMergeDista
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxReadBlockSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcTinyStripeThreshold;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcSelectiveReadingEnabled;
 import static io.prestosql.plugin.hive.HiveUtil.isDeserializerClass;
 import static io.prestosql.plugin.hive.orc.OrcPageSourceFactory.createOrcPageSource;
 import static java.util.Objects.requireNonNull;
@@ -101,6 +102,7 @@ public class DwrfPageSourceFactory
                 getOrcMaxReadBlockSize(session),
                 getOrcLazyReadSmallRanges(session),
                 false,
+                isOrcSelectiveReadingEnabled(session),
                 stats));
     }
 }
@@ -34,6 +34,7 @@ import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.FixedPageSource;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
@@ -69,6 +70,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxReadBlockS
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcTinyStripeThreshold;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcBloomFiltersEnabled;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcSelectiveReadingEnabled;
 import static io.prestosql.plugin.hive.HiveUtil.isDeserializerClass;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -139,6 +141,7 @@ public class OrcPageSourceFactory
                 getOrcMaxReadBlockSize(session),
                 getOrcLazyReadSmallRanges(session),
                 isOrcBloomFiltersEnabled(session),
+                isOrcSelectiveReadingEnabled(session),
                 stats));
     }
 
@@ -163,6 +166,7 @@ public class OrcPageSourceFactory
             DataSize maxReadBlockSize,
             boolean lazyReadSmallRanges,
             boolean orcBloomFiltersEnabled,
+            boolean orcSelectiveReadingEnabled,
             FileFormatDataSourceStats stats)
     {
         OrcDataSource orcDataSource;
@@ -194,11 +198,17 @@ public class OrcPageSourceFactory
             List<HiveColumnHandle> physicalColumns = getPhysicalHiveColumnHandles(columns, useOrcColumnNames, reader, path);
             ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
             ImmutableList.Builder<ColumnReference<HiveColumnHandle>> columnReferences = ImmutableList.builder();
+            ImmutableMap.Builder<Integer, Domain> rowFilters = ImmutableMap.builder();
+            Map<HiveColumnHandle, Domain> predicateDomains = effectivePredicate.getDomains().orElse(ImmutableMap.of());
             for (HiveColumnHandle column : physicalColumns) {
                 if (column.getColumnType() == REGULAR) {
                     Type type = typeManager.getType(column.getTypeSignature());
                     includedColumns.put(column.getHiveColumnIndex(), type);
                     columnReferences.add(new ColumnReference<>(column, column.getHiveColumnIndex(), type));
+                    Domain domain = predicateDomains.get(column);
+                    if (orcSelectiveReadingEnabled && domain != null) {
+                        rowFilters.put(column.getHiveColumnIndex(), domain);
+                    }
                 }
             }
 
@@ -207,6 +217,7 @@ public class OrcPageSourceFactory
             OrcRecordReader recordReader = reader.createRecordReader(
                     includedColumns.build(),
                     predicate,
+                    rowFilters.build(),
                     start,
                     length,
                     hiveStorageTimeZone,
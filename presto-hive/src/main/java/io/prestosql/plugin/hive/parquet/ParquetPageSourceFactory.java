@@ -69,6 +69,7 @@ import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_BAD_DATA;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isFailOnCorruptedParquetStatistics;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isParquetPageSkippingEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static io.prestosql.plugin.hive.HiveUtil.getDeserializerClassName;
 import static io.prestosql.plugin.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
@@ -126,6 +127,7 @@ public class ParquetPageSourceFactory
                 columns,
                 isUseParquetColumnNames(session),
                 isFailOnCorruptedParquetStatistics(session),
+                isParquetPageSkippingEnabled(session),
                 typeManager,
                 effectivePredicate,
                 stats));
@@ -143,6 +145,7 @@ public class ParquetPageSourceFactory
             List<HiveColumnHandle> columns,
             boolean useParquetColumnNames,
             boolean failOnCorruptedParquetStatistics,
+            boolean parquetPageSkippingEnabled,
             TypeManager typeManager,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             FileFormatDataSourceStats stats)
@@ -185,11 +188,20 @@ public class ParquetPageSourceFactory
                 }
             }
             MessageColumnIO messageColumnIO = getColumnIO(fileSchema, requestedSchema);
+            Set<ColumnDescriptor> pageSkippingColumns = ImmutableSet.of();
+            if (parquetPageSkippingEnabled) {
+                pageSkippingColumns = parquetTupleDomain.getDomains()
+                        .map(Map::keySet)
+                        .orElse(ImmutableSet.of());
+            }
             ParquetReader parquetReader = new ParquetReader(
                     messageColumnIO,
                     blocks.build(),
                     dataSource,
-                    systemMemoryContext);
+                    systemMemoryContext,
+                    parquetPredicate,
+                    pageSkippingColumns,
+                    failOnCorruptedParquetStatistics);
 
             return new ParquetPageSource(
                     parquetReader,
@@ -21,6 +21,7 @@ import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.predicate.TupleDomain;
 import org.testng.annotations.Test;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
@@ -29,6 +30,9 @@ import static io.prestosql.plugin.hive.HiveType.HIVE_LONG;
 import static io.prestosql.plugin.hive.HiveType.HIVE_STRING;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestHiveSplit
 {
@@ -51,6 +55,7 @@ public class TestHiveSplit
                 42,
                 87,
                 88,
+                Instant.now().toEpochMilli(),
                 schema,
                 partitionKeys,
                 addresses,
@@ -74,6 +79,7 @@ public class TestHiveSplit
         assertEquals(actual.getStart(), expected.getStart());
         assertEquals(actual.getLength(), expected.getLength());
         assertEquals(actual.getFileSize(), expected.getFileSize());
+        assertEquals(actual.getFileModifiedTime(), expected.getFileModifiedTime());
         assertEquals(actual.getSchema(), expected.getSchema());
         assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
         assertEquals(actual.getAddresses(), expected.getAddresses());
@@ -81,5 +87,45 @@ public class TestHiveSplit
         assertEquals(actual.getBucketConversion(), expected.getBucketConversion());
         assertEquals(actual.isForceLocalScheduling(), expected.isForceLocalScheduling());
         assertEquals(actual.isS3SelectPushdownEnabled(), expected.isS3SelectPushdownEnabled());
+        assertEquals(actual.getSplitIdentifier(), expected.getSplitIdentifier());
+    }
+
+    @Test
+    public void testSplitIdentifier()
+    {
+        HiveSplit split = createSplit(1000, Optional.empty());
+        assertTrue(split.getSplitIdentifier().isPresent());
+        assertEquals(split.getSplitIdentifier(), createSplit(1000, Optional.empty()).getSplitIdentifier());
+
+        // a rewritten file must not reuse results cached for the previous version
+        assertNotEquals(split.getSplitIdentifier(), createSplit(2000, Optional.empty()).getSplitIdentifier());
+
+        HiveSplit.BucketConversion bucketConversion = new HiveSplit.BucketConversion(
+                32,
+                16,
+                ImmutableList.of(new HiveColumnHandle("col", HIVE_LONG, BIGINT.getTypeSignature(), 5, ColumnType.REGULAR, Optional.empty())));
+        assertFalse(createSplit(1000, Optional.of(bucketConversion)).getSplitIdentifier().isPresent());
+    }
+
+    private static HiveSplit createSplit(long fileModifiedTime, Optional<HiveSplit.BucketConversion> bucketConversion)
+    {
+        return new HiveSplit(
+                "db",
+                "table",
+                "partitionId",
+                "path",
+                0,
+                100,
+                100,
+                fileModifiedTime,
+                new Properties(),
+                ImmutableList.of(),
+                ImmutableList.of(),
+                OptionalInt.empty(),
+                false,
+                TupleDomain.all(),
+                ImmutableMap.of(),
+                bucketConversion,
+                false);
     }
 }
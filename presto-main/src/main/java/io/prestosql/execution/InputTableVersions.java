@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.Session;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.QualifiedObjectName;
+import io.prestosql.metadata.TableHandle;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+public final class InputTableVersions
+{
+    private InputTableVersions() {}
+
+    /**
+     * Returns the versions of the tables read by a query, as seen by the transaction
+     * of the session, or empty if any of the tables does not expose a version.
+     */
+    public static Optional<Map<QualifiedObjectName, Long>> getInputTableVersions(Metadata metadata, Session session, Collection<Input> inputs)
+    {
+        ImmutableMap.Builder<QualifiedObjectName, Long> versions = ImmutableMap.builder();
+        for (QualifiedObjectName name : getInputTableNames(inputs)) {
+            Optional<TableHandle> tableHandle = metadata.getTableHandle(session, name);
+            if (!tableHandle.isPresent()) {
+                return Optional.empty();
+            }
+            OptionalLong version = metadata.getTableVersion(session, tableHandle.get());
+            if (!version.isPresent()) {
+                return Optional.empty();
+            }
+            versions.put(name, version.getAsLong());
+        }
+        return Optional.of(versions.build());
+    }
+
+    public static QualifiedObjectName getInputTableName(Input input)
+    {
+        return new QualifiedObjectName(input.getConnectorId().getCatalogName(), input.getSchema(), input.getTable());
+    }
+
+    private static Collection<QualifiedObjectName> getInputTableNames(Collection<Input> inputs)
+    {
+        ImmutableSet.Builder<QualifiedObjectName> names = ImmutableSet.builder();
+        for (Input input : inputs) {
+            names.add(getInputTableName(input));
+        }
+        return names.build();
+    }
+}
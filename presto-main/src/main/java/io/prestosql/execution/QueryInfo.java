@@ -39,6 +39,7 @@ import java.util.Set;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.prestosql.execution.QueryState.FAILED;
+import static io.prestosql.execution.QueryState.FINISHED;
 import static io.prestosql.execution.QueryStats.immediateFailureQueryStats;
 import static io.prestosql.execution.StageInfo.getAllStages;
 import static io.prestosql.memory.LocalMemoryManager.GENERAL_POOL;
@@ -193,6 +194,41 @@ public class QueryInfo
         return queryInfo;
     }
 
+    /**
+     * Info for a query whose results were served from the coordinator result cache without executing it.
+     */
+    public static QueryInfo cachedResultQueryInfo(Session session, String query, URI self, List<String> fieldNames, Set<Input> inputs)
+    {
+        return new QueryInfo(
+                session.getQueryId(),
+                session.toSessionRepresentation(),
+                FINISHED,
+                GENERAL_POOL,
+                false,
+                self,
+                fieldNames,
+                query,
+                immediateFailureQueryStats(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                ImmutableMap.of(),
+                ImmutableSet.of(),
+                ImmutableMap.of(),
+                ImmutableSet.of(),
+                Optional.empty(),
+                false,
+                null,
+                Optional.empty(),
+                null,
+                null,
+                ImmutableList.of(),
+                inputs,
+                Optional.empty(),
+                true,
+                Optional.empty());
+    }
+
     @JsonProperty
     public QueryId getQueryId()
     {
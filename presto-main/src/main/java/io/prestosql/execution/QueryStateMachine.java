@@ -29,6 +29,7 @@ import io.prestosql.execution.StateMachine.StateChangeListener;
 import io.prestosql.execution.warnings.WarningCollector;
 import io.prestosql.memory.VersionedMemoryPoolId;
 import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.QualifiedObjectName;
 import io.prestosql.operator.BlockedReason;
 import io.prestosql.operator.OperatorStats;
 import io.prestosql.security.AccessControl;
@@ -542,6 +543,11 @@ public class QueryStateMachine
         outputManager.updateOutputLocations(newExchangeLocations, noMoreExchangeLocations);
     }
 
+    public void setInputTableVersions(Optional<Map<QualifiedObjectName, Long>> inputTableVersions)
+    {
+        outputManager.setInputTableVersions(inputTableVersions);
+    }
+
     public void setInputs(List<Input> inputs)
     {
         requireNonNull(inputs, "inputs is null");
@@ -998,6 +1004,8 @@ public class QueryStateMachine
         private final Set<URI> exchangeLocations = new LinkedHashSet<>();
         @GuardedBy("this")
         private boolean noMoreExchangeLocations;
+        @GuardedBy("this")
+        private Optional<Map<QualifiedObjectName, Long>> inputTableVersions = Optional.empty();
 
         public QueryOutputManager(Executor executor)
         {
@@ -1035,6 +1043,13 @@ public class QueryStateMachine
             queryOutputInfo.ifPresent(info -> fireStateChanged(info, outputInfoListeners));
         }
 
+        public synchronized void setInputTableVersions(Optional<Map<QualifiedObjectName, Long>> inputTableVersions)
+        {
+            requireNonNull(inputTableVersions, "inputTableVersions is null");
+            checkState(columnNames == null, "input table versions must be set before the output fields");
+            this.inputTableVersions = inputTableVersions;
+        }
+
         public void updateOutputLocations(Set<URI> newExchangeLocations, boolean noMoreExchangeLocations)
         {
             requireNonNull(newExchangeLocations, "newExchangeLocations is null");
@@ -1060,7 +1075,7 @@ public class QueryStateMachine
             if (columnNames == null || columnTypes == null) {
                 return Optional.empty();
             }
-            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations));
+            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations, inputTableVersions));
         }
 
         private void fireStateChanged(QueryOutputInfo queryOutputInfo, List<Consumer<QueryOutputInfo>> outputInfoListeners)
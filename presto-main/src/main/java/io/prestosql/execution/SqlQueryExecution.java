@@ -36,10 +36,12 @@ import io.prestosql.execution.warnings.WarningCollector;
 import io.prestosql.failureDetector.FailureDetector;
 import io.prestosql.memory.VersionedMemoryPoolId;
 import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.QualifiedObjectName;
 import io.prestosql.metadata.TableHandle;
 import io.prestosql.operator.ForScheduler;
 import io.prestosql.security.AccessControl;
 import io.prestosql.server.BasicQueryInfo;
+import io.prestosql.server.protocol.QueryResultCacheConfig;
 import io.prestosql.spi.ErrorCode;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.QueryId;
@@ -88,6 +90,7 @@ import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.OutputBuffers.BROADCAST_PARTITION_ID;
 import static io.prestosql.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.execution.InputTableVersions.getInputTableVersions;
 import static io.prestosql.execution.scheduler.SqlQueryScheduler.createSqlQueryScheduler;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static java.util.Objects.requireNonNull;
@@ -126,6 +129,7 @@ public class SqlQueryExecution
     private final Analysis analysis;
     private final StatsCalculator statsCalculator;
     private final CostCalculator costCalculator;
+    private final boolean recordInputTableVersions;
 
     private SqlQueryExecution(
             String query,
@@ -155,6 +159,7 @@ public class SqlQueryExecution
             SplitSchedulerStats schedulerStats,
             StatsCalculator statsCalculator,
             CostCalculator costCalculator,
+            boolean recordInputTableVersions,
             WarningCollector warningCollector)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", session.getQueryId())) {
@@ -175,6 +180,7 @@ public class SqlQueryExecution
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
+            this.recordInputTableVersions = recordInputTableVersions;
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -407,6 +413,18 @@ public class SqlQueryExecution
         }
     }
 
+    private Optional<Map<QualifiedObjectName, Long>> recordInputTableVersions(List<Input> inputs)
+    {
+        try {
+            return getInputTableVersions(metadata, stateMachine.getSession(), inputs);
+        }
+        catch (RuntimeException e) {
+            // the versions are only needed to cache the results, so do not fail the query
+            log.debug(e, "Unable to determine input table versions for query %s", stateMachine.getQueryId());
+            return Optional.empty();
+        }
+    }
+
     private PlanRoot doAnalyzeQuery()
     {
         // time analysis phase
@@ -426,6 +444,13 @@ public class SqlQueryExecution
         Optional<Output> output = new OutputExtractor().extractOutput(plan.getRoot());
         stateMachine.setOutput(output);
 
+        // record the versions of the inputs as seen by this query's transaction, so the results can be cached.
+        // The statement alone does not show whether the bodies of its views are deterministic, so results
+        // of queries that read views are never cached.
+        if (recordInputTableVersions && !output.isPresent() && !analysis.referencesViews()) {
+            stateMachine.setInputTableVersions(recordInputTableVersions(inputs));
+        }
+
         // fragment the plan
         SubPlan fragmentedPlan = planFragmenter.createSubPlans(stateMachine.getSession(), plan, false);
 
@@ -685,6 +710,7 @@ public class SqlQueryExecution
         private final ClusterSizeMonitor clusterSizeMonitor;
         private final StatsCalculator statsCalculator;
         private final CostCalculator costCalculator;
+        private final boolean recordInputTableVersions;
 
         @Inject
         SqlQueryExecutionFactory(QueryManagerConfig config,
@@ -708,7 +734,8 @@ public class SqlQueryExecution
                 SplitSchedulerStats schedulerStats,
                 ClusterSizeMonitor clusterSizeMonitor,
                 StatsCalculator statsCalculator,
-                CostCalculator costCalculator)
+                CostCalculator costCalculator,
+                QueryResultCacheConfig queryResultCacheConfig)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -734,6 +761,7 @@ public class SqlQueryExecution
             this.planOptimizers = planOptimizers.get();
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
+            this.recordInputTableVersions = requireNonNull(queryResultCacheConfig, "queryResultCacheConfig is null").isEnabled();
         }
 
         @Override
@@ -776,6 +804,7 @@ public class SqlQueryExecution
                     schedulerStats,
                     statsCalculator,
                     costCalculator,
+                    recordInputTableVersions,
                     warningCollector);
 
             return execution;
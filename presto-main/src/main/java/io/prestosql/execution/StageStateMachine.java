@@ -85,11 +85,15 @@ public class StageStateMachine
 
     private final AtomicReference<DateTime> schedulingComplete = new AtomicReference<>();
     private final Distribution getSplitDistribution = new Distribution();
+    private final AtomicLong getSplitCount = new AtomicLong();
 
     private final AtomicLong peakUserMemory = new AtomicLong();
     private final AtomicLong currentUserMemory = new AtomicLong();
     private final AtomicLong currentTotalMemory = new AtomicLong();
 
+    // last StageInfo built by getStageInfo, reused while none of its inputs changed
+    private final AtomicReference<CachedStageInfo> cachedStageInfo = new AtomicReference<>();
+
     public StageStateMachine(
             StageId stageId,
             URI location,
@@ -348,6 +352,16 @@ public class StageStateMachine
 
         List<TaskInfo> taskInfos = ImmutableList.copyOf(taskInfosSupplier.get());
 
+        // task info fetchers keep the same TaskInfo instance while a task makes no progress,
+        // so a stage with no changed task can reuse the StageInfo built on a previous call
+        CachedStageInfo cached = cachedStageInfo.get();
+        long peakUserMemoryReservation = peakUserMemory.get();
+        DateTime schedulingComplete = this.schedulingComplete.get();
+        long getSplitCount = this.getSplitCount.get();
+        if (cached != null && cached.matches(state, taskInfos, peakUserMemoryReservation, schedulingComplete, getSplitCount)) {
+            return cached.getStageInfo();
+        }
+
         int totalTasks = taskInfos.size();
         int runningTasks = 0;
         int completedTasks = 0;
@@ -361,7 +375,6 @@ public class StageStateMachine
         long cumulativeUserMemory = 0;
         long userMemoryReservation = 0;
         long totalMemoryReservation = 0;
-        long peakUserMemoryReservation = peakUserMemory.get();
 
         long totalScheduledTime = 0;
         long totalCpuTime = 0;
@@ -450,7 +463,7 @@ public class StageStateMachine
         }
 
         StageStats stageStats = new StageStats(
-                schedulingComplete.get(),
+                schedulingComplete,
                 getSplitDistribution.snapshot(),
 
                 totalTasks,
@@ -497,7 +510,7 @@ public class StageStateMachine
         if (state == FAILED) {
             failureInfo = failureCause.get();
         }
-        return new StageInfo(stageId,
+        StageInfo stageInfo = new StageInfo(stageId,
                 state,
                 location,
                 fragment,
@@ -506,12 +519,15 @@ public class StageStateMachine
                 taskInfos,
                 ImmutableList.of(),
                 failureInfo);
+        cachedStageInfo.set(new CachedStageInfo(state, taskInfos, peakUserMemoryReservation, schedulingComplete, getSplitCount, stageInfo));
+        return stageInfo;
     }
 
     public void recordGetSplitTime(long startNanos)
     {
         long elapsedNanos = System.nanoTime() - startNanos;
         getSplitDistribution.add(elapsedNanos);
+        getSplitCount.incrementAndGet();
         scheduledStats.getGetSplitTime().add(elapsedNanos, NANOSECONDS);
     }
 
@@ -523,4 +539,46 @@ public class StageStateMachine
                 .add("stageState", stageState)
                 .toString();
     }
+
+    private static class CachedStageInfo
+    {
+        private final StageState state;
+        private final List<TaskInfo> taskInfos;
+        private final long peakUserMemoryReservation;
+        private final DateTime schedulingComplete;
+        private final long getSplitCount;
+        private final StageInfo stageInfo;
+
+        public CachedStageInfo(StageState state, List<TaskInfo> taskInfos, long peakUserMemoryReservation, DateTime schedulingComplete, long getSplitCount, StageInfo stageInfo)
+        {
+            this.state = requireNonNull(state, "state is null");
+            this.taskInfos = requireNonNull(taskInfos, "taskInfos is null");
+            this.peakUserMemoryReservation = peakUserMemoryReservation;
+            this.schedulingComplete = schedulingComplete;
+            this.getSplitCount = getSplitCount;
+            this.stageInfo = requireNonNull(stageInfo, "stageInfo is null");
+        }
+
+        public boolean matches(StageState state, List<TaskInfo> taskInfos, long peakUserMemoryReservation, DateTime schedulingComplete, long getSplitCount)
+        {
+            if (this.state != state ||
+                    this.peakUserMemoryReservation != peakUserMemoryReservation ||
+                    this.schedulingComplete != schedulingComplete ||
+                    this.getSplitCount != getSplitCount ||
+                    this.taskInfos.size() != taskInfos.size()) {
+                return false;
+            }
+            for (int i = 0; i < taskInfos.size(); i++) {
+                if (this.taskInfos.get(i) != taskInfos.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public StageInfo getStageInfo()
+        {
+            return stageInfo;
+        }
+    }
 }
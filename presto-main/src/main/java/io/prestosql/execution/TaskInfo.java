@@ -15,6 +15,7 @@ package io.prestosql.execution;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import io.prestosql.execution.buffer.BufferInfo;
 import io.prestosql.execution.buffer.OutputBufferInfo;
@@ -32,6 +33,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.prestosql.execution.TaskStatus.initialTaskStatus;
 import static io.prestosql.execution.buffer.BufferState.OPEN;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
 
 @Immutable
 public class TaskInfo
@@ -97,6 +99,58 @@ public class TaskInfo
         return needsPlan;
     }
 
+    /**
+     * Returns a fingerprint of the progress of this task. A coordinator sends back the fingerprint
+     * of the info it holds, and the worker can tell whether anything but timings changed since.
+     * The fingerprint lists the values themselves instead of a hash, so different infos never share
+     * a fingerprint. Data sizes use their JSON form, which is what the coordinator holds.
+     */
+    public String getProgressFingerprint()
+    {
+        return Joiner.on(',').join(
+                taskStatus.getTaskInstanceId(),
+                taskStatus.getState(),
+                taskStatus.getFailures().size(),
+                taskStatus.getCompletedDriverGroups().size(),
+                taskStatus.getQueuedPartitionedDrivers(),
+                taskStatus.getRunningPartitionedDrivers(),
+                taskStatus.isOutputBufferOverutilized(),
+                taskStatus.getPhysicalWrittenDataSize(),
+                taskStatus.getMemoryReservation(),
+                taskStatus.getSystemMemoryReservation(),
+                taskStatus.getFullGcCount(),
+                needsPlan,
+                noMoreSplits.size(),
+
+                outputBuffers.getState(),
+                outputBuffers.getTotalBufferedBytes(),
+                outputBuffers.getTotalBufferedPages(),
+                outputBuffers.getTotalPagesSent(),
+                outputBuffers.getTotalRowsSent(),
+
+                stats.getTotalDrivers(),
+                stats.getQueuedDrivers(),
+                stats.getRunningDrivers(),
+                stats.getBlockedDrivers(),
+                stats.getCompletedDrivers(),
+                stats.getUserMemoryReservation(),
+                stats.getRevocableMemoryReservation(),
+                stats.getSystemMemoryReservation(),
+                stats.isFullyBlocked(),
+                stats.getBlockedReasons().stream()
+                        .map(Enum::name)
+                        .sorted()
+                        .collect(joining("|")),
+                stats.getRawInputDataSize(),
+                stats.getRawInputPositions(),
+                stats.getProcessedInputDataSize(),
+                stats.getProcessedInputPositions(),
+                stats.getOutputDataSize(),
+                stats.getOutputPositions(),
+                stats.getPhysicalWrittenDataSize(),
+                stats.getFullGcCount());
+    }
+
     public TaskInfo summarize()
     {
         if (taskStatus.getState().isDone()) {
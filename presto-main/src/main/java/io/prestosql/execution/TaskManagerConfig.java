@@ -73,6 +73,7 @@ public class TaskManagerConfig
     private int taskYieldThreads = 3;
 
     private BigDecimal levelTimeMultiplier = new BigDecimal(2.0);
+    private int splitQueueShards = 1;
 
     @MinDuration("1ms")
     @MaxDuration("10s")
@@ -208,6 +209,20 @@ public class TaskManagerConfig
         return this;
     }
 
+    @Min(1)
+    public int getSplitQueueShards()
+    {
+        return splitQueueShards;
+    }
+
+    @Config("task.split-queue-shards")
+    @ConfigDescription("Number of independently locked queues the waiting splits are spread over")
+    public TaskManagerConfig setSplitQueueShards(int splitQueueShards)
+    {
+        this.splitQueueShards = splitQueueShards;
+        return this;
+    }
+
     @Min(1)
     public int getMaxWorkerThreads()
     {
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Codec used to compress serialized pages. The codec is recorded in the marker of
+ * every page (see {@link PageCompression}), so a page can be read by any node.
+ */
+public enum CompressionCodec
+{
+    NONE(Optional.empty(), Optional.empty()),
+    LZ4(Optional.of(Lz4Compressor::new), Optional.of(Lz4Decompressor::new)),
+    SNAPPY(Optional.of(SnappyCompressor::new), Optional.of(SnappyDecompressor::new)),
+    ZSTD(Optional.of(ZstdCompressor::new), Optional.of(ZstdDecompressor::new));
+
+    private final Optional<Supplier<Compressor>> compressorSupplier;
+    private final Optional<Supplier<Decompressor>> decompressorSupplier;
+
+    CompressionCodec(Optional<Supplier<Compressor>> compressorSupplier, Optional<Supplier<Decompressor>> decompressorSupplier)
+    {
+        this.compressorSupplier = requireNonNull(compressorSupplier, "compressorSupplier is null");
+        this.decompressorSupplier = requireNonNull(decompressorSupplier, "decompressorSupplier is null");
+    }
+
+    public Optional<Compressor> createCompressor()
+    {
+        return compressorSupplier.map(Supplier::get);
+    }
+
+    public Optional<Decompressor> createDecompressor()
+    {
+        return decompressorSupplier.map(Supplier::get);
+    }
+}
@@ -16,17 +16,27 @@ package io.prestosql.execution.buffer;
 import io.prestosql.spi.PrestoException;
 
 import static io.prestosql.spi.StandardErrorCode.CORRUPT_PAGE;
+import static java.util.Objects.requireNonNull;
 
+/**
+ * Records in the marker of a serialized page which codec compressed it, so that
+ * the page is decompressed with that codec regardless of the configuration of the reader.
+ */
 public enum PageCompression
 {
-    UNCOMPRESSED((byte) 0),
-    COMPRESSED((byte) 1);
+    UNCOMPRESSED((byte) 0, CompressionCodec.NONE),
+    // compressed pages were always LZ4 before the codec was recorded, so LZ4 keeps their marker
+    LZ4((byte) 1, CompressionCodec.LZ4),
+    SNAPPY((byte) 2, CompressionCodec.SNAPPY),
+    ZSTD((byte) 3, CompressionCodec.ZSTD);
 
     private final byte marker;
+    private final CompressionCodec codec;
 
-    PageCompression(byte marker)
+    PageCompression(byte marker, CompressionCodec codec)
     {
         this.marker = marker;
+        this.codec = requireNonNull(codec, "codec is null");
     }
 
     public byte getMarker()
@@ -34,11 +44,34 @@ public enum PageCompression
         return marker;
     }
 
+    public CompressionCodec getCodec()
+    {
+        return codec;
+    }
+
+    public boolean isCompressed()
+    {
+        return this != UNCOMPRESSED;
+    }
+
+    public static PageCompression forCodec(CompressionCodec codec)
+    {
+        requireNonNull(codec, "codec is null");
+        for (PageCompression compression : values()) {
+            if (compression.codec == codec) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported codec: " + codec);
+    }
+
     public static PageCompression lookupCodecFromMarker(byte marker)
     {
-        if (marker != UNCOMPRESSED.getMarker() && marker != COMPRESSED.getMarker()) {
-            throw new PrestoException(CORRUPT_PAGE, "Page marker did not contain expected value");
+        for (PageCompression compression : values()) {
+            if (compression.marker == marker) {
+                return compression;
+            }
         }
-        return UNCOMPRESSED.getMarker() == marker ? UNCOMPRESSED : COMPRESSED;
+        throw new PrestoException(CORRUPT_PAGE, "Page marker did not contain expected value");
     }
 }
@@ -16,6 +16,7 @@ package io.prestosql.execution.buffer;
 import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
 import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 import io.prestosql.spi.Page;
@@ -23,12 +24,13 @@ import io.prestosql.spi.block.BlockEncodingSerde;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.airlift.compress.lz4.Lz4RawCompressor.maxCompressedLength;
-import static io.prestosql.execution.buffer.PageCompression.COMPRESSED;
 import static io.prestosql.execution.buffer.PageCompression.UNCOMPRESSED;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.readRawPage;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writeRawPage;
@@ -39,17 +41,29 @@ import static java.util.Objects.requireNonNull;
 public class PagesSerde
 {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+    // after this many consecutive pages compress poorly, compression is skipped for a number of pages
+    private static final int POORLY_COMPRESSED_PAGES_BEFORE_SKIPPING = 4;
+    private static final int MIN_SKIPPED_PAGES = 8;
+    private static final int MAX_SKIPPED_PAGES = 512;
 
     private final BlockEncodingSerde blockEncodingSerde;
+    private final PageCompression compression;
     private final Optional<Compressor> compressor;
-    private final Optional<Decompressor> decompressor;
+    // pages are decompressed with the codec recorded in them, which may differ from the one this serde compresses with
+    private final Map<PageCompression, Decompressor> decompressors = new EnumMap<>(PageCompression.class);
 
-    public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor)
+    // reused across pages, since compressed data is always copied out of it
+    private byte[] compressionBuffer = new byte[0];
+
+    private int poorlyCompressedPages;
+    private int pagesToSkip;
+    private int remainingSkippedPages;
+
+    public PagesSerde(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
-        this.compressor = requireNonNull(compressor, "compressor is null");
-        this.decompressor = requireNonNull(decompressor, "decompressor is null");
-        checkArgument(compressor.isPresent() == decompressor.isPresent(), "compressor and decompressor must both be present or both be absent");
+        this.compression = PageCompression.forCodec(compressionCodec);
+        this.compressor = compressionCodec.createCompressor();
     }
 
     public SerializedPage serialize(Page page)
@@ -61,34 +75,85 @@ public class PagesSerde
             return new SerializedPage(serializationBuffer.slice(), UNCOMPRESSED, page.getPositionCount(), serializationBuffer.size());
         }
 
-        int maxCompressedLength = maxCompressedLength(serializationBuffer.size());
-        byte[] compressionBuffer = new byte[maxCompressedLength];
-        int actualCompressedLength = compressor.get().compress(serializationBuffer.slice().getBytes(), 0, serializationBuffer.size(), compressionBuffer, 0, maxCompressedLength);
+        if (remainingSkippedPages > 0) {
+            remainingSkippedPages--;
+            return new SerializedPage(serializationBuffer.slice(), UNCOMPRESSED, page.getPositionCount(), serializationBuffer.size());
+        }
+
+        ByteBuffer serializedPage = toHeapBuffer(serializationBuffer.slice());
+        int maxCompressedLength = compressor.get().maxCompressedLength(serializedPage.remaining());
+        if (compressionBuffer.length < maxCompressedLength) {
+            compressionBuffer = new byte[maxCompressedLength];
+        }
+        int actualCompressedLength = compressor.get().compress(
+                serializedPage.array(),
+                serializedPage.arrayOffset() + serializedPage.position(),
+                serializedPage.remaining(),
+                compressionBuffer,
+                0,
+                maxCompressedLength);
 
         if (((1.0 * actualCompressedLength) / serializationBuffer.size()) > MINIMUM_COMPRESSION_RATIO) {
+            recordPoorlyCompressedPage();
             return new SerializedPage(serializationBuffer.slice(), UNCOMPRESSED, page.getPositionCount(), serializationBuffer.size());
         }
+        poorlyCompressedPages = 0;
+        pagesToSkip = 0;
 
         return new SerializedPage(
                 Slices.copyOf(Slices.wrappedBuffer(compressionBuffer, 0, actualCompressedLength)),
-                COMPRESSED,
+                compression,
                 page.getPositionCount(),
                 serializationBuffer.size());
     }
 
+    private void recordPoorlyCompressedPage()
+    {
+        poorlyCompressedPages++;
+        if (pagesToSkip == 0 && poorlyCompressedPages < POORLY_COMPRESSED_PAGES_BEFORE_SKIPPING) {
+            return;
+        }
+        // the data does not compress well, so stop spending CPU on it and probe again later,
+        // backing off further for as long as the probed pages stay incompressible
+        poorlyCompressedPages = 0;
+        pagesToSkip = (pagesToSkip == 0) ? MIN_SKIPPED_PAGES : Math.min(pagesToSkip * 2, MAX_SKIPPED_PAGES);
+        remainingSkippedPages = pagesToSkip;
+    }
+
     public Page deserialize(SerializedPage serializedPage)
     {
         checkArgument(serializedPage != null, "serializedPage is null");
 
-        if (!decompressor.isPresent() || serializedPage.getCompression() == UNCOMPRESSED) {
+        if (!serializedPage.getCompression().isCompressed()) {
             return readRawPage(serializedPage.getPositionCount(), serializedPage.getSlice().getInput(), blockEncodingSerde);
         }
+        Decompressor decompressor = decompressors.computeIfAbsent(
+                serializedPage.getCompression(),
+                pageCompression -> pageCompression.getCodec().createDecompressor().get());
 
         int uncompressedSize = serializedPage.getUncompressedSizeInBytes();
         byte[] decompressed = new byte[uncompressedSize];
-        int actualUncompressedSize = decompressor.get().decompress(serializedPage.getSlice().getBytes(), 0, serializedPage.getSlice().length(), decompressed, 0, uncompressedSize);
+        Slice compressedSlice = serializedPage.getSlice();
+        if (!(compressedSlice.getBase() instanceof byte[])) {
+            compressedSlice = Slices.copyOf(compressedSlice);
+        }
+        ByteBuffer compressed = toHeapBuffer(compressedSlice);
+        int actualUncompressedSize = decompressor.decompress(
+                compressed.array(),
+                compressed.arrayOffset() + compressed.position(),
+                compressed.remaining(),
+                decompressed,
+                0,
+                uncompressedSize);
         checkState(uncompressedSize == actualUncompressedSize);
 
         return readRawPage(serializedPage.getPositionCount(), Slices.wrappedBuffer(decompressed, 0, uncompressedSize).getInput(), blockEncodingSerde);
     }
+
+    // exposes the backing array of the slice and the offset of the slice within it, without copying
+    private static ByteBuffer toHeapBuffer(Slice slice)
+    {
+        checkArgument(slice.getBase() instanceof byte[], "slice is not backed by a byte array");
+        return slice.toByteBuffer();
+    }
 }
@@ -28,55 +28,82 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.floorMod;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Waiting splits are spread over a number of independently locked shards. A runner
+ * thread is assigned a home shard on its first {@link #take()}; splits it re-offers go
+ * back to that shard, and it only steals from the other shards when its own is empty.
+ * The level to run is selected from the waiting split counts of all shards, and the
+ * runner takes the best split of that level from the first shard that has one. The
+ * split is the best of its level within that shard, but not necessarily across shards.
+ */
 @ThreadSafe
 public class MultilevelSplitQueue
 {
     static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
     static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
-    @GuardedBy("lock")
-    private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits;
+    private final Shard[] shards;
+    private final ThreadLocal<Integer> runnerShard = new ThreadLocal<>();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private final AtomicInteger[] levelWaitingSplitCount = new AtomicInteger[LEVEL_THRESHOLD_SECONDS.length];
+    private final AtomicInteger waitingSplitCount = new AtomicInteger();
+
+    // runners with nothing to do wait on this condition; offers only take the lock when a runner is idle
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition splitAvailable = idleLock.newCondition();
+    private final AtomicInteger idleRunnerCount = new AtomicInteger();
 
     private final AtomicLong[] levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
 
     private final AtomicLong[] levelMinPriority;
     private final List<CounterStat> selectedLevelCounters;
 
-    private final ReentrantLock lock = new ReentrantLock();
-    private final Condition notEmpty = lock.newCondition();
-
     private final double levelTimeMultiplier;
 
     @Inject
     public MultilevelSplitQueue(TaskManagerConfig taskManagerConfig)
     {
-        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue());
+        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue(), taskManagerConfig.getSplitQueueShards());
     }
 
     public MultilevelSplitQueue(double levelTimeMultiplier)
     {
+        this(levelTimeMultiplier, 1);
+    }
+
+    public MultilevelSplitQueue(double levelTimeMultiplier, int shardCount)
+    {
+        checkArgument(shardCount > 0, "shardCount must be positive");
         this.levelMinPriority = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
-        this.levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
         ImmutableList.Builder<CounterStat> counters = ImmutableList.builder();
 
         for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
             levelScheduledTime[i] = new AtomicLong();
             levelMinPriority[i] = new AtomicLong(-1);
-            levelWaitingSplits.add(new PriorityQueue<>());
+            levelWaitingSplitCount[i] = new AtomicInteger();
             counters.add(new CounterStat());
         }
 
         this.selectedLevelCounters = counters.build();
 
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+
         this.levelTimeMultiplier = levelTimeMultiplier;
     }
 
@@ -101,53 +128,99 @@ public class MultilevelSplitQueue
 
         split.setReady();
         int level = split.getPriority().getLevel();
-        lock.lock();
-        try {
-            if (levelWaitingSplits.get(level).isEmpty()) {
-                // Accesses to levelScheduledTime are not synchronized, so we have a data race
-                // here - our level time math will be off. However, the staleness is bounded by
-                // the fact that only running splits that complete during this computation
-                // can update the level time. Therefore, this is benign.
-                long level0Time = getLevel0TargetTime();
-                long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-                long delta = levelExpectedTime - levelScheduledTime[level].get();
-                levelScheduledTime[level].addAndGet(delta);
-            }
-
-            levelWaitingSplits.get(level).offer(split);
-            notEmpty.signal();
-        }
-        finally {
-            lock.unlock();
+        if (levelWaitingSplitCount[level].getAndIncrement() == 0) {
+            // Accesses to levelScheduledTime are not synchronized, so we have a data race
+            // here - our level time math will be off. However, the staleness is bounded by
+            // the fact that only running splits that complete during this computation
+            // can update the level time. Therefore, this is benign.
+            long level0Time = getLevel0TargetTime();
+            long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+            long delta = levelExpectedTime - levelScheduledTime[level].get();
+            levelScheduledTime[level].addAndGet(delta);
         }
+
+        shards[offerShard()].offer(split, level);
+        waitingSplitCount.incrementAndGet();
+        wakeIdleRunner();
     }
 
     public PrioritizedSplitRunner take()
             throws InterruptedException
     {
+        int homeShard = takeShard();
         while (true) {
-            lock.lockInterruptibly();
-            try {
-                PrioritizedSplitRunner result;
-                while ((result = pollSplit()) == null) {
-                    notEmpty.await();
-                }
+            PrioritizedSplitRunner result = pollSplit(homeShard);
+            if (result == null) {
+                awaitSplit();
+                continue;
+            }
 
-                if (result.updateLevelPriority()) {
-                    offer(result);
-                    continue;
-                }
+            if (result.updateLevelPriority()) {
+                offer(result);
+                continue;
+            }
 
-                int selectedLevel = result.getPriority().getLevel();
-                levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
-                selectedLevelCounters.get(selectedLevel).update(1);
+            int selectedLevel = result.getPriority().getLevel();
+            levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
+            selectedLevelCounters.get(selectedLevel).update(1);
 
-                return result;
+            // a runner is only woken once per offer, so pass the wake up on while splits remain
+            if (waitingSplitCount.get() > 0) {
+                wakeIdleRunner();
             }
-            finally {
-                lock.unlock();
+            return result;
+        }
+    }
+
+    private int offerShard()
+    {
+        Integer shard = runnerShard.get();
+        if (shard != null) {
+            return shard;
+        }
+        return floorMod(nextShard.getAndIncrement(), shards.length);
+    }
+
+    private int takeShard()
+    {
+        Integer shard = runnerShard.get();
+        if (shard == null) {
+            shard = floorMod(nextShard.getAndIncrement(), shards.length);
+            runnerShard.set(shard);
+        }
+        return shard;
+    }
+
+    private PrioritizedSplitRunner pollSplit(int homeShard)
+    {
+        // select the level from the waiting splits of all shards, so levels are
+        // scheduled the same way as with a single queue
+        int level = selectLevel(candidate -> levelWaitingSplitCount[candidate].get() > 0);
+        if (level >= 0) {
+            for (int i = 0; i < shards.length; i++) {
+                PrioritizedSplitRunner split = shards[(homeShard + i) % shards.length].poll(level);
+                if (split != null) {
+                    return polled(split);
+                }
+            }
+        }
+
+        // the level counts are updated before the split is added to a shard, so the selected
+        // level may have been empty; fall back to the level selection of each shard
+        for (int i = 0; i < shards.length; i++) {
+            PrioritizedSplitRunner split = shards[(homeShard + i) % shards.length].poll();
+            if (split != null) {
+                return polled(split);
             }
         }
+        return null;
+    }
+
+    private PrioritizedSplitRunner polled(PrioritizedSplitRunner split)
+    {
+        waitingSplitCount.decrementAndGet();
+        levelWaitingSplitCount[split.getPriority().getLevel()].decrementAndGet();
+        return split;
     }
 
     /**
@@ -155,17 +228,17 @@ public class MultilevelSplitQueue
      * using levelTimeMultiplier.
      * <p>
      * This function selects the level that has the the lowest ratio of actual to the target time
-     * with the objective of minimizing deviation from the target scheduled time. From this level,
-     * we pick the split with the lowest priority.
+     * with the objective of minimizing deviation from the target scheduled time.
+     *
+     * @return the selected level, or -1 if no level has waiting splits
      */
-    @GuardedBy("lock")
-    private PrioritizedSplitRunner pollSplit()
+    private int selectLevel(IntPredicate levelHasWaitingSplits)
     {
         long targetScheduledTime = getLevel0TargetTime();
         double worstRatio = 1;
         int selectedLevel = -1;
         for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-            if (!levelWaitingSplits.get(level).isEmpty()) {
+            if (levelHasWaitingSplits.test(level)) {
                 long levelTime = levelScheduledTime[level].get();
                 double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
                 if (selectedLevel == -1 || ratio > worstRatio) {
@@ -176,18 +249,46 @@ public class MultilevelSplitQueue
 
             targetScheduledTime /= levelTimeMultiplier;
         }
+        return selectedLevel;
+    }
 
-        if (selectedLevel == -1) {
-            return null;
+    private void awaitSplit()
+            throws InterruptedException
+    {
+        idleLock.lock();
+        try {
+            // the idle count is published before the waiting split count is checked, and offers
+            // publish the waiting split count before checking the idle count, so either this
+            // runner sees the split or the offer signals the condition while this runner waits
+            idleRunnerCount.incrementAndGet();
+            try {
+                while (waitingSplitCount.get() <= 0) {
+                    splitAvailable.await();
+                }
+            }
+            finally {
+                idleRunnerCount.decrementAndGet();
+            }
         }
+        finally {
+            idleLock.unlock();
+        }
+    }
 
-        PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
-        checkState(result != null, "pollSplit cannot return null");
-
-        return result;
+    private void wakeIdleRunner()
+    {
+        if (idleRunnerCount.get() == 0) {
+            return;
+        }
+        idleLock.lock();
+        try {
+            splitAvailable.signal();
+        }
+        finally {
+            idleLock.unlock();
+        }
     }
 
-    @GuardedBy("lock")
     private long getLevel0TargetTime()
     {
         long level0TargetTime = levelScheduledTime[0].get();
@@ -247,27 +348,15 @@ public class MultilevelSplitQueue
     public void remove(PrioritizedSplitRunner split)
     {
         checkArgument(split != null, "split is null");
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.remove(split);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (Shard shard : shards) {
+            shard.remove(split);
         }
     }
 
     public void removeAll(Collection<PrioritizedSplitRunner> splits)
     {
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.removeAll(splits);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (Shard shard : shards) {
+            shard.removeAll(splits);
         }
     }
 
@@ -279,17 +368,11 @@ public class MultilevelSplitQueue
 
     public int size()
     {
-        lock.lock();
-        try {
-            int total = 0;
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                total += level.size();
-            }
-            return total;
-        }
-        finally {
-            lock.unlock();
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.size();
         }
+        return total;
     }
 
     public static int computeLevel(long threadUsageNanos)
@@ -374,4 +457,125 @@ public class MultilevelSplitQueue
     {
         return selectedLevelCounters.get(4);
     }
+
+    private class Shard
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        @GuardedBy("lock")
+        private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        public Shard()
+        {
+            for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
+                levelWaitingSplits.add(new PriorityQueue<>());
+            }
+        }
+
+        public void offer(PrioritizedSplitRunner split, int level)
+        {
+            lock.lock();
+            try {
+                levelWaitingSplits.get(level).offer(split);
+                size.incrementAndGet();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public PrioritizedSplitRunner poll()
+        {
+            if (size.get() == 0) {
+                return null;
+            }
+
+            lock.lock();
+            try {
+                int selectedLevel = selectLevel(level -> !levelWaitingSplits.get(level).isEmpty());
+                if (selectedLevel == -1) {
+                    return null;
+                }
+                return pollLevel(selectedLevel);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public PrioritizedSplitRunner poll(int level)
+        {
+            if (size.get() == 0) {
+                return null;
+            }
+
+            lock.lock();
+            try {
+                if (levelWaitingSplits.get(level).isEmpty()) {
+                    return null;
+                }
+                return pollLevel(level);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        @GuardedBy("lock")
+        private PrioritizedSplitRunner pollLevel(int level)
+        {
+            PrioritizedSplitRunner result = levelWaitingSplits.get(level).poll();
+            checkState(result != null, "pollSplit cannot return null");
+            size.decrementAndGet();
+            return result;
+        }
+
+        public void remove(PrioritizedSplitRunner split)
+        {
+            lock.lock();
+            try {
+                for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                    if (levelWaitingSplits.get(level).remove(split)) {
+                        removed(level, 1);
+                    }
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public void removeAll(Collection<PrioritizedSplitRunner> splits)
+        {
+            lock.lock();
+            try {
+                for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                    PriorityQueue<PrioritizedSplitRunner> waitingSplits = levelWaitingSplits.get(level);
+                    int sizeBefore = waitingSplits.size();
+                    waitingSplits.removeAll(splits);
+                    removed(level, sizeBefore - waitingSplits.size());
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        @GuardedBy("lock")
+        private void removed(int level, int count)
+        {
+            if (count > 0) {
+                size.addAndGet(-count);
+                waitingSplitCount.addAndGet(-count);
+                levelWaitingSplitCount[level].addAndGet(-count);
+            }
+        }
+
+        public int size()
+        {
+            return size.get();
+        }
+    }
 }
@@ -13,6 +13,7 @@
  */
 package io.prestosql.execution.resourceGroups;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
@@ -29,9 +30,11 @@ import io.prestosql.spi.resourcegroups.SchedulingPolicy;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -85,6 +88,7 @@ public class InternalResourceGroup
     private final ResourceGroupId id;
     private final BiConsumer<InternalResourceGroup, Boolean> jmxExportListener;
     private final Executor executor;
+    private final QueryMemoryAdmissionController admissionController;
 
     // Configuration
     // =============
@@ -122,6 +126,10 @@ public class InternalResourceGroup
     private final Set<InternalResourceGroup> dirtySubGroups = new HashSet<>();
     @GuardedBy("root")
     private UpdateablePriorityQueue<ManagedQueryExecution> queuedQueries = new FifoQueue<>();
+    // Queued query that was not admitted by the memory admission controller. It stays in queuedQueries but is retried before any other query.
+    @GuardedBy("root")
+    @Nullable
+    private ManagedQueryExecution admissionBlockedQuery;
     @GuardedBy("root")
     private final Set<ManagedQueryExecution> runningQueries = new HashSet<>();
     @GuardedBy("root")
@@ -138,11 +146,17 @@ public class InternalResourceGroup
     @GuardedBy("root")
     private final CounterStat timeBetweenStartsSec = new CounterStat();
 
-    protected InternalResourceGroup(Optional<InternalResourceGroup> parent, String name, BiConsumer<InternalResourceGroup, Boolean> jmxExportListener, Executor executor)
+    protected InternalResourceGroup(
+            Optional<InternalResourceGroup> parent,
+            String name,
+            BiConsumer<InternalResourceGroup, Boolean> jmxExportListener,
+            Executor executor,
+            QueryMemoryAdmissionController admissionController)
     {
         this.parent = requireNonNull(parent, "parent is null");
         this.jmxExportListener = requireNonNull(jmxExportListener, "jmxExportListener is null");
         this.executor = requireNonNull(executor, "executor is null");
+        this.admissionController = requireNonNull(admissionController, "admissionController is null");
         requireNonNull(name, "name is null");
         if (parent.isPresent()) {
             id = new ResourceGroupId(parent.get().id, name);
@@ -571,7 +585,7 @@ public class InternalResourceGroup
             if (subGroups.containsKey(name)) {
                 return subGroups.get(name);
             }
-            InternalResourceGroup subGroup = new InternalResourceGroup(Optional.of(this), name, jmxExportListener, executor);
+            InternalResourceGroup subGroup = new InternalResourceGroup(Optional.of(this), name, jmxExportListener, executor, admissionController);
             // Sub group must use query priority to ensure ordering
             if (schedulingPolicy == QUERY_PRIORITY) {
                 subGroup.setSchedulingPolicy(QUERY_PRIORITY);
@@ -599,6 +613,9 @@ public class InternalResourceGroup
                 }
                 group = group.parent.get();
             }
+            // queries that are expected to overflow the cluster memory are queued even if the group can run more,
+            // and new queries must not overtake a query that is still waiting for admission
+            canRun = canRun && admissionBlockedQuery == null && admissionController.tryAdmit(query);
             if (!canQueue && !canRun) {
                 query.fail(new QueryQueueFullException(id));
                 return;
@@ -673,6 +690,7 @@ public class InternalResourceGroup
                 // Query has already been cleaned up
                 return;
             }
+            admissionController.queryFinished(query);
             // Only count the CPU time if the query succeeded, or the failure was the fault of the user
             if (!query.getErrorCode().isPresent() || query.getErrorCode().get().getType() == USER_ERROR) {
                 InternalResourceGroup group = this;
@@ -691,6 +709,9 @@ public class InternalResourceGroup
             }
             else {
                 queuedQueries.remove(query);
+                if (query == admissionBlockedQuery) {
+                    admissionBlockedQuery = null;
+                }
                 InternalResourceGroup group = this;
                 while (group.parent.isPresent()) {
                     group.parent.get().descendantQueuedQueries--;
@@ -745,6 +766,17 @@ public class InternalResourceGroup
         }
     }
 
+    private ManagedQueryExecution pollQueuedQuery()
+    {
+        checkState(Thread.holdsLock(root), "Must hold lock to poll queued queries");
+        if (admissionBlockedQuery != null && queuedQueries.contains(admissionBlockedQuery)) {
+            queuedQueries.remove(admissionBlockedQuery);
+            return admissionBlockedQuery;
+        }
+        admissionBlockedQuery = null;
+        return queuedQueries.poll();
+    }
+
     protected boolean internalStartNext()
     {
         checkState(Thread.holdsLock(root), "Must hold lock to find next query");
@@ -752,32 +784,53 @@ public class InternalResourceGroup
             if (!canRunMore()) {
                 return false;
             }
-            ManagedQueryExecution query = queuedQueries.poll();
+            ManagedQueryExecution query = pollQueuedQuery();
             if (query != null) {
+                if (!admissionController.tryAdmit(query)) {
+                    // not all queues support peek, so put the query back and remember it, so that
+                    // it is retried before any query queued after it on the next refresh
+                    queuedQueries.addOrUpdate(query, getQueryPriority(query.getSession()));
+                    admissionBlockedQuery = query;
+                    return false;
+                }
+                admissionBlockedQuery = null;
                 startInBackground(query);
                 return true;
             }
 
-            // Remove even if the sub group still has queued queries, so that it goes to the back of the queue
-            InternalResourceGroup subGroup = eligibleSubGroups.poll();
-            if (subGroup == null) {
-                return false;
-            }
-            boolean started = subGroup.internalStartNext();
-            checkState(started, "Eligible sub group had no queries to run");
+            List<InternalResourceGroup> blockedSubGroups = new ArrayList<>();
+            try {
+                InternalResourceGroup subGroup;
+                while (true) {
+                    // Remove even if the sub group still has queued queries, so that it goes to the back of the queue
+                    subGroup = eligibleSubGroups.poll();
+                    if (subGroup == null) {
+                        return false;
+                    }
+                    if (subGroup.internalStartNext()) {
+                        break;
+                    }
+                    // the next query of the sub group does not fit in memory, which must not hold back its siblings
+                    blockedSubGroups.add(subGroup);
+                }
 
-            long currentTime = System.currentTimeMillis();
-            if (lastStartMillis != 0) {
-                timeBetweenStartsSec.update(Math.max(0, (currentTime - lastStartMillis) / 1000));
-            }
-            lastStartMillis = currentTime;
+                long currentTime = System.currentTimeMillis();
+                if (lastStartMillis != 0) {
+                    timeBetweenStartsSec.update(Math.max(0, (currentTime - lastStartMillis) / 1000));
+                }
+                lastStartMillis = currentTime;
 
-            descendantQueuedQueries--;
-            // Don't call updateEligibility here, as we're in a recursive call, and don't want to repeatedly update our ancestors.
-            if (subGroup.isEligibleToStartNext()) {
-                addOrUpdateSubGroup(subGroup);
+                descendantQueuedQueries--;
+                // Don't call updateEligibility here, as we're in a recursive call, and don't want to repeatedly update our ancestors.
+                if (subGroup.isEligibleToStartNext()) {
+                    addOrUpdateSubGroup(subGroup);
+                }
+                return true;
+            }
+            finally {
+                // the blocked sub groups are tried again on the next call
+                blockedSubGroups.forEach(this::addOrUpdateSubGroup);
             }
-            return true;
         }
     }
 
@@ -916,9 +969,15 @@ public class InternalResourceGroup
     public static final class RootInternalResourceGroup
             extends InternalResourceGroup
     {
+        @VisibleForTesting
         public RootInternalResourceGroup(String name, BiConsumer<InternalResourceGroup, Boolean> jmxExportListener, Executor executor)
         {
-            super(Optional.empty(), name, jmxExportListener, executor);
+            this(name, jmxExportListener, executor, new QueryMemoryAdmissionController(false, 1.0, 1));
+        }
+
+        public RootInternalResourceGroup(String name, BiConsumer<InternalResourceGroup, Boolean> jmxExportListener, Executor executor, QueryMemoryAdmissionController admissionController)
+        {
+            super(Optional.empty(), name, jmxExportListener, executor, admissionController);
         }
 
         public synchronized void processQueuedQueries()
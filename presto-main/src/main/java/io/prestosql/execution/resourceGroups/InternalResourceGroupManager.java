@@ -56,6 +56,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.memory.LocalMemoryManager.GENERAL_POOL;
 import static io.prestosql.spi.StandardErrorCode.QUERY_REJECTED;
 import static io.prestosql.util.PropertiesUtil.loadProperties;
 import static java.lang.String.format;
@@ -78,14 +79,24 @@ public final class InternalResourceGroupManager<C>
     private final ResourceGroupConfigurationManagerContext configurationManagerContext;
     private final ResourceGroupConfigurationManager<?> legacyManager;
     private final MBeanExporter exporter;
+    private final QueryMemoryAdmissionController admissionController;
     private final AtomicBoolean started = new AtomicBoolean();
     private final AtomicLong lastCpuQuotaGenerationNanos = new AtomicLong(System.nanoTime());
     private final Map<String, ResourceGroupConfigurationManagerFactory> configurationManagerFactories = new ConcurrentHashMap<>();
 
     @Inject
-    public InternalResourceGroupManager(LegacyResourceGroupConfigurationManager legacyManager, ClusterMemoryPoolManager memoryPoolManager, NodeInfo nodeInfo, MBeanExporter exporter)
+    public InternalResourceGroupManager(
+            LegacyResourceGroupConfigurationManager legacyManager,
+            ClusterMemoryPoolManager memoryPoolManager,
+            QueryMemoryAdmissionController admissionController,
+            NodeInfo nodeInfo,
+            MBeanExporter exporter)
     {
         this.exporter = requireNonNull(exporter, "exporter is null");
+        this.admissionController = requireNonNull(admissionController, "admissionController is null");
+        if (admissionController.isEnabled()) {
+            memoryPoolManager.addChangeListener(GENERAL_POOL, admissionController::updateMemoryPool);
+        }
         this.configurationManagerContext = new ResourceGroupConfigurationManagerContextInstance(memoryPoolManager, nodeInfo.getEnvironment());
         this.legacyManager = requireNonNull(legacyManager, "legacyManager is null");
         this.configurationManager = new AtomicReference<>(cast(legacyManager));
@@ -225,7 +236,7 @@ public final class InternalResourceGroupManager<C>
                 group = parent.getOrCreateSubGroup(id.getLastSegment());
             }
             else {
-                RootInternalResourceGroup root = new RootInternalResourceGroup(id.getSegments().get(0), this::exportGroup, executor);
+                RootInternalResourceGroup root = new RootInternalResourceGroup(id.getSegments().get(0), this::exportGroup, executor, admissionController);
                 group = root;
                 rootGroups.add(root);
             }
@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resourceGroups;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.prestosql.execution.ManagedQueryExecution;
+import io.prestosql.memory.MemoryManagerConfig;
+import io.prestosql.server.BasicQueryInfo;
+import io.prestosql.spi.memory.MemoryPoolInfo;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Delays starting queries that are expected to overflow the general memory pool.
+ * The expected peak memory of a query is the peak user memory of the last completed
+ * query with the same fingerprint. The memory a started query has not reserved yet,
+ * but is expected to reserve, is counted against the pool until the query finishes.
+ */
+@ThreadSafe
+public class QueryMemoryAdmissionController
+{
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final double maxPoolUsage;
+    private final Cache<String, Long> peakMemoryByFingerprint;
+
+    @GuardedBy("this")
+    private final Map<ManagedQueryExecution, Long> admittedQueries = new HashMap<>();
+    @GuardedBy("this")
+    private long poolMaxBytes = Long.MAX_VALUE;
+    @GuardedBy("this")
+    private long poolReservedBytes;
+    @GuardedBy("this")
+    private long delayedAdmissions;
+
+    @Inject
+    public QueryMemoryAdmissionController(MemoryManagerConfig config)
+    {
+        this(config.isMemoryAdmissionEnabled(), config.getMemoryAdmissionMaxPoolUsage(), config.getMemoryAdmissionMaxTrackedQueries());
+    }
+
+    @VisibleForTesting
+    QueryMemoryAdmissionController(boolean enabled, double maxPoolUsage, int maxTrackedQueries)
+    {
+        checkArgument(maxPoolUsage > 0 && maxPoolUsage <= 1, "maxPoolUsage must be in (0, 1]");
+        checkArgument(maxTrackedQueries > 0, "maxTrackedQueries must be positive");
+        this.enabled = enabled;
+        this.maxPoolUsage = maxPoolUsage;
+        this.peakMemoryByFingerprint = CacheBuilder.newBuilder()
+                .maximumSize(maxTrackedQueries)
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Returns true and accounts for the expected memory of the query if it can be started.
+     * A query is always admitted when no other admitted query is running, so a query that
+     * is expected to need more than the whole pool does not wait forever.
+     */
+    public synchronized boolean tryAdmit(ManagedQueryExecution query)
+    {
+        requireNonNull(query, "query is null");
+        if (!enabled) {
+            return true;
+        }
+
+        long predictedBytes = getPredictedPeakMemory(query);
+        if (!admittedQueries.isEmpty() && predictedBytes > getAvailableBytes()) {
+            delayedAdmissions++;
+            return false;
+        }
+        admittedQueries.put(query, predictedBytes);
+        return true;
+    }
+
+    public synchronized void queryFinished(ManagedQueryExecution query)
+    {
+        requireNonNull(query, "query is null");
+        if (!enabled || admittedQueries.remove(query) == null) {
+            return;
+        }
+
+        BasicQueryInfo queryInfo = query.getBasicQueryInfo();
+        long peakBytes = queryInfo.getQueryStats().getPeakUserMemoryReservation().toBytes();
+        if (peakBytes > 0) {
+            peakMemoryByFingerprint.put(fingerprint(queryInfo.getQuery()), peakBytes);
+        }
+    }
+
+    public synchronized void updateMemoryPool(MemoryPoolInfo poolInfo)
+    {
+        requireNonNull(poolInfo, "poolInfo is null");
+        poolMaxBytes = poolInfo.getMaxBytes();
+        poolReservedBytes = poolInfo.getReservedBytes() + poolInfo.getReservedRevocableBytes();
+    }
+
+    @Managed
+    public synchronized long getDelayedAdmissions()
+    {
+        return delayedAdmissions;
+    }
+
+    @Managed
+    public synchronized long getAdmittedQueries()
+    {
+        return admittedQueries.size();
+    }
+
+    @Managed
+    public long getTrackedQueryFingerprints()
+    {
+        return peakMemoryByFingerprint.size();
+    }
+
+    @GuardedBy("this")
+    private long getAvailableBytes()
+    {
+        if (poolMaxBytes == Long.MAX_VALUE) {
+            // no memory pool information has been received yet
+            return Long.MAX_VALUE;
+        }
+        long expectedBytes = poolReservedBytes;
+        for (Map.Entry<ManagedQueryExecution, Long> entry : admittedQueries.entrySet()) {
+            long reservedBytes = entry.getKey().getUserMemoryReservation().toBytes();
+            expectedBytes += Math.max(0, entry.getValue() - reservedBytes);
+        }
+        return (long) (poolMaxBytes * maxPoolUsage) - expectedBytes;
+    }
+
+    private long getPredictedPeakMemory(ManagedQueryExecution query)
+    {
+        Long peakBytes = peakMemoryByFingerprint.getIfPresent(fingerprint(query.getBasicQueryInfo().getQuery()));
+        return peakBytes == null ? 0 : peakBytes;
+    }
+
+    @VisibleForTesting
+    static String fingerprint(String query)
+    {
+        String fingerprint = STRING_LITERAL.matcher(query).replaceAll("?");
+        fingerprint = NUMERIC_LITERAL.matcher(fingerprint).replaceAll("?");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+}
@@ -17,6 +17,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
+import io.prestosql.operator.FragmentResultCacheConfig;
 import io.prestosql.spi.memory.MemoryPoolId;
 import io.prestosql.spi.memory.MemoryPoolInfo;
 
@@ -43,20 +44,32 @@ public final class LocalMemoryManager
     private DataSize maxMemory;
     private Map<MemoryPoolId, MemoryPool> pools;
 
-    @Inject
+    @VisibleForTesting
     public LocalMemoryManager(NodeMemoryConfig config, ReservedSystemMemoryConfig systemMemoryConfig)
+    {
+        this(config, systemMemoryConfig, 0);
+    }
+
+    @Inject
+    public LocalMemoryManager(NodeMemoryConfig config, ReservedSystemMemoryConfig systemMemoryConfig, FragmentResultCacheConfig fragmentResultCacheConfig)
+    {
+        this(config, systemMemoryConfig, requireNonNull(fragmentResultCacheConfig, "fragmentResultCacheConfig is null").getMaxInMemorySize().toBytes());
+    }
+
+    private LocalMemoryManager(NodeMemoryConfig config, ReservedSystemMemoryConfig systemMemoryConfig, long fragmentResultCacheMemory)
     {
         requireNonNull(config, "config is null");
+        checkArgument(fragmentResultCacheMemory >= 0, "fragmentResultCacheMemory is negative");
         long availableMemory = Runtime.getRuntime().maxMemory();
         if (config.isLegacySystemPoolEnabled()) {
-            configureLegacyMemoryPools(config, systemMemoryConfig, availableMemory);
+            configureLegacyMemoryPools(config, systemMemoryConfig, availableMemory, fragmentResultCacheMemory);
         }
         else {
-            configureMemoryPools(config, availableMemory);
+            configureMemoryPools(config, availableMemory, fragmentResultCacheMemory);
         }
     }
 
-    private void configureMemoryPools(NodeMemoryConfig config, long availableMemory)
+    private void configureMemoryPools(NodeMemoryConfig config, long availableMemory, long fragmentResultCacheMemory)
     {
         validateHeapHeadroom(config, availableMemory);
         maxMemory = new DataSize(availableMemory - config.getHeapHeadroom().toBytes(), BYTE);
@@ -71,12 +84,14 @@ public final class LocalMemoryManager
             builder.put(RESERVED_POOL, new MemoryPool(RESERVED_POOL, config.getMaxQueryTotalMemoryPerNode()));
             generalPoolSize -= config.getMaxQueryTotalMemoryPerNode().toBytes();
         }
+        // the fragment result cache does not belong to any query, so its memory is set aside from the general pool
+        generalPoolSize -= fragmentResultCacheMemory;
         verify(generalPoolSize > 0, "general memory pool size is 0");
         builder.put(GENERAL_POOL, new MemoryPool(GENERAL_POOL, new DataSize(generalPoolSize, BYTE)));
         this.pools = builder.build();
     }
 
-    private void configureLegacyMemoryPools(NodeMemoryConfig config, ReservedSystemMemoryConfig systemMemoryConfig, long availableMemory)
+    private void configureLegacyMemoryPools(NodeMemoryConfig config, ReservedSystemMemoryConfig systemMemoryConfig, long availableMemory, long fragmentResultCacheMemory)
     {
         checkArgument(systemMemoryConfig.getReservedSystemMemory().toBytes() < availableMemory, "Reserved memory %s is greater than available heap %s", systemMemoryConfig.getReservedSystemMemory(), new DataSize(availableMemory, BYTE));
         maxMemory = new DataSize(availableMemory - systemMemoryConfig.getReservedSystemMemory().toBytes(), BYTE);
@@ -88,6 +103,8 @@ public final class LocalMemoryManager
             builder.put(RESERVED_POOL, new MemoryPool(RESERVED_POOL, config.getMaxQueryMemoryPerNode()));
             generalPoolSize -= config.getMaxQueryMemoryPerNode().toBytes();
         }
+        generalPoolSize -= fragmentResultCacheMemory;
+        verify(generalPoolSize > 0, "general memory pool size is 0");
         builder.put(GENERAL_POOL, new MemoryPool(GENERAL_POOL, new DataSize(generalPoolSize, BYTE)));
         builder.put(SYSTEM_POOL, new MemoryPool(SYSTEM_POOL, systemMemoryConfig.getReservedSystemMemory()));
         this.pools = builder.build();
@@ -20,6 +20,9 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
@@ -37,6 +40,9 @@ public class MemoryManagerConfig
     private DataSize maxQueryTotalMemory;
     private String lowMemoryKillerPolicy = LowMemoryKillerPolicy.NONE;
     private Duration killOnOutOfMemoryDelay = new Duration(5, MINUTES);
+    private boolean memoryAdmissionEnabled;
+    private double memoryAdmissionMaxPoolUsage = 0.9;
+    private int memoryAdmissionMaxTrackedQueries = 10_000;
 
     public String getLowMemoryKillerPolicy()
     {
@@ -94,6 +100,48 @@ public class MemoryManagerConfig
         return this;
     }
 
+    public boolean isMemoryAdmissionEnabled()
+    {
+        return memoryAdmissionEnabled;
+    }
+
+    @Config("query.memory-admission.enabled")
+    @ConfigDescription("Delay starting queries whose expected peak memory does not fit in the general pool")
+    public MemoryManagerConfig setMemoryAdmissionEnabled(boolean memoryAdmissionEnabled)
+    {
+        this.memoryAdmissionEnabled = memoryAdmissionEnabled;
+        return this;
+    }
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax("1.0")
+    public double getMemoryAdmissionMaxPoolUsage()
+    {
+        return memoryAdmissionMaxPoolUsage;
+    }
+
+    @Config("query.memory-admission.max-pool-usage")
+    @ConfigDescription("Fraction of the general pool that running queries are expected to use before new queries are delayed")
+    public MemoryManagerConfig setMemoryAdmissionMaxPoolUsage(double memoryAdmissionMaxPoolUsage)
+    {
+        this.memoryAdmissionMaxPoolUsage = memoryAdmissionMaxPoolUsage;
+        return this;
+    }
+
+    @Min(1)
+    public int getMemoryAdmissionMaxTrackedQueries()
+    {
+        return memoryAdmissionMaxTrackedQueries;
+    }
+
+    @Config("query.memory-admission.max-tracked-queries")
+    @ConfigDescription("Number of query fingerprints for which the peak memory is remembered")
+    public MemoryManagerConfig setMemoryAdmissionMaxTrackedQueries(int memoryAdmissionMaxTrackedQueries)
+    {
+        this.memoryAdmissionMaxTrackedQueries = memoryAdmissionMaxTrackedQueries;
+        return this;
+    }
+
     public static class LowMemoryKillerPolicy
     {
         public static final String NONE = "none";
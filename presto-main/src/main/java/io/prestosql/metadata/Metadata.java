@@ -101,6 +101,11 @@ public interface Metadata
      */
     TableStatistics getTableStatistics(Session session, TableHandle tableHandle, Constraint<ColumnHandle> constraint);
 
+    /**
+     * Return a version of the table data that changes whenever the data is modified, if the connector tracks it.
+     */
+    OptionalLong getTableVersion(Session session, TableHandle tableHandle);
+
     /**
      * Get the names that match the specified table prefix (never null).
      */
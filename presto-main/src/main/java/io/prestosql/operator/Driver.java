@@ -25,6 +25,7 @@ import io.airlift.units.Duration;
 import io.prestosql.ScheduledSplit;
 import io.prestosql.TaskSource;
 import io.prestosql.metadata.Split;
+import io.prestosql.operator.FragmentResultCacheManager.CacheKey;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.UpdatablePageSource;
@@ -35,6 +36,7 @@ import javax.annotation.concurrent.GuardedBy;
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -47,6 +49,7 @@ import java.util.function.Supplier;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.operator.Operator.NOT_BLOCKED;
@@ -72,6 +75,7 @@ public class Driver
     private final List<Operator> allOperators;
     private final Optional<SourceOperator> sourceOperator;
     private final Optional<DeleteOperator> deleteOperator;
+    private final Optional<FragmentResultCacheContext> fragmentResultCacheContext;
 
     // This variable acts as a staging area. When new splits (encapsulated in TaskSource) are
     // provided to a Driver, the Driver will not process them right away. Instead, the splits are
@@ -87,6 +91,13 @@ public class Driver
     @GuardedBy("exclusiveLock")
     private TaskSource currentTaskSource;
 
+    // pages read from the fragment result cache, which replace the output of all operators but the last
+    @GuardedBy("exclusiveLock")
+    private Iterator<Page> cachedPages;
+
+    @GuardedBy("exclusiveLock")
+    private FragmentResultCacheRecorder cacheRecorder;
+
     private final AtomicReference<SettableFuture<?>> driverBlockedFuture = new AtomicReference<>();
 
     private enum State
@@ -95,10 +106,16 @@ public class Driver
     }
 
     public static Driver createDriver(DriverContext driverContext, List<Operator> operators)
+    {
+        return createDriver(driverContext, operators, Optional.empty());
+    }
+
+    public static Driver createDriver(DriverContext driverContext, List<Operator> operators, Optional<FragmentResultCacheContext> fragmentResultCacheContext)
     {
         requireNonNull(driverContext, "driverContext is null");
         requireNonNull(operators, "operators is null");
-        Driver driver = new Driver(driverContext, operators);
+        requireNonNull(fragmentResultCacheContext, "fragmentResultCacheContext is null");
+        Driver driver = new Driver(driverContext, operators, fragmentResultCacheContext);
         driver.initialize();
         return driver;
     }
@@ -116,7 +133,7 @@ public class Driver
         return createDriver(driverContext, operators);
     }
 
-    private Driver(DriverContext driverContext, List<Operator> operators)
+    private Driver(DriverContext driverContext, List<Operator> operators, Optional<FragmentResultCacheContext> fragmentResultCacheContext)
     {
         this.driverContext = requireNonNull(driverContext, "driverContext is null");
         this.allOperators = ImmutableList.copyOf(requireNonNull(operators, "operators is null"));
@@ -138,6 +155,7 @@ public class Driver
         }
         this.sourceOperator = sourceOperator;
         this.deleteOperator = deleteOperator;
+        this.fragmentResultCacheContext = fragmentResultCacheContext;
 
         currentTaskSource = sourceOperator.map(operator -> new TaskSource(operator.getSourceId(), ImmutableSet.of(), false)).orElse(null);
         // initially the driverBlockedFuture is not blocked (it is completed)
@@ -256,9 +274,34 @@ public class Driver
             sourceOperator.noMoreSplits();
         }
 
+        // results are cached per split, so only drivers that process a single split can use the cache
+        if (fragmentResultCacheContext.isPresent() && currentTaskSource.getSplits().isEmpty() && newSource.isNoMoreSplits() && newSplits.size() == 1) {
+            startFragmentResultCaching(fragmentResultCacheContext.get(), getOnlyElement(newSplits).getSplit());
+        }
+
         currentTaskSource = newSource;
     }
 
+    @GuardedBy("exclusiveLock")
+    private void startFragmentResultCaching(FragmentResultCacheContext context, Split split)
+    {
+        Optional<CacheKey> key = context.createKey(split);
+        if (!key.isPresent()) {
+            return;
+        }
+
+        Optional<Iterator<Page>> pages = context.getCachedPages(key.get());
+        if (pages.isPresent()) {
+            cachedPages = pages.get();
+            return;
+        }
+
+        Operator outputOperator = activeOperators.get(activeOperators.size() - 1);
+        cacheRecorder = context.createRecorder(
+                key.get(),
+                outputOperator.getOperatorContext().newLocalSystemMemoryContext(FragmentResultCacheRecorder.class.getSimpleName()));
+    }
+
     public ListenableFuture<?> processFor(Duration duration)
     {
         checkLockNotHeld("Can not process for a duration while holding the driver lock");
@@ -353,6 +396,10 @@ public class Driver
         try {
             processNewSources();
 
+            if (cachedPages != null) {
+                return processCachedPages(operationTimer);
+            }
+
             // If there is only one operator, finish it
             // Some operators (LookupJoinOperator and HashBuildOperator) are broken and requires finish to be called continuously
             // TODO remove the second part of the if statement, when these operators are fixed
@@ -381,6 +428,9 @@ public class Driver
 
                     // if we got an output page, add it to the next operator
                     if (page != null && page.getPositionCount() != 0) {
+                        if (cacheRecorder != null && i == activeOperators.size() - 2) {
+                            cacheRecorder.addPage(page);
+                        }
                         next.addInput(page);
                         next.getOperatorContext().recordAddInput(operationTimer, page);
                         movedPage = true;
@@ -396,6 +446,12 @@ public class Driver
                     // let next operator know there will be no more data
                     next.finish();
                     next.getOperatorContext().recordFinish(operationTimer);
+
+                    // all pages for the split have been passed to the output operator
+                    if (cacheRecorder != null && i == activeOperators.size() - 2) {
+                        cacheRecorder.finish();
+                        cacheRecorder = null;
+                    }
                 }
             }
 
@@ -465,6 +521,32 @@ public class Driver
         }
     }
 
+    @GuardedBy("exclusiveLock")
+    private ListenableFuture<?> processCachedPages(OperationTimer operationTimer)
+    {
+        Operator outputOperator = activeOperators.get(activeOperators.size() - 1);
+
+        Optional<ListenableFuture<?>> blocked = getBlockedFuture(outputOperator);
+        if (blocked.isPresent()) {
+            driverContext.recordBlocked(blocked.get());
+            outputOperator.getOperatorContext().recordBlocked(blocked.get());
+            return blocked.get();
+        }
+
+        if (outputOperator.needsInput()) {
+            if (cachedPages.hasNext()) {
+                Page page = cachedPages.next();
+                outputOperator.addInput(page);
+                outputOperator.getOperatorContext().recordAddInput(operationTimer, page);
+            }
+            else {
+                outputOperator.finish();
+                outputOperator.getOperatorContext().recordFinish(operationTimer);
+            }
+        }
+        return NOT_BLOCKED;
+    }
+
     @GuardedBy("exclusiveLock")
     private void handleMemoryRevoke()
     {
@@ -506,6 +588,10 @@ public class Driver
         // if we get an error while closing a driver, record it and we will throw it at the end
         Throwable inFlightException = null;
         try {
+            if (cacheRecorder != null) {
+                cacheRecorder.close();
+                cacheRecorder = null;
+            }
             inFlightException = closeAndDestroyOperators(activeOperators);
             if (driverContext.getMemoryUsage() > 0) {
                 log.error("Driver still has memory reserved after freeing all operator memory.");
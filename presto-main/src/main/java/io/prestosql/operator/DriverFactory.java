@@ -39,12 +39,25 @@ public class DriverFactory
     private final Optional<PlanNodeId> sourceId;
     private final OptionalInt driverInstances;
     private final PipelineExecutionStrategy pipelineExecutionStrategy;
+    private final Optional<FragmentResultCacheContext> fragmentResultCacheContext;
 
     private boolean closed;
     private final Set<Lifespan> encounteredLifespans = new HashSet<>();
     private final Set<Lifespan> closedLifespans = new HashSet<>();
 
     public DriverFactory(int pipelineId, boolean inputDriver, boolean outputDriver, List<OperatorFactory> operatorFactories, OptionalInt driverInstances, PipelineExecutionStrategy pipelineExecutionStrategy)
+    {
+        this(pipelineId, inputDriver, outputDriver, operatorFactories, driverInstances, pipelineExecutionStrategy, Optional.empty());
+    }
+
+    public DriverFactory(
+            int pipelineId,
+            boolean inputDriver,
+            boolean outputDriver,
+            List<OperatorFactory> operatorFactories,
+            OptionalInt driverInstances,
+            PipelineExecutionStrategy pipelineExecutionStrategy,
+            Optional<FragmentResultCacheContext> fragmentResultCacheContext)
     {
         this.pipelineId = pipelineId;
         this.inputDriver = inputDriver;
@@ -53,6 +66,7 @@ public class DriverFactory
         checkArgument(!operatorFactories.isEmpty(), "There must be at least one operator");
         this.driverInstances = requireNonNull(driverInstances, "driverInstances is null");
         this.pipelineExecutionStrategy = requireNonNull(pipelineExecutionStrategy, "pipelineExecutionStrategy is null");
+        this.fragmentResultCacheContext = requireNonNull(fragmentResultCacheContext, "fragmentResultCacheContext is null");
 
         List<PlanNodeId> sourceIds = operatorFactories.stream()
                 .filter(SourceOperatorFactory.class::isInstance)
@@ -103,6 +117,11 @@ public class DriverFactory
         return operatorFactories;
     }
 
+    public Optional<FragmentResultCacheContext> getFragmentResultCacheContext()
+    {
+        return fragmentResultCacheContext;
+    }
+
     public synchronized Driver createDriver(DriverContext driverContext)
     {
         checkState(!closed, "DriverFactory is already closed");
@@ -114,7 +133,7 @@ public class DriverFactory
             Operator operator = operatorFactory.createOperator(driverContext);
             operators.add(operator);
         }
-        return Driver.createDriver(driverContext, operators.build());
+        return Driver.createDriver(driverContext, operators.build(), fragmentResultCacheContext);
     }
 
     public synchronized void noMoreDrivers(Lifespan lifespan)
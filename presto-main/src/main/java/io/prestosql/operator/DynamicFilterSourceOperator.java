@@ -0,0 +1,291 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.TypeUtils.readNativeValue;
+import static java.lang.Float.intBitsToFloat;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Passes its input through unchanged while collecting a summary of the values
+ * of the join key channels. The summary is a discrete set of values when the
+ * number of distinct values is small, and a min/max range otherwise. Once all
+ * the operators created by the factory are finished, the summaries are unioned
+ * and published as a {@link TupleDomain} keyed by the index of the channel in
+ * the list of filter channels.
+ */
+public class DynamicFilterSourceOperator
+        implements Operator
+{
+    public static class DynamicFilterSourceOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final Consumer<TupleDomain<Integer>> dynamicPredicateConsumer;
+        private final List<Integer> channels;
+        private final List<Type> types;
+        private final int maxDistinctValues;
+
+        private final List<TupleDomain<Integer>> summaries = new ArrayList<>();
+        private int createdOperators;
+        private boolean closed;
+
+        public DynamicFilterSourceOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                Consumer<TupleDomain<Integer>> dynamicPredicateConsumer,
+                List<Integer> channels,
+                List<Type> types,
+                int maxDistinctValues)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.dynamicPredicateConsumer = requireNonNull(dynamicPredicateConsumer, "dynamicPredicateConsumer is null");
+            this.channels = ImmutableList.copyOf(requireNonNull(channels, "channels is null"));
+            this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+            checkArgument(channels.size() == types.size(), "channels and types must have the same size");
+            checkArgument(maxDistinctValues >= 0, "maxDistinctValues must not be negative");
+            this.maxDistinctValues = maxDistinctValues;
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, DynamicFilterSourceOperator.class.getSimpleName());
+            synchronized (this) {
+                checkState(!closed, "Factory is already closed");
+                createdOperators++;
+            }
+            return new DynamicFilterSourceOperator(operatorContext, this::addSummary, channels, types, maxDistinctValues);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            synchronized (this) {
+                checkState(!closed, "Factory is already closed");
+                closed = true;
+            }
+            publishIfComplete();
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Dynamic filter source can not be duplicated");
+        }
+
+        private void addSummary(TupleDomain<Integer> summary)
+        {
+            synchronized (this) {
+                summaries.add(summary);
+            }
+            publishIfComplete();
+        }
+
+        private void publishIfComplete()
+        {
+            TupleDomain<Integer> result;
+            synchronized (this) {
+                if (!closed || summaries.size() < createdOperators) {
+                    return;
+                }
+                // no build side driver was ever created, so there is nothing to filter on
+                result = summaries.isEmpty() ? TupleDomain.none() : TupleDomain.columnWiseUnion(summaries);
+                // release the per-driver summaries, and make sure we publish only once
+                summaries.clear();
+                createdOperators = -1;
+            }
+            dynamicPredicateConsumer.accept(result);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final Consumer<TupleDomain<Integer>> summaryConsumer;
+    private final List<Integer> channels;
+    private final List<Type> types;
+    private final int maxDistinctValues;
+
+    // null when the channel has too many distinct values, or values that can not be hashed
+    private final List<Set<Object>> distinctValues;
+    private final Block[] minValues;
+    private final Block[] maxValues;
+    private final boolean[] hasValues;
+
+    private boolean finished;
+    private Page current;
+
+    public DynamicFilterSourceOperator(
+            OperatorContext operatorContext,
+            Consumer<TupleDomain<Integer>> summaryConsumer,
+            List<Integer> channels,
+            List<Type> types,
+            int maxDistinctValues)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.summaryConsumer = requireNonNull(summaryConsumer, "summaryConsumer is null");
+        this.channels = ImmutableList.copyOf(requireNonNull(channels, "channels is null"));
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.maxDistinctValues = maxDistinctValues;
+
+        this.distinctValues = new ArrayList<>(channels.size());
+        this.minValues = new Block[channels.size()];
+        this.maxValues = new Block[channels.size()];
+        this.hasValues = new boolean[channels.size()];
+        for (int i = 0; i < types.size(); i++) {
+            Type type = types.get(i);
+            boolean collectValues = type.isComparable() && type.getJavaType() != Block.class;
+            distinctValues.add(collectValues ? new HashSet<>() : null);
+            // nothing is known about the values of channels that are not collected
+            hasValues[i] = !collectValues;
+        }
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return current == null && !finished;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        checkState(needsInput(), "Operator does not need input");
+        requireNonNull(page, "page is null");
+        current = page;
+        for (int i = 0; i < channels.size(); i++) {
+            collect(i, page.getBlock(channels.get(i)));
+        }
+    }
+
+    private void collect(int index, Block block)
+    {
+        Type type = types.get(index);
+        boolean trackRange = type.isOrderable() && type.getJavaType() != Block.class;
+        Set<Object> values = distinctValues.get(index);
+        if (values == null && !trackRange) {
+            return;
+        }
+
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            // nulls and NaNs never satisfy the equi-join condition
+            if (block.isNull(position) || isNaN(type, block, position)) {
+                continue;
+            }
+            hasValues[index] = true;
+            if (values != null) {
+                values.add(readNativeValue(type, block, position));
+                if (values.size() > maxDistinctValues) {
+                    values = null;
+                    distinctValues.set(index, null);
+                    if (!trackRange) {
+                        return;
+                    }
+                }
+            }
+            if (trackRange) {
+                if (minValues[index] == null || type.compareTo(block, position, minValues[index], 0) < 0) {
+                    minValues[index] = block.getSingleValueBlock(position);
+                }
+                if (maxValues[index] == null || type.compareTo(block, position, maxValues[index], 0) > 0) {
+                    maxValues[index] = block.getSingleValueBlock(position);
+                }
+            }
+        }
+    }
+
+    private static boolean isNaN(Type type, Block block, int position)
+    {
+        if (type.equals(DOUBLE)) {
+            return Double.isNaN(DOUBLE.getDouble(block, position));
+        }
+        if (type.equals(REAL)) {
+            return Float.isNaN(intBitsToFloat((int) REAL.getLong(block, position)));
+        }
+        return false;
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        Page result = current;
+        current = null;
+        return result;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        summaryConsumer.accept(getSummary());
+    }
+
+    private TupleDomain<Integer> getSummary()
+    {
+        Map<Integer, Domain> domains = new HashMap<>();
+        for (int i = 0; i < channels.size(); i++) {
+            Type type = types.get(i);
+            if (!hasValues[i]) {
+                // none of the values would match, so the probe side can be skipped
+                return TupleDomain.none();
+            }
+            if (distinctValues.get(i) != null) {
+                domains.put(i, Domain.multipleValues(type, ImmutableList.copyOf(distinctValues.get(i))));
+            }
+            else if (minValues[i] != null) {
+                Range range = Range.range(type, readNativeValue(type, minValues[i], 0), true, readNativeValue(type, maxValues[i], 0), true);
+                domains.put(i, Domain.create(ValueSet.ofRanges(range), false));
+            }
+        }
+        return TupleDomain.withColumnDomains(domains);
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return current == null && finished;
+    }
+}
@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -93,6 +94,8 @@ public class ExchangeClient
 
     private final LocalMemoryContext systemMemoryContext;
     private final Executor pageBufferClientCallbackExecutor;
+    private final Optional<Executor> blockingRequestExecutor;
+    private final Optional<LocalTaskResultsFactory> localTaskResultsFactory;
 
     // ExchangeClientStatus.mergeWith assumes all clients have the same bufferCapacity.
     // Please change that method accordingly when this assumption becomes not true.
@@ -105,7 +108,9 @@ public class ExchangeClient
             HttpClient httpClient,
             ScheduledExecutorService scheduler,
             LocalMemoryContext systemMemoryContext,
-            Executor pageBufferClientCallbackExecutor)
+            Executor pageBufferClientCallbackExecutor,
+            Optional<Executor> blockingRequestExecutor,
+            Optional<LocalTaskResultsFactory> localTaskResultsFactory)
     {
         this.bufferCapacity = bufferCapacity.toBytes();
         this.maxResponseSize = maxResponseSize;
@@ -117,6 +122,8 @@ public class ExchangeClient
         this.systemMemoryContext = systemMemoryContext;
         this.maxBufferRetainedSizeInBytes = Long.MIN_VALUE;
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
+        this.blockingRequestExecutor = requireNonNull(blockingRequestExecutor, "blockingRequestExecutor is null");
+        this.localTaskResultsFactory = requireNonNull(localTaskResultsFactory, "localTaskResultsFactory is null");
     }
 
     public ExchangeClientStatus getStatus()
@@ -163,7 +170,9 @@ public class ExchangeClient
                 location,
                 new ExchangeClientCallback(),
                 scheduler,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                blockingRequestExecutor,
+                localTaskResultsFactory.flatMap(factory -> factory.getLocalTaskResults(location)));
         allClients.put(location, client);
         queuedClients.add(client);
 
@@ -36,6 +36,9 @@ public class ExchangeClientConfig
     private int clientThreads = 25;
     private int pageBufferClientMaxCallbackThreads = 25;
     private boolean acknowledgePages = true;
+    private boolean blockingRequestsEnabled;
+    private int blockingRequestThreads = 100;
+    private boolean localTransportEnabled = true;
 
     @NotNull
     public DataSize getMaxBufferSize()
@@ -141,4 +144,41 @@ public class ExchangeClientConfig
         this.acknowledgePages = acknowledgePages;
         return this;
     }
+
+    public boolean isBlockingRequestsEnabled()
+    {
+        return blockingRequestsEnabled;
+    }
+
+    @Config("exchange.blocking-requests-enabled")
+    public ExchangeClientConfig setBlockingRequestsEnabled(boolean blockingRequestsEnabled)
+    {
+        this.blockingRequestsEnabled = blockingRequestsEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getBlockingRequestThreads()
+    {
+        return blockingRequestThreads;
+    }
+
+    @Config("exchange.blocking-request-threads")
+    public ExchangeClientConfig setBlockingRequestThreads(int blockingRequestThreads)
+    {
+        this.blockingRequestThreads = blockingRequestThreads;
+        return this;
+    }
+
+    public boolean isLocalTransportEnabled()
+    {
+        return localTransportEnabled;
+    }
+
+    @Config("exchange.local-transport-enabled")
+    public ExchangeClientConfig setLocalTransportEnabled(boolean localTransportEnabled)
+    {
+        this.localTransportEnabled = localTransportEnabled;
+        return this;
+    }
 }
@@ -24,7 +24,10 @@ import org.weakref.jmx.Nested;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -33,6 +36,7 @@ import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class ExchangeClientFactory
         implements ExchangeClientSupplier
@@ -46,12 +50,15 @@ public class ExchangeClientFactory
     private final ScheduledExecutorService scheduler;
     private final ThreadPoolExecutorMBean executorMBean;
     private final ExecutorService pageBufferClientCallbackExecutor;
+    private final Optional<ExecutorService> blockingRequestExecutor;
+    private final Optional<LocalTaskResultsFactory> localTaskResultsFactory;
 
     @Inject
     public ExchangeClientFactory(
             ExchangeClientConfig config,
             @ForExchange HttpClient httpClient,
-            @ForExchange ScheduledExecutorService scheduler)
+            @ForExchange ScheduledExecutorService scheduler,
+            LocalTaskResultsFactory localTaskResultsFactory)
     {
         this(
                 config.getMaxBufferSize(),
@@ -60,8 +67,11 @@ public class ExchangeClientFactory
                 config.getMaxErrorDuration(),
                 config.isAcknowledgePages(),
                 config.getPageBufferClientMaxCallbackThreads(),
+                config.isBlockingRequestsEnabled(),
+                config.getBlockingRequestThreads(),
                 httpClient,
-                scheduler);
+                scheduler,
+                config.isLocalTransportEnabled() ? Optional.of(localTaskResultsFactory) : Optional.empty());
     }
 
     public ExchangeClientFactory(
@@ -71,8 +81,11 @@ public class ExchangeClientFactory
             Duration maxErrorDuration,
             boolean acknowledgePages,
             int pageBufferClientMaxCallbackThreads,
+            boolean blockingRequestsEnabled,
+            int blockingRequestThreads,
             HttpClient httpClient,
-            ScheduledExecutorService scheduler)
+            ScheduledExecutorService scheduler,
+            Optional<LocalTaskResultsFactory> localTaskResultsFactory)
     {
         this.maxBufferedBytes = requireNonNull(maxBufferedBytes, "maxBufferedBytes is null");
         this.concurrentRequestMultiplier = concurrentRequestMultiplier;
@@ -87,10 +100,28 @@ public class ExchangeClientFactory
         this.maxResponseSize = new DataSize(maxResponseSizeBytes, BYTE);
 
         this.scheduler = requireNonNull(scheduler, "scheduler is null");
+        this.localTaskResultsFactory = requireNonNull(localTaskResultsFactory, "localTaskResultsFactory is null");
 
         this.pageBufferClientCallbackExecutor = newFixedThreadPool(pageBufferClientMaxCallbackThreads, daemonThreadsNamed("page-buffer-client-callback-%s"));
         this.executorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) pageBufferClientCallbackExecutor);
 
+        if (blockingRequestsEnabled) {
+            checkArgument(blockingRequestThreads > 0, "blockingRequestThreads must be at least 1: %s", blockingRequestThreads);
+            // threads are only kept while requests are running, so an idle worker does not hold the whole pool
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    blockingRequestThreads,
+                    blockingRequestThreads,
+                    60,
+                    SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    daemonThreadsNamed("exchange-blocking-request-%s"));
+            executor.allowCoreThreadTimeOut(true);
+            this.blockingRequestExecutor = Optional.of(executor);
+        }
+        else {
+            this.blockingRequestExecutor = Optional.empty();
+        }
+
         checkArgument(maxBufferedBytes.toBytes() > 0, "maxBufferSize must be at least 1 byte: %s", maxBufferedBytes);
         checkArgument(maxResponseSize.toBytes() > 0, "maxResponseSize must be at least 1 byte: %s", maxResponseSize);
         checkArgument(concurrentRequestMultiplier > 0, "concurrentRequestMultiplier must be at least 1: %s", concurrentRequestMultiplier);
@@ -100,6 +131,7 @@ public class ExchangeClientFactory
     public void stop()
     {
         pageBufferClientCallbackExecutor.shutdownNow();
+        blockingRequestExecutor.ifPresent(ExecutorService::shutdownNow);
     }
 
     @Managed
@@ -121,6 +153,8 @@ public class ExchangeClientFactory
                 httpClient,
                 scheduler,
                 systemMemoryContext,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                blockingRequestExecutor.map(Executor.class::cast),
+                localTaskResultsFactory);
     }
 }
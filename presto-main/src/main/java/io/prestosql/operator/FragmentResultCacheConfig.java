@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.airlift.units.MinDuration;
+
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+public class FragmentResultCacheConfig
+{
+    private DataSize maxInMemorySize = new DataSize(128, MEGABYTE);
+    private DataSize maxEntrySize = new DataSize(4, MEGABYTE);
+    private String directory;
+    private DataSize maxDiskSize = new DataSize(4, GIGABYTE);
+    private Duration ttl = new Duration(6, HOURS);
+
+    @NotNull
+    public DataSize getMaxInMemorySize()
+    {
+        return maxInMemorySize;
+    }
+
+    @Config("fragment-result-cache.max-in-memory-size")
+    @ConfigDescription("Maximum size of the cached fragment results kept in memory on each node")
+    public FragmentResultCacheConfig setMaxInMemorySize(DataSize maxInMemorySize)
+    {
+        this.maxInMemorySize = maxInMemorySize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxEntrySize()
+    {
+        return maxEntrySize;
+    }
+
+    @Config("fragment-result-cache.max-entry-size")
+    @ConfigDescription("Maximum size of the results of a single split that are cached")
+    public FragmentResultCacheConfig setMaxEntrySize(DataSize maxEntrySize)
+    {
+        this.maxEntrySize = maxEntrySize;
+        return this;
+    }
+
+    public String getDirectory()
+    {
+        return directory;
+    }
+
+    @Config("fragment-result-cache.directory")
+    @ConfigDescription("Local directory to which cached fragment results are moved when they are evicted from memory")
+    public FragmentResultCacheConfig setDirectory(String directory)
+    {
+        this.directory = directory;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxDiskSize()
+    {
+        return maxDiskSize;
+    }
+
+    @Config("fragment-result-cache.max-disk-size")
+    @ConfigDescription("Maximum size of the cached fragment results kept on local disk on each node")
+    public FragmentResultCacheConfig setMaxDiskSize(DataSize maxDiskSize)
+    {
+        this.maxDiskSize = maxDiskSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getTtl()
+    {
+        return ttl;
+    }
+
+    @Config("fragment-result-cache.ttl")
+    @ConfigDescription("Time after which cached fragment results expire")
+    public FragmentResultCacheConfig setTtl(Duration ttl)
+    {
+        this.ttl = ttl;
+        return this;
+    }
+}
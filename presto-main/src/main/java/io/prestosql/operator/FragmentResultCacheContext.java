@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.metadata.Split;
+import io.prestosql.operator.FragmentResultCacheManager.CacheKey;
+import io.prestosql.spi.Page;
+
+import java.util.Iterator;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Connects the drivers of a leaf pipeline to the {@link FragmentResultCacheManager}.
+ * The cached results of a split are the pages the pipeline passes to its output operator.
+ */
+public class FragmentResultCacheContext
+{
+    private final FragmentResultCacheManager cacheManager;
+    private final String canonicalPlanHash;
+
+    public FragmentResultCacheContext(FragmentResultCacheManager cacheManager, String canonicalPlanHash)
+    {
+        this.cacheManager = requireNonNull(cacheManager, "cacheManager is null");
+        this.canonicalPlanHash = requireNonNull(canonicalPlanHash, "canonicalPlanHash is null");
+    }
+
+    public String getCanonicalPlanHash()
+    {
+        return canonicalPlanHash;
+    }
+
+    public Optional<CacheKey> createKey(Split split)
+    {
+        return split.getConnectorSplit().getSplitIdentifier()
+                .map(splitIdentifier -> new CacheKey(canonicalPlanHash, split.getConnectorId() + ":" + splitIdentifier));
+    }
+
+    public Optional<Iterator<Page>> getCachedPages(CacheKey key)
+    {
+        return cacheManager.get(key);
+    }
+
+    public FragmentResultCacheRecorder createRecorder(CacheKey key, LocalMemoryContext memoryContext)
+    {
+        return new FragmentResultCacheRecorder(cacheManager, key, memoryContext);
+    }
+}
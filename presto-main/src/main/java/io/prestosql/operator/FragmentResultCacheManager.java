@@ -0,0 +1,342 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import io.airlift.log.Logger;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockEncodingSerde;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.execution.buffer.PagesSerdeUtil.readSerializedPages;
+import static io.prestosql.execution.buffer.PagesSerdeUtil.writeSerializedPages;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.nio.file.Files.createDirectories;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches the pages produced by a leaf pipeline for a single split, so that
+ * queries that run the same pipeline over the same split can skip it. Entries
+ * are kept in memory and moved to local disk when they are evicted from memory.
+ * The memory of the entries is not accounted to any query. Instead, the maximum
+ * in-memory size of the cache is set aside from the general memory pool by
+ * {@link io.prestosql.memory.LocalMemoryManager}.
+ */
+@ThreadSafe
+public class FragmentResultCacheManager
+{
+    private static final Logger log = Logger.get(FragmentResultCacheManager.class);
+
+    private static final String CACHE_FILE_PREFIX = "fragment";
+    private static final String CACHE_FILE_SUFFIX = ".bin";
+    private static final String CACHE_FILE_GLOB = "fragment*.bin";
+
+    private final long maxEntrySizeInBytes;
+    private final Optional<Path> directory;
+    private final PagesSerdeFactory serdeFactory;
+    private final ExecutorService flushExecutor;
+    private final Cache<CacheKey, List<SerializedPage>> memoryCache;
+    private final Cache<CacheKey, Path> diskCache;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    @Inject
+    public FragmentResultCacheManager(FragmentResultCacheConfig config, BlockEncodingSerde blockEncodingSerde)
+    {
+        this(config, blockEncodingSerde, newSingleThreadExecutor(daemonThreadsNamed("fragment-result-cache-flusher")));
+    }
+
+    @VisibleForTesting
+    public FragmentResultCacheManager(FragmentResultCacheConfig config, BlockEncodingSerde blockEncodingSerde, ExecutorService flushExecutor)
+    {
+        requireNonNull(config, "config is null");
+        this.serdeFactory = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), true);
+        this.flushExecutor = requireNonNull(flushExecutor, "flushExecutor is null");
+        this.maxEntrySizeInBytes = config.getMaxEntrySize().toBytes();
+
+        this.directory = Optional.ofNullable(config.getDirectory()).map(Paths::get);
+        directory.ifPresent(path -> {
+            try {
+                createDirectories(path);
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException(
+                        format("could not create fragment result cache directory %s; adjust fragment-result-cache.directory config property or filesystem permissions", path), e);
+            }
+        });
+
+        this.memoryCache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxInMemorySize().toBytes())
+                .weigher((CacheKey key, List<SerializedPage> pages) -> toIntExact(min(getRetainedSizeInBytes(pages), Integer.MAX_VALUE)))
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .removalListener(this::onMemoryEviction)
+                .build();
+        this.diskCache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxDiskSize().toBytes())
+                .weigher((CacheKey key, Path path) -> toIntExact(min(path.toFile().length(), Integer.MAX_VALUE)))
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .removalListener((RemovalNotification<CacheKey, Path> notification) -> deleteFile(notification.getValue()))
+                .build();
+    }
+
+    @PostConstruct
+    public void cleanupOldCacheFiles()
+    {
+        if (!directory.isPresent()) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.get(), CACHE_FILE_GLOB)) {
+            stream.forEach(FragmentResultCacheManager::deleteFile);
+        }
+        catch (IOException e) {
+            log.warn(e, "Error cleaning fragment result cache files");
+        }
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        flushExecutor.shutdownNow();
+        memoryCache.invalidateAll();
+        diskCache.invalidateAll();
+    }
+
+    public PagesSerde createPagesSerde()
+    {
+        return serdeFactory.createPagesSerde();
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    public Optional<Iterator<Page>> get(CacheKey key)
+    {
+        List<SerializedPage> pages = memoryCache.getIfPresent(key);
+        if (pages != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(deserialize(pages));
+        }
+
+        Path path = diskCache.getIfPresent(key);
+        if (path != null) {
+            try {
+                pages = ImmutableList.copyOf(readSerializedPages(wrappedBuffer(Files.readAllBytes(path)).getInput()));
+                diskHits.incrementAndGet();
+                return Optional.of(deserialize(pages));
+            }
+            catch (IOException | UncheckedIOException e) {
+                log.warn(e, "Error reading fragment result cache file %s", path);
+                diskCache.invalidate(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(CacheKey key, List<SerializedPage> pages)
+    {
+        long sizeInBytes = getRetainedSizeInBytes(pages);
+        if (sizeInBytes > maxEntrySizeInBytes) {
+            return;
+        }
+        stores.incrementAndGet();
+        memoryCache.put(key, ImmutableList.copyOf(pages));
+    }
+
+    @Managed
+    public long getMemoryHits()
+    {
+        return memoryHits.get();
+    }
+
+    @Managed
+    public long getDiskHits()
+    {
+        return diskHits.get();
+    }
+
+    @Managed
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    @Managed
+    public long getStores()
+    {
+        return stores.get();
+    }
+
+    @Managed
+    public long getFlushes()
+    {
+        return flushes.get();
+    }
+
+    @Managed
+    public long getInMemoryEntries()
+    {
+        return memoryCache.size();
+    }
+
+    @Managed
+    public long getOnDiskEntries()
+    {
+        return diskCache.size();
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        memoryCache.invalidateAll();
+        diskCache.invalidateAll();
+    }
+
+    private void onMemoryEviction(RemovalNotification<CacheKey, List<SerializedPage>> notification)
+    {
+        if (notification.getCause() == RemovalCause.SIZE) {
+            flushExecutor.execute(() -> writeToDisk(notification.getKey(), notification.getValue()));
+        }
+    }
+
+    private void writeToDisk(CacheKey key, List<SerializedPage> pages)
+    {
+        if (!directory.isPresent()) {
+            return;
+        }
+
+        Path path = null;
+        try {
+            path = Files.createTempFile(directory.get(), CACHE_FILE_PREFIX, CACHE_FILE_SUFFIX);
+            try (SliceOutput output = new OutputStreamSliceOutput(Files.newOutputStream(path))) {
+                writeSerializedPages(output, pages);
+            }
+            diskCache.put(key, path);
+            flushes.incrementAndGet();
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.warn(e, "Error writing fragment result cache file");
+            if (path != null) {
+                deleteFile(path);
+            }
+        }
+    }
+
+    private Iterator<Page> deserialize(List<SerializedPage> pages)
+    {
+        PagesSerde serde = serdeFactory.createPagesSerde();
+        return Iterators.transform(pages.iterator(), serde::deserialize);
+    }
+
+    private static long getRetainedSizeInBytes(List<SerializedPage> pages)
+    {
+        return pages.stream()
+                .mapToLong(SerializedPage::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    private static void deleteFile(Path path)
+    {
+        try {
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e) {
+            log.warn(e, "Could not delete fragment result cache file %s", path);
+        }
+    }
+
+    public static final class CacheKey
+    {
+        private final String canonicalPlanHash;
+        private final String splitIdentifier;
+
+        public CacheKey(String canonicalPlanHash, String splitIdentifier)
+        {
+            this.canonicalPlanHash = requireNonNull(canonicalPlanHash, "canonicalPlanHash is null");
+            this.splitIdentifier = requireNonNull(splitIdentifier, "splitIdentifier is null");
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return Objects.equals(canonicalPlanHash, other.canonicalPlanHash) &&
+                    Objects.equals(splitIdentifier, other.splitIdentifier);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(canonicalPlanHash, splitIdentifier);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("canonicalPlanHash", canonicalPlanHash)
+                    .add("splitIdentifier", splitIdentifier)
+                    .toString();
+        }
+    }
+}
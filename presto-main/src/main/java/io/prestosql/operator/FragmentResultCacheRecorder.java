@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.FragmentResultCacheManager.CacheKey;
+import io.prestosql.spi.Page;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the pages a driver passes to its output operator for a single split,
+ * and stores them in the cache once the split has been fully processed.
+ */
+@NotThreadSafe
+public class FragmentResultCacheRecorder
+{
+    private final FragmentResultCacheManager cacheManager;
+    private final CacheKey key;
+    private final LocalMemoryContext memoryContext;
+    private final PagesSerde serde;
+
+    private List<SerializedPage> pages = new ArrayList<>();
+    private long retainedSizeInBytes;
+    private boolean closed;
+
+    public FragmentResultCacheRecorder(FragmentResultCacheManager cacheManager, CacheKey key, LocalMemoryContext memoryContext)
+    {
+        this.cacheManager = requireNonNull(cacheManager, "cacheManager is null");
+        this.key = requireNonNull(key, "key is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        this.serde = cacheManager.createPagesSerde();
+    }
+
+    public void addPage(Page page)
+    {
+        checkState(!closed, "recorder is closed");
+        if (pages == null) {
+            return;
+        }
+
+        // serialize right away, because lazy blocks can not be loaded after the source is closed
+        SerializedPage serializedPage = serde.serialize(page);
+        retainedSizeInBytes += serializedPage.getRetainedSizeInBytes();
+        if (retainedSizeInBytes > cacheManager.getMaxEntrySizeInBytes()) {
+            // results are too large to be cached
+            pages = null;
+            memoryContext.setBytes(0);
+            return;
+        }
+        pages.add(serializedPage);
+        memoryContext.setBytes(retainedSizeInBytes);
+    }
+
+    public void finish()
+    {
+        checkState(!closed, "recorder is closed");
+        if (pages != null) {
+            cacheManager.put(key, pages);
+        }
+        close();
+    }
+
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pages = null;
+        memoryContext.close();
+    }
+}
@@ -19,12 +19,16 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import io.prestosql.operator.aggregation.Accumulator;
 import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.operator.aggregation.GroupedAccumulator;
 import io.prestosql.operator.aggregation.builder.HashAggregationBuilder;
 import io.prestosql.operator.aggregation.builder.InMemoryHashAggregationBuilder;
 import io.prestosql.operator.aggregation.builder.SpillableHashAggregationBuilder;
 import io.prestosql.operator.scalar.CombineHashFunction;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.LongArrayBlock;
 import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.SpillerFactory;
@@ -39,6 +43,9 @@ import java.util.stream.Collectors;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
+import static io.prestosql.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
 import static io.prestosql.operator.aggregation.builder.InMemoryHashAggregationBuilder.toTypes;
 import static io.prestosql.sql.planner.optimizations.HashGenerationOptimizer.INITIAL_HASH_VALUE;
 import static io.prestosql.type.TypeUtils.NULL_HASH_CODE;
@@ -270,8 +277,14 @@ public class HashAggregationOperator
 
     private final List<Type> types;
     private final HashCollisionsCounter hashCollisionsCounter;
+    private final Optional<PartialAggregationController> partialAggregationController;
 
     private HashAggregationBuilder aggregationBuilder;
+    // input and unique rows of the builders since the partial aggregation controller last made a decision,
+    // kept across flushes so a builder that fills up early does not hide the ratio from the controller
+    private long aggregationInputRows;
+    private long flushedUniqueRows;
+    private Page passThroughPage;
     private WorkProcessor<Page> outputPages;
     private boolean inputProcessed;
     private boolean finishing;
@@ -323,6 +336,15 @@ public class HashAggregationOperator
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
         operatorContext.setInfoSupplier(hashCollisionsCounter);
         this.useSystemMemory = useSystemMemory;
+
+        if (step == Step.PARTIAL && !groupByChannels.isEmpty() && !hasOrderBy() && !hasDistinct() && isAdaptivePartialAggregationEnabled(operatorContext.getSession())) {
+            this.partialAggregationController = Optional.of(new PartialAggregationController(
+                    getAdaptivePartialAggregationMinRows(operatorContext.getSession()),
+                    getAdaptivePartialAggregationUniqueRowsRatioThreshold(operatorContext.getSession())));
+        }
+        else {
+            this.partialAggregationController = Optional.empty();
+        }
     }
 
     @Override
@@ -346,10 +368,10 @@ public class HashAggregationOperator
     @Override
     public boolean needsInput()
     {
-        if (finishing || outputPages != null) {
+        if (finishing || outputPages != null || passThroughPage != null) {
             return false;
         }
-        else if (aggregationBuilder != null && aggregationBuilder.isFull()) {
+        else if (aggregationBuilder != null && (aggregationBuilder.isFull() || isPartialAggregationDisabled())) {
             return false;
         }
         else {
@@ -365,6 +387,13 @@ public class HashAggregationOperator
         requireNonNull(page, "page is null");
         inputProcessed = true;
 
+        if (aggregationBuilder == null && isPartialAggregationDisabled()) {
+            partialAggregationController.get().onPassThroughRows(page.getPositionCount());
+            passThroughPage = toIntermediatePage(page);
+            updatePassThroughMemory(passThroughPage.getRetainedSizeInBytes());
+            return;
+        }
+
         if (aggregationBuilder == null) {
             // TODO: We ignore spillEnabled here if any aggregate has ORDER BY clause or DISTINCT because they are not yet implemented for spilling.
             if (step.isOutputPartial() || !spillEnabled || hasOrderBy() || hasDistinct()) {
@@ -409,6 +438,64 @@ public class HashAggregationOperator
             unfinishedWork = null;
         }
         aggregationBuilder.updateMemory();
+
+        aggregationInputRows += page.getPositionCount();
+        if (partialAggregationController.isPresent()) {
+            // partial aggregations always use an in-memory builder
+            long uniqueRows = flushedUniqueRows + ((InMemoryHashAggregationBuilder) aggregationBuilder).getGroupCount();
+            if (partialAggregationController.get().onAggregatedRows(aggregationInputRows, uniqueRows)) {
+                // the groups the current builder already holds have been accounted for by this decision
+                aggregationInputRows = 0;
+                flushedUniqueRows = -((InMemoryHashAggregationBuilder) aggregationBuilder).getGroupCount();
+            }
+        }
+    }
+
+    private boolean isPartialAggregationDisabled()
+    {
+        return partialAggregationController.isPresent() && partialAggregationController.get().isPartialAggregationDisabled();
+    }
+
+    /**
+     * Converts a raw input page to the partial aggregation output layout by placing each row in its own group.
+     */
+    private Page toIntermediatePage(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        long[] groupIds = new long[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            groupIds[position] = position;
+        }
+        GroupByIdBlock groupIdsBlock = new GroupByIdBlock(positionCount, new LongArrayBlock(positionCount, Optional.empty(), groupIds));
+
+        Block[] blocks = new Block[types.size()];
+        int channel = 0;
+        for (int groupByChannel : groupByChannels) {
+            blocks[channel++] = page.getBlock(groupByChannel).getLoadedBlock();
+        }
+        if (hashChannel.isPresent()) {
+            blocks[channel++] = page.getBlock(hashChannel.get()).getLoadedBlock();
+        }
+        for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+            GroupedAccumulator accumulator = accumulatorFactory.createGroupedAccumulator();
+            accumulator.addInput(groupIdsBlock, page);
+            BlockBuilder output = accumulator.getIntermediateType().createBlockBuilder(null, positionCount);
+            for (int groupId = 0; groupId < positionCount; groupId++) {
+                accumulator.evaluateIntermediate(groupId, output);
+            }
+            blocks[channel++] = output.build();
+        }
+        return new Page(positionCount, blocks);
+    }
+
+    private void updatePassThroughMemory(long bytes)
+    {
+        if (useSystemMemory) {
+            operatorContext.localSystemMemoryContext().setBytes(bytes);
+        }
+        else {
+            operatorContext.localUserMemoryContext().setBytes(bytes);
+        }
     }
 
     private boolean hasOrderBy()
@@ -455,6 +542,13 @@ public class HashAggregationOperator
             unfinishedWork = null;
         }
 
+        if (passThroughPage != null) {
+            Page page = passThroughPage;
+            passThroughPage = null;
+            updatePassThroughMemory(0);
+            return page;
+        }
+
         if (outputPages == null) {
             if (finishing) {
                 if (!inputProcessed && produceDefaultOutput) {
@@ -469,8 +563,8 @@ public class HashAggregationOperator
                 }
             }
 
-            // only flush if we are finishing or the aggregation builder is full
-            if (!finishing && (aggregationBuilder == null || !aggregationBuilder.isFull())) {
+            // only flush if we are finishing, the aggregation builder is full or partial aggregation has been disabled
+            if (!finishing && (aggregationBuilder == null || !(aggregationBuilder.isFull() || isPartialAggregationDisabled()))) {
                 return null;
             }
 
@@ -492,6 +586,10 @@ public class HashAggregationOperator
     @Override
     public void close()
     {
+        if (passThroughPage != null) {
+            passThroughPage = null;
+            updatePassThroughMemory(0);
+        }
         closeAggregationBuilder();
     }
 
@@ -505,6 +603,9 @@ public class HashAggregationOperator
     {
         outputPages = null;
         if (aggregationBuilder != null) {
+            if (partialAggregationController.isPresent()) {
+                flushedUniqueRows += ((InMemoryHashAggregationBuilder) aggregationBuilder).getGroupCount();
+            }
             aggregationBuilder.recordHashCollisions(hashCollisionsCounter);
             aggregationBuilder.close();
             // aggregationBuilder.close() will release all memory reserved in memory accounting.
@@ -16,8 +16,11 @@ package io.prestosql.operator;
 import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpClient.HttpResponseFuture;
 import io.airlift.http.client.HttpStatus;
@@ -31,6 +34,7 @@ import io.airlift.slice.InputStreamSliceInput;
 import io.airlift.slice.SliceInput;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.BufferResult;
 import io.prestosql.execution.buffer.SerializedPage;
 import io.prestosql.server.remotetask.Backoff;
 import io.prestosql.spi.PrestoException;
@@ -46,6 +50,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.concurrent.Executor;
@@ -58,6 +63,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.http.client.HttpStatus.familyForStatusCode;
 import static io.airlift.http.client.Request.Builder.prepareDelete;
 import static io.airlift.http.client.Request.Builder.prepareGet;
@@ -143,6 +149,8 @@ public final class HttpPageBufferClient
     private final AtomicInteger requestsFailed = new AtomicInteger();
 
     private final Executor pageBufferClientCallbackExecutor;
+    private final Optional<Executor> blockingRequestExecutor;
+    private final Optional<LocalTaskResults> localTaskResults;
 
     public HttpPageBufferClient(
             HttpClient httpClient,
@@ -152,9 +160,11 @@ public final class HttpPageBufferClient
             URI location,
             ClientCallback clientCallback,
             ScheduledExecutorService scheduler,
-            Executor pageBufferClientCallbackExecutor)
+            Executor pageBufferClientCallbackExecutor,
+            Optional<Executor> blockingRequestExecutor,
+            Optional<LocalTaskResults> localTaskResults)
     {
-        this(httpClient, maxResponseSize, maxErrorDuration, acknowledgePages, location, clientCallback, scheduler, Ticker.systemTicker(), pageBufferClientCallbackExecutor);
+        this(httpClient, maxResponseSize, maxErrorDuration, acknowledgePages, location, clientCallback, scheduler, Ticker.systemTicker(), pageBufferClientCallbackExecutor, blockingRequestExecutor, localTaskResults);
     }
 
     public HttpPageBufferClient(
@@ -166,7 +176,9 @@ public final class HttpPageBufferClient
             ClientCallback clientCallback,
             ScheduledExecutorService scheduler,
             Ticker ticker,
-            Executor pageBufferClientCallbackExecutor)
+            Executor pageBufferClientCallbackExecutor,
+            Optional<Executor> blockingRequestExecutor,
+            Optional<LocalTaskResults> localTaskResults)
     {
         this.httpClient = requireNonNull(httpClient, "httpClient is null");
         this.maxResponseSize = requireNonNull(maxResponseSize, "maxResponseSize is null");
@@ -175,6 +187,8 @@ public final class HttpPageBufferClient
         this.clientCallback = requireNonNull(clientCallback, "clientCallback is null");
         this.scheduler = requireNonNull(scheduler, "scheduler is null");
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
+        this.blockingRequestExecutor = requireNonNull(blockingRequestExecutor, "blockingRequestExecutor is null");
+        this.localTaskResults = requireNonNull(localTaskResults, "localTaskResults is null");
         requireNonNull(maxErrorDuration, "maxErrorDuration is null");
         requireNonNull(ticker, "ticker is null");
         this.backoff = new Backoff(maxErrorDuration, ticker);
@@ -297,11 +311,20 @@ public final class HttpPageBufferClient
     private synchronized void sendGetResults()
     {
         URI uri = HttpUriBuilder.uriBuilderFrom(location).appendPath(String.valueOf(token)).build();
-        HttpResponseFuture<PagesResponse> resultFuture = httpClient.executeAsync(
-                prepareGet()
-                        .setHeader(PRESTO_MAX_SIZE, maxResponseSize.toString())
-                        .setUri(uri).build(),
-                new PageResponseHandler());
+        HttpResponseFuture<PagesResponse> resultFuture;
+        if (localTaskResults.isPresent()) {
+            resultFuture = LocalResponseFuture.of(Futures.transform(
+                    localTaskResults.get().getResults(token, maxResponseSize, scheduler),
+                    HttpPageBufferClient::toPagesResponse,
+                    directExecutor()));
+        }
+        else {
+            resultFuture = executeRequest(
+                    prepareGet()
+                            .setHeader(PRESTO_MAX_SIZE, maxResponseSize.toString())
+                            .setUri(uri).build(),
+                    new PageResponseHandler());
+        }
 
         future = resultFuture;
         Futures.addCallback(resultFuture, new FutureCallback<PagesResponse>()
@@ -336,7 +359,10 @@ public final class HttpPageBufferClient
                         }
                     }
 
-                    if (shouldAcknowledge && acknowledgePages) {
+                    if (shouldAcknowledge && acknowledgePages && localTaskResults.isPresent()) {
+                        acknowledgeLocal(result.getNextToken());
+                    }
+                    else if (shouldAcknowledge && acknowledgePages) {
                         // Acknowledge token without handling the response.
                         // The next request will also make sure the token is acknowledged.
                         // This is to fast release the pages on the buffer side.
@@ -417,7 +443,16 @@ public final class HttpPageBufferClient
 
     private synchronized void sendDelete()
     {
-        HttpResponseFuture<StatusResponse> resultFuture = httpClient.executeAsync(prepareDelete().setUri(location).build(), createStatusResponseHandler());
+        HttpResponseFuture<StatusResponse> resultFuture;
+        if (localTaskResults.isPresent()) {
+            // abort outside of the lock of this client, the output buffer notifies its listeners synchronously
+            ListenableFutureTask<StatusResponse> abortTask = ListenableFutureTask.create(localTaskResults.get()::abort, null);
+            pageBufferClientCallbackExecutor.execute(abortTask);
+            resultFuture = LocalResponseFuture.of(abortTask);
+        }
+        else {
+            resultFuture = executeRequest(prepareDelete().setUri(location).build(), createStatusResponseHandler());
+        }
         future = resultFuture;
         Futures.addCallback(resultFuture, new FutureCallback<StatusResponse>()
         {
@@ -456,6 +491,33 @@ public final class HttpPageBufferClient
         }, pageBufferClientCallbackExecutor);
     }
 
+    private <T> HttpResponseFuture<T> executeRequest(Request request, ResponseHandler<T, RuntimeException> responseHandler)
+    {
+        if (blockingRequestExecutor.isPresent()) {
+            return BlockingResponseFuture.execute(httpClient, request, responseHandler, blockingRequestExecutor.get());
+        }
+        return httpClient.executeAsync(request, responseHandler);
+    }
+
+    private void acknowledgeLocal(long token)
+    {
+        try {
+            localTaskResults.get().acknowledge(token);
+        }
+        catch (RuntimeException e) {
+            // the next request acknowledges the token as well
+            log.debug(e, "Acknowledge of local results failed: %s", location);
+        }
+    }
+
+    private static PagesResponse toPagesResponse(BufferResult result)
+    {
+        if (result.getSerializedPages().isEmpty()) {
+            return createEmptyPagesResponse(result.getTaskInstanceId(), result.getToken(), result.getNextToken(), result.isBufferComplete());
+        }
+        return createPagesResponse(result.getTaskInstanceId(), result.getToken(), result.getNextToken(), result.getSerializedPages(), result.isBufferComplete());
+    }
+
     private static void checkNotHoldsLock(Object lock)
     {
         checkState(!Thread.holdsLock(lock), "Cannot execute this method while holding a lock");
@@ -536,6 +598,75 @@ public final class HttpPageBufferClient
         return t;
     }
 
+    /**
+     * Runs the request with the blocking {@link HttpClient#execute} on a thread of the given
+     * executor, so that the response is read and deserialized on that thread instead of on
+     * the shared HTTP client threads. Cancelling the future does not abort the request; the
+     * response of a cancelled request is discarded.
+     */
+    private static final class BlockingResponseFuture<T>
+            extends AbstractFuture<T>
+            implements HttpResponseFuture<T>
+    {
+        private volatile String state = "QUEUED";
+
+        public static <T> BlockingResponseFuture<T> execute(HttpClient httpClient, Request request, ResponseHandler<T, RuntimeException> responseHandler, Executor executor)
+        {
+            BlockingResponseFuture<T> future = new BlockingResponseFuture<>();
+            try {
+                executor.execute(() -> future.run(httpClient, request, responseHandler));
+            }
+            catch (RuntimeException e) {
+                future.setException(e);
+            }
+            return future;
+        }
+
+        private void run(HttpClient httpClient, Request request, ResponseHandler<T, RuntimeException> responseHandler)
+        {
+            if (isDone()) {
+                return;
+            }
+            state = "PROCESSING_REQUEST";
+            try {
+                set(httpClient.execute(request, responseHandler));
+            }
+            catch (Throwable t) {
+                setException(t);
+            }
+            finally {
+                state = "DONE";
+            }
+        }
+
+        @Override
+        public String getState()
+        {
+            return state;
+        }
+    }
+
+    /**
+     * Result of reading the output buffer of a task on this node, see {@link LocalTaskResults}.
+     */
+    private static final class LocalResponseFuture<T>
+            extends AbstractFuture<T>
+            implements HttpResponseFuture<T>
+    {
+        public static <T> LocalResponseFuture<T> of(ListenableFuture<T> result)
+        {
+            LocalResponseFuture<T> future = new LocalResponseFuture<>();
+            future.setFuture(result);
+            return future;
+        }
+
+        @Override
+        public String getState()
+        {
+            return isDone() ? "DONE" : "WAITING_FOR_LOCAL_RESULTS";
+        }
+    }
+
     public static class PageResponseHandler
             implements ResponseHandler<PagesResponse, RuntimeException>
     {
@@ -41,6 +41,10 @@ public final class JoinHash
     @Nullable
     private final PositionLinks positionLinks;
 
+    // scratch buffers for getJoinPositions, this class is only used by a single thread
+    private long[] rawHashesBuffer = new long[0];
+    private int[] addressIndexesBuffer = new int[0];
+
     public JoinHash(PagesHash pagesHash, Optional<JoinFilterFunction> filterFunction, Optional<PositionLinks> positionLinks)
     {
         this.pagesHash = requireNonNull(pagesHash, "pagesHash is null");
@@ -92,6 +96,28 @@ public final class JoinHash
         return startJoinPosition(addressIndex, position, allChannelsPage);
     }
 
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        if (addressIndexesBuffer.length < positionCount) {
+            addressIndexesBuffer = new int[positionCount];
+        }
+        if (rawHashes == null) {
+            if (rawHashesBuffer.length < positionCount) {
+                rawHashesBuffer = new long[positionCount];
+            }
+            for (int i = 0; i < positionCount; i++) {
+                rawHashesBuffer[i] = pagesHash.hashRow(positions[i], hashChannelsPage);
+            }
+            rawHashes = rawHashesBuffer;
+        }
+
+        pagesHash.getAddressIndexes(positions, positionCount, hashChannelsPage, rawHashes, addressIndexesBuffer);
+        for (int i = 0; i < positionCount; i++) {
+            joinPositions[i] = startJoinPosition(addressIndexesBuffer[i], positions[i], allChannelsPage);
+        }
+    }
+
     private long startJoinPosition(int currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
         if (currentJoinPosition == -1) {
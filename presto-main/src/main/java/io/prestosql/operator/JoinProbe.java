@@ -21,6 +21,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.Objects.requireNonNull;
 
 public class JoinProbe
 {
@@ -39,7 +40,34 @@ public class JoinProbe
 
         public JoinProbe createJoinProbe(Page page)
         {
-            return new JoinProbe(probeOutputChannels, page, probeJoinChannels, probeHashChannel);
+            return createJoinProbe(page, new JoinProbeBuffers());
+        }
+
+        public JoinProbe createJoinProbe(Page page, JoinProbeBuffers buffers)
+        {
+            return new JoinProbe(probeOutputChannels, page, probeJoinChannels, probeHashChannel, buffers);
+        }
+    }
+
+    /**
+     * Scratch arrays for looking up the join positions of a page. A join operator only has one
+     * probe at a time, so it can pass the same buffers to every probe it creates.
+     */
+    public static class JoinProbeBuffers
+    {
+        private long[] joinPositions = new long[0];
+        private int[] positions = new int[0];
+        private long[] rawHashes = new long[0];
+        private long[] batchJoinPositions = new long[0];
+
+        private void ensureCapacity(int positionCount)
+        {
+            if (joinPositions.length < positionCount) {
+                joinPositions = new long[positionCount];
+                positions = new int[positionCount];
+                rawHashes = new long[positionCount];
+                batchJoinPositions = new long[positionCount];
+            }
         }
     }
 
@@ -49,10 +77,14 @@ public class JoinProbe
     private final Page page;
     private final Page probePage;
     private final Optional<Block> probeHashBlock;
+    private final JoinProbeBuffers buffers;
 
     private int position = -1;
 
-    private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel)
+    // join positions of the page are looked up in a single batch for the lookup source they were computed against
+    private LookupSource batchLookupSource;
+
+    private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel, JoinProbeBuffers buffers)
     {
         this.probeOutputChannels = probeOutputChannels;
         this.positionCount = page.getPositionCount();
@@ -64,6 +96,7 @@ public class JoinProbe
         this.page = page;
         this.probePage = new Page(page.getPositionCount(), probeBlocks);
         this.probeHashBlock = probeHashChannel.isPresent() ? Optional.of(page.getBlock(probeHashChannel.getAsInt())) : Optional.empty();
+        this.buffers = requireNonNull(buffers, "buffers is null");
     }
 
     public int[] getOutputChannels()
@@ -79,14 +112,10 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
-        if (currentRowContainsNull()) {
-            return -1;
-        }
-        if (probeHashBlock.isPresent()) {
-            long rawHash = BIGINT.getLong(probeHashBlock.get(), position);
-            return lookupSource.getJoinPosition(position, probePage, page, rawHash);
+        if (lookupSource != batchLookupSource) {
+            lookupRemainingJoinPositions(lookupSource);
         }
-        return lookupSource.getJoinPosition(position, probePage, page);
+        return buffers.joinPositions[position];
     }
 
     public int getPosition()
@@ -99,7 +128,34 @@ public class JoinProbe
         return page;
     }
 
-    private boolean currentRowContainsNull()
+    private void lookupRemainingJoinPositions(LookupSource lookupSource)
+    {
+        buffers.ensureCapacity(positionCount);
+        long[] joinPositions = buffers.joinPositions;
+        int[] positions = buffers.positions;
+        long[] rawHashes = probeHashBlock.isPresent() ? buffers.rawHashes : null;
+        int batchPositionCount = 0;
+        for (int probePosition = position; probePosition < positionCount; probePosition++) {
+            if (rowContainsNull(probePosition)) {
+                joinPositions[probePosition] = -1;
+                continue;
+            }
+            positions[batchPositionCount] = probePosition;
+            if (rawHashes != null) {
+                rawHashes[batchPositionCount] = BIGINT.getLong(probeHashBlock.get(), probePosition);
+            }
+            batchPositionCount++;
+        }
+
+        long[] batchJoinPositions = buffers.batchJoinPositions;
+        lookupSource.getJoinPositions(positions, batchPositionCount, probePage, page, rawHashes, batchJoinPositions);
+        for (int i = 0; i < batchPositionCount; i++) {
+            joinPositions[positions[i]] = batchJoinPositions[i];
+        }
+        batchLookupSource = lookupSource;
+    }
+
+    private boolean rowContainsNull(int position)
     {
         for (Block probeBlock : probeBlocks) {
             if (probeBlock.isNull(position)) {
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.OutputBuffers.OutputBufferId;
+import io.prestosql.execution.TaskId;
+import io.prestosql.execution.TaskManager;
+import io.prestosql.execution.buffer.BufferResult;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Reads the output buffer of a task running on this node directly from the
+ * {@link TaskManager}, without going through the task results HTTP resource.
+ */
+public class LocalTaskResults
+{
+    // same as the wait time of the task results resource
+    private static final Duration MAX_WAIT_TIME = new Duration(1, SECONDS);
+
+    private final TaskManager taskManager;
+    private final TaskId taskId;
+    private final OutputBufferId bufferId;
+
+    public LocalTaskResults(TaskManager taskManager, TaskId taskId, OutputBufferId bufferId)
+    {
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.bufferId = requireNonNull(bufferId, "bufferId is null");
+    }
+
+    public TaskId getTaskId()
+    {
+        return taskId;
+    }
+
+    public OutputBufferId getBufferId()
+    {
+        return bufferId;
+    }
+
+    public ListenableFuture<BufferResult> getResults(long token, DataSize maxSize, ScheduledExecutorService timeoutExecutor)
+    {
+        ListenableFuture<BufferResult> result;
+        try {
+            result = taskManager.getTaskResults(taskId, bufferId, token, maxSize);
+        }
+        catch (RuntimeException e) {
+            return immediateFailedFuture(e);
+        }
+        // complete with an empty result after a while, like the results resource, so the reader re-checks its state
+        return addTimeout(result, () -> BufferResult.emptyResults(taskManager.getTaskInstanceId(taskId), token, false), MAX_WAIT_TIME, timeoutExecutor);
+    }
+
+    public void acknowledge(long token)
+    {
+        taskManager.acknowledgeTaskResults(taskId, bufferId, token);
+    }
+
+    public void abort()
+    {
+        taskManager.abortTaskResults(taskId, bufferId);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.base.Splitter;
+import io.prestosql.OutputBuffers.OutputBufferId;
+import io.prestosql.execution.LocationFactory;
+import io.prestosql.execution.TaskId;
+import io.prestosql.execution.TaskManager;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Strings.nullToEmpty;
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
+import static java.util.Objects.requireNonNull;
+
+public class LocalTaskResultsFactory
+{
+    // the task manager depends on the exchange client factory through the local execution planner
+    private final Provider<TaskManager> taskManager;
+    private final LocationFactory locationFactory;
+
+    @Inject
+    public LocalTaskResultsFactory(Provider<TaskManager> taskManager, LocationFactory locationFactory)
+    {
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.locationFactory = requireNonNull(locationFactory, "locationFactory is null");
+    }
+
+    /**
+     * Returns a reader for the task results at the given location if that task
+     * runs on this node.
+     */
+    public Optional<LocalTaskResults> getLocalTaskResults(URI location)
+    {
+        requireNonNull(location, "location is null");
+
+        // results locations have the form <task location>/results/<buffer id>
+        List<String> path = Splitter.on('/').omitEmptyStrings().splitToList(nullToEmpty(location.getPath()));
+        if (path.size() < 3 || !path.get(path.size() - 2).equals("results")) {
+            return Optional.empty();
+        }
+
+        TaskId taskId;
+        OutputBufferId bufferId;
+        try {
+            taskId = TaskId.valueOf(path.get(path.size() - 3));
+            bufferId = OutputBufferId.fromString(path.get(path.size() - 1));
+        }
+        catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        URI localLocation = uriBuilderFrom(locationFactory.createLocalTaskLocation(taskId))
+                .appendPath("results")
+                .appendPath(bufferId.toString())
+                .build();
+        if (!localLocation.equals(location)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalTaskResults(taskManager.get(), taskId, bufferId));
+    }
+}
@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.prestosql.operator.JoinProbe.JoinProbeBuffers;
 import io.prestosql.operator.JoinProbe.JoinProbeFactory;
 import io.prestosql.operator.LookupJoinOperators.JoinType;
 import io.prestosql.operator.LookupSourceProvider.LookupSourceLease;
@@ -65,6 +66,7 @@ public class LookupJoinOperator
     private final JoinStatisticsCounter statisticsCounter;
 
     private final LookupJoinPageBuilder pageBuilder;
+    private final JoinProbeBuffers probeBuffers = new JoinProbeBuffers();
 
     private final boolean probeOnOuterSide;
 
@@ -216,7 +218,7 @@ public class LookupJoinOperator
 
         // create probe
         inputPageSpillEpoch = spillInfoSnapshot.getSpillEpoch();
-        probe = joinProbeFactory.createJoinProbe(page);
+        probe = joinProbeFactory.createJoinProbe(page, probeBuffers);
 
         // initialize to invalid join position to force output code to advance the cursors
         joinPosition = -1;
@@ -14,6 +14,7 @@
 package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
 import io.prestosql.Session;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
@@ -21,6 +22,7 @@ import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.gen.JoinCompiler;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -67,6 +69,36 @@ public class MarkDistinctHash
                 });
     }
 
+    /**
+     * Returns the values marked as distinct so far. Each page holds the distinct
+     * channels, followed by the hash channel if one was provided.
+     */
+    public Iterator<Page> getDistinctValues()
+    {
+        return new AbstractIterator<Page>()
+        {
+            private final PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+            private int groupId;
+
+            @Override
+            protected Page computeNext()
+            {
+                // groups past nextDistinctId belong to a page that has not been completely marked
+                if (groupId >= nextDistinctId) {
+                    return endOfData();
+                }
+
+                pageBuilder.reset();
+                while (!pageBuilder.isFull() && groupId < nextDistinctId) {
+                    pageBuilder.declarePosition();
+                    groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+                    groupId++;
+                }
+                return pageBuilder.build();
+            }
+        };
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
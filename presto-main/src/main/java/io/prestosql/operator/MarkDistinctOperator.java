@@ -15,26 +15,41 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class MarkDistinctOperator
         implements Operator
 {
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     public static class MarkDistinctOperatorFactory
             implements OperatorFactory
     {
@@ -44,6 +59,8 @@ public class MarkDistinctOperator
         private final List<Integer> markDistinctChannels;
         private final List<Type> types;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private boolean closed;
 
         public MarkDistinctOperatorFactory(
@@ -53,6 +70,19 @@ public class MarkDistinctOperator
                 Collection<Integer> markDistinctChannels,
                 Optional<Integer> hashChannel,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashChannel, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                Optional<Integer> hashChannel,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -60,6 +90,8 @@ public class MarkDistinctOperator
             checkArgument(!markDistinctChannels.isEmpty(), "markDistinctChannels is empty");
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
             this.types = ImmutableList.<Type>builder()
                     .addAll(sourceTypes)
                     .add(BOOLEAN)
@@ -71,7 +103,7 @@ public class MarkDistinctOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MarkDistinctOperator.class.getSimpleName());
-            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
 
         @Override
@@ -83,13 +115,22 @@ public class MarkDistinctOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
     private final OperatorContext operatorContext;
-    private final MarkDistinctHash markDistinctHash;
+    private final List<Type> sourceTypes;
+    private final List<Type> distinctTypes;
+    private final int[] markDistinctChannels;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
+
+    // replaced by a hash per partition when the spilled input is processed
+    private MarkDistinctHash markDistinctHash;
 
     private Page inputPage;
     private boolean finishing;
@@ -97,10 +138,31 @@ public class MarkDistinctOperator
     // for yield when memory is not available
     private Work<Block> unfinishedWork;
 
+    // the values marked before spilling, and all input received after spilling
+    private Optional<PartitioningSpiller> distinctValuesSpiller = Optional.empty();
+    private Optional<PartitioningSpiller> inputSpiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private int unspillPartition;
+    private Iterator<Page> unspilledInput = emptyIterator();
+    private boolean unspillFinished;
+
     public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, Optional<Integer> hashChannel, JoinCompiler joinCompiler)
+    {
+        this(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+    }
+
+    public MarkDistinctOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            List<Integer> markDistinctChannels,
+            Optional<Integer> hashChannel,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
+        requireNonNull(types, "types is null");
         requireNonNull(hashChannel, "hashChannel is null");
         requireNonNull(markDistinctChannels, "markDistinctChannels is null");
 
@@ -108,8 +170,15 @@ public class MarkDistinctOperator
         for (int channel : markDistinctChannels) {
             distinctTypes.add(types.get(channel));
         }
-        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes.build(), Ints.toArray(markDistinctChannels), hashChannel, joinCompiler, this::updateMemoryReservation);
+        this.sourceTypes = ImmutableList.copyOf(types.subList(0, types.size() - 1));
+        this.distinctTypes = distinctTypes.build();
+        this.markDistinctChannels = Ints.toArray(markDistinctChannels);
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), this.distinctTypes, this.markDistinctChannels, hashChannel, joinCompiler, this::updateMemoryReservation);
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
     }
 
     @Override
@@ -127,13 +196,19 @@ public class MarkDistinctOperator
     @Override
     public boolean isFinished()
     {
-        return finishing && !hasUnfinishedInput();
+        return finishing && !hasUnfinishedInput() && (!inputSpiller.isPresent() || unspillFinished);
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress;
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && !hasUnfinishedInput();
+        return !finishing && !hasUnfinishedInput() && spillInProgress.isDone();
     }
 
     @Override
@@ -142,6 +217,13 @@ public class MarkDistinctOperator
         requireNonNull(page, "page is null");
         checkState(needsInput());
 
+        if (inputSpiller.isPresent()) {
+            // all input is marked after unspilling, since it may contain values that were spilled
+            checkSuccess(spillInProgress, "spilling failed");
+            spillInProgress = inputSpiller.get().partitionAndSpill(page, partition -> true).getSpillingFuture();
+            return;
+        }
+
         inputPage = page;
 
         unfinishedWork = markDistinctHash.markDistinctRows(page);
@@ -151,6 +233,10 @@ public class MarkDistinctOperator
     @Override
     public Page getOutput()
     {
+        if (unfinishedWork == null && finishing && inputSpiller.isPresent()) {
+            markNextUnspilledPage();
+        }
+
         if (unfinishedWork == null) {
             return null;
         }
@@ -169,6 +255,114 @@ public class MarkDistinctOperator
         return outputPage;
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (inputSpiller.isPresent()) {
+            // the operator is already spilling all input, and the hashes built while unspilling are not revocable
+            return NOT_BLOCKED;
+        }
+
+        if (finishing && !hasUnfinishedInput()) {
+            // no more rows will be marked
+            markDistinctHash = null;
+            return NOT_BLOCKED;
+        }
+
+        checkState(spillEnabled, "Spill is not enabled");
+        checkState(spillInProgress.isDone(), "Previous spill still in progress");
+
+        int[] distinctValuesChannels = IntStream.range(0, distinctTypes.size()).toArray();
+        distinctValuesSpiller = Optional.of(partitioningSpillerFactory.create(
+                distinctTypes,
+                new LocalPartitionGenerator(new InterpretedHashGenerator(distinctTypes, distinctValuesChannels), SPILL_PARTITION_COUNT),
+                operatorContext.getSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext()));
+        inputSpiller = Optional.of(partitioningSpillerFactory.create(
+                sourceTypes,
+                new LocalPartitionGenerator(new InterpretedHashGenerator(distinctTypes, markDistinctChannels), SPILL_PARTITION_COUNT),
+                operatorContext.getSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext()));
+
+        // a spiller accepts a new page only after the previous one has been written
+        ListenableFuture<?> distinctValuesSpilled = NOT_BLOCKED;
+        Iterator<Page> distinctValues = markDistinctHash.getDistinctValues();
+        while (distinctValues.hasNext()) {
+            getFutureValue(distinctValuesSpilled);
+            Page page = extractChannels(distinctValues.next(), distinctValuesChannels);
+            distinctValuesSpilled = distinctValuesSpiller.get().partitionAndSpill(page, partition -> true).getSpillingFuture();
+        }
+
+        ListenableFuture<?> inputSpilled = NOT_BLOCKED;
+        if (inputPage != null) {
+            // the values of a page that is only partially marked are not included in the distinct values, so the page is marked again after unspilling
+            inputSpilled = inputSpiller.get().partitionAndSpill(inputPage, partition -> true).getSpillingFuture();
+            inputPage = null;
+            unfinishedWork = null;
+        }
+
+        markDistinctHash = null;
+        spillInProgress = Futures.allAsList(distinctValuesSpilled, inputSpilled);
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkSuccess(spillInProgress, "spilling failed");
+        localRevocableMemoryContext.setBytes(0);
+        updateMemoryReservation();
+    }
+
+    private void markNextUnspilledPage()
+    {
+        if (unspillFinished || !spillInProgress.isDone()) {
+            return;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        while (!unspilledInput.hasNext()) {
+            if (unspillPartition == SPILL_PARTITION_COUNT) {
+                unspillFinished = true;
+                markDistinctHash = null;
+                updateMemoryReservation();
+                return;
+            }
+            unspillPartition(unspillPartition);
+            unspillPartition++;
+        }
+
+        inputPage = unspilledInput.next();
+        unfinishedWork = markDistinctHash.markDistinctRows(extractChannels(inputPage, markDistinctChannels));
+        updateMemoryReservation();
+    }
+
+    private void unspillPartition(int partition)
+    {
+        // the partition must fit in memory, so the hash never yields
+        int[] distinctValuesChannels = IntStream.range(0, distinctTypes.size()).toArray();
+        markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes, distinctValuesChannels, Optional.empty(), joinCompiler, () -> {
+            updateMemoryReservation();
+            return true;
+        });
+
+        Iterator<Page> distinctValues = distinctValuesSpiller.get().getSpilledPages(partition);
+        while (distinctValues.hasNext()) {
+            Work<Block> work = markDistinctHash.markDistinctRows(distinctValues.next());
+            checkState(work.process(), "Work did not complete");
+        }
+        unspilledInput = inputSpiller.get().getSpilledPages(partition);
+    }
+
+    private static Page extractChannels(Page page, int[] channels)
+    {
+        Block[] blocks = new Block[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            blocks[i] = page.getBlock(channels[i]);
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
     private boolean hasUnfinishedInput()
     {
         return inputPage != null || unfinishedWork != null;
@@ -184,9 +378,15 @@ public class MarkDistinctOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        long estimatedSize = markDistinctHash == null ? 0 : markDistinctHash.getEstimatedSize();
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
-        localUserMemoryContext.setBytes(markDistinctHash.getEstimatedSize());
+        if (spillEnabled && !inputSpiller.isPresent()) {
+            localRevocableMemoryContext.setBytes(estimatedSize);
+        }
+        else {
+            localUserMemoryContext.setBytes(estimatedSize);
+        }
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
     }
@@ -196,4 +396,17 @@ public class MarkDistinctOperator
     {
         return markDistinctHash.getCapacity();
     }
+
+    @Override
+    public void close()
+    {
+        markDistinctHash = null;
+        try (Closer closer = Closer.create()) {
+            distinctValuesSpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
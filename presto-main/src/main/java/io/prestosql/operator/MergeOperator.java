@@ -38,7 +38,7 @@ import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.prestosql.util.MergeSortedPages.mergeSortedPages;
+import static io.prestosql.util.MergeSortedPages.mergeSortedPagesWithPassThrough;
 import static io.prestosql.util.MoreLists.mappedCopy;
 import static java.util.Objects.requireNonNull;
 
@@ -175,13 +175,11 @@ public class MergeOperator
     @Override
     public void noMoreSplits()
     {
-        mergedPages = mergeSortedPages(
+        mergedPages = mergeSortedPagesWithPassThrough(
                 pageProducers,
                 comparator,
                 outputChannels,
                 outputTypes,
-                (pageBuilder, pageWithPosition) -> pageBuilder.isFull(),
-                false,
                 operatorContext.aggregateUserMemoryContext(),
                 operatorContext.getDriverContext().getYieldSignal());
         blockedOnSplits.set(null);
@@ -15,16 +15,26 @@ package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.Spiller;
+import io.prestosql.spiller.SpillerFactory;
+import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
 import java.util.List;
+import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.prestosql.util.MergeSortedPages.mergeSortedPages;
 import static java.util.Objects.requireNonNull;
 
 public class OrderByOperator
@@ -42,6 +52,9 @@ public class OrderByOperator
         private final List<SortOrder> sortOrder;
         private boolean closed;
         private final PagesIndex.Factory pagesIndexFactory;
+        private final boolean spillEnabled;
+        private final Optional<SpillerFactory> spillerFactory;
+        private final OrderingCompiler orderingCompiler;
 
         public OrderByOperatorFactory(
                 int operatorId,
@@ -51,7 +64,10 @@ public class OrderByOperator
                 int expectedPositions,
                 List<Integer> sortChannels,
                 List<SortOrder> sortOrder,
-                PagesIndex.Factory pagesIndexFactory)
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                Optional<SpillerFactory> spillerFactory,
+                OrderingCompiler orderingCompiler)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -62,6 +78,10 @@ public class OrderByOperator
             this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
 
             this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+            this.spillEnabled = spillEnabled;
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+            checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
         }
 
         @Override
@@ -77,7 +97,10 @@ public class OrderByOperator
                     expectedPositions,
                     sortChannels,
                     sortOrder,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
 
         @Override
@@ -89,7 +112,18 @@ public class OrderByOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new OrderByOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, expectedPositions, sortChannels, sortOrder, pagesIndexFactory);
+            return new OrderByOperatorFactory(
+                    operatorId,
+                    planNodeId,
+                    sourceTypes,
+                    outputChannels,
+                    expectedPositions,
+                    sortChannels,
+                    sortOrder,
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
     }
 
@@ -101,16 +135,29 @@ public class OrderByOperator
     }
 
     private final OperatorContext operatorContext;
+    private final List<Type> sourceTypes;
     private final List<Integer> sortChannels;
     private final List<SortOrder> sortOrder;
     private final int[] outputChannels;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private final PagesIndex pageIndex;
 
     private final PageBuilder pageBuilder;
     private int currentPosition;
 
+    private final boolean spillEnabled;
+    private final Optional<SpillerFactory> spillerFactory;
+    private final OrderingCompiler orderingCompiler;
+
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    // merge of the spilled runs and the remaining in-memory run, set on finish when anything was spilled
+    private WorkProcessor<Page> mergedPages;
+    // set when the in-memory run did not fit in user memory on finish, and is spilled before the merge
+    private boolean finalSpillInProgress;
+
     private State state = State.NEEDS_INPUT;
 
     public OrderByOperator(
@@ -120,19 +167,29 @@ public class OrderByOperator
             int expectedPositions,
             List<Integer> sortChannels,
             List<SortOrder> sortOrder,
-            PagesIndex.Factory pagesIndexFactory)
+            PagesIndex.Factory pagesIndexFactory,
+            boolean spillEnabled,
+            Optional<SpillerFactory> spillerFactory,
+            OrderingCompiler orderingCompiler)
     {
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
 
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
         this.outputChannels = Ints.toArray(requireNonNull(outputChannels, "outputChannels is null"));
         this.sortChannels = ImmutableList.copyOf(requireNonNull(sortChannels, "sortChannels is null"));
         this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
 
         this.pageIndex = pagesIndexFactory.newPagesIndex(sourceTypes, expectedPositions);
 
         this.pageBuilder = new PageBuilder(toTypes(sourceTypes, outputChannels));
+
+        this.spillEnabled = spillEnabled;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+        checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
     }
 
     @Override
@@ -144,14 +201,38 @@ public class OrderByOperator
     @Override
     public void finish()
     {
-        if (state == State.NEEDS_INPUT) {
-            state = State.HAS_OUTPUT;
+        if (state != State.NEEDS_INPUT) {
+            return;
+        }
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
+        getFutureValue(spillInProgress);
+        state = State.HAS_OUTPUT;
+
+        // the remaining in-memory run is held until the output is produced, so it can no longer be revoked
+        long revocableBytes = localRevocableMemoryContext.getBytes();
+        localRevocableMemoryContext.setBytes(0);
+        if (!localUserMemoryContext.trySetBytes(localUserMemoryContext.getBytes() + revocableBytes)) {
+            // there is no user memory to hold the run, so spill it as well and merge all of the runs from disk
+            localRevocableMemoryContext.setBytes(revocableBytes);
+            spillInProgress = spillToDisk();
+            finalSpillInProgress = true;
+            return;
+        }
 
-            // sort the index
-            pageIndex.sort(sortChannels, sortOrder);
+        // sort the index
+        pageIndex.sort(sortChannels, sortOrder);
+
+        if (spiller.isPresent()) {
+            mergedPages = mergeSpilledAndMemoryPages();
         }
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return finalSpillInProgress ? spillInProgress : NOT_BLOCKED;
+    }
+
     @Override
     public boolean isFinished()
     {
@@ -169,15 +250,79 @@ public class OrderByOperator
     {
         checkState(state == State.NEEDS_INPUT, "Operator is already finishing");
         requireNonNull(page, "page is null");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
 
         pageIndex.addPage(page);
+        updateMemoryUsage();
+    }
 
-        if (!localUserMemoryContext.trySetBytes(pageIndex.getEstimatedSize().toBytes())) {
+    private void updateMemoryUsage()
+    {
+        if (spillEnabled) {
+            localRevocableMemoryContext.setBytes(pageIndex.getEstimatedSize().toBytes());
+        }
+        else if (!localUserMemoryContext.trySetBytes(pageIndex.getEstimatedSize().toBytes())) {
             pageIndex.compact();
             localUserMemoryContext.setBytes(pageIndex.getEstimatedSize().toBytes());
         }
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(spillInProgress.isDone(), "Spill is already in progress");
+        if (state != State.NEEDS_INPUT || pageIndex.getPositionCount() == 0) {
+            return spillInProgress;
+        }
+        spillInProgress = spillToDisk();
+        return spillInProgress;
+    }
+
+    private ListenableFuture<?> spillToDisk()
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.get().create(
+                    sourceTypes,
+                    operatorContext.getSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+        }
+
+        // each spill is a single sorted run, which is merged with the others on finish
+        pageIndex.sort(sortChannels, sortOrder);
+        return spiller.get().spill(pageIndex.getSortedPages());
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (state != State.NEEDS_INPUT) {
+            return;
+        }
+        getFutureValue(spillInProgress);
+        pageIndex.clear();
+        localRevocableMemoryContext.setBytes(0);
+    }
+
+    private WorkProcessor<Page> mergeSpilledAndMemoryPages()
+    {
+        List<WorkProcessor<Page>> sortedRuns = ImmutableList.<WorkProcessor<Page>>builder()
+                .addAll(spiller.get().getSpills().stream()
+                        .map(WorkProcessor::fromIterator)
+                        .collect(toImmutableList()))
+                .add(WorkProcessor.fromIterator(pageIndex.getSortedPages()))
+                .build();
+
+        return mergeSortedPages(
+                sortedRuns,
+                orderingCompiler.compilePageWithPositionComparator(sourceTypes, sortChannels, sortOrder),
+                Ints.asList(outputChannels),
+                toTypes(sourceTypes, Ints.asList(outputChannels)),
+                (pageBuilder, pageWithPosition) -> pageBuilder.isFull(),
+                false,
+                operatorContext.newAggregateSystemMemoryContext(),
+                operatorContext.getDriverContext().getYieldSignal());
+    }
+
     @Override
     public Page getOutput()
     {
@@ -185,6 +330,21 @@ public class OrderByOperator
             return null;
         }
 
+        if (finalSpillInProgress) {
+            if (!spillInProgress.isDone()) {
+                return null;
+            }
+            getFutureValue(spillInProgress);
+            finalSpillInProgress = false;
+            pageIndex.clear();
+            localRevocableMemoryContext.setBytes(0);
+            mergedPages = mergeSpilledAndMemoryPages();
+        }
+
+        if (mergedPages != null) {
+            return getMergedOutput();
+        }
+
         if (currentPosition >= pageIndex.getPositionCount()) {
             state = State.FINISHED;
             return null;
@@ -204,10 +364,27 @@ public class OrderByOperator
         return page;
     }
 
+    private Page getMergedOutput()
+    {
+        if (!mergedPages.process()) {
+            return null;
+        }
+
+        if (mergedPages.isFinished()) {
+            state = State.FINISHED;
+            mergedPages = null;
+            return null;
+        }
+
+        return mergedPages.getResult();
+    }
+
     @Override
     public void close()
     {
         pageIndex.clear();
+        localRevocableMemoryContext.setBytes(0);
+        spiller.ifPresent(Spiller::close);
     }
 
     private static List<Type> toTypes(List<? extends Type> sourceTypes, List<Integer> outputChannels)
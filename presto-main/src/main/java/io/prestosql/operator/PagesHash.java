@@ -16,16 +16,20 @@ package io.prestosql.operator;
 import io.airlift.units.DataSize;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
 import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.prestosql.operator.SyntheticAddress.decodePosition;
 import static io.prestosql.operator.SyntheticAddress.decodeSliceIndex;
+import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
@@ -47,6 +51,11 @@ public final class PagesHash
     // to accessing values in blocks. We use bytes to reduce memory foot print
     // and there is no performance gain from storing full hashes
     private final byte[] positionToHashes;
+
+    // When the join is on a single BIGINT channel, the key value of every occupied
+    // slot is stored inline next to key[], so probes compare longs directly instead
+    // of following the address into the build pages. Null otherwise.
+    private final long[] keyValues;
     private final long hashCollisions;
     private final double expectedHashCollisions;
 
@@ -54,10 +63,20 @@ public final class PagesHash
             LongArrayList addresses,
             PagesHashStrategy pagesHashStrategy,
             PositionLinks.FactoryBuilder positionLinks)
+    {
+        this(addresses, pagesHashStrategy, positionLinks, Optional.empty());
+    }
+
+    public PagesHash(
+            LongArrayList addresses,
+            PagesHashStrategy pagesHashStrategy,
+            PositionLinks.FactoryBuilder positionLinks,
+            Optional<List<Block>> bigintJoinChannel)
     {
         this.addresses = requireNonNull(addresses, "addresses is null");
         this.pagesHashStrategy = requireNonNull(pagesHashStrategy, "pagesHashStrategy is null");
         this.channelCount = pagesHashStrategy.getChannelCount();
+        requireNonNull(bigintJoinChannel, "bigintJoinChannel is null");
 
         // reserve memory for the arrays
         int hashSize = HashCommon.arraySize(addresses.size(), 0.75f);
@@ -66,8 +85,24 @@ public final class PagesHash
         key = new int[hashSize];
         Arrays.fill(key, -1);
 
-        positionToHashes = new byte[addresses.size()];
+        if (bigintJoinChannel.isPresent()) {
+            keyValues = new long[hashSize];
+            positionToHashes = new byte[0];
+            hashCollisions = buildBigintHash(bigintJoinChannel.get(), positionLinks);
+        }
+        else {
+            keyValues = null;
+            positionToHashes = new byte[addresses.size()];
+            hashCollisions = buildHash(positionLinks);
+        }
 
+        size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
+                sizeOf(key) + sizeOf(positionToHashes) + (keyValues == null ? 0 : sizeOf(keyValues));
+        expectedHashCollisions = estimateNumberOfHashCollisions(addresses.size(), hashSize);
+    }
+
+    private long buildHash(PositionLinks.FactoryBuilder positionLinks)
+    {
         // We will process addresses in batches, to save memory on array of hashes.
         int positionsInStep = Math.min(addresses.size() + 1, (int) CACHE_SIZE.toBytes() / Integer.SIZE);
         long[] positionToFullHashes = new long[positionsInStep];
@@ -117,11 +152,40 @@ public final class PagesHash
                 key[pos] = realPosition;
             }
         }
+        return hashCollisionsLocal;
+    }
 
-        size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
-                sizeOf(key) + sizeOf(positionToHashes);
-        hashCollisions = hashCollisionsLocal;
-        expectedHashCollisions = estimateNumberOfHashCollisions(addresses.size(), hashSize);
+    private long buildBigintHash(List<Block> keyBlocks, PositionLinks.FactoryBuilder positionLinks)
+    {
+        long hashCollisionsLocal = 0;
+        for (int position = 0; position < addresses.size(); position++) {
+            long pageAddress = addresses.getLong(position);
+            Block block = keyBlocks.get(decodeSliceIndex(pageAddress));
+            int blockPosition = decodePosition(pageAddress);
+            if (block.isNull(blockPosition)) {
+                continue;
+            }
+
+            long value = BIGINT.getLong(block, blockPosition);
+            int realPosition = position;
+            int pos = getHashPosition(readHashPosition(position), mask);
+
+            // look for an empty slot or a slot containing this key
+            while (key[pos] != -1) {
+                if (keyValues[pos] == value) {
+                    // link the new key position to the current key position
+                    realPosition = positionLinks.link(realPosition, key[pos]);
+                    break;
+                }
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+                hashCollisionsLocal++;
+            }
+
+            key[pos] = realPosition;
+            keyValues[pos] = value;
+        }
+        return hashCollisionsLocal;
     }
 
     public final int getChannelCount()
@@ -149,6 +213,11 @@ public final class PagesHash
         return expectedHashCollisions;
     }
 
+    public long hashRow(int position, Page hashChannelsPage)
+    {
+        return pagesHashStrategy.hashRow(position, hashChannelsPage);
+    }
+
     public int getAddressIndex(int position, Page hashChannelsPage)
     {
         return getAddressIndex(position, hashChannelsPage, pagesHashStrategy.hashRow(position, hashChannelsPage));
@@ -156,6 +225,10 @@ public final class PagesHash
 
     public int getAddressIndex(int rightPosition, Page hashChannelsPage, long rawHash)
     {
+        if (keyValues != null) {
+            return getBigintAddressIndex(BIGINT.getLong(hashChannelsPage.getBlock(0), rightPosition), rawHash);
+        }
+
         int pos = getHashPosition(rawHash, mask);
 
         while (key[pos] != -1) {
@@ -168,6 +241,64 @@ public final class PagesHash
         return -1;
     }
 
+    /**
+     * Batched variant of {@link #getAddressIndex(int, Page, long)}. The first loop loads the first
+     * slot of every position. These loads do not depend on each other, so their cache misses overlap
+     * instead of being serialized behind the comparisons of the second loop. Positions whose first
+     * slot is empty are resolved by the first loop.
+     */
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, long[] rawHashes, int[] addressIndexes)
+    {
+        for (int i = 0; i < positionCount; i++) {
+            int pos = getHashPosition(rawHashes[i], mask);
+            addressIndexes[i] = key[pos] == -1 ? -1 : pos;
+        }
+
+        if (keyValues != null) {
+            Block block = hashChannelsPage.getBlock(0);
+            for (int i = 0; i < positionCount; i++) {
+                int pos = addressIndexes[i];
+                if (pos == -1) {
+                    continue;
+                }
+                long value = BIGINT.getLong(block, positions[i]);
+                while (key[pos] != -1 && keyValues[pos] != value) {
+                    // increment position and mask to handler wrap around
+                    pos = (pos + 1) & mask;
+                }
+                addressIndexes[i] = key[pos];
+            }
+            return;
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int pos = addressIndexes[i];
+            if (pos == -1) {
+                continue;
+            }
+            int position = positions[i];
+            while (key[pos] != -1 && !positionEqualsCurrentRowIgnoreNulls(key[pos], (byte) rawHashes[i], position, hashChannelsPage)) {
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+            }
+            addressIndexes[i] = key[pos];
+        }
+    }
+
+    private int getBigintAddressIndex(long value, long rawHash)
+    {
+        int pos = getHashPosition(rawHash, mask);
+
+        while (key[pos] != -1) {
+            if (keyValues[pos] == value) {
+                return key[pos];
+            }
+            // increment position and mask to handler wrap around
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
     public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
     {
         long pageAddress = addresses.getLong(toIntExact(position));
@@ -60,6 +60,7 @@ import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.prestosql.operator.SyntheticAddress.decodePosition;
 import static io.prestosql.operator.SyntheticAddress.decodeSliceIndex;
 import static io.prestosql.operator.SyntheticAddress.encodeSyntheticAddress;
+import static io.prestosql.spi.type.BigintType.BIGINT;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -481,6 +482,11 @@ public class PagesIndex
             Optional<List<Integer>> outputChannels)
     {
         List<List<Block>> channels = ImmutableList.copyOf(this.channels);
+        OptionalInt bigintJoinChannel = OptionalInt.empty();
+        if (joinChannels.size() == 1 && types.get(joinChannels.get(0)).equals(BIGINT)) {
+            bigintJoinChannel = OptionalInt.of(joinChannels.get(0));
+        }
+
         if (!joinChannels.isEmpty()) {
             // todo compiled implementation of lookup join does not support when we are joining with empty join channels.
             // This code path will trigger only for OUTER joins. To fix that we need to add support for
@@ -495,7 +501,8 @@ public class PagesIndex
                         hashChannel,
                         filterFunctionFactory,
                         sortChannel,
-                        searchFunctionFactories);
+                        searchFunctionFactories,
+                        bigintJoinChannel);
             }
             catch (Exception e) {
                 log.error(e, "Lookup source compile failed for types=%s error=%s", types, e);
@@ -520,7 +527,8 @@ public class PagesIndex
                 channels,
                 filterFunctionFactory,
                 sortChannel,
-                searchFunctionFactories);
+                searchFunctionFactories,
+                bigintJoinChannel);
     }
 
     private List<Integer> rangeList(int endExclusive)
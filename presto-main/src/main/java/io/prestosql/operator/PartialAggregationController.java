@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Decides whether a partial aggregation is worth the cost of hashing its input.
+ * When a partial aggregation produces almost as many groups as it receives rows,
+ * it is disabled and the operator converts its input to the intermediate format
+ * directly. Aggregation is retried after a number of rows have been passed through,
+ * so a change in the data distribution is eventually picked up.
+ */
+public class PartialAggregationController
+{
+    private static final long PASS_THROUGH_ROWS_MULTIPLIER = 10;
+
+    private final long minRows;
+    private final double uniqueRowsRatioThreshold;
+    private final long passThroughRowsBeforeRetry;
+
+    private boolean partialAggregationDisabled;
+    private long passThroughRows;
+
+    public PartialAggregationController(long minRows, double uniqueRowsRatioThreshold)
+    {
+        checkArgument(minRows > 0, "minRows must be positive");
+        checkArgument(uniqueRowsRatioThreshold >= 0 && uniqueRowsRatioThreshold <= 1, "uniqueRowsRatioThreshold must be between 0 and 1");
+        this.minRows = minRows;
+        this.uniqueRowsRatioThreshold = uniqueRowsRatioThreshold;
+        this.passThroughRowsBeforeRetry = minRows * PASS_THROUGH_ROWS_MULTIPLIER;
+    }
+
+    public boolean isPartialAggregationDisabled()
+    {
+        return partialAggregationDisabled;
+    }
+
+    /**
+     * Records the rows aggregated since the last decision and disables partial aggregation
+     * if it does not reduce the number of rows enough.
+     *
+     * @return true if there were enough rows to decide, in which case the caller starts counting again
+     */
+    public boolean onAggregatedRows(long inputRows, long uniqueRows)
+    {
+        if (inputRows < minRows) {
+            return false;
+        }
+        if (uniqueRows > inputRows * uniqueRowsRatioThreshold) {
+            partialAggregationDisabled = true;
+            passThroughRows = 0;
+        }
+        return true;
+    }
+
+    public void onPassThroughRows(long rows)
+    {
+        passThroughRows += rows;
+        if (passThroughRows >= passThroughRowsBeforeRetry) {
+            partialAggregationDisabled = false;
+            passThroughRows = 0;
+        }
+    }
+}
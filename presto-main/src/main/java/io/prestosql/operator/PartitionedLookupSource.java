@@ -86,6 +86,19 @@ public class PartitionedLookupSource
 
     private boolean closed;
 
+    // scratch buffers for getJoinPositions
+    private final int[] partitionOffsets;
+    private long[] rawHashesBuffer = new long[0];
+    private int[] partitionsBuffer = new int[0];
+    // positions, raw hashes and original indexes of the probe, grouped by partition
+    private int[] groupedPositions = new int[0];
+    private long[] groupedRawHashes = new long[0];
+    private int[] groupedIndexes = new int[0];
+    // the positions and raw hashes of one partition, as passed to its lookup source
+    private int[] partitionPositions = new int[0];
+    private long[] partitionRawHashes = new long[0];
+    private long[] partitionJoinPositions = new long[0];
+
     private PartitionedLookupSource(List<? extends LookupSource> lookupSources, List<Type> hashChannelTypes, Optional<OuterPositionTracker> outerPositionTracker)
     {
         this.lookupSources = lookupSources.toArray(new LookupSource[lookupSources.size()]);
@@ -101,6 +114,7 @@ public class PartitionedLookupSource
         this.partitionMask = lookupSources.size() - 1;
         this.shiftSize = numberOfTrailingZeros(lookupSources.size()) + 1;
         this.outerPositionTracker = outerPositionTracker.orElse(null);
+        this.partitionOffsets = new int[lookupSources.size() + 1];
     }
 
     @Override
@@ -147,6 +161,75 @@ public class PartitionedLookupSource
         return encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
     }
 
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        if (rawHashes == null) {
+            if (rawHashesBuffer.length < positionCount) {
+                rawHashesBuffer = new long[positionCount];
+            }
+            for (int i = 0; i < positionCount; i++) {
+                rawHashesBuffer[i] = partitionGenerator.getRawHash(hashChannelsPage, positions[i]);
+            }
+            rawHashes = rawHashesBuffer;
+        }
+
+        if (lookupSources.length == 1) {
+            lookupSources[0].getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, rawHashes, joinPositions);
+            for (int i = 0; i < positionCount; i++) {
+                if (joinPositions[i] >= 0) {
+                    joinPositions[i] = encodePartitionedJoinPosition(0, toIntExact(joinPositions[i]));
+                }
+            }
+            return;
+        }
+
+        if (partitionsBuffer.length < positionCount) {
+            partitionsBuffer = new int[positionCount];
+            groupedPositions = new int[positionCount];
+            groupedRawHashes = new long[positionCount];
+            groupedIndexes = new int[positionCount];
+            partitionPositions = new int[positionCount];
+            partitionRawHashes = new long[positionCount];
+            partitionJoinPositions = new long[positionCount];
+        }
+
+        // group the positions by partition with a counting sort, so that every lookup source is probed in a batch
+        Arrays.fill(partitionOffsets, 0);
+        for (int i = 0; i < positionCount; i++) {
+            int partition = partitionGenerator.getPartition(rawHashes[i]);
+            partitionsBuffer[i] = partition;
+            partitionOffsets[partition + 1]++;
+        }
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            partitionOffsets[partition + 1] += partitionOffsets[partition];
+        }
+        for (int i = 0; i < positionCount; i++) {
+            // partitionOffsets[partition] is the next free slot of the partition until the scatter completes
+            int index = partitionOffsets[partitionsBuffer[i]]++;
+            groupedPositions[index] = positions[i];
+            groupedRawHashes[index] = rawHashes[i];
+            groupedIndexes[index] = i;
+        }
+
+        // after the scatter every partition ends where the next one starts
+        int start = 0;
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            int end = partitionOffsets[partition];
+            int count = end - start;
+            if (count > 0) {
+                System.arraycopy(groupedPositions, start, partitionPositions, 0, count);
+                System.arraycopy(groupedRawHashes, start, partitionRawHashes, 0, count);
+                lookupSources[partition].getJoinPositions(partitionPositions, count, hashChannelsPage, allChannelsPage, partitionRawHashes, partitionJoinPositions);
+                for (int i = 0; i < count; i++) {
+                    long joinPosition = partitionJoinPositions[i];
+                    joinPositions[groupedIndexes[start + i]] = joinPosition < 0 ? joinPosition : encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
+                }
+            }
+            start = end;
+        }
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.window.FramedWindowFunction;
 import io.prestosql.operator.window.WindowPartition;
@@ -26,6 +27,9 @@ import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.Spiller;
+import io.prestosql.spiller.SpillerFactory;
+import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
 import java.util.List;
@@ -40,7 +44,10 @@ import static com.google.common.base.Preconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.concat;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.spi.block.SortOrder.ASC_NULLS_LAST;
+import static io.prestosql.util.MergeSortedPages.mergeSortedPages;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
@@ -63,6 +70,9 @@ public class WindowOperator
         private final int expectedPositions;
         private boolean closed;
         private final PagesIndex.Factory pagesIndexFactory;
+        private final boolean spillEnabled;
+        private final Optional<SpillerFactory> spillerFactory;
+        private final OrderingCompiler orderingCompiler;
 
         public WindowOperatorFactory(
                 int operatorId,
@@ -76,7 +86,10 @@ public class WindowOperator
                 List<SortOrder> sortOrder,
                 int preSortedChannelPrefix,
                 int expectedPositions,
-                PagesIndex.Factory pagesIndexFactory)
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                Optional<SpillerFactory> spillerFactory,
+                OrderingCompiler orderingCompiler)
         {
             requireNonNull(sourceTypes, "sourceTypes is null");
             requireNonNull(planNodeId, "planNodeId is null");
@@ -88,6 +101,9 @@ public class WindowOperator
             requireNonNull(sortChannels, "sortChannels is null");
             requireNonNull(sortOrder, "sortOrder is null");
             requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+            requireNonNull(spillerFactory, "spillerFactory is null");
+            requireNonNull(orderingCompiler, "orderingCompiler is null");
+            checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
             checkArgument(sortChannels.size() == sortOrder.size(), "Must have same number of sort channels as sort orders");
             checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
             checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
@@ -104,6 +120,9 @@ public class WindowOperator
             this.sortOrder = ImmutableList.copyOf(sortOrder);
             this.preSortedChannelPrefix = preSortedChannelPrefix;
             this.expectedPositions = expectedPositions;
+            this.spillEnabled = spillEnabled;
+            this.spillerFactory = spillerFactory;
+            this.orderingCompiler = orderingCompiler;
         }
 
         @Override
@@ -123,7 +142,10 @@ public class WindowOperator
                     sortOrder,
                     preSortedChannelPrefix,
                     expectedPositions,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
 
         @Override
@@ -147,7 +169,10 @@ public class WindowOperator
                     sortOrder,
                     preSortedChannelPrefix,
                     expectedPositions,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
     }
 
@@ -165,8 +190,11 @@ public class WindowOperator
     private final List<Integer> orderChannels;
     private final List<SortOrder> ordering;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
+    private final List<Type> sourceTypes;
     private final int[] preGroupedChannels;
+    private final int[] unGroupedPartitionChannels;
 
     private final PagesHashStrategy preGroupedPartitionHashStrategy;
     private final PagesHashStrategy unGroupedPartitionHashStrategy;
@@ -186,6 +214,23 @@ public class WindowOperator
 
     private Page pendingInput;
 
+    private final boolean spillEnabled;
+    private final Optional<SpillerFactory> spillerFactory;
+    private final OrderingCompiler orderingCompiler;
+    // ordering of the spilled runs, which keeps the partitions of a pre-group contiguous
+    private final List<Integer> spillSortChannels;
+    private final List<SortOrder> spillSortOrder;
+
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    // pre-grouped channels of the spilled rows, as the pagesIndex may be empty after a spill
+    private Page spilledPreGroupKey;
+    // merged stream of the spilled runs of the current pre-group, sorted by the spill sort channels
+    private WorkProcessor<Page> unspilledPages;
+    private Page pendingUnspilledPage;
+    // set while the pagesIndex holds a partially loaded partition of the spilled pre-group
+    private boolean loadingUnspilledPartition;
+
     public WindowOperator(
             OperatorContext operatorContext,
             List<Type> sourceTypes,
@@ -197,7 +242,10 @@ public class WindowOperator
             List<SortOrder> sortOrder,
             int preSortedChannelPrefix,
             int expectedPositions,
-            PagesIndex.Factory pagesIndexFactory)
+            PagesIndex.Factory pagesIndexFactory,
+            boolean spillEnabled,
+            Optional<SpillerFactory> spillerFactory,
+            OrderingCompiler orderingCompiler)
     {
         requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(outputChannels, "outputChannels is null");
@@ -208,12 +256,20 @@ public class WindowOperator
         requireNonNull(sortChannels, "sortChannels is null");
         requireNonNull(sortOrder, "sortOrder is null");
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+        requireNonNull(spillerFactory, "spillerFactory is null");
+        requireNonNull(orderingCompiler, "orderingCompiler is null");
+        checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
         checkArgument(sortChannels.size() == sortOrder.size(), "Must have same number of sort channels as sort orders");
         checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
         checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
 
         this.operatorContext = operatorContext;
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
+        this.spillEnabled = spillEnabled;
+        this.spillerFactory = spillerFactory;
+        this.orderingCompiler = orderingCompiler;
         this.outputChannels = Ints.toArray(outputChannels);
         this.windowFunctions = windowFunctionDefinitions.stream()
                 .map(functionDefinition -> new FramedWindowFunction(functionDefinition.createWindowFunction(), functionDefinition.getFrameInfo()))
@@ -232,6 +288,7 @@ public class WindowOperator
         List<Integer> unGroupedPartitionChannels = partitionChannels.stream()
                 .filter(channel -> !preGroupedChannels.contains(channel))
                 .collect(toImmutableList());
+        this.unGroupedPartitionChannels = Ints.toArray(unGroupedPartitionChannels);
         this.unGroupedPartitionHashStrategy = pagesIndex.createPagesHashStrategy(unGroupedPartitionChannels, OptionalInt.empty());
         List<Integer> preSortedChannels = sortChannels.stream()
                 .limit(preSortedChannelPrefix)
@@ -245,11 +302,16 @@ public class WindowOperator
             // This already implies that set(preGroupedChannels) == set(partitionChannels) (enforced with checkArgument)
             this.orderChannels = ImmutableList.copyOf(Iterables.skip(sortChannels, preSortedChannelPrefix));
             this.ordering = ImmutableList.copyOf(Iterables.skip(sortOrder, preSortedChannelPrefix));
+            // the input is already sorted on the prefix, so merging on all the sort channels preserves the order
+            this.spillSortChannels = ImmutableList.copyOf(sortChannels);
+            this.spillSortOrder = ImmutableList.copyOf(sortOrder);
         }
         else {
             // Otherwise, we need to sort by the unGroupedPartitionChannels and all original sort channels
             this.orderChannels = ImmutableList.copyOf(concat(unGroupedPartitionChannels, sortChannels));
             this.ordering = ImmutableList.copyOf(concat(nCopies(unGroupedPartitionChannels.size(), ASC_NULLS_LAST), sortOrder));
+            this.spillSortChannels = orderChannels;
+            this.spillSortOrder = ordering;
         }
 
         windowInfo = new WindowInfo.DriverWindowInfoBuilder();
@@ -274,10 +336,12 @@ public class WindowOperator
             return;
         }
         if (state == State.NEEDS_INPUT) {
+            checkState(spillInProgress.isDone(), "Spill is still in progress");
             // Since was waiting for more input, prepare what we have for output since we will not be getting any more input
             finishPagesIndex();
         }
         state = State.FINISHING;
+        updateMemoryUsage();
     }
 
     @Override
@@ -298,6 +362,7 @@ public class WindowOperator
         checkState(state == State.NEEDS_INPUT, "Operator can not take input at this time");
         requireNonNull(page, "page is null");
         checkState(pendingInput == null, "Operator already has pending input");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
 
         if (page.getPositionCount() == 0) {
             return;
@@ -307,7 +372,66 @@ public class WindowOperator
         if (processPendingInput()) {
             state = State.HAS_OUTPUT;
         }
-        localUserMemoryContext.setBytes(pagesIndex.getEstimatedSize().toBytes());
+        updateMemoryUsage();
+    }
+
+    private void updateMemoryUsage()
+    {
+        long bytes = pagesIndex.getEstimatedSize().toBytes();
+        // only the incomplete pre-group that is still being buffered can be spilled
+        if (spillEnabled && state == State.NEEDS_INPUT) {
+            localUserMemoryContext.setBytes(0);
+            localRevocableMemoryContext.setBytes(bytes);
+        }
+        else {
+            localRevocableMemoryContext.setBytes(0);
+            localUserMemoryContext.setBytes(bytes);
+        }
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(spillInProgress.isDone(), "Spill is already in progress");
+        if (state != State.NEEDS_INPUT || pagesIndex.getPositionCount() == 0) {
+            return spillInProgress;
+        }
+        return spillToDisk();
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (state != State.NEEDS_INPUT) {
+            return;
+        }
+        getFutureValue(spillInProgress);
+        pagesIndex.clear();
+        updateMemoryUsage();
+    }
+
+    private ListenableFuture<?> spillToDisk()
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.get().create(
+                    sourceTypes,
+                    operatorContext.getSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+        }
+        if (spilledPreGroupKey == null) {
+            Block[] keyBlocks = new Block[preGroupedChannels.length];
+            for (int i = 0; i < preGroupedChannels.length; i++) {
+                keyBlocks[i] = pagesIndex.getSingleValueBlock(preGroupedChannels[i], 0);
+            }
+            spilledPreGroupKey = new Page(1, keyBlocks);
+        }
+
+        // each spill is a single sorted run of the current pre-group
+        if (!spillSortChannels.isEmpty()) {
+            pagesIndex.sort(spillSortChannels, spillSortOrder);
+        }
+        spillInProgress = spiller.get().spill(pagesIndex.getSortedPages());
+        return spillInProgress;
     }
 
     /**
@@ -330,17 +454,33 @@ public class WindowOperator
 
     /**
      * @return the unused section of the page, or null if fully applied.
-     * pagesIndex guaranteed to have at least one row after this method returns
+     * pagesIndex guaranteed to have at least one row after this method returns, unless the buffered rows were spilled
      */
     private Page updatePagesIndex(Page page)
+    {
+        return updatePagesIndex(page, preGroupedChannels, preGroupedPartitionHashStrategy, Optional.ofNullable(spilledPreGroupKey));
+    }
+
+    /**
+     * @param groupKey the group channels of the buffered group, used when the pagesIndex is empty
+     * @return the unused section of the page, or null if fully applied.
+     */
+    private Page updatePagesIndex(Page page, int[] groupChannels, PagesHashStrategy groupHashStrategy, Optional<Page> groupKey)
     {
         checkArgument(page.getPositionCount() > 0);
 
         // TODO: Fix pagesHashStrategy to allow specifying channels for comparison, it currently requires us to rearrange the right side blocks in consecutive channel order
-        Page preGroupedPage = rearrangePage(page, preGroupedChannels);
-        if (pagesIndex.getPositionCount() == 0 || pagesIndex.positionEqualsRow(preGroupedPartitionHashStrategy, 0, 0, preGroupedPage)) {
+        Page preGroupedPage = rearrangePage(page, groupChannels);
+        boolean sameGroup;
+        if (pagesIndex.getPositionCount() > 0) {
+            sameGroup = pagesIndex.positionEqualsRow(groupHashStrategy, 0, 0, preGroupedPage);
+        }
+        else {
+            sameGroup = groupKey.map(key -> groupHashStrategy.rowEqualsRow(0, key, 0, preGroupedPage)).orElse(true);
+        }
+        if (sameGroup) {
             // Find the position where the pre-grouped columns change
-            int groupEnd = findGroupEnd(preGroupedPage, preGroupedPartitionHashStrategy, 0);
+            int groupEnd = findGroupEnd(preGroupedPage, groupHashStrategy, 0);
 
             // Add the section of the page that contains values for the current group
             pagesIndex.addPage(page.getRegion(0, groupEnd));
@@ -377,7 +517,7 @@ public class WindowOperator
         }
 
         Page page = extractOutput();
-        localUserMemoryContext.setBytes(pagesIndex.getEstimatedSize().toBytes());
+        updateMemoryUsage();
         return page;
     }
 
@@ -390,14 +530,31 @@ public class WindowOperator
             if (partition == null || !partition.hasNext()) {
                 int partitionStart = partition == null ? 0 : partition.getPartitionEnd();
 
-                if (partitionStart >= pagesIndex.getPositionCount()) {
-                    // Finished all of the partitions in the current pagesIndex
-                    partition = null;
-                    pagesIndex.clear();
+                if (loadingUnspilledPartition || partitionStart >= pagesIndex.getPositionCount()) {
+                    if (!loadingUnspilledPartition) {
+                        // Finished all of the partitions in the current pagesIndex
+                        partition = null;
+                        pagesIndex.clear();
+                    }
+
+                    if (unspilledPages != null) {
+                        // Load the next partition of the spilled pre-group, resuming a load that yielded
+                        loadingUnspilledPartition = true;
+                        if (!loadNextUnspilledPartition()) {
+                            return null;
+                        }
+                        loadingUnspilledPartition = false;
+                        if (pagesIndex.getPositionCount() > 0) {
+                            windowInfo.addIndex(pagesIndex);
+                            continue;
+                        }
+                        finishUnspilling();
+                    }
 
                     // Try to extract more partitions from the pendingInput
                     if (pendingInput != null && processPendingInput()) {
-                        partitionStart = 0;
+                        // If the pre-group was spilled, its first partition is loaded on the next iteration
+                        continue;
                     }
                     else if (state == State.FINISHING) {
                         state = State.FINISHED;
@@ -442,10 +599,77 @@ public class WindowOperator
 
     private void finishPagesIndex()
     {
+        if (spiller.isPresent()) {
+            startUnspilling();
+            return;
+        }
         sortPagesIndexIfNecessary();
         windowInfo.addIndex(pagesIndex);
     }
 
+    private void startUnspilling()
+    {
+        checkState(unspilledPages == null, "Spilled pre-group is already being processed");
+        if (pagesIndex.getPositionCount() > 0) {
+            // the remaining rows of the pre-group become the last sorted run, so that partitions
+            // can be loaded one at a time from the merged stream
+            getFutureValue(spillToDisk());
+            pagesIndex.clear();
+        }
+
+        List<WorkProcessor<Page>> sortedRuns = spiller.get().getSpills().stream()
+                .map(WorkProcessor::fromIterator)
+                .collect(toImmutableList());
+        unspilledPages = mergeSortedPages(
+                sortedRuns,
+                orderingCompiler.compilePageWithPositionComparator(sourceTypes, spillSortChannels, spillSortOrder),
+                sourceTypes,
+                operatorContext.newAggregateSystemMemoryContext(),
+                operatorContext.getDriverContext().getYieldSignal());
+    }
+
+    /**
+     * Loads the next partition of the spilled pre-group into the empty pagesIndex. The pagesIndex
+     * stays empty when all of the partitions have been loaded.
+     *
+     * @return false if the merge yielded before the partition was fully loaded
+     */
+    private boolean loadNextUnspilledPartition()
+    {
+        while (true) {
+            if (pendingUnspilledPage == null) {
+                if (unspilledPages.isFinished()) {
+                    return true;
+                }
+                if (!unspilledPages.process()) {
+                    return false;
+                }
+                if (unspilledPages.isFinished()) {
+                    return true;
+                }
+                pendingUnspilledPage = unspilledPages.getResult();
+                if (pendingUnspilledPage.getPositionCount() == 0) {
+                    pendingUnspilledPage = null;
+                    continue;
+                }
+            }
+
+            pendingUnspilledPage = updatePagesIndex(pendingUnspilledPage, unGroupedPartitionChannels, unGroupedPartitionHashStrategy, Optional.empty());
+            if (pendingUnspilledPage != null) {
+                // the page starts a new partition, so the buffered one is complete
+                return true;
+            }
+        }
+    }
+
+    private void finishUnspilling()
+    {
+        unspilledPages = null;
+        spilledPreGroupKey = null;
+        spiller.get().close();
+        spiller = Optional.empty();
+    }
+
     // Assumes input grouped on relevant pagesHashStrategy columns
     private static int findGroupEnd(Page page, PagesHashStrategy pagesHashStrategy, int startPosition)
     {
@@ -497,5 +721,7 @@ public class WindowOperator
     public void close()
     {
         driverWindowInfo.set(Optional.of(windowInfo.build()));
+        localRevocableMemoryContext.setBytes(0);
+        spiller.ifPresent(Spiller::close);
     }
 }
@@ -64,6 +64,7 @@ import static io.airlift.bytecode.expression.BytecodeExpressions.constantFalse;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantInt;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantLong;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantString;
+import static io.airlift.bytecode.expression.BytecodeExpressions.constantTrue;
 import static io.airlift.bytecode.expression.BytecodeExpressions.invokeDynamic;
 import static io.airlift.bytecode.expression.BytecodeExpressions.invokeStatic;
 import static io.airlift.bytecode.expression.BytecodeExpressions.not;
@@ -161,12 +162,25 @@ public class AccumulatorCompiler
                 grouped);
         generateAddInputWindowIndex(
                 definition,
+                "addInput",
                 stateFileds,
                 metadata.getValueInputMetadata(),
                 metadata.getLambdaInterfaces(),
                 lambdaProviderFields,
                 metadata.getInputFunction(),
                 callSiteBinder);
+        if (!grouped && metadata.getRemoveInputFunction().isPresent()) {
+            generateAddInputWindowIndex(
+                    definition,
+                    "removeInput",
+                    stateFileds,
+                    metadata.getValueInputMetadata(),
+                    metadata.getLambdaInterfaces(),
+                    lambdaProviderFields,
+                    metadata.getRemoveInputFunction().get(),
+                    callSiteBinder);
+            generateHasRemoveInput(definition);
+        }
         generateGetEstimatedSize(definition, stateFileds);
 
         generateGetIntermediateType(
@@ -323,8 +337,16 @@ public class AccumulatorCompiler
         body.ret();
     }
 
+    private static void generateHasRemoveInput(ClassDefinition definition)
+    {
+        MethodDefinition methodDefinition = definition.declareMethod(a(PUBLIC), "hasRemoveInput", type(boolean.class));
+        methodDefinition.getBody()
+                .append(constantTrue().ret());
+    }
+
     private static void generateAddInputWindowIndex(
             ClassDefinition definition,
+            String methodName,
             List<FieldDefinition> stateField,
             List<ParameterMetadata> parameterMetadatas,
             List<Class> lambdaInterfaces,
@@ -339,7 +361,7 @@ public class AccumulatorCompiler
         Parameter startPosition = arg("startPosition", int.class);
         Parameter endPosition = arg("endPosition", int.class);
 
-        MethodDefinition method = definition.declareMethod(a(PUBLIC), "addInput", type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
+        MethodDefinition method = definition.declareMethod(a(PUBLIC), methodName, type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
         Scope scope = method.getScope();
 
         Variable position = scope.declareVariable(int.class, "position");
@@ -25,6 +25,7 @@ import io.prestosql.spi.type.Type;
 import java.lang.invoke.MethodHandle;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -44,6 +45,7 @@ public class AggregationMetadata
     private final List<ParameterMetadata> valueInputMetadata;
     private final List<Class> lambdaInterfaces;
     private final MethodHandle inputFunction;
+    private final Optional<MethodHandle> removeInputFunction;
     private final MethodHandle combineFunction;
     private final MethodHandle outputFunction;
     private final List<AccumulatorStateDescriptor> accumulatorStateDescriptors;
@@ -78,17 +80,44 @@ public class AggregationMetadata
             List<AccumulatorStateDescriptor> accumulatorStateDescriptors,
             Type outputType,
             List<Class> lambdaInterfaces)
+    {
+        this(
+                name,
+                valueInputMetadata,
+                inputFunction,
+                Optional.empty(),
+                combineFunction,
+                outputFunction,
+                accumulatorStateDescriptors,
+                outputType,
+                lambdaInterfaces);
+    }
+
+    public AggregationMetadata(
+            String name,
+            List<ParameterMetadata> valueInputMetadata,
+            MethodHandle inputFunction,
+            Optional<MethodHandle> removeInputFunction,
+            MethodHandle combineFunction,
+            MethodHandle outputFunction,
+            List<AccumulatorStateDescriptor> accumulatorStateDescriptors,
+            Type outputType,
+            List<Class> lambdaInterfaces)
     {
         this.outputType = requireNonNull(outputType);
         this.valueInputMetadata = ImmutableList.copyOf(requireNonNull(valueInputMetadata, "valueInputMetadata is null"));
         this.name = requireNonNull(name, "name is null");
         this.inputFunction = requireNonNull(inputFunction, "inputFunction is null");
+        this.removeInputFunction = requireNonNull(removeInputFunction, "removeInputFunction is null");
         this.combineFunction = requireNonNull(combineFunction, "combineFunction is null");
         this.outputFunction = requireNonNull(outputFunction, "outputFunction is null");
         this.accumulatorStateDescriptors = requireNonNull(accumulatorStateDescriptors, "accumulatorStateDescriptors is null");
         this.lambdaInterfaces = ImmutableList.copyOf(requireNonNull(lambdaInterfaces, "lambdaInterfaces is null"));
 
         verifyInputFunctionSignature(inputFunction, valueInputMetadata, lambdaInterfaces, accumulatorStateDescriptors);
+        removeInputFunction.ifPresent(function -> checkArgument(
+                function.type().equals(inputFunction.type()),
+                "Remove input function type %s does not match input function type %s", function.type(), inputFunction.type()));
         verifyCombineFunction(combineFunction, lambdaInterfaces, accumulatorStateDescriptors);
         verifyExactOutputFunction(outputFunction, accumulatorStateDescriptors);
     }
@@ -118,6 +147,11 @@ public class AggregationMetadata
         return inputFunction;
     }
 
+    public Optional<MethodHandle> getRemoveInputFunction()
+    {
+        return removeInputFunction;
+    }
+
     public MethodHandle getCombineFunction()
     {
         return combineFunction;
@@ -20,6 +20,7 @@ import io.prestosql.spi.function.AggregationState;
 import io.prestosql.spi.function.CombineFunction;
 import io.prestosql.spi.function.InputFunction;
 import io.prestosql.spi.function.OutputFunction;
+import io.prestosql.spi.function.RemoveInputFunction;
 import io.prestosql.spi.function.SqlType;
 import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.StandardTypes;
@@ -37,6 +38,12 @@ public final class LongSumAggregation
         state.setLong(BigintOperators.add(state.getLong(), value));
     }
 
+    @RemoveInputFunction
+    public static void removeInput(@AggregationState NullableLongState state, @SqlType(StandardTypes.BIGINT) long value)
+    {
+        state.setLong(BigintOperators.subtract(state.getLong(), value));
+    }
+
     @CombineFunction
     public static void combine(@AggregationState NullableLongState state, @AggregationState NullableLongState otherState)
     {
@@ -87,6 +87,8 @@ public class ParametricAggregation
 
         // Bind provided dependencies to aggregation method handlers
         MethodHandle inputHandle = bindDependencies(concreteImplementation.getInputFunction(), concreteImplementation.getInputDependencies(), variables, typeManager, functionRegistry);
+        Optional<MethodHandle> removeInputHandle = concreteImplementation.getRemoveInputFunction()
+                .map(removeInputFunction -> bindDependencies(removeInputFunction, concreteImplementation.getInputDependencies(), variables, typeManager, functionRegistry));
         MethodHandle combineHandle = bindDependencies(concreteImplementation.getCombineFunction(), concreteImplementation.getCombineDependencies(), variables, typeManager, functionRegistry);
         MethodHandle outputHandle = bindDependencies(concreteImplementation.getOutputFunction(), concreteImplementation.getOutputDependencies(), variables, typeManager, functionRegistry);
 
@@ -101,13 +103,15 @@ public class ParametricAggregation
                 aggregationName,
                 parametersMetadata,
                 inputHandle,
+                removeInputHandle,
                 combineHandle,
                 outputHandle,
                 ImmutableList.of(new AccumulatorStateDescriptor(
                         stateClass,
                         stateSerializer,
                         stateFactory)),
-                outputType);
+                outputType,
+                ImmutableList.of());
 
         // Create specialized InternalAggregregationFunction for Presto
         return new InternalAggregationFunction(getSignature().getName(),
@@ -31,6 +31,7 @@ public class DictionaryAwarePageFilter
 
     private Block lastInputDictionary;
     private Optional<boolean[]> lastOutputDictionary;
+    private boolean lastDictionaryProcessingFailed;
     private long lastDictionaryUsageCount;
 
     public DictionaryAwarePageFilter(PageFilter filter)
@@ -86,6 +87,11 @@ public class DictionaryAwarePageFilter
     private Optional<boolean[]> processDictionary(ConnectorSession session, Block dictionary)
     {
         if (lastInputDictionary == dictionary) {
+            // Process a dictionary that was skipped before once it has been used for more positions than
+            // it has entries, since from then on evaluating every entry is cheaper than evaluating every row
+            if (!lastOutputDictionary.isPresent() && !lastDictionaryProcessingFailed && lastDictionaryUsageCount >= dictionary.getPositionCount()) {
+                lastOutputDictionary = filterDictionary(session, dictionary);
+            }
             return lastOutputDictionary;
         }
 
@@ -97,19 +103,10 @@ public class DictionaryAwarePageFilter
 
         lastDictionaryUsageCount = 0;
         lastInputDictionary = dictionary;
+        lastDictionaryProcessingFailed = false;
 
         if (shouldProcessDictionary) {
-            try {
-                SelectedPositions selectedDictionaryPositions = filter.filter(session, new Page(dictionary));
-                lastOutputDictionary = Optional.of(toPositionsMask(selectedDictionaryPositions, dictionary.getPositionCount()));
-            }
-            catch (Exception ignored) {
-                // Processing of dictionary failed, but we ignore the exception here
-                // and force reprocessing of the whole block using the normal code.
-                // The second pass may not fail due to filtering.
-                // todo dictionary processing should be able to tolerate failures of unused elements
-                lastOutputDictionary = Optional.empty();
-            }
+            lastOutputDictionary = filterDictionary(session, dictionary);
         }
         else {
             lastOutputDictionary = Optional.empty();
@@ -117,6 +114,22 @@ public class DictionaryAwarePageFilter
         return lastOutputDictionary;
     }
 
+    private Optional<boolean[]> filterDictionary(ConnectorSession session, Block dictionary)
+    {
+        try {
+            SelectedPositions selectedDictionaryPositions = filter.filter(session, new Page(dictionary));
+            return Optional.of(toPositionsMask(selectedDictionaryPositions, dictionary.getPositionCount()));
+        }
+        catch (Exception ignored) {
+            // Processing of dictionary failed, but we ignore the exception here
+            // and force reprocessing of the whole block using the normal code.
+            // The second pass may not fail due to filtering.
+            // todo dictionary processing should be able to tolerate failures of unused elements
+            lastDictionaryProcessingFailed = true;
+            return Optional.empty();
+        }
+    }
+
     private static SelectedPositions selectDictionaryPositions(DictionaryBlock dictionaryBlock, boolean[] selectedDictionaryPositions)
     {
         int selectedCount = 0;
@@ -18,36 +18,56 @@ import io.prestosql.metadata.Signature;
 import io.prestosql.operator.aggregation.Accumulator;
 import io.prestosql.operator.aggregation.AccumulatorFactory;
 import io.prestosql.operator.aggregation.InternalAggregationFunction;
+import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.function.WindowFunction;
 import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.spi.type.FixedWidthType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
 
 import java.util.List;
 import java.util.Optional;
 
+import static io.prestosql.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
 import static java.util.Objects.requireNonNull;
 
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // frames smaller than this are cheaper to recompute than to answer from a segment tree
+    private static final int SEGMENT_TREE_MIN_FRAME_SIZE = 32;
+
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final Optional<Type> segmentTreeType;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
     private int currentStart;
     private int currentEnd;
+    // nonNullPrefixCounts[i] is the number of rows before row i with no null arguments, built for accumulators supporting removeInput
+    private int[] nonNullPrefixCounts;
+    private WindowSegmentTree segmentTree;
 
     private AggregateWindowFunction(InternalAggregationFunction function, List<Integer> argumentChannels)
     {
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty());
+        if (function.isDecomposable() && !function.isOrderSensitive() && isFixedWidth(function.getIntermediateType())) {
+            this.segmentTreeType = Optional.of(function.getIntermediateType());
+        }
+        else {
+            this.segmentTreeType = Optional.empty();
+        }
     }
 
     @Override
     public void reset(WindowIndex windowIndex)
     {
         this.windowIndex = windowIndex;
+        this.segmentTree = null;
+        this.nonNullPrefixCounts = null;
         resetAccumulator();
     }
 
@@ -63,6 +83,20 @@ public class AggregateWindowFunction
             accumulate(currentEnd + 1, frameEnd);
             currentEnd = frameEnd;
         }
+        else if (isSlidingFrame(frameStart, frameEnd) && slideFrame(frameStart, frameEnd)) {
+            // frame moved forward, so only the rows that left and entered the frame were processed
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+        }
+        else if (isSegmentTreeFrame(frameStart, frameEnd)) {
+            // different frame, combined from the partial aggregations of the partition
+            if (segmentTree == null) {
+                segmentTree = new WindowSegmentTree(accumulatorFactory, segmentTreeType.get(), windowIndex, argumentChannels);
+            }
+            accumulator = segmentTree.aggregate(frameStart, frameEnd);
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+        }
         else {
             // different frame
             resetAccumulator();
@@ -74,11 +108,75 @@ public class AggregateWindowFunction
         accumulator.evaluateFinal(output);
     }
 
+    private boolean isSlidingFrame(int frameStart, int frameEnd)
+    {
+        return accumulator.hasRemoveInput() &&
+                (currentStart >= 0) &&
+                (frameStart > currentStart) &&
+                (frameStart <= currentEnd) &&
+                (frameEnd >= currentEnd);
+    }
+
+    private boolean isSegmentTreeFrame(int frameStart, int frameEnd)
+    {
+        // the first frame of a partition is computed directly, so partitions with only expanding frames never build a tree
+        return segmentTreeType.isPresent() &&
+                !accumulator.hasRemoveInput() &&
+                (currentStart >= 0) &&
+                (frameEnd - frameStart + 1 >= SEGMENT_TREE_MIN_FRAME_SIZE);
+    }
+
     private void accumulate(int start, int end)
     {
         accumulator.addInput(windowIndex, argumentChannels, start, end);
     }
 
+    /**
+     * Removes the rows that left the frame and adds the rows that entered it. Returns false
+     * if the frame must be recomputed instead, in which case the accumulator is invalid.
+     */
+    private boolean slideFrame(int frameStart, int frameEnd)
+    {
+        if (getNonNullRowCount(frameStart, frameEnd) == 0) {
+            // an aggregation of only null rows must produce the result of an empty aggregation
+            return false;
+        }
+        try {
+            accumulator.removeInput(windowIndex, argumentChannels, currentStart, frameStart - 1);
+            accumulate(currentEnd + 1, frameEnd);
+        }
+        catch (PrestoException e) {
+            // removing before adding can overflow where the frame itself does not, so
+            // recompute the frame, which fails again if the frame itself overflows
+            if (!e.getErrorCode().equals(NUMERIC_VALUE_OUT_OF_RANGE.toErrorCode())) {
+                throw e;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private int getNonNullRowCount(int start, int end)
+    {
+        if (nonNullPrefixCounts == null) {
+            nonNullPrefixCounts = new int[windowIndex.size() + 1];
+            for (int position = 0; position < windowIndex.size(); position++) {
+                nonNullPrefixCounts[position + 1] = nonNullPrefixCounts[position] + (anyArgumentIsNull(position) ? 0 : 1);
+            }
+        }
+        return nonNullPrefixCounts[end + 1] - nonNullPrefixCounts[start];
+    }
+
+    private boolean anyArgumentIsNull(int position)
+    {
+        for (int channel : argumentChannels) {
+            if (windowIndex.isNull(channel, position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void resetAccumulator()
     {
         if (currentStart >= 0) {
@@ -101,6 +199,14 @@ public class AggregateWindowFunction
         };
     }
 
+    private static boolean isFixedWidth(Type type)
+    {
+        if (type instanceof RowType) {
+            return type.getTypeParameters().stream().allMatch(FixedWidthType.class::isInstance);
+        }
+        return type instanceof FixedWidthType;
+    }
+
     private static List<Integer> createArgs(InternalAggregationFunction function)
     {
         ImmutableList.Builder<Integer> list = ImmutableList.builder();
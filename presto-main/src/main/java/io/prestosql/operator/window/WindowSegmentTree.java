@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.aggregation.Accumulator;
+import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.spi.type.Type;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bottom-up segment tree over the rows of a window partition. Leaf {@code n + i}
+ * is row {@code i} of the partition and is read directly from the window index,
+ * while every internal node {@code k < n} holds the intermediate state of its
+ * children {@code 2k} and {@code 2k + 1}. Any frame can then be aggregated by
+ * combining {@code O(log n)} nodes. The layout requires a commutative and
+ * associative combine function.
+ */
+class WindowSegmentTree
+{
+    private final AccumulatorFactory accumulatorFactory;
+    private final WindowIndex windowIndex;
+    private final List<Integer> argumentChannels;
+    private final int leafCount;
+
+    // internal node k is stored at position leafCount - 1 - k
+    private final Block nodes;
+
+    public WindowSegmentTree(AccumulatorFactory accumulatorFactory, Type intermediateType, WindowIndex windowIndex, List<Integer> argumentChannels)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        this.argumentChannels = ImmutableList.copyOf(requireNonNull(argumentChannels, "argumentChannels is null"));
+        this.leafCount = windowIndex.size();
+
+        BlockBuilder builder = intermediateType.createBlockBuilder(null, leafCount);
+        for (int node = leafCount - 1; node > 0; node--) {
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            addNode(accumulator, builder, 2 * node);
+            addNode(accumulator, builder, 2 * node + 1);
+            accumulator.evaluateIntermediate(builder);
+        }
+        this.nodes = builder.build();
+    }
+
+    /**
+     * Returns a new accumulator holding the rows {@code [start, end]} of the partition.
+     */
+    public Accumulator aggregate(int start, int end)
+    {
+        Accumulator accumulator = accumulatorFactory.createAccumulator();
+        int low = start + leafCount;
+        int high = end + leafCount + 1;
+        while (low < high) {
+            if ((low & 1) == 1) {
+                addNode(accumulator, nodes, low);
+                low++;
+            }
+            if ((high & 1) == 1) {
+                high--;
+                addNode(accumulator, nodes, high);
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+        return accumulator;
+    }
+
+    private void addNode(Accumulator accumulator, Block nodes, int node)
+    {
+        if (node >= leafCount) {
+            int position = node - leafCount;
+            accumulator.addInput(windowIndex, argumentChannels, position, position);
+        }
+        else {
+            accumulator.addIntermediate(nodes.getRegion(leafCount - 1 - node, 1));
+        }
+    }
+}
@@ -73,6 +73,7 @@ import io.prestosql.execution.TaskManagerConfig;
 import io.prestosql.execution.UseTask;
 import io.prestosql.execution.resourceGroups.InternalResourceGroupManager;
 import io.prestosql.execution.resourceGroups.LegacyResourceGroupConfigurationManager;
+import io.prestosql.execution.resourceGroups.QueryMemoryAdmissionController;
 import io.prestosql.execution.resourceGroups.ResourceGroupManager;
 import io.prestosql.execution.scheduler.AllAtOnceExecutionPolicy;
 import io.prestosql.execution.scheduler.ExecutionPolicy;
@@ -89,6 +90,8 @@ import io.prestosql.memory.TotalReservationLowMemoryKiller;
 import io.prestosql.memory.TotalReservationOnBlockedNodesLowMemoryKiller;
 import io.prestosql.metadata.CatalogManager;
 import io.prestosql.operator.ForScheduler;
+import io.prestosql.server.protocol.QueryResultCache;
+import io.prestosql.server.protocol.QueryResultCacheConfig;
 import io.prestosql.server.protocol.StatementResource;
 import io.prestosql.server.remotetask.RemoteTaskStats;
 import io.prestosql.spi.memory.ClusterMemoryPoolManager;
@@ -176,6 +179,9 @@ public class CoordinatorModule
         jaxrsBinder(binder).bind(StatementResource.class);
         binder.bind(StatementHttpExecutionMBean.class).in(Scopes.SINGLETON);
         newExporter(binder).export(StatementHttpExecutionMBean.class).withGeneratedName();
+        configBinder(binder).bindConfig(QueryResultCacheConfig.class);
+        binder.bind(QueryResultCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(QueryResultCache.class).withGeneratedName();
 
         // resource for serving static content
         jaxrsBinder(binder).bind(WebUiResource.class);
@@ -203,6 +209,8 @@ public class CoordinatorModule
         newExporter(binder).export(InternalResourceGroupManager.class).withGeneratedName();
         binder.bind(ResourceGroupManager.class).to(InternalResourceGroupManager.class);
         binder.bind(LegacyResourceGroupConfigurationManager.class).in(Scopes.SINGLETON);
+        binder.bind(QueryMemoryAdmissionController.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(QueryMemoryAdmissionController.class).withGeneratedName();
         newExporter(binder).export(QueryManager.class).withGeneratedName();
 
         // cluster memory manager
@@ -13,6 +13,9 @@
  */
 package io.prestosql.server;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Multimap;
 import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.concurrent.ThreadPoolExecutorMBean;
@@ -62,6 +65,8 @@ public class HttpRemoteTaskFactory
     private final JsonCodec<TaskStatus> taskStatusCodec;
     private final JsonCodec<TaskInfo> taskInfoCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
+    // all tasks of a stage share the same PlanFragment instance, so the fragment is only encoded once per stage
+    private final LoadingCache<PlanFragment, String> planFragmentJson;
     private final Duration maxErrorDuration;
     private final Duration taskStatusRefreshMaxWait;
     private final Duration taskInfoUpdateInterval;
@@ -80,6 +85,7 @@ public class HttpRemoteTaskFactory
             JsonCodec<TaskStatus> taskStatusCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+            JsonCodec<PlanFragment> planFragmentCodec,
             RemoteTaskStats stats)
     {
         this.httpClient = httpClient;
@@ -87,6 +93,10 @@ public class HttpRemoteTaskFactory
         this.taskStatusCodec = taskStatusCodec;
         this.taskInfoCodec = taskInfoCodec;
         this.taskUpdateRequestCodec = taskUpdateRequestCodec;
+        requireNonNull(planFragmentCodec, "planFragmentCodec is null");
+        this.planFragmentJson = CacheBuilder.newBuilder()
+                .weakKeys()
+                .build(CacheLoader.from(planFragmentCodec::toJson));
         this.maxErrorDuration = config.getRemoteTaskMaxErrorDuration();
         this.taskStatusRefreshMaxWait = taskConfig.getStatusRefreshMaxWait();
         this.taskInfoUpdateInterval = taskConfig.getInfoUpdateInterval();
@@ -130,6 +140,7 @@ public class HttpRemoteTaskFactory
                 node.getNodeIdentifier(),
                 locationFactory.createTaskLocation(node, taskId),
                 fragment,
+                planFragmentJson.getUnchecked(fragment),
                 initialSplits,
                 totalPartitions,
                 outputBuffers,
@@ -84,6 +84,9 @@ import io.prestosql.operator.ExchangeClientConfig;
 import io.prestosql.operator.ExchangeClientFactory;
 import io.prestosql.operator.ExchangeClientSupplier;
 import io.prestosql.operator.ForExchange;
+import io.prestosql.operator.FragmentResultCacheConfig;
+import io.prestosql.operator.FragmentResultCacheManager;
+import io.prestosql.operator.LocalTaskResultsFactory;
 import io.prestosql.operator.LookupJoinOperators;
 import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.PagesIndex;
@@ -123,9 +126,11 @@ import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.parser.SqlParser;
 import io.prestosql.sql.parser.SqlParserOptions;
+import io.prestosql.sql.planner.CompiledFilterAndProjectCache;
 import io.prestosql.sql.planner.CompilerConfig;
 import io.prestosql.sql.planner.LocalExecutionPlanner;
 import io.prestosql.sql.planner.NodePartitioningManager;
+import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.tree.Expression;
 import io.prestosql.sql.tree.FunctionCall;
 import io.prestosql.transaction.TransactionManagerConfig;
@@ -284,6 +289,8 @@ public class ServerMainModule
         newExporter(binder).export(ExpressionCompiler.class).withGeneratedName();
         binder.bind(PageFunctionCompiler.class).in(Scopes.SINGLETON);
         newExporter(binder).export(PageFunctionCompiler.class).withGeneratedName();
+        binder.bind(CompiledFilterAndProjectCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(CompiledFilterAndProjectCache.class).withGeneratedName();
         configBinder(binder).bindConfig(TaskManagerConfig.class);
         binder.bind(IndexJoinLookupStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(IndexJoinLookupStats.class).withGeneratedName();
@@ -307,6 +314,7 @@ public class ServerMainModule
 
         // exchange client
         binder.bind(ExchangeClientSupplier.class).to(ExchangeClientFactory.class).in(Scopes.SINGLETON);
+        binder.bind(LocalTaskResultsFactory.class).in(Scopes.SINGLETON);
         httpClientBinder(binder).bindHttpClient("exchange", ForExchange.class)
                 .withTracing()
                 .withFilter(GenerateTraceTokenRequestFilter.class)
@@ -373,6 +381,7 @@ public class ServerMainModule
 
         // splits
         jsonCodecBinder(binder).bindJsonCodec(TaskUpdateRequest.class);
+        jsonCodecBinder(binder).bindJsonCodec(PlanFragment.class);
         jsonCodecBinder(binder).bindJsonCodec(ConnectorSplit.class);
         jsonBinder(binder).addSerializerBinding(Slice.class).to(SliceSerializer.class);
         jsonBinder(binder).addDeserializerBinding(Slice.class).to(SliceDeserializer.class);
@@ -435,6 +444,11 @@ public class ServerMainModule
         binder.bind(LocalSpillManager.class).in(Scopes.SINGLETON);
         configBinder(binder).bindConfig(NodeSpillConfig.class);
 
+        // Fragment result cache
+        configBinder(binder).bindConfig(FragmentResultCacheConfig.class);
+        binder.bind(FragmentResultCacheManager.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FragmentResultCacheManager.class).withGeneratedName();
+
         // cleanup
         binder.bind(ExecutorCleanup.class).in(Scopes.SINGLETON);
     }
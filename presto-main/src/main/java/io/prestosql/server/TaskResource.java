@@ -18,6 +18,7 @@ import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.BoundedExecutor;
+import io.airlift.json.JsonCodec;
 import io.airlift.stats.TimeStat;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -32,6 +33,7 @@ import io.prestosql.execution.buffer.BufferResult;
 import io.prestosql.execution.buffer.SerializedPage;
 import io.prestosql.metadata.SessionPropertyManager;
 import io.prestosql.spi.Page;
+import io.prestosql.sql.planner.PlanFragment;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
@@ -72,6 +74,7 @@ import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_SIZE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_WAIT;
 import static io.prestosql.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
 import static io.prestosql.client.PrestoHeaders.PRESTO_PAGE_TOKEN;
+import static io.prestosql.client.PrestoHeaders.PRESTO_TASK_INFO_FINGERPRINT;
 import static io.prestosql.client.PrestoHeaders.PRESTO_TASK_INSTANCE_ID;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -88,6 +91,7 @@ public class TaskResource
 
     private final TaskManager taskManager;
     private final SessionPropertyManager sessionPropertyManager;
+    private final JsonCodec<PlanFragment> planFragmentCodec;
     private final Executor responseExecutor;
     private final ScheduledExecutorService timeoutExecutor;
     private final TimeStat readFromOutputBufferTime = new TimeStat();
@@ -97,11 +101,13 @@ public class TaskResource
     public TaskResource(
             TaskManager taskManager,
             SessionPropertyManager sessionPropertyManager,
+            JsonCodec<PlanFragment> planFragmentCodec,
             @ForAsyncHttp BoundedExecutor responseExecutor,
             @ForAsyncHttp ScheduledExecutorService timeoutExecutor)
     {
         this.taskManager = requireNonNull(taskManager, "taskManager is null");
         this.sessionPropertyManager = requireNonNull(sessionPropertyManager, "sessionPropertyManager is null");
+        this.planFragmentCodec = requireNonNull(planFragmentCodec, "planFragmentCodec is null");
         this.responseExecutor = requireNonNull(responseExecutor, "responseExecutor is null");
         this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
     }
@@ -128,7 +134,7 @@ public class TaskResource
         Session session = taskUpdateRequest.getSession().toSession(sessionPropertyManager);
         TaskInfo taskInfo = taskManager.updateTask(session,
                 taskId,
-                taskUpdateRequest.getFragment(),
+                taskUpdateRequest.decodeFragment(planFragmentCodec),
                 taskUpdateRequest.getSources(),
                 taskUpdateRequest.getOutputIds(),
                 taskUpdateRequest.getTotalPartitions());
@@ -147,6 +153,7 @@ public class TaskResource
             @PathParam("taskId") final TaskId taskId,
             @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
             @HeaderParam(PRESTO_MAX_WAIT) Duration maxWait,
+            @HeaderParam(PRESTO_TASK_INFO_FINGERPRINT) String fingerprint,
             @Context UriInfo uriInfo,
             @Suspended AsyncResponse asyncResponse)
     {
@@ -154,6 +161,11 @@ public class TaskResource
 
         if (currentState == null || maxWait == null) {
             TaskInfo taskInfo = taskManager.getTaskInfo(taskId);
+            if (fingerprint != null && !taskInfo.getTaskStatus().getState().isDone() && fingerprint.equals(taskInfo.getProgressFingerprint())) {
+                // the client already has an equivalent info, so skip sending the stats again
+                asyncResponse.resume(Response.notModified().build());
+                return;
+            }
             if (shouldSummarize(uriInfo)) {
                 taskInfo = taskInfo.summarize();
             }
@@ -15,7 +15,10 @@ package io.prestosql.server;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
 import io.prestosql.OutputBuffers;
 import io.prestosql.SessionRepresentation;
 import io.prestosql.TaskSource;
@@ -26,12 +29,17 @@ import java.util.Optional;
 import java.util.OptionalInt;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.json.JsonCodec.jsonCodec;
 import static java.util.Objects.requireNonNull;
 
 public class TaskUpdateRequest
 {
+    private static final JsonCodec<JsonNode> JSON_NODE_CODEC = jsonCodec(JsonNode.class);
+
     private final SessionRepresentation session;
-    private final Optional<PlanFragment> fragment;
+    // JSON encoding of the PlanFragment, so that the coordinator can encode a fragment once per stage.
+    // It is embedded in the request as raw JSON rather than as a base64 string.
+    private final Optional<String> fragment;
     private final List<TaskSource> sources;
     private final OutputBuffers outputIds;
     private final OptionalInt totalPartitions;
@@ -39,10 +47,27 @@ public class TaskUpdateRequest
     @JsonCreator
     public TaskUpdateRequest(
             @JsonProperty("session") SessionRepresentation session,
-            @JsonProperty("fragment") Optional<PlanFragment> fragment,
+            @JsonProperty("fragment") JsonNode fragment,
             @JsonProperty("sources") List<TaskSource> sources,
             @JsonProperty("outputIds") OutputBuffers outputIds,
             @JsonProperty("totalPartitions") OptionalInt totalPartitions)
+    {
+        this(
+                session,
+                Optional.ofNullable(fragment)
+                        .filter(node -> !node.isNull())
+                        .map(JSON_NODE_CODEC::toJson),
+                sources,
+                outputIds,
+                totalPartitions);
+    }
+
+    public TaskUpdateRequest(
+            SessionRepresentation session,
+            Optional<String> fragment,
+            List<TaskSource> sources,
+            OutputBuffers outputIds,
+            OptionalInt totalPartitions)
     {
         requireNonNull(session, "session is null");
         requireNonNull(fragment, "fragment is null");
@@ -64,9 +89,15 @@ public class TaskUpdateRequest
     }
 
     @JsonProperty
-    public Optional<PlanFragment> getFragment()
+    @JsonRawValue
+    public String getFragment()
+    {
+        return fragment.orElse(null);
+    }
+
+    public Optional<PlanFragment> decodeFragment(JsonCodec<PlanFragment> planFragmentCodec)
     {
-        return fragment;
+        return fragment.map(planFragmentCodec::fromJson);
     }
 
     @JsonProperty
@@ -92,7 +123,7 @@ public class TaskUpdateRequest
     {
         return toStringHelper(this)
                 .add("session", session)
-                .add("fragment", fragment)
+                .add("fragment", fragment.map(json -> json.length() + " characters"))
                 .add("sources", sources)
                 .add("outputIds", outputIds)
                 .add("totalPartitions", totalPartitions)
@@ -22,10 +22,13 @@ import io.prestosql.spi.QueryId;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentMap;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
+
 class PurgeQueriesRunnable
         implements Runnable
 {
     private static final Logger log = Logger.get(PurgeQueriesRunnable.class);
+    private static final long CACHED_QUERY_IDLE_TIMEOUT_NANOS = MINUTES.toNanos(5);
 
     private final ConcurrentMap<QueryId, Query> queries;
     private final QueryManager queryManager;
@@ -47,6 +50,14 @@ class PurgeQueriesRunnable
             // registered between fetching the live queries and inspecting the queryIds set.
             for (QueryId queryId : ImmutableSet.copyOf(queries.keySet())) {
                 Query query = queries.get(queryId);
+                if (query.isServedFromCache()) {
+                    // the query manager does not know about queries served from the result cache
+                    if (System.nanoTime() - query.getLastAccessNanos() > CACHED_QUERY_IDLE_TIMEOUT_NANOS) {
+                        query.dispose();
+                        queries.remove(queryId);
+                    }
+                    continue;
+                }
                 if (!query.isSubmissionFinished()) {
                     continue;
                 }
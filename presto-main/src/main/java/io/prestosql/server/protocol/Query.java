@@ -32,6 +32,9 @@ import io.prestosql.client.QueryError;
 import io.prestosql.client.QueryResults;
 import io.prestosql.client.StageStats;
 import io.prestosql.client.StatementStats;
+import io.prestosql.event.QueryMonitor;
+import io.prestosql.execution.Input;
+import io.prestosql.execution.LocationFactory;
 import io.prestosql.execution.QueryExecution;
 import io.prestosql.execution.QueryInfo;
 import io.prestosql.execution.QueryManager;
@@ -42,9 +45,13 @@ import io.prestosql.execution.TaskInfo;
 import io.prestosql.execution.buffer.PagesSerde;
 import io.prestosql.execution.buffer.PagesSerdeFactory;
 import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.metadata.QualifiedObjectName;
 import io.prestosql.metadata.SessionPropertyManager;
 import io.prestosql.operator.ExchangeClient;
+import io.prestosql.server.BasicQueryInfo;
 import io.prestosql.server.SessionContext;
+import io.prestosql.server.protocol.QueryResultCache.CacheKey;
+import io.prestosql.server.protocol.QueryResultCache.CachedResult;
 import io.prestosql.spi.ErrorCode;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.QueryId;
@@ -61,6 +68,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -75,11 +83,12 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.concurrent.MoreFutures.addTimeout;
-import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.execution.QueryState.FAILED;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.util.Failures.toFailure;
@@ -109,6 +118,31 @@ class Query
     private final SessionPropertyManager sessionPropertyManager;
     private final BlockEncodingSerde blockEncodingSerde;
 
+    private final QueryResultCache resultCache;
+    private final Optional<CacheKey> cacheKey;
+    private final Optional<Session> cacheSession;
+    private final Optional<CachedResult> cachedResult;
+    private final QueryMonitor queryMonitor;
+    private final Optional<QueryInfo> cachedQueryInfo;
+
+    @GuardedBy("this")
+    private int nextCachedPage;
+
+    @GuardedBy("this")
+    private long lastAccessNanos = System.nanoTime();
+
+    @GuardedBy("this")
+    private List<SerializedPage> recordedPages;
+
+    @GuardedBy("this")
+    private long recordedBytes;
+
+    @GuardedBy("this")
+    private Optional<Map<QualifiedObjectName, Long>> startTableVersions = Optional.empty();
+
+    @GuardedBy("this")
+    private boolean cachedQueryCompleted;
+
     @GuardedBy("this")
     private Session session;
 
@@ -162,9 +196,63 @@ class Query
             ExchangeClient exchangeClient,
             Executor dataProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache resultCache,
+            QueryMonitor queryMonitor,
+            LocationFactory locationFactory)
     {
-        Query result = new Query(sessionContext, query, queryManager, sessionPropertyManager, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde);
+        QueryId queryId = queryManager.createQueryId();
+
+        Optional<CacheKey> cacheKey = resultCache.createKey(sessionContext, query);
+        Optional<Session> cacheSession = Optional.empty();
+        Optional<CachedResult> cachedResult = Optional.empty();
+        if (cacheKey.isPresent()) {
+            try {
+                cacheSession = Optional.of(resultCache.createSession(queryId, sessionContext));
+                cachedResult = resultCache.get(cacheKey.get(), cacheSession.get());
+            }
+            catch (RuntimeException e) {
+                // run the query normally, so the failure is reported through the query manager
+                cacheKey = Optional.empty();
+                cacheSession = Optional.empty();
+            }
+        }
+
+        // queries served from the cache are still reported to the event listeners
+        Optional<QueryInfo> cachedQueryInfo = Optional.empty();
+        if (cachedResult.isPresent()) {
+            cachedQueryInfo = Optional.of(QueryInfo.cachedResultQueryInfo(
+                    cacheSession.get(),
+                    query,
+                    locationFactory.createQueryLocation(queryId),
+                    cachedResult.get().getColumns().stream()
+                            .map(Column::getName)
+                            .collect(toImmutableList()),
+                    cachedResult.get().getInputs()));
+            queryMonitor.queryCreatedEvent(new BasicQueryInfo(cachedQueryInfo.get()));
+        }
+
+        Query result = new Query(
+                queryId,
+                sessionContext,
+                query,
+                queryManager,
+                sessionPropertyManager,
+                exchangeClient,
+                dataProcessorExecutor,
+                timeoutExecutor,
+                blockEncodingSerde,
+                resultCache,
+                cacheKey,
+                cacheSession,
+                cachedResult,
+                queryMonitor,
+                cachedQueryInfo);
+
+        // cached results are served without submitting the query
+        if (cachedResult.isPresent()) {
+            return result;
+        }
 
         // register listeners after submission finishes
         addSuccessCallback(result.submissionFuture, () -> {
@@ -182,6 +270,7 @@ class Query
     }
 
     private Query(
+            QueryId queryId,
             SessionContext sessionContext,
             String query,
             QueryManager queryManager,
@@ -189,8 +278,15 @@ class Query
             ExchangeClient exchangeClient,
             Executor resultsProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache resultCache,
+            Optional<CacheKey> cacheKey,
+            Optional<Session> cacheSession,
+            Optional<CachedResult> cachedResult,
+            QueryMonitor queryMonitor,
+            Optional<QueryInfo> cachedQueryInfo)
     {
+        requireNonNull(queryId, "queryId is null");
         requireNonNull(sessionContext, "sessionContext is null");
         requireNonNull(query, "query is null");
         requireNonNull(queryManager, "queryManager is null");
@@ -199,16 +295,41 @@ class Query
         requireNonNull(resultsProcessorExecutor, "resultsProcessorExecutor is null");
         requireNonNull(timeoutExecutor, "timeoutExecutor is null");
         requireNonNull(blockEncodingSerde, "serde is null");
+        requireNonNull(resultCache, "resultCache is null");
+        requireNonNull(cacheKey, "cacheKey is null");
+        requireNonNull(cacheSession, "cacheSession is null");
+        requireNonNull(cachedResult, "cachedResult is null");
+        requireNonNull(queryMonitor, "queryMonitor is null");
+        requireNonNull(cachedQueryInfo, "cachedQueryInfo is null");
 
         this.queryManager = queryManager;
         this.sessionPropertyManager = sessionPropertyManager;
 
-        queryId = queryManager.createQueryId();
+        this.queryId = queryId;
         submissionFuture = new QuerySubmissionFuture(queryId, query, sessionContext, queryManager);
         this.exchangeClient = exchangeClient;
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
         this.blockEncodingSerde = blockEncodingSerde;
+
+        this.resultCache = resultCache;
+        this.cacheKey = cacheKey;
+        this.cacheSession = cacheSession;
+        this.cachedResult = cachedResult;
+        this.queryMonitor = queryMonitor;
+        this.cachedQueryInfo = cachedQueryInfo;
+
+        if (cachedResult.isPresent()) {
+            session = cacheSession.get();
+            columns = cachedResult.get().getColumns();
+            types = cachedResult.get().getTypes();
+            // the cached pages record the codec they were compressed with
+            serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session)).createPagesSerde();
+            exchangeClient.close();
+        }
+        else if (cacheKey.isPresent()) {
+            recordedPages = new ArrayList<>();
+        }
     }
 
     public boolean isSubmissionFinished()
@@ -216,8 +337,23 @@ class Query
         return submissionFuture.isDone();
     }
 
+    public boolean isServedFromCache()
+    {
+        return cachedResult.isPresent();
+    }
+
+    public synchronized long getLastAccessNanos()
+    {
+        return lastAccessNanos;
+    }
+
     public void cancel()
     {
+        if (cachedResult.isPresent()) {
+            dispose();
+            return;
+        }
+
         // if submission is not finished, send cancel after it is finished
         if (submissionFuture.isDone()) {
             submissionFuture.addListener(() -> queryManager.cancelQuery(queryId), resultsProcessorExecutor);
@@ -231,6 +367,16 @@ class Query
     public synchronized void dispose()
     {
         exchangeClient.close();
+        cachedQueryCompleted();
+    }
+
+    private synchronized void cachedQueryCompleted()
+    {
+        if (!cachedQueryInfo.isPresent() || cachedQueryCompleted) {
+            return;
+        }
+        cachedQueryCompleted = true;
+        queryMonitor.queryCompletedEvent(cachedQueryInfo.get());
     }
 
     public QueryId getQueryId()
@@ -306,6 +452,11 @@ class Query
 
     private synchronized ListenableFuture<?> getFutureStateChange()
     {
+        // cached results are always available
+        if (cachedResult.isPresent()) {
+            return immediateFuture(null);
+        }
+
         // ensure the query has been submitted
         submissionFuture.submitQuery();
 
@@ -334,7 +485,10 @@ class Query
         // is the a repeated request for the last results?
         String requestedPath = uriInfo.getAbsolutePath().getPath();
         if (requestedPath.equals(lastResultPath)) {
-            if (submissionFuture.isDone()) {
+            if (cachedResult.isPresent()) {
+                lastAccessNanos = System.nanoTime();
+            }
+            else if (submissionFuture.isDone()) {
                 // tell query manager we are still interested in the query
                 queryManager.recordHeartbeat(queryId);
             }
@@ -370,6 +524,10 @@ class Query
                 .replaceQuery(queryId.toString())
                 .build();
 
+        if (cachedResult.isPresent()) {
+            return getNextCachedResult(uriInfo, scheme, queryHtmlUri, targetResultSize);
+        }
+
         // if query query submission has not finished, return simple empty result
         if (!submissionFuture.isDone()) {
             QueryResults queryResults = new QueryResults(
@@ -395,7 +553,7 @@ class Query
 
         if (session == null) {
             session = queryManager.getFullQueryInfo(queryId).getSession().toSession(sessionPropertyManager);
-            serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)).createPagesSerde();
+            serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session)).createPagesSerde();
         }
 
         // Remove as many pages as possible from the exchange until just greater than DESIRED_RESULT_BYTES
@@ -414,6 +572,7 @@ class Query
                 if (serializedPage == null) {
                     break;
                 }
+                recordPage(serializedPage);
 
                 Page page = serde.deserialize(serializedPage);
                 bytes += page.getLogicalSizeInBytes();
@@ -464,6 +623,9 @@ class Query
                 || !exchangeClient.isClosed()) {
             nextResultsUri = createNextResultsUri(scheme, uriInfo);
         }
+        else {
+            cacheResultsIfPossible(queryInfo);
+        }
 
         // update catalog, schema, and path
         setCatalog = queryInfo.getSetCatalog();
@@ -500,6 +662,88 @@ class Query
         return queryResults;
     }
 
+    private synchronized QueryResults getNextCachedResult(UriInfo uriInfo, String scheme, URI queryHtmlUri, DataSize targetResultSize)
+    {
+        lastAccessNanos = System.nanoTime();
+        List<SerializedPage> cachedPages = cachedResult.get().getPages();
+
+        ImmutableList.Builder<RowIterable> pages = ImmutableList.builder();
+        long bytes = 0;
+        long rows = 0;
+        long targetResultBytes = targetResultSize.toBytes();
+        while (bytes < targetResultBytes && nextCachedPage < cachedPages.size()) {
+            Page page = serde.deserialize(cachedPages.get(nextCachedPage));
+            nextCachedPage++;
+            bytes += page.getLogicalSizeInBytes();
+            rows += page.getPositionCount();
+            pages.add(new RowIterable(session.toConnectorSession(), types, page));
+        }
+        // client implementations do not properly handle empty list of data
+        Iterable<List<Object>> data = rows > 0 ? Iterables.concat(pages.build()) : null;
+
+        boolean finished = nextCachedPage >= cachedPages.size();
+        if (finished) {
+            cachedQueryCompleted();
+        }
+        QueryResults queryResults = new QueryResults(
+                queryId.toString(),
+                queryHtmlUri,
+                null,
+                finished ? null : createNextResultsUri(scheme, uriInfo),
+                columns,
+                data,
+                StatementStats.builder()
+                        .setState((finished ? QueryState.FINISHED : QueryState.RUNNING).toString())
+                        .setQueued(false)
+                        .setScheduled(true)
+                        .build(),
+                null,
+                ImmutableList.of(),
+                null,
+                null);
+
+        cacheLastResults(queryResults);
+        return queryResults;
+    }
+
+    private synchronized void recordPage(SerializedPage page)
+    {
+        if (recordedPages == null) {
+            return;
+        }
+        recordedBytes += page.getRetainedSizeInBytes();
+        if (recordedBytes > resultCache.getMaxEntrySizeInBytes()) {
+            // results are too large to be cached
+            recordedPages = null;
+            return;
+        }
+        recordedPages.add(page);
+    }
+
+    private synchronized void cacheResultsIfPossible(QueryInfo queryInfo)
+    {
+        List<SerializedPage> pages = recordedPages;
+        recordedPages = null;
+        if (pages == null || !startTableVersions.isPresent() ||
+                queryInfo.getState() != QueryState.FINISHED ||
+                queryInfo.getUpdateType() != null ||
+                !queryInfo.getOutputStage().isPresent()) {
+            return;
+        }
+
+        // only cache the results if none of the inputs changed while the query was running
+        List<Column> resultColumns = columns;
+        List<Type> resultTypes = types;
+        Set<Input> inputs = queryInfo.getInputs();
+        Map<QualifiedObjectName, Long> startVersions = startTableVersions.get();
+        resultsProcessorExecutor.execute(() -> {
+            Optional<Map<QualifiedObjectName, Long>> endVersions = resultCache.getTableVersions(cacheSession.get(), inputs);
+            if (endVersions.isPresent() && endVersions.get().equals(startVersions)) {
+                resultCache.put(cacheKey.get(), new CachedResult(resultColumns, resultTypes, pages, inputs, startVersions));
+            }
+        });
+    }
+
     private synchronized void cacheLastResults(QueryResults queryResults)
     {
         // cache the last results
@@ -537,6 +781,9 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+
+            // versions of the inputs recorded by the query's own transaction while it was planned
+            startTableVersions = outputInfo.getInputTableVersions();
         }
 
         for (URI outputLocation : outputInfo.getBufferLocations()) {
@@ -0,0 +1,449 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.protocol;
+
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.log.Logger;
+import io.prestosql.Session;
+import io.prestosql.client.Column;
+import io.prestosql.execution.Input;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.QualifiedObjectName;
+import io.prestosql.metadata.SqlFunction;
+import io.prestosql.security.AccessControl;
+import io.prestosql.server.SessionContext;
+import io.prestosql.server.SessionSupplier;
+import io.prestosql.spi.QueryId;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.SqlFormatter;
+import io.prestosql.sql.parser.ParsingException;
+import io.prestosql.sql.parser.ParsingOptions;
+import io.prestosql.sql.parser.SqlParser;
+import io.prestosql.sql.tree.CurrentTime;
+import io.prestosql.sql.tree.DefaultTraversalVisitor;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.Query;
+import io.prestosql.sql.tree.SampledRelation;
+import io.prestosql.sql.tree.Statement;
+import io.prestosql.transaction.TransactionManager;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.prestosql.execution.InputTableVersions.getInputTableName;
+import static io.prestosql.execution.InputTableVersions.getInputTableVersions;
+import static io.prestosql.sql.planner.CanonicalPlanFormatter.SESSION_DEPENDENT_FUNCTIONS;
+import static io.prestosql.transaction.TransactionBuilder.transaction;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Caches the results of deterministic read-only queries on the coordinator.
+ * An entry is only served while every table the query read still reports the
+ * version it had when the results were computed, so connectors that do not
+ * expose table versions never produce cacheable results.
+ * <p>
+ * Only the statement is checked for deterministic functions, so the table
+ * versions are not recorded for queries that read views, and results without
+ * them are never stored.
+ */
+@ThreadSafe
+public class QueryResultCache
+{
+    private static final Logger log = Logger.get(QueryResultCache.class);
+
+    private final boolean enabled;
+    private final long maxEntrySizeInBytes;
+    private final SqlParser sqlParser;
+    private final SessionSupplier sessionSupplier;
+    private final TransactionManager transactionManager;
+    private final AccessControl accessControl;
+    private final Metadata metadata;
+    private final Cache<CacheKey, CachedResult> cache;
+    private final Supplier<Set<String>> nondeterministicFunctions;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    public QueryResultCache(
+            QueryResultCacheConfig config,
+            SqlParser sqlParser,
+            SessionSupplier sessionSupplier,
+            TransactionManager transactionManager,
+            AccessControl accessControl,
+            Metadata metadata)
+    {
+        requireNonNull(config, "config is null");
+        this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
+        this.sessionSupplier = requireNonNull(sessionSupplier, "sessionSupplier is null");
+        this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
+        this.accessControl = requireNonNull(accessControl, "accessControl is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+
+        this.enabled = config.isEnabled();
+        this.maxEntrySizeInBytes = config.getMaxEntrySize().toBytes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((CacheKey key, CachedResult value) -> toIntExact(Math.min(value.getSizeInBytes(), Integer.MAX_VALUE)))
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .build();
+        this.nondeterministicFunctions = Suppliers.memoizeWithExpiration(
+                () -> metadata.getFunctionRegistry().list().stream()
+                        .filter(function -> !function.isDeterministic())
+                        .map(SqlFunction::getSignature)
+                        .map(signature -> signature.getName().toLowerCase(Locale.ENGLISH))
+                        .collect(toImmutableSet()),
+                1,
+                MINUTES);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    /**
+     * Returns the key under which the results of the statement are cached,
+     * or empty if the results of the statement can not be cached.
+     */
+    public Optional<CacheKey> createKey(SessionContext sessionContext, String sql)
+    {
+        if (!enabled || sessionContext.getTransactionId().isPresent()) {
+            return Optional.empty();
+        }
+
+        Statement statement;
+        try {
+            statement = sqlParser.createStatement(sql, new ParsingOptions());
+        }
+        catch (ParsingException e) {
+            return Optional.empty();
+        }
+        if (!(statement instanceof Query) || !isDeterministic(statement)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new CacheKey(
+                SqlFormatter.formatSql(statement, Optional.empty()),
+                sessionContext.getIdentity().getUser(),
+                Optional.ofNullable(sessionContext.getCatalog()),
+                Optional.ofNullable(sessionContext.getSchema()),
+                Optional.ofNullable(sessionContext.getPath()),
+                Optional.ofNullable(sessionContext.getTimeZoneId()),
+                Optional.ofNullable(sessionContext.getLanguage()),
+                sessionContext.getSystemProperties(),
+                sessionContext.getCatalogSessionProperties()));
+    }
+
+    public Session createSession(QueryId queryId, SessionContext sessionContext)
+    {
+        return sessionSupplier.createSession(queryId, sessionContext);
+    }
+
+    /**
+     * Returns the cached results for the key, provided the session is still
+     * allowed to read the inputs and none of the inputs changed since the
+     * results were computed.
+     */
+    public Optional<CachedResult> get(CacheKey key, Session session)
+    {
+        CachedResult result = cache.getIfPresent(key);
+        if (result == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        Optional<Map<QualifiedObjectName, Long>> tableVersions = getTableVersions(session, result.getInputs());
+        if (!tableVersions.isPresent()) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        if (!tableVersions.get().equals(result.getTableVersions())) {
+            cache.asMap().remove(key, result);
+            invalidations.incrementAndGet();
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        hits.incrementAndGet();
+        return Optional.of(result);
+    }
+
+    public void put(CacheKey key, CachedResult result)
+    {
+        if (result.getSizeInBytes() > maxEntrySizeInBytes) {
+            return;
+        }
+        cache.put(key, result);
+        stores.incrementAndGet();
+    }
+
+    /**
+     * Returns the current versions of the tables read by a query, or empty if
+     * any of the tables does not expose a version or can not be read by the
+     * session user.
+     */
+    public Optional<Map<QualifiedObjectName, Long>> getTableVersions(Session session, Collection<Input> inputs)
+    {
+        try {
+            return transaction(transactionManager, accessControl)
+                    .readOnly()
+                    .singleStatement()
+                    .execute(session, transactionSession -> {
+                        for (Input input : inputs) {
+                            accessControl.checkCanSelectFromColumns(
+                                    transactionSession.getRequiredTransactionId(),
+                                    transactionSession.getIdentity(),
+                                    getInputTableName(input),
+                                    input.getColumns().stream()
+                                            .map(io.prestosql.execution.Column::getName)
+                                            .collect(toImmutableSet()));
+                        }
+                        return getInputTableVersions(metadata, transactionSession, inputs);
+                    });
+        }
+        catch (RuntimeException e) {
+            log.debug(e, "Unable to determine table versions for query %s", session.getQueryId());
+            return Optional.empty();
+        }
+    }
+
+    @Managed
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    @Managed
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    @Managed
+    public long getStores()
+    {
+        return stores.get();
+    }
+
+    @Managed
+    public long getInvalidations()
+    {
+        return invalidations.get();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    private boolean isDeterministic(Statement statement)
+    {
+        Set<String> nondeterministic = nondeterministicFunctions.get();
+        boolean[] deterministic = {true};
+        new DefaultTraversalVisitor<Void, Void>()
+        {
+            @Override
+            protected Void visitFunctionCall(FunctionCall node, Void context)
+            {
+                String name = node.getName().getSuffix().toLowerCase(Locale.ENGLISH);
+                if (nondeterministic.contains(name) || SESSION_DEPENDENT_FUNCTIONS.contains(name)) {
+                    deterministic[0] = false;
+                }
+                return super.visitFunctionCall(node, context);
+            }
+
+            @Override
+            protected Void visitCurrentTime(CurrentTime node, Void context)
+            {
+                deterministic[0] = false;
+                return null;
+            }
+
+            @Override
+            protected Void visitSampledRelation(SampledRelation node, Void context)
+            {
+                deterministic[0] = false;
+                return super.visitSampledRelation(node, context);
+            }
+        }.process(statement, null);
+        return deterministic[0];
+    }
+
+    public static final class CacheKey
+    {
+        private final String sql;
+        private final String user;
+        private final Optional<String> catalog;
+        private final Optional<String> schema;
+        private final Optional<String> path;
+        private final Optional<String> timeZoneId;
+        private final Optional<String> language;
+        private final Map<String, String> systemProperties;
+        private final Map<String, Map<String, String>> catalogSessionProperties;
+
+        private CacheKey(
+                String sql,
+                String user,
+                Optional<String> catalog,
+                Optional<String> schema,
+                Optional<String> path,
+                Optional<String> timeZoneId,
+                Optional<String> language,
+                Map<String, String> systemProperties,
+                Map<String, Map<String, String>> catalogSessionProperties)
+        {
+            this.sql = requireNonNull(sql, "sql is null");
+            this.user = requireNonNull(user, "user is null");
+            this.catalog = requireNonNull(catalog, "catalog is null");
+            this.schema = requireNonNull(schema, "schema is null");
+            this.path = requireNonNull(path, "path is null");
+            this.timeZoneId = requireNonNull(timeZoneId, "timeZoneId is null");
+            this.language = requireNonNull(language, "language is null");
+            this.systemProperties = ImmutableMap.copyOf(requireNonNull(systemProperties, "systemProperties is null"));
+            this.catalogSessionProperties = ImmutableMap.copyOf(requireNonNull(catalogSessionProperties, "catalogSessionProperties is null"));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return Objects.equals(sql, other.sql) &&
+                    Objects.equals(user, other.user) &&
+                    Objects.equals(catalog, other.catalog) &&
+                    Objects.equals(schema, other.schema) &&
+                    Objects.equals(path, other.path) &&
+                    Objects.equals(timeZoneId, other.timeZoneId) &&
+                    Objects.equals(language, other.language) &&
+                    Objects.equals(systemProperties, other.systemProperties) &&
+                    Objects.equals(catalogSessionProperties, other.catalogSessionProperties);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(sql, user, catalog, schema, path, timeZoneId, language, systemProperties, catalogSessionProperties);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("sql", sql)
+                    .add("user", user)
+                    .add("catalog", catalog.orElse(null))
+                    .add("schema", schema.orElse(null))
+                    .toString();
+        }
+    }
+
+    public static final class CachedResult
+    {
+        private final List<Column> columns;
+        private final List<Type> types;
+        private final List<SerializedPage> pages;
+        private final Set<Input> inputs;
+        private final Map<QualifiedObjectName, Long> tableVersions;
+        private final long sizeInBytes;
+
+        public CachedResult(
+                List<Column> columns,
+                List<Type> types,
+                List<SerializedPage> pages,
+                Set<Input> inputs,
+                Map<QualifiedObjectName, Long> tableVersions)
+        {
+            this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+            this.pages = ImmutableList.copyOf(requireNonNull(pages, "pages is null"));
+            this.inputs = ImmutableSet.copyOf(requireNonNull(inputs, "inputs is null"));
+            this.tableVersions = ImmutableMap.copyOf(requireNonNull(tableVersions, "tableVersions is null"));
+            this.sizeInBytes = this.pages.stream()
+                    .mapToLong(SerializedPage::getRetainedSizeInBytes)
+                    .sum();
+        }
+
+        public List<Column> getColumns()
+        {
+            return columns;
+        }
+
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        public List<SerializedPage> getPages()
+        {
+            return pages;
+        }
+
+        public Set<Input> getInputs()
+        {
+            return inputs;
+        }
+
+        public Map<QualifiedObjectName, Long> getTableVersions()
+        {
+            return tableVersions;
+        }
+
+        public long getSizeInBytes()
+        {
+            return sizeInBytes;
+        }
+    }
+}
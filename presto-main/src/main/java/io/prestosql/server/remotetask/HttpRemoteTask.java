@@ -107,6 +107,7 @@ public final class HttpRemoteTask
     private final Session session;
     private final String nodeId;
     private final PlanFragment planFragment;
+    private final String planFragmentJson;
     private final OptionalInt totalPartitions;
 
     private final AtomicLong nextSplitId = new AtomicLong();
@@ -161,6 +162,7 @@ public final class HttpRemoteTask
             String nodeId,
             URI location,
             PlanFragment planFragment,
+            String planFragmentJson,
             Multimap<PlanNodeId, Split> initialSplits,
             OptionalInt totalPartitions,
             OutputBuffers outputBuffers,
@@ -183,6 +185,7 @@ public final class HttpRemoteTask
         requireNonNull(nodeId, "nodeId is null");
         requireNonNull(location, "location is null");
         requireNonNull(planFragment, "planFragment is null");
+        requireNonNull(planFragmentJson, "planFragmentJson is null");
         requireNonNull(totalPartitions, "totalPartitions is null");
         requireNonNull(outputBuffers, "outputBuffers is null");
         requireNonNull(httpClient, "httpClient is null");
@@ -198,6 +201,7 @@ public final class HttpRemoteTask
             this.session = session;
             this.nodeId = nodeId;
             this.planFragment = planFragment;
+            this.planFragmentJson = planFragmentJson;
             this.totalPartitions = totalPartitions;
             this.outputBuffers.set(outputBuffers);
             this.httpClient = httpClient;
@@ -501,7 +505,7 @@ public final class HttpRemoteTask
 
         List<TaskSource> sources = getSources();
 
-        Optional<PlanFragment> fragment = sendPlan.get() ? Optional.of(planFragment) : Optional.empty();
+        Optional<String> fragment = sendPlan.get() ? Optional.of(planFragmentJson) : Optional.empty();
         TaskUpdateRequest updateRequest = new TaskUpdateRequest(
                 session.toSessionRepresentation(),
                 fragment,
@@ -20,4 +20,12 @@ public interface SimpleHttpResponseCallback<T>
     void failed(Throwable cause);
 
     void fatal(Throwable cause);
+
+    /**
+     * Called when a conditional request was answered with 304 Not Modified.
+     */
+    default void notModified()
+    {
+        fatal(new IllegalStateException("Unexpected NOT_MODIFIED response"));
+    }
 }
@@ -48,6 +48,9 @@ public class SimpleHttpResponseHandler<T>
             if (response.getStatusCode() == HttpStatus.OK.code() && response.hasValue()) {
                 callback.success(response.getValue());
             }
+            else if (response.getStatusCode() == HttpStatus.NOT_MODIFIED.code()) {
+                callback.notModified();
+            }
             else if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE.code()) {
                 callback.failed(new ServiceUnavailableException(uri));
             }
@@ -36,6 +36,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -45,12 +46,17 @@ import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonRespo
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.airlift.http.client.Request.Builder.prepareGet;
 import static io.airlift.units.Duration.nanosSince;
+import static io.prestosql.client.PrestoHeaders.PRESTO_TASK_INFO_FINGERPRINT;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class TaskInfoFetcher
         implements SimpleHttpResponseCallback<TaskInfo>
 {
+    // after this many consecutive Not Modified responses a full info is fetched,
+    // so that timings which are not part of the fingerprint do not go stale
+    private static final int MAX_NOT_MODIFIED_RESPONSES = 10;
+
     private final TaskId taskId;
     private final Consumer<Throwable> onFail;
     private final StateMachine<TaskInfo> taskInfo;
@@ -72,6 +78,9 @@ public class TaskInfoFetcher
 
     private final RemoteTaskStats stats;
 
+    private final AtomicBoolean remoteTaskInfoFetched = new AtomicBoolean();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
     @GuardedBy("this")
     private boolean running;
 
@@ -202,10 +211,14 @@ public class TaskInfoFetcher
 
         HttpUriBuilder httpUriBuilder = uriBuilderFrom(taskStatus.getSelf());
         URI uri = summarizeTaskInfo ? httpUriBuilder.addParameter("summarize").build() : httpUriBuilder.build();
-        Request request = prepareGet()
+        Request.Builder requestBuilder = prepareGet()
                 .setUri(uri)
-                .setHeader(CONTENT_TYPE, JSON_UTF_8.toString())
-                .build();
+                .setHeader(CONTENT_TYPE, JSON_UTF_8.toString());
+        if (remoteTaskInfoFetched.get() && notModifiedResponses.get() < MAX_NOT_MODIFIED_RESPONSES) {
+            // let the worker skip the response when the task made no progress since the info we hold
+            requestBuilder.setHeader(PRESTO_TASK_INFO_FINGERPRINT, getTaskInfo().getProgressFingerprint());
+        }
+        Request request = requestBuilder.build();
 
         errorTracker.startRequest();
         future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec));
@@ -244,10 +257,28 @@ public class TaskInfoFetcher
             }
             updateStats(startNanos);
             errorTracker.requestSucceeded();
+            notModifiedResponses.set(0);
+            remoteTaskInfoFetched.set(true);
             updateTaskInfo(newValue);
         }
     }
 
+    @Override
+    public void notModified()
+    {
+        try (SetThreadName ignored = new SetThreadName("TaskInfoFetcher-%s", taskId)) {
+            lastUpdateNanos.set(System.nanoTime());
+
+            long startNanos;
+            synchronized (this) {
+                startNanos = this.currentRequestStartNanos.get();
+            }
+            updateStats(startNanos);
+            errorTracker.requestSucceeded();
+            notModifiedResponses.incrementAndGet();
+        }
+    }
+
     @Override
     public void failed(Throwable cause)
     {
@@ -136,6 +136,7 @@ public class Analysis
 
     // for recursive view detection
     private final Deque<Table> tablesForView = new ArrayDeque<>();
+    private boolean referencesViews;
 
     public Analysis(@Nullable Statement root, List<Expression> parameters, boolean isDescribe)
     {
@@ -578,6 +579,7 @@ public class Analysis
     public void registerTableForView(Table tableReference)
     {
         tablesForView.push(requireNonNull(tableReference, "table is null"));
+        referencesViews = true;
     }
 
     public void unregisterTableForView()
@@ -590,6 +592,11 @@ public class Analysis
         return tablesForView.contains(tableReference);
     }
 
+    public boolean referencesViews()
+    {
+        return referencesViews;
+    }
+
     public void setSampleRatio(SampledRelation relation, double ratio)
     {
         sampleRatios.put(NodeRef.of(relation), ratio);
@@ -22,6 +22,7 @@ import io.airlift.configuration.DefunctConfig;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MaxDataSize;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import io.prestosql.operator.aggregation.histogram.HistogramGroupImplementation;
 import io.prestosql.operator.aggregation.multimapagg.MultimapAggGroupImplementation;
@@ -81,6 +82,7 @@ public class FeaturesConfig
     private boolean enableIntermediateAggregations;
     private boolean pushTableWriteThroughUnion = true;
     private boolean exchangeCompressionEnabled;
+    private CompressionCodec exchangeCompressionCodec = CompressionCodec.LZ4;
     private boolean legacyArrayAgg;
     private boolean legacyLogFunction;
     private boolean groupByUsesEqualTo;
@@ -92,6 +94,9 @@ public class FeaturesConfig
     private boolean forceSingleNodeOutput = true;
     private boolean pagesIndexEagerCompactionEnabled;
     private boolean distributedSort = true;
+    private boolean distributedSortRangePartitioning;
+    private boolean enableDynamicFiltering;
+    private int dynamicFilteringMaxPerDriverValueCount = 1000;
 
     private boolean dictionaryAggregation;
 
@@ -102,10 +107,14 @@ public class FeaturesConfig
     private ArrayAggGroupImplementation arrayAggGroupImplementation = ArrayAggGroupImplementation.NEW;
     private MultimapAggGroupImplementation multimapAggGroupImplementation = MultimapAggGroupImplementation.NEW;
     private boolean spillEnabled;
+    private boolean spillOrderBy = true;
+    private boolean spillWindowOperator = true;
+    private boolean spillMarkDistinct = true;
     private DataSize aggregationOperatorUnspillMemoryLimit = new DataSize(4, DataSize.Unit.MEGABYTE);
     private List<Path> spillerSpillPaths = ImmutableList.of();
     private int spillerThreads = 4;
     private double spillMaxUsedSpaceThreshold = 0.9;
+    private CompressionCodec spillCompressionCodec = CompressionCodec.NONE;
     private boolean iterativeOptimizerEnabled = true;
     private boolean enableStatsCalculator = true;
     private boolean ignoreStatsCalculatorFailures = true;
@@ -116,7 +125,11 @@ public class FeaturesConfig
     private boolean parseDecimalLiteralsAsDouble;
     private boolean useMarkDistinct = true;
     private boolean preferPartialAggregation = true;
+    private boolean adaptivePartialAggregationEnabled = true;
+    private long adaptivePartialAggregationMinRows = 100_000;
+    private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
     private boolean optimizeTopNRowNumber = true;
+    private boolean fragmentResultCachingEnabled;
 
     private Duration iterativeOptimizerTimeout = new Duration(3, MINUTES); // by default let optimizer wait a long time in case it retrieves some data from ConnectorMetadata
 
@@ -486,6 +499,61 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isAdaptivePartialAggregationEnabled()
+    {
+        return adaptivePartialAggregationEnabled;
+    }
+
+    @Config("adaptive-partial-aggregation.enabled")
+    @ConfigDescription("Stop aggregating in partial aggregations that do not reduce the number of rows")
+    public FeaturesConfig setAdaptivePartialAggregationEnabled(boolean adaptivePartialAggregationEnabled)
+    {
+        this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public long getAdaptivePartialAggregationMinRows()
+    {
+        return adaptivePartialAggregationMinRows;
+    }
+
+    @Config("adaptive-partial-aggregation.min-rows")
+    @ConfigDescription("Number of input rows a partial aggregation processes before deciding whether it is effective")
+    public FeaturesConfig setAdaptivePartialAggregationMinRows(long adaptivePartialAggregationMinRows)
+    {
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getAdaptivePartialAggregationUniqueRowsRatioThreshold()
+    {
+        return adaptivePartialAggregationUniqueRowsRatioThreshold;
+    }
+
+    @Config("adaptive-partial-aggregation.unique-rows-ratio-threshold")
+    @ConfigDescription("Ratio of groups to input rows above which partial aggregation is disabled")
+    public FeaturesConfig setAdaptivePartialAggregationUniqueRowsRatioThreshold(double adaptivePartialAggregationUniqueRowsRatioThreshold)
+    {
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
+        return this;
+    }
+
+    public boolean isFragmentResultCachingEnabled()
+    {
+        return fragmentResultCachingEnabled;
+    }
+
+    @Config("fragment-result-cache.enabled")
+    @ConfigDescription("Cache results of leaf pipelines per split on workers")
+    public FeaturesConfig setFragmentResultCachingEnabled(boolean fragmentResultCachingEnabled)
+    {
+        this.fragmentResultCachingEnabled = fragmentResultCachingEnabled;
+        return this;
+    }
+
     public boolean isOptimizeTopNRowNumber()
     {
         return optimizeTopNRowNumber;
@@ -584,6 +652,45 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isSpillOrderBy()
+    {
+        return spillOrderBy;
+    }
+
+    @Config("experimental.spill-order-by")
+    @ConfigDescription("Spill in OrderBy if spill_enabled is also set")
+    public FeaturesConfig setSpillOrderBy(boolean spillOrderBy)
+    {
+        this.spillOrderBy = spillOrderBy;
+        return this;
+    }
+
+    public boolean isSpillWindowOperator()
+    {
+        return spillWindowOperator;
+    }
+
+    @Config("experimental.spill-window-operator")
+    @ConfigDescription("Spill in WindowOperator if spill_enabled is also set")
+    public FeaturesConfig setSpillWindowOperator(boolean spillWindowOperator)
+    {
+        this.spillWindowOperator = spillWindowOperator;
+        return this;
+    }
+
+    public boolean isSpillMarkDistinct()
+    {
+        return spillMarkDistinct;
+    }
+
+    @Config("experimental.spill-mark-distinct")
+    @ConfigDescription("Spill in MarkDistinctOperator if spill_enabled is also set")
+    public FeaturesConfig setSpillMarkDistinct(boolean spillMarkDistinct)
+    {
+        this.spillMarkDistinct = spillMarkDistinct;
+        return this;
+    }
+
     public boolean isIterativeOptimizerEnabled()
     {
         return iterativeOptimizerEnabled;
@@ -731,6 +838,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getSpillCompressionCodec()
+    {
+        return spillCompressionCodec;
+    }
+
+    @Config("experimental.spill-compression-codec")
+    @ConfigDescription("Compression codec used for spilled pages")
+    public FeaturesConfig setSpillCompressionCodec(CompressionCodec spillCompressionCodec)
+    {
+        this.spillCompressionCodec = spillCompressionCodec;
+        return this;
+    }
+
     public boolean isOptimizeMixedDistinctAggregations()
     {
         return optimizeMixedDistinctAggregations;
@@ -755,6 +876,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getExchangeCompressionCodec()
+    {
+        return exchangeCompressionCodec;
+    }
+
+    @Config("exchange.compression-codec")
+    @ConfigDescription("Compression codec used in exchanges when exchange compression is enabled")
+    public FeaturesConfig setExchangeCompressionCodec(CompressionCodec exchangeCompressionCodec)
+    {
+        this.exchangeCompressionCodec = exchangeCompressionCodec;
+        return this;
+    }
+
     public boolean isEnableIntermediateAggregations()
     {
         return enableIntermediateAggregations;
@@ -889,6 +1024,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isDistributedSortRangePartitioning()
+    {
+        return distributedSortRangePartitioning;
+    }
+
+    @Config("distributed-sort-range-partitioning")
+    @ConfigDescription("Range partition the input of a distributed sort on the first sort key, when column statistics allow it")
+    public FeaturesConfig setDistributedSortRangePartitioning(boolean distributedSortRangePartitioning)
+    {
+        this.distributedSortRangePartitioning = distributedSortRangePartitioning;
+        return this;
+    }
+
     public int getMaxGroupingSets()
     {
         return maxGroupingSets;
@@ -912,4 +1060,31 @@ public class FeaturesConfig
         this.legacyUnnestArrayRows = legacyUnnestArrayRows;
         return this;
     }
+
+    public boolean isEnableDynamicFiltering()
+    {
+        return enableDynamicFiltering;
+    }
+
+    @Config("experimental.enable-dynamic-filtering")
+    @ConfigDescription("Experimental: Collect join build side values and use them to prune probe side table scans")
+    public FeaturesConfig setEnableDynamicFiltering(boolean enableDynamicFiltering)
+    {
+        this.enableDynamicFiltering = enableDynamicFiltering;
+        return this;
+    }
+
+    @Min(0)
+    public int getDynamicFilteringMaxPerDriverValueCount()
+    {
+        return dynamicFilteringMaxPerDriverValueCount;
+    }
+
+    @Config("experimental.dynamic-filtering-max-per-driver-value-count")
+    @ConfigDescription("Experimental: Maximum number of distinct build side values collected per driver before falling back to a min/max range")
+    public FeaturesConfig setDynamicFilteringMaxPerDriverValueCount(int dynamicFilteringMaxPerDriverValueCount)
+    {
+        this.dynamicFilteringMaxPerDriverValueCount = dynamicFilteringMaxPerDriverValueCount;
+        return this;
+    }
 }
@@ -13,41 +13,41 @@
  */
 package io.prestosql.sql.gen;
 
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Cache;
 import org.weakref.jmx.Managed;
 
 import static java.util.Objects.requireNonNull;
 
 public class CacheStatsMBean
 {
-    private final LoadingCache<?, ?> loadingCache;
+    private final Cache<?, ?> cache;
 
-    public CacheStatsMBean(LoadingCache<?, ?> loadingCache)
+    public CacheStatsMBean(Cache<?, ?> cache)
     {
-        this.loadingCache = requireNonNull(loadingCache, "loadingCache is null");
+        this.cache = requireNonNull(cache, "cache is null");
     }
 
     @Managed
     public long size()
     {
-        return loadingCache.size();
+        return cache.size();
     }
 
     @Managed
     public Double getHitRate()
     {
-        return loadingCache.stats().hitRate();
+        return cache.stats().hitRate();
     }
 
     @Managed
     public Double getMissRate()
     {
-        return loadingCache.stats().missRate();
+        return cache.stats().missRate();
     }
 
     @Managed
     public long getRequestCount()
     {
-        return loadingCache.stats().requestCount();
+        return cache.stats().requestCount();
     }
 }
@@ -0,0 +1,260 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.Session;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.sql.planner.plan.AggregationNode;
+import io.prestosql.sql.planner.plan.AggregationNode.Aggregation;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.CurrentPath;
+import io.prestosql.sql.tree.CurrentTime;
+import io.prestosql.sql.tree.CurrentUser;
+import io.prestosql.sql.tree.DefaultExpressionTraversalVisitor;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.ExpressionRewriter;
+import io.prestosql.sql.tree.ExpressionTreeRewriter;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.prestosql.SystemSessionProperties.isLegacyTimestamp;
+import static io.prestosql.sql.ExpressionFormatter.formatExpression;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Formats a plan without the names of its symbols and plan nodes, so the same
+ * computation has the same representation in different queries. Only plans made
+ * of a table scan followed by deterministic filters, projections and partial
+ * aggregations are supported, since their results for a split only depend on
+ * the data of the split.
+ */
+public final class CanonicalPlanFormatter
+{
+    // these functions are deterministic within a query, but not across queries
+    public static final Set<String> SESSION_DEPENDENT_FUNCTIONS = ImmutableSet.of(
+            "current_date",
+            "current_time",
+            "current_timestamp",
+            "localtime",
+            "localtimestamp",
+            "now",
+            "$current_user",
+            "$current_path");
+
+    private final TypeProvider types;
+    private final ConnectorSession session;
+    private final Map<Symbol, Symbol> canonicalSymbols = new HashMap<>();
+    private final StringBuilder output = new StringBuilder();
+    private int nextSymbolId;
+
+    private CanonicalPlanFormatter(TypeProvider types, ConnectorSession session)
+    {
+        this.types = requireNonNull(types, "types is null");
+        this.session = requireNonNull(session, "session is null");
+    }
+
+    public static Optional<String> formatCanonicalPlan(PlanNode plan, TypeProvider types, Session session)
+    {
+        CanonicalPlanFormatter formatter = new CanonicalPlanFormatter(types, session.toConnectorSession());
+        if (!formatter.format(plan)) {
+            return Optional.empty();
+        }
+
+        // the time zone and timestamp semantics change the results of expressions
+        formatter.output.append("session[timeZone=").append(session.getTimeZoneKey().getId())
+                .append(", legacyTimestamp=").append(isLegacyTimestamp(session))
+                .append("]");
+        return Optional.of(formatter.output.toString());
+    }
+
+    private boolean format(PlanNode node)
+    {
+        if (node instanceof TableScanNode) {
+            return formatTableScan((TableScanNode) node);
+        }
+        if (node instanceof FilterNode) {
+            return formatFilter((FilterNode) node);
+        }
+        if (node instanceof ProjectNode) {
+            return formatProject((ProjectNode) node);
+        }
+        if (node instanceof AggregationNode) {
+            return formatAggregation((AggregationNode) node);
+        }
+        return false;
+    }
+
+    private boolean formatTableScan(TableScanNode node)
+    {
+        output.append("scan[table=").append(node.getTable())
+                .append(", layout=").append(node.getLayout().map(layout -> layout.getConnectorHandle().toString()).orElse("none"))
+                .append(", constraint=").append(node.getCurrentConstraint().toString(session))
+                .append(", enforced=").append(node.getEnforcedConstraint().toString(session))
+                .append(", columns=[");
+        for (Symbol symbol : node.getOutputSymbols()) {
+            output.append(declare(symbol)).append('=').append(node.getAssignments().get(symbol)).append(", ");
+        }
+        output.append("]]\n");
+        return true;
+    }
+
+    private boolean formatFilter(FilterNode node)
+    {
+        if (!format(node.getSource()) || !isDeterministic(node.getPredicate())) {
+            return false;
+        }
+        output.append("filter[").append(canonicalize(node.getPredicate())).append("]\n");
+        return true;
+    }
+
+    private boolean formatProject(ProjectNode node)
+    {
+        if (!format(node.getSource())) {
+            return false;
+        }
+        StringBuilder assignments = new StringBuilder();
+        for (Entry<Symbol, Expression> assignment : node.getAssignments().entrySet()) {
+            if (!isDeterministic(assignment.getValue())) {
+                return false;
+            }
+            // expressions refer to the symbols of the source, so canonicalize them before declaring any outputs
+            assignments.append(canonicalize(assignment.getValue())).append(", ");
+        }
+        output.append("project[").append(assignments).append("outputs=[");
+        for (Symbol symbol : node.getAssignments().getOutputs()) {
+            output.append(declare(symbol)).append(", ");
+        }
+        output.append("]]\n");
+        return true;
+    }
+
+    private boolean formatAggregation(AggregationNode node)
+    {
+        if (node.getStep() != PARTIAL || node.getGroupIdSymbol().isPresent() || !format(node.getSource())) {
+            return false;
+        }
+
+        output.append("aggregation[keys=[");
+        for (Symbol symbol : node.getGroupingKeys()) {
+            output.append(reference(symbol)).append(", ");
+        }
+        output.append("], groupingSets=").append(node.getGroupingSetCount())
+                .append(", globalGroupingSets=").append(node.getGlobalGroupingSets())
+                .append(", preGrouped=[");
+        for (Symbol symbol : node.getPreGroupedSymbols()) {
+            output.append(reference(symbol)).append(", ");
+        }
+        output.append("], hash=").append(node.getHashSymbol().map(this::reference).orElse("none"))
+                .append(", aggregations=[");
+        StringBuilder aggregations = new StringBuilder();
+        for (Entry<Symbol, Aggregation> entry : node.getAggregations().entrySet()) {
+            Aggregation aggregation = entry.getValue();
+            aggregations.append(aggregation.getSignature())
+                    .append('(').append(canonicalize(aggregation.getCall())).append(')')
+                    .append(aggregation.getMask().map(mask -> " mask " + reference(mask)).orElse(""))
+                    .append(", ");
+        }
+        output.append(aggregations).append("], outputs=[");
+        for (Symbol symbol : node.getAggregations().keySet()) {
+            output.append(declare(symbol)).append(", ");
+        }
+        output.append("]]\n");
+        return true;
+    }
+
+    private String declare(Symbol symbol)
+    {
+        Symbol canonicalSymbol = new Symbol("c" + nextSymbolId++);
+        canonicalSymbols.put(symbol, canonicalSymbol);
+        return canonicalSymbol.getName() + ":" + types.get(symbol);
+    }
+
+    private String reference(Symbol symbol)
+    {
+        return requireNonNull(canonicalSymbols.get(symbol), "symbol is not declared").getName();
+    }
+
+    private String canonicalize(Expression expression)
+    {
+        Expression canonical = ExpressionTreeRewriter.rewriteWith(new ExpressionRewriter<Void>()
+        {
+            @Override
+            public Expression rewriteSymbolReference(SymbolReference node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                return new SymbolReference(reference(Symbol.from(node)));
+            }
+        }, expression);
+        return formatExpression(canonical, Optional.empty());
+    }
+
+    private static boolean isDeterministic(Expression expression)
+    {
+        return DeterminismEvaluator.isDeterministic(expression) && !isSessionDependent(expression);
+    }
+
+    /**
+     * Returns true if the expression calls a function whose value depends on the
+     * session, such as the query start time or the current user.
+     */
+    static boolean isSessionDependent(Expression expression)
+    {
+        AtomicBoolean sessionDependent = new AtomicBoolean();
+        new DefaultExpressionTraversalVisitor<Void, Void>()
+        {
+            @Override
+            protected Void visitFunctionCall(FunctionCall node, Void context)
+            {
+                if (SESSION_DEPENDENT_FUNCTIONS.contains(node.getName().toString().toLowerCase(Locale.ENGLISH))) {
+                    sessionDependent.set(true);
+                }
+                return super.visitFunctionCall(node, context);
+            }
+
+            @Override
+            protected Void visitCurrentTime(CurrentTime node, Void context)
+            {
+                sessionDependent.set(true);
+                return null;
+            }
+
+            @Override
+            protected Void visitCurrentUser(CurrentUser node, Void context)
+            {
+                sessionDependent.set(true);
+                return null;
+            }
+
+            @Override
+            protected Void visitCurrentPath(CurrentPath node, Void context)
+            {
+                sessionDependent.set(true);
+                return null;
+            }
+        }.process(expression, null);
+        return sessionDependent.get();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.prestosql.Session;
+import io.prestosql.operator.project.CursorProcessor;
+import io.prestosql.operator.project.PageProcessor;
+import io.prestosql.spi.type.TimeZoneKey;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.CacheStatsMBean;
+import io.prestosql.sql.tree.Expression;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.prestosql.SystemSessionProperties.isLegacyRowFieldOrdinalAccessEnabled;
+import static io.prestosql.SystemSessionProperties.isLegacyTimestamp;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps the compiled processors of filter and project operations, so that
+ * repeated queries skip type analysis, expression translation and code
+ * generation for them. Entries are keyed by the filter and projections after
+ * symbols are replaced with input channels, which makes them independent of
+ * the symbol names and plan node ids of the query that created them.
+ */
+@ThreadSafe
+public class CompiledFilterAndProjectCache
+{
+    private final Cache<CacheKey, CompiledFilterAndProject> cache;
+    private final CacheStatsMBean cacheStats;
+
+    @Inject
+    public CompiledFilterAndProjectCache(CompilerConfig config)
+    {
+        this(requireNonNull(config, "config is null").getFilterAndProjectCacheSize());
+    }
+
+    public CompiledFilterAndProjectCache(int cacheSize)
+    {
+        if (cacheSize > 0) {
+            cache = CacheBuilder.newBuilder()
+                    .recordStats()
+                    .maximumSize(cacheSize)
+                    .build();
+            cacheStats = new CacheStatsMBean(cache);
+        }
+        else {
+            cache = null;
+            cacheStats = null;
+        }
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getFilterAndProjectCache()
+    {
+        return cacheStats;
+    }
+
+    public CompiledFilterAndProject get(
+            Session session,
+            Optional<Expression> filter,
+            List<Expression> projections,
+            Map<Integer, Type> inputTypes,
+            boolean scan,
+            Supplier<CompiledFilterAndProject> compiler)
+    {
+        // translation folds constant calls using the session, so the result of calls
+        // such as current_timestamp must not leak into other queries
+        if (cache == null || Stream.concat(filter.map(Stream::of).orElse(Stream.empty()), projections.stream()).anyMatch(CanonicalPlanFormatter::isSessionDependent)) {
+            return compiler.get();
+        }
+
+        CacheKey key = new CacheKey(filter, projections, inputTypes, scan, session);
+        try {
+            return cache.get(key, compiler::get);
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @VisibleForTesting
+    long size()
+    {
+        return cache == null ? 0 : cache.size();
+    }
+
+    public static final class CompiledFilterAndProject
+    {
+        private final Optional<Supplier<CursorProcessor>> cursorProcessor;
+        private final Supplier<PageProcessor> pageProcessor;
+        private final List<Type> outputTypes;
+
+        public CompiledFilterAndProject(Optional<Supplier<CursorProcessor>> cursorProcessor, Supplier<PageProcessor> pageProcessor, List<Type> outputTypes)
+        {
+            this.cursorProcessor = requireNonNull(cursorProcessor, "cursorProcessor is null");
+            this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
+            this.outputTypes = ImmutableList.copyOf(requireNonNull(outputTypes, "outputTypes is null"));
+        }
+
+        public Optional<Supplier<CursorProcessor>> getCursorProcessor()
+        {
+            return cursorProcessor;
+        }
+
+        public Supplier<PageProcessor> getPageProcessor()
+        {
+            return pageProcessor;
+        }
+
+        public List<Type> getOutputTypes()
+        {
+            return outputTypes;
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final Optional<Expression> filter;
+        private final List<Expression> projections;
+        private final Map<Integer, Type> inputTypes;
+        private final boolean scan;
+        private final TimeZoneKey timeZoneKey;
+        private final Locale locale;
+        private final boolean legacyTimestamp;
+        private final boolean legacyRowFieldOrdinalAccess;
+
+        private CacheKey(Optional<Expression> filter, List<Expression> projections, Map<Integer, Type> inputTypes, boolean scan, Session session)
+        {
+            this.filter = requireNonNull(filter, "filter is null");
+            this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+            this.inputTypes = ImmutableMap.copyOf(requireNonNull(inputTypes, "inputTypes is null"));
+            this.scan = scan;
+            this.timeZoneKey = session.getTimeZoneKey();
+            this.locale = session.getLocale();
+            this.legacyTimestamp = isLegacyTimestamp(session);
+            this.legacyRowFieldOrdinalAccess = isLegacyRowFieldOrdinalAccessEnabled(session);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return scan == other.scan &&
+                    legacyTimestamp == other.legacyTimestamp &&
+                    legacyRowFieldOrdinalAccess == other.legacyRowFieldOrdinalAccess &&
+                    Objects.equals(filter, other.filter) &&
+                    Objects.equals(projections, other.projections) &&
+                    Objects.equals(inputTypes, other.inputTypes) &&
+                    Objects.equals(timeZoneKey, other.timeZoneKey) &&
+                    Objects.equals(locale, other.locale);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(filter, projections, inputTypes, scan, timeZoneKey, locale, legacyTimestamp, legacyRowFieldOrdinalAccess);
+        }
+    }
+}
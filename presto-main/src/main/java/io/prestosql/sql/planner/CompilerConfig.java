@@ -23,6 +23,7 @@ import javax.validation.constraints.Min;
 public class CompilerConfig
 {
     private int expressionCacheSize = 10_000;
+    private int filterAndProjectCacheSize = 1_000;
 
     @Min(0)
     public int getExpressionCacheSize()
@@ -37,4 +38,18 @@ public class CompilerConfig
         this.expressionCacheSize = expressionCacheSize;
         return this;
     }
+
+    @Min(0)
+    public int getFilterAndProjectCacheSize()
+    {
+        return filterAndProjectCacheSize;
+    }
+
+    @Config("compiler.filter-and-project-cache-size")
+    @Description("Reuse compiled filter and project operations across multiple queries")
+    public CompilerConfig setFilterAndProjectCacheSize(int filterAndProjectCacheSize)
+    {
+        this.filterAndProjectCacheSize = filterAndProjectCacheSize;
+        return this;
+    }
 }
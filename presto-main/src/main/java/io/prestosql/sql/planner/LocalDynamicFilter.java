@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static io.airlift.concurrent.MoreFutures.getDone;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Predicate on the probe side symbols of a join, collected from the build side
+ * of the same join within a single task.
+ */
+public class LocalDynamicFilter
+{
+    // probe side symbol for each of the build side filter channels
+    private final List<Symbol> probeSymbols;
+    private final SettableFuture<TupleDomain<Symbol>> resultFuture = SettableFuture.create();
+
+    public LocalDynamicFilter(List<Symbol> probeSymbols)
+    {
+        this.probeSymbols = ImmutableList.copyOf(requireNonNull(probeSymbols, "probeSymbols is null"));
+    }
+
+    public List<Symbol> getProbeSymbols()
+    {
+        return probeSymbols;
+    }
+
+    public Consumer<TupleDomain<Integer>> getTupleDomainConsumer()
+    {
+        return this::setBuildSidePredicate;
+    }
+
+    public ListenableFuture<TupleDomain<Symbol>> getResultFuture()
+    {
+        return resultFuture;
+    }
+
+    /**
+     * Returns the collected predicate, or {@link TupleDomain#all()} when the build side is not done yet.
+     */
+    public TupleDomain<Symbol> getCurrentPredicate()
+    {
+        if (!resultFuture.isDone()) {
+            return TupleDomain.all();
+        }
+        return getDone(resultFuture);
+    }
+
+    private void setBuildSidePredicate(TupleDomain<Integer> buildSidePredicate)
+    {
+        resultFuture.set(translateToProbeSymbols(buildSidePredicate));
+    }
+
+    private TupleDomain<Symbol> translateToProbeSymbols(TupleDomain<Integer> buildSidePredicate)
+    {
+        if (buildSidePredicate.isNone()) {
+            return TupleDomain.none();
+        }
+        // the same probe symbol may be compared with several build side symbols
+        Map<Symbol, Domain> domains = new HashMap<>();
+        for (Map.Entry<Integer, Domain> entry : buildSidePredicate.getDomains().get().entrySet()) {
+            domains.merge(probeSymbols.get(entry.getKey()), entry.getValue(), Domain::intersect);
+        }
+        return TupleDomain.withColumnDomains(domains);
+    }
+}
@@ -14,6 +14,7 @@
 package io.prestosql.sql.planner;
 
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ContiguousSet;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableBiMap;
@@ -23,9 +24,11 @@ import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hashing;
 import com.google.common.primitives.Ints;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
@@ -44,11 +47,14 @@ import io.prestosql.operator.AssignUniqueIdOperator;
 import io.prestosql.operator.DeleteOperator.DeleteOperatorFactory;
 import io.prestosql.operator.DevNullOperator.DevNullOperatorFactory;
 import io.prestosql.operator.DriverFactory;
+import io.prestosql.operator.DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory;
 import io.prestosql.operator.EnforceSingleRowOperator;
 import io.prestosql.operator.ExchangeClientSupplier;
 import io.prestosql.operator.ExchangeOperator.ExchangeOperatorFactory;
 import io.prestosql.operator.ExplainAnalyzeOperator.ExplainAnalyzeOperatorFactory;
 import io.prestosql.operator.FilterAndProjectOperator;
+import io.prestosql.operator.FragmentResultCacheContext;
+import io.prestosql.operator.FragmentResultCacheManager;
 import io.prestosql.operator.GroupIdOperator;
 import io.prestosql.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import io.prestosql.operator.HashBuilderOperator.HashBuilderOperatorFactory;
@@ -120,7 +126,9 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorIndex;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.RecordSet;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.NullableValue;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.spiller.SingleStreamSpillerFactory;
@@ -135,6 +143,7 @@ import io.prestosql.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory
 import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.parser.SqlParser;
+import io.prestosql.sql.planner.CompiledFilterAndProjectCache.CompiledFilterAndProject;
 import io.prestosql.sql.planner.Partitioning.ArgumentBinding;
 import io.prestosql.sql.planner.optimizations.IndexJoinOptimizer;
 import io.prestosql.sql.planner.plan.AggregationNode;
@@ -225,12 +234,18 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Range.closedOpen;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.prestosql.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
+import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverValueCount;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
 import static io.prestosql.SystemSessionProperties.getTaskConcurrency;
 import static io.prestosql.SystemSessionProperties.getTaskWriterCount;
-import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.isEnableDynamicFiltering;
+import static io.prestosql.SystemSessionProperties.isFragmentResultCachingEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillEnabled;
+import static io.prestosql.SystemSessionProperties.isSpillMarkDistinct;
+import static io.prestosql.SystemSessionProperties.isSpillOrderBy;
+import static io.prestosql.SystemSessionProperties.isSpillWindowOperator;
 import static io.prestosql.execution.warnings.WarningCollector.NOOP;
 import static io.prestosql.metadata.FunctionKind.SCALAR;
 import static io.prestosql.operator.DistinctLimitOperator.DistinctLimitOperatorFactory;
@@ -252,6 +267,7 @@ import static io.prestosql.spi.type.TypeUtils.writeNativeValue;
 import static io.prestosql.sql.analyzer.ExpressionAnalyzer.getExpressionTypes;
 import static io.prestosql.sql.analyzer.ExpressionAnalyzer.getExpressionTypesFromInput;
 import static io.prestosql.sql.gen.LambdaBytecodeGenerator.compileLambdaProvider;
+import static io.prestosql.sql.planner.CanonicalPlanFormatter.formatCanonicalPlan;
 import static io.prestosql.sql.planner.ExpressionNodeInliner.replaceExpression;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
@@ -278,6 +294,7 @@ import static io.prestosql.util.SpatialJoinUtils.ST_WITHIN;
 import static io.prestosql.util.SpatialJoinUtils.extractSupportedSpatialComparisons;
 import static io.prestosql.util.SpatialJoinUtils.extractSupportedSpatialFunctions;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.IntStream.range;
@@ -310,6 +327,8 @@ public class LocalExecutionPlanner
     private final JoinCompiler joinCompiler;
     private final LookupJoinOperators lookupJoinOperators;
     private final OrderingCompiler orderingCompiler;
+    private final FragmentResultCacheManager fragmentResultCacheManager;
+    private final CompiledFilterAndProjectCache compiledFilterAndProjectCache;
 
     @Inject
     public LocalExecutionPlanner(
@@ -333,7 +352,9 @@ public class LocalExecutionPlanner
             PagesIndex.Factory pagesIndexFactory,
             JoinCompiler joinCompiler,
             LookupJoinOperators lookupJoinOperators,
-            OrderingCompiler orderingCompiler)
+            OrderingCompiler orderingCompiler,
+            FragmentResultCacheManager fragmentResultCacheManager,
+            CompiledFilterAndProjectCache compiledFilterAndProjectCache)
     {
         this.explainAnalyzeContext = requireNonNull(explainAnalyzeContext, "explainAnalyzeContext is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
@@ -359,6 +380,8 @@ public class LocalExecutionPlanner
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.lookupJoinOperators = requireNonNull(lookupJoinOperators, "lookupJoinOperators is null");
         this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+        this.fragmentResultCacheManager = requireNonNull(fragmentResultCacheManager, "fragmentResultCacheManager is null");
+        this.compiledFilterAndProjectCache = requireNonNull(compiledFilterAndProjectCache, "compiledFilterAndProjectCache is null");
     }
 
     public LocalExecutionPlan plan(
@@ -459,6 +482,15 @@ public class LocalExecutionPlanner
                 .map(types::get)
                 .collect(toImmutableList());
 
+        // only a plan that runs as a single leaf pipeline produces output that is a function of its split alone
+        Optional<FragmentResultCacheContext> fragmentResultCacheContext = Optional.empty();
+        if (isFragmentResultCachingEnabled(session) && context.isInputDriver() && context.getDriverFactories().isEmpty()) {
+            fragmentResultCacheContext = formatCanonicalPlan(plan, types, session)
+                    .map(canonicalPlan -> new FragmentResultCacheContext(
+                            fragmentResultCacheManager,
+                            Hashing.sha256().hashString(canonicalPlan, UTF_8).toString()));
+        }
+
         context.addDriverFactory(
                 context.isInputDriver(),
                 true,
@@ -469,10 +501,11 @@ public class LocalExecutionPlanner
                                 plan.getId(),
                                 outputTypes,
                                 pagePreprocessor,
-                                new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session))))
+                                new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session))))
                         .build(),
                 context.getDriverInstanceCount(),
-                physicalOperation.getPipelineExecutionStrategy());
+                physicalOperation.getPipelineExecutionStrategy(),
+                fragmentResultCacheContext);
 
         addLookupOuterDrivers(context);
 
@@ -551,6 +584,17 @@ public class LocalExecutionPlanner
         }
 
         public void addDriverFactory(boolean inputDriver, boolean outputDriver, List<OperatorFactory> operatorFactories, OptionalInt driverInstances, PipelineExecutionStrategy pipelineExecutionStrategy)
+        {
+            addDriverFactory(inputDriver, outputDriver, operatorFactories, driverInstances, pipelineExecutionStrategy, Optional.empty());
+        }
+
+        public void addDriverFactory(
+                boolean inputDriver,
+                boolean outputDriver,
+                List<OperatorFactory> operatorFactories,
+                OptionalInt driverInstances,
+                PipelineExecutionStrategy pipelineExecutionStrategy,
+                Optional<FragmentResultCacheContext> fragmentResultCacheContext)
         {
             if (pipelineExecutionStrategy == GROUPED_EXECUTION) {
                 OperatorFactory firstOperatorFactory = operatorFactories.get(0);
@@ -561,7 +605,7 @@ public class LocalExecutionPlanner
                     checkArgument(firstOperatorFactory instanceof LocalExchangeSourceOperatorFactory || firstOperatorFactory instanceof LookupOuterOperatorFactory);
                 }
             }
-            driverFactories.add(new DriverFactory(getNextPipelineId(), inputDriver, outputDriver, operatorFactories, driverInstances, pipelineExecutionStrategy));
+            driverFactories.add(new DriverFactory(getNextPipelineId(), inputDriver, outputDriver, operatorFactories, driverInstances, pipelineExecutionStrategy, fragmentResultCacheContext));
         }
 
         private List<DriverFactory> getDriverFactories()
@@ -684,6 +728,8 @@ public class LocalExecutionPlanner
     {
         private final Session session;
         private final StageExecutionStrategy stageExecutionStrategy;
+        // dynamic filters collected from join build sides, by the probe side table scan they apply to
+        private final ListMultimap<PlanNodeId, LocalDynamicFilter> dynamicFiltersByTableScan = ArrayListMultimap.create();
 
         private Visitor(Session session, StageExecutionStrategy stageExecutionStrategy)
         {
@@ -722,7 +768,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)),
+                    new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session)),
                     orderingCompiler,
                     types,
                     outputChannels,
@@ -742,7 +788,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)));
+                    new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session)));
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, UNGROUPED_EXECUTION);
         }
@@ -939,7 +985,10 @@ public class LocalExecutionPlanner
                     sortOrder,
                     node.getPreSortedOrderPrefix(),
                     10_000,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    isSpillEnabled(context.getSession()) && isSpillWindowOperator(context.getSession()),
+                    Optional.of(spillerFactory),
+                    orderingCompiler);
 
             return new PhysicalOperation(operatorFactory, outputMappings.build(), context, source);
         }
@@ -996,7 +1045,10 @@ public class LocalExecutionPlanner
                     10_000,
                     orderByChannels,
                     sortOrder.build(),
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    isSpillEnabled(context.getSession()) && isSpillOrderBy(context.getSession()),
+                    Optional.of(spillerFactory),
+                    orderingCompiler);
 
             return new PhysicalOperation(operator, source.getLayout(), context, source);
         }
@@ -1101,7 +1153,15 @@ public class LocalExecutionPlanner
 
             List<Integer> channels = getChannelsForSymbols(node.getDistinctSymbols(), source.getLayout());
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
-            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), channels, hashChannel, joinCompiler);
+            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    source.getTypes(),
+                    channels,
+                    hashChannel,
+                    joinCompiler,
+                    isSpillEnabled(context.getSession()) && isSpillMarkDistinct(context.getSession()),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operator, makeLayout(node), context, source);
         }
 
@@ -1205,52 +1265,69 @@ public class LocalExecutionPlanner
                 rewrittenProjections.add(symbolToInputRewriter.rewrite(assignments.get(symbol)));
             }
 
+            Map<Integer, Type> inputTypes = sourceTypes;
+            Optional<PlanNodeId> scanNodeId = columns != null ? Optional.of(sourceNode.getId()) : Optional.empty();
+            CompiledFilterAndProject compiled = compiledFilterAndProjectCache.get(
+                    session,
+                    rewrittenFilter,
+                    rewrittenProjections,
+                    inputTypes,
+                    scanNodeId.isPresent(),
+                    () -> compileFilterAndProject(rewrittenFilter, rewrittenProjections, inputTypes, scanNodeId, context.getStageId() + "_" + planNodeId));
+
+            if (columns != null) {
+                SourceOperatorFactory operatorFactory = new ScanFilterAndProjectOperatorFactory(
+                        context.getNextOperatorId(),
+                        planNodeId,
+                        sourceNode.getId(),
+                        pageSourceProvider,
+                        compiled.getCursorProcessor().get(),
+                        compiled.getPageProcessor(),
+                        columns,
+                        getDynamicFilterSupplier((TableScanNode) sourceNode),
+                        compiled.getOutputTypes(),
+                        getFilterAndProjectMinOutputPageSize(session),
+                        getFilterAndProjectMinOutputPageRowCount(session));
+
+                return new PhysicalOperation(operatorFactory, outputMappings, context, stageExecutionStrategy.isGroupedExecution(sourceNode.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
+            }
+
+            OperatorFactory operatorFactory = new FilterAndProjectOperator.FilterAndProjectOperatorFactory(
+                    context.getNextOperatorId(),
+                    planNodeId,
+                    compiled.getPageProcessor(),
+                    compiled.getOutputTypes(),
+                    getFilterAndProjectMinOutputPageSize(session),
+                    getFilterAndProjectMinOutputPageRowCount(session));
+
+            return new PhysicalOperation(operatorFactory, outputMappings, context, source);
+        }
+
+        private CompiledFilterAndProject compileFilterAndProject(
+                Optional<Expression> filter,
+                List<Expression> projections,
+                Map<Integer, Type> inputTypes,
+                Optional<PlanNodeId> scanNodeId,
+                String classNameSuffix)
+        {
             Map<NodeRef<Expression>, Type> expressionTypes = getExpressionTypesFromInput(
-                    context.getSession(),
+                    session,
                     metadata,
                     sqlParser,
-                    sourceTypes,
-                    concat(rewrittenFilter.map(ImmutableList::of).orElse(ImmutableList.of()), rewrittenProjections),
+                    inputTypes,
+                    concat(filter.map(ImmutableList::of).orElse(ImmutableList.of()), projections),
                     emptyList(),
                     NOOP);
 
-            Optional<RowExpression> translatedFilter = rewrittenFilter.map(filter -> toRowExpression(filter, expressionTypes));
-            List<RowExpression> translatedProjections = rewrittenProjections.stream()
+            Optional<RowExpression> translatedFilter = filter.map(expression -> toRowExpression(expression, expressionTypes));
+            List<RowExpression> translatedProjections = projections.stream()
                     .map(expression -> toRowExpression(expression, expressionTypes))
                     .collect(toImmutableList());
 
             try {
-                if (columns != null) {
-                    Supplier<CursorProcessor> cursorProcessor = expressionCompiler.compileCursorProcessor(translatedFilter, translatedProjections, sourceNode.getId());
-                    Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(translatedFilter, translatedProjections, Optional.of(context.getStageId() + "_" + planNodeId));
-
-                    SourceOperatorFactory operatorFactory = new ScanFilterAndProjectOperatorFactory(
-                            context.getNextOperatorId(),
-                            planNodeId,
-                            sourceNode.getId(),
-                            pageSourceProvider,
-                            cursorProcessor,
-                            pageProcessor,
-                            columns,
-                            getTypes(rewrittenProjections, expressionTypes),
-                            getFilterAndProjectMinOutputPageSize(session),
-                            getFilterAndProjectMinOutputPageRowCount(session));
-
-                    return new PhysicalOperation(operatorFactory, outputMappings, context, stageExecutionStrategy.isGroupedExecution(sourceNode.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
-                }
-                else {
-                    Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(translatedFilter, translatedProjections, Optional.of(context.getStageId() + "_" + planNodeId));
-
-                    OperatorFactory operatorFactory = new FilterAndProjectOperator.FilterAndProjectOperatorFactory(
-                            context.getNextOperatorId(),
-                            planNodeId,
-                            pageProcessor,
-                            getTypes(rewrittenProjections, expressionTypes),
-                            getFilterAndProjectMinOutputPageSize(session),
-                            getFilterAndProjectMinOutputPageRowCount(session));
-
-                    return new PhysicalOperation(operatorFactory, outputMappings, context, source);
-                }
+                Optional<Supplier<CursorProcessor>> cursorProcessor = scanNodeId.map(id -> expressionCompiler.compileCursorProcessor(translatedFilter, translatedProjections, id));
+                Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(translatedFilter, translatedProjections, Optional.of(classNameSuffix));
+                return new CompiledFilterAndProject(cursorProcessor, pageProcessor, getTypes(projections, expressionTypes));
             }
             catch (RuntimeException e) {
                 throw new PrestoException(COMPILER_ERROR, "Compiler failed", e);
@@ -1280,10 +1357,37 @@ public class LocalExecutionPlanner
                 columns.add(node.getAssignments().get(symbol));
             }
 
-            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, columns);
+            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, columns, getDynamicFilterSupplier(node));
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, stageExecutionStrategy.isGroupedExecution(node.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
         }
 
+        private Supplier<TupleDomain<ColumnHandle>> getDynamicFilterSupplier(TableScanNode node)
+        {
+            List<LocalDynamicFilter> dynamicFilters = ImmutableList.copyOf(dynamicFiltersByTableScan.get(node.getId()));
+            if (dynamicFilters.isEmpty()) {
+                return TupleDomain::all;
+            }
+            Map<Symbol, ColumnHandle> assignments = node.getAssignments();
+            return () -> {
+                TupleDomain<Symbol> predicate = TupleDomain.all();
+                for (LocalDynamicFilter dynamicFilter : dynamicFilters) {
+                    predicate = predicate.intersect(dynamicFilter.getCurrentPredicate());
+                }
+                if (predicate.isNone()) {
+                    return TupleDomain.none();
+                }
+                // several symbols may be assigned to the same column
+                Map<ColumnHandle, Domain> domains = new HashMap<>();
+                for (Map.Entry<Symbol, Domain> entry : predicate.getDomains().get().entrySet()) {
+                    ColumnHandle column = assignments.get(entry.getKey());
+                    if (column != null) {
+                        domains.merge(column, entry.getValue(), Domain::intersect);
+                    }
+                }
+                return TupleDomain.withColumnDomains(domains);
+            };
+        }
+
         @Override
         public PhysicalOperation visitValues(ValuesNode node, LocalExecutionPlanContext context)
         {
@@ -1902,12 +2006,15 @@ public class LocalExecutionPlanner
                 Optional<Symbol> buildHashSymbol,
                 LocalExecutionPlanContext context)
         {
+            // Register the dynamic filter before planning the probe, so that the probe side table scan can use it
+            Optional<LocalDynamicFilter> dynamicFilter = createDynamicFilter(node, probeNode, probeSymbols);
+
             // Plan probe
             PhysicalOperation probeSource = probeNode.accept(this, context);
 
             // Plan build
             JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactory =
-                    createLookupSourceFactory(node, buildNode, buildSymbols, buildHashSymbol, probeSource, context);
+                    createLookupSourceFactory(node, buildNode, buildSymbols, buildHashSymbol, probeSource, dynamicFilter, context);
 
             OperatorFactory operator = createLookupJoin(node, probeSource, probeSymbols, probeHashSymbol, lookupSourceFactory, context);
 
@@ -1921,12 +2028,51 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operator, outputMappings.build(), context, probeSource);
         }
 
+        private Optional<LocalDynamicFilter> createDynamicFilter(JoinNode node, PlanNode probeNode, List<Symbol> probeSymbols)
+        {
+            // probe side rows without a match are only dropped by inner and right joins
+            if (!isEnableDynamicFiltering(session) || (node.getType() != INNER && node.getType() != RIGHT)) {
+                return Optional.empty();
+            }
+            Optional<TableScanNode> tableScan = findProbeTableScan(probeNode, probeSymbols);
+            if (!tableScan.isPresent() || stageExecutionStrategy.isGroupedExecution(tableScan.get().getId())) {
+                return Optional.empty();
+            }
+            LocalDynamicFilter dynamicFilter = new LocalDynamicFilter(probeSymbols);
+            dynamicFiltersByTableScan.put(tableScan.get().getId(), dynamicFilter);
+            return Optional.of(dynamicFilter);
+        }
+
+        /**
+         * Finds the table scan producing the probe symbols, looking only through nodes
+         * which preserve the values of the probe symbols and do not depend on the rows
+         * that the dynamic filter removes.
+         */
+        private Optional<TableScanNode> findProbeTableScan(PlanNode node, List<Symbol> probeSymbols)
+        {
+            while (true) {
+                if (node instanceof TableScanNode) {
+                    return Optional.of((TableScanNode) node);
+                }
+                if (node instanceof FilterNode) {
+                    node = ((FilterNode) node).getSource();
+                }
+                else if (node instanceof ProjectNode && probeSymbols.stream().allMatch(((ProjectNode) node).getAssignments()::isIdentity)) {
+                    node = ((ProjectNode) node).getSource();
+                }
+                else {
+                    return Optional.empty();
+                }
+            }
+        }
+
         private JoinBridgeManager<PartitionedLookupSourceFactory> createLookupSourceFactory(
                 JoinNode node,
                 PlanNode buildNode,
                 List<Symbol> buildSymbols,
                 Optional<Symbol> buildHashSymbol,
                 PhysicalOperation probeSource,
+                Optional<LocalDynamicFilter> dynamicFilter,
                 LocalExecutionPlanContext context)
         {
             LocalExecutionPlanContext buildContext = context.createSubContext();
@@ -1982,6 +2128,16 @@ public class LocalExecutionPlanner
             ImmutableList<Type> buildOutputTypes = buildOutputChannels.stream()
                     .map(buildSource.getTypes()::get)
                     .collect(toImmutableList());
+            Optional<DynamicFilterSourceOperatorFactory> dynamicFilterSourceOperatorFactory = dynamicFilter
+                    .map(filter -> new DynamicFilterSourceOperatorFactory(
+                            buildContext.getNextOperatorId(),
+                            node.getId(),
+                            filter.getTupleDomainConsumer(),
+                            buildChannels,
+                            buildChannels.stream()
+                                    .map(buildSource.getTypes()::get)
+                                    .collect(toImmutableList()),
+                            getDynamicFilteringMaxPerDriverValueCount(session)));
             JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager = new JoinBridgeManager<>(
                     buildOuter,
                     probeSource.getPipelineExecutionStrategy(),
@@ -2011,13 +2167,15 @@ public class LocalExecutionPlanner
                     spillEnabled && !buildOuter && partitionCount > 1,
                     singleStreamSpillerFactory);
 
+            ImmutableList.Builder<OperatorFactory> factoriesBuilder = ImmutableList.<OperatorFactory>builder()
+                    .addAll(buildSource.getOperatorFactories());
+            dynamicFilterSourceOperatorFactory.ifPresent(factoriesBuilder::add);
+            factoriesBuilder.add(hashBuilderOperatorFactory);
+
             context.addDriverFactory(
                     buildContext.isInputDriver(),
                     false,
-                    ImmutableList.<OperatorFactory>builder()
-                            .addAll(buildSource.getOperatorFactories())
-                            .add(hashBuilderOperatorFactory)
-                            .build(),
+                    factoriesBuilder.build(),
                     buildContext.getDriverInstanceCount(),
                     buildSource.getPipelineExecutionStrategy());
 
@@ -81,6 +81,7 @@ import io.prestosql.sql.planner.iterative.rule.PushProjectionThroughUnion;
 import io.prestosql.sql.planner.iterative.rule.PushRemoteExchangeThroughAssignUniqueId;
 import io.prestosql.sql.planner.iterative.rule.PushTableWriteThroughUnion;
 import io.prestosql.sql.planner.iterative.rule.PushTopNThroughUnion;
+import io.prestosql.sql.planner.iterative.rule.RangePartitionDistributedSort;
 import io.prestosql.sql.planner.iterative.rule.RemoveEmptyDelete;
 import io.prestosql.sql.planner.iterative.rule.RemoveFullSample;
 import io.prestosql.sql.planner.iterative.rule.RemoveRedundantIdentityProjections;
@@ -471,6 +472,7 @@ public class PlanOptimizers
                 ImmutableSet.<Rule<?>>builder()
                         .add(new RemoveRedundantIdentityProjections())
                         .add(new PushRemoteExchangeThroughAssignUniqueId())
+                        .add(new RangePartitionDistributedSort())
                         .add(new InlineProjections())
                         .build()));
 
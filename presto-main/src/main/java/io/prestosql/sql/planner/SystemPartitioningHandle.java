@@ -26,6 +26,7 @@ import io.prestosql.operator.PartitionFunction;
 import io.prestosql.operator.PrecomputedHashGenerator;
 import io.prestosql.spi.Node;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.connector.BucketFunction;
 import io.prestosql.spi.connector.ConnectorPartitioningHandle;
 import io.prestosql.spi.type.Type;
@@ -38,6 +39,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.SystemSessionProperties.getHashPartitionCount;
 import static io.prestosql.spi.StandardErrorCode.NO_NODES_AVAILABLE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.util.Failures.checkCondition;
 import static java.util.Objects.requireNonNull;
 
@@ -58,6 +60,7 @@ public final class SystemPartitioningHandle
     public static final PartitioningHandle COORDINATOR_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.COORDINATOR_ONLY, SystemPartitionFunction.SINGLE);
     public static final PartitioningHandle FIXED_HASH_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.HASH);
     public static final PartitioningHandle FIXED_ARBITRARY_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.ROUND_ROBIN);
+    public static final PartitioningHandle FIXED_RANGE_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.RANGE);
     public static final PartitioningHandle FIXED_BROADCAST_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.BROADCAST);
     public static final PartitioningHandle SCALED_WRITER_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.SCALED, SystemPartitionFunction.ROUND_ROBIN);
     public static final PartitioningHandle SOURCE_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.SOURCE, SystemPartitionFunction.UNKNOWN);
@@ -201,6 +204,21 @@ public final class SystemPartitioningHandle
                 return new RoundRobinBucketFunction(bucketCount);
             }
         },
+        /**
+         * Partitions on a single DOUBLE channel holding the relative position of the row
+         * within the partitioned range, where 0 is the start and 1 is the end of the range.
+         * Bucket {@code i} receives a contiguous slice of the range that precedes the slice
+         * of bucket {@code i + 1}, so the buckets are ordered.
+         */
+        RANGE {
+            @Override
+            public BucketFunction createBucketFunction(List<Type> partitionChannelTypes, boolean isHashPrecomputed, int bucketCount)
+            {
+                checkArgument(!isHashPrecomputed, "Range partitioning does not support precomputed hashes");
+                checkArgument(partitionChannelTypes.equals(ImmutableList.of(DOUBLE)), "Range partitioning requires a single DOUBLE channel");
+                return new RangeBucketFunction(bucketCount);
+            }
+        },
         BROADCAST {
             @Override
             public BucketFunction createBucketFunction(List<Type> partitionChannelTypes, boolean isHashPrecomputed, int bucketCount)
@@ -257,6 +275,40 @@ public final class SystemPartitioningHandle
             }
         }
 
+        private static class RangeBucketFunction
+                implements BucketFunction
+        {
+            private final int bucketCount;
+
+            public RangeBucketFunction(int bucketCount)
+            {
+                checkArgument(bucketCount > 0, "bucketCount must be at least 1");
+                this.bucketCount = bucketCount;
+            }
+
+            @Override
+            public int getBucket(Page page, int position)
+            {
+                Block block = page.getBlock(0);
+                if (block.isNull(position)) {
+                    return 0;
+                }
+                double rangePosition = DOUBLE.getDouble(block, position);
+                if (!(rangePosition > 0)) {
+                    return 0;
+                }
+                return (int) Math.min(rangePosition * bucketCount, bucketCount - 1);
+            }
+
+            @Override
+            public String toString()
+            {
+                return toStringHelper(this)
+                        .add("bucketCount", bucketCount)
+                        .toString();
+            }
+        }
+
         private static class HashBucketFunction
                 implements BucketFunction
         {
@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.Session;
+import io.prestosql.cost.SymbolStatsEstimate;
+import io.prestosql.matching.Capture;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.spi.block.SortOrder;
+import io.prestosql.spi.type.StandardTypes;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.Partitioning;
+import io.prestosql.sql.planner.PartitioningScheme;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.ExchangeNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.SortNode;
+import io.prestosql.sql.tree.ArithmeticBinaryExpression;
+import io.prestosql.sql.tree.ArithmeticUnaryExpression;
+import io.prestosql.sql.tree.Cast;
+import io.prestosql.sql.tree.CoalesceExpression;
+import io.prestosql.sql.tree.DoubleLiteral;
+import io.prestosql.sql.tree.Expression;
+
+import java.util.Set;
+
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.prestosql.SystemSessionProperties.isDistributedSortRangePartitioning;
+import static io.prestosql.matching.Capture.newCapture;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_RANGE_DISTRIBUTION;
+import static io.prestosql.sql.planner.plan.ExchangeNode.Scope.REMOTE;
+import static io.prestosql.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static io.prestosql.sql.planner.plan.ExchangeNode.partitionedExchange;
+import static io.prestosql.sql.planner.plan.Patterns.exchange;
+import static io.prestosql.sql.planner.plan.Patterns.sort;
+import static io.prestosql.sql.planner.plan.Patterns.source;
+import static io.prestosql.sql.tree.ArithmeticBinaryExpression.Operator.DIVIDE;
+import static io.prestosql.sql.tree.ArithmeticBinaryExpression.Operator.SUBTRACT;
+import static java.lang.Double.isFinite;
+
+/**
+ * Replaces the round robin exchange below a distributed sort with an exchange
+ * that range partitions the rows on the first sort key. The bounds of the range
+ * are the low and high values of the key from the statistics, and the range is
+ * split evenly between the nodes. Every node then sorts a distinct range of keys,
+ * so the final merge passes whole runs of pages through instead of merging rows.
+ * <p>
+ * From:
+ * <pre>
+ * - Sort
+ *   - Exchange (REMOTE, ROUND_ROBIN)
+ * </pre>
+ * To:
+ * <pre>
+ * - Sort
+ *   - Project (drops range_position)
+ *     - Exchange (REMOTE, RANGE on range_position)
+ *       - Project (range_position := (CAST(key AS double) - low) / (high - low))
+ * </pre>
+ */
+public class RangePartitionDistributedSort
+        implements Rule<SortNode>
+{
+    private static final Set<Type> SUPPORTED_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT);
+
+    private static final Capture<ExchangeNode> EXCHANGE = newCapture();
+    private static final Pattern<SortNode> PATTERN = sort()
+            .with(source().matching(exchange()
+                    .matching(exchange -> exchange.getScope() == REMOTE)
+                    .matching(exchange -> exchange.getType() == REPARTITION)
+                    .matching(exchange -> exchange.getPartitioningScheme().getPartitioning().getHandle().equals(FIXED_ARBITRARY_DISTRIBUTION))
+                    .matching(exchange -> exchange.getSources().size() == 1)
+                    .matching(exchange -> getOnlyElement(exchange.getInputs()).equals(exchange.getOutputSymbols()))
+                    .capturedAs(EXCHANGE)));
+
+    @Override
+    public Pattern<SortNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public boolean isEnabled(Session session)
+    {
+        return isDistributedSortRangePartitioning(session);
+    }
+
+    @Override
+    public Result apply(SortNode node, Captures captures, Context context)
+    {
+        ExchangeNode exchange = captures.get(EXCHANGE);
+
+        Symbol sortKey = node.getOrderingScheme().getOrderBy().get(0);
+        if (!SUPPORTED_TYPES.contains(context.getSymbolAllocator().getTypes().get(sortKey))) {
+            return Result.empty();
+        }
+
+        SymbolStatsEstimate sortKeyStats = context.getStatsProvider().getStats(exchange).getSymbolStatistics(sortKey);
+        double low = sortKeyStats.getLowValue();
+        double high = sortKeyStats.getHighValue();
+        if (!isFinite(low) || !isFinite(high) || high <= low) {
+            return Result.empty();
+        }
+
+        PlanNode source = getOnlyElement(exchange.getSources());
+        Symbol rangePosition = context.getSymbolAllocator().newSymbol("range_position", DOUBLE);
+        ProjectNode project = new ProjectNode(
+                context.getIdAllocator().getNextId(),
+                source,
+                Assignments.builder()
+                        .putIdentities(source.getOutputSymbols())
+                        .put(rangePosition, rangePosition(sortKey, node.getOrderingScheme().getOrdering(sortKey), low, high))
+                        .build());
+
+        ExchangeNode rangeExchange = partitionedExchange(
+                exchange.getId(),
+                REMOTE,
+                project,
+                new PartitioningScheme(
+                        Partitioning.create(FIXED_RANGE_DISTRIBUTION, ImmutableList.of(rangePosition)),
+                        project.getOutputSymbols()));
+
+        // the sort and the nodes above it only see the symbols of the original exchange
+        ProjectNode dropRangePosition = new ProjectNode(
+                context.getIdAllocator().getNextId(),
+                rangeExchange,
+                Assignments.identity(exchange.getOutputSymbols()));
+
+        return Result.ofPlanNode(node.replaceChildren(ImmutableList.of(dropRangePosition)));
+    }
+
+    private static Expression rangePosition(Symbol sortKey, SortOrder sortOrder, double low, double high)
+    {
+        Expression value = new Cast(sortKey.toSymbolReference(), StandardTypes.DOUBLE);
+        Expression distance;
+        if (sortOrder.isAscending()) {
+            distance = new ArithmeticBinaryExpression(SUBTRACT, value, doubleLiteral(low));
+        }
+        else {
+            distance = new ArithmeticBinaryExpression(SUBTRACT, doubleLiteral(high), value);
+        }
+        Expression position = new ArithmeticBinaryExpression(DIVIDE, distance, doubleLiteral(high - low));
+
+        // nulls go to the first or the last node, wherever the sort puts them
+        return new CoalesceExpression(position, new DoubleLiteral(sortOrder.isNullsFirst() ? "0.0" : "1.0"));
+    }
+
+    private static Expression doubleLiteral(double value)
+    {
+        if (value < 0) {
+            return ArithmeticUnaryExpression.negative(new DoubleLiteral(Double.toString(-value)));
+        }
+        return new DoubleLiteral(Double.toString(value));
+    }
+}
@@ -89,6 +89,8 @@ import io.prestosql.metadata.ViewDefinition;
 import io.prestosql.operator.Driver;
 import io.prestosql.operator.DriverContext;
 import io.prestosql.operator.DriverFactory;
+import io.prestosql.operator.FragmentResultCacheConfig;
+import io.prestosql.operator.FragmentResultCacheManager;
 import io.prestosql.operator.LookupJoinOperators;
 import io.prestosql.operator.OperatorContext;
 import io.prestosql.operator.OutputFactory;
@@ -125,6 +127,8 @@ import io.prestosql.sql.gen.JoinFilterFunctionCompiler;
 import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.parser.SqlParser;
+import io.prestosql.sql.planner.CompiledFilterAndProjectCache;
+import io.prestosql.sql.planner.CompilerConfig;
 import io.prestosql.sql.planner.LocalExecutionPlanner;
 import io.prestosql.sql.planner.LocalExecutionPlanner.LocalExecutionPlan;
 import io.prestosql.sql.planner.LogicalPlanner;
@@ -184,6 +188,7 @@ import java.util.function.Function;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.json.JsonCodec.jsonCodec;
@@ -231,6 +236,8 @@ public class LocalQueryRunner
     private final FileSingleStreamSpillerFactory singleStreamSpillerFactory;
     private final SpillerFactory spillerFactory;
     private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final FragmentResultCacheManager fragmentResultCacheManager;
+    private final CompiledFilterAndProjectCache compiledFilterAndProjectCache;
 
     private final PageFunctionCompiler pageFunctionCompiler;
     private final ExpressionCompiler expressionCompiler;
@@ -412,6 +419,11 @@ public class LocalQueryRunner
         this.singleStreamSpillerFactory = new FileSingleStreamSpillerFactory(blockEncodingManager, spillerStats, featuresConfig);
         this.partitioningSpillerFactory = new GenericPartitioningSpillerFactory(this.singleStreamSpillerFactory);
         this.spillerFactory = new GenericSpillerFactory(singleStreamSpillerFactory);
+        this.fragmentResultCacheManager = new FragmentResultCacheManager(
+                new FragmentResultCacheConfig(),
+                blockEncodingManager,
+                newDirectExecutorService());
+        this.compiledFilterAndProjectCache = new CompiledFilterAndProjectCache(new CompilerConfig());
     }
 
     public static LocalQueryRunner queryRunnerWithInitialTransaction(Session defaultSession)
@@ -706,7 +718,9 @@ public class LocalQueryRunner
                 new PagesIndex.TestingFactory(false),
                 joinCompiler,
                 new LookupJoinOperators(),
-                new OrderingCompiler());
+                new OrderingCompiler(),
+                fragmentResultCacheManager,
+                compiledFilterAndProjectCache);
 
         // plan query
         StageExecutionStrategy stageExecutionStrategy = subplan.getFragment().getStageExecutionStrategy();
@@ -13,6 +13,7 @@
  */
 package io.prestosql.util;
 
+import com.google.common.primitives.Ints;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.DriverYieldSignal;
@@ -25,8 +26,13 @@ import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.function.BiPredicate;
 import java.util.stream.IntStream;
 
@@ -92,6 +98,30 @@ public final class MergeSortedPages
                 yieldSignal);
     }
 
+    /**
+     * Merges sorted pages like {@link #mergeSortedPages}, but emits a run of rows from one
+     * input as a region of its page, without copying, when no other input has a smaller row
+     * within that run. Inputs with disjoint ranges of keys, like the output of a range
+     * partitioned sort, are thus concatenated rather than merged row by row.
+     */
+    public static WorkProcessor<Page> mergeSortedPagesWithPassThrough(
+            List<WorkProcessor<Page>> pageProducers,
+            PageWithPositionComparator comparator,
+            List<Integer> outputChannels,
+            List<Type> outputTypes,
+            AggregatedMemoryContext aggregatedMemoryContext,
+            DriverYieldSignal yieldSignal)
+    {
+        requireNonNull(pageProducers, "pageProducers is null");
+        requireNonNull(comparator, "comparator is null");
+        requireNonNull(outputChannels, "outputChannels is null");
+        requireNonNull(outputTypes, "outputTypes is null");
+        requireNonNull(aggregatedMemoryContext, "aggregatedMemoryContext is null");
+        requireNonNull(yieldSignal, "yieldSignal is null");
+
+        return WorkProcessor.create(new PassThroughMerge(pageProducers, comparator, outputChannels, outputTypes, aggregatedMemoryContext, yieldSignal));
+    }
+
     private static WorkProcessor<Page> buildPage(
             WorkProcessor<PageWithPosition> pageWithPositions,
             List<Integer> outputChannels,
@@ -165,6 +195,235 @@ public final class MergeSortedPages
         });
     }
 
+    private static class PassThroughMerge
+            implements WorkProcessor.Process<Page>
+    {
+        // shorter runs are copied to the page builder, so that interleaved inputs do not produce tiny pages
+        private static final int MIN_PASS_THROUGH_POSITIONS = 256;
+
+        private final PageWithPositionComparator comparator;
+        private final int[] outputChannels;
+        private final List<Type> outputTypes;
+        private final DriverYieldSignal yieldSignal;
+        private final LocalMemoryContext memoryContext;
+        private final PageBuilder pageBuilder;
+
+        private final PriorityQueue<MergeInput> inputs;
+        private final Deque<MergeInput> inputsToLoad = new ArrayDeque<>();
+
+        private Page pendingRun;
+        private boolean lastProcessYielded;
+
+        private PassThroughMerge(
+                List<WorkProcessor<Page>> pageProducers,
+                PageWithPositionComparator comparator,
+                List<Integer> outputChannels,
+                List<Type> outputTypes,
+                AggregatedMemoryContext aggregatedMemoryContext,
+                DriverYieldSignal yieldSignal)
+        {
+            this.comparator = comparator;
+            this.outputChannels = Ints.toArray(outputChannels);
+            this.outputTypes = outputTypes;
+            this.yieldSignal = yieldSignal;
+            this.memoryContext = aggregatedMemoryContext.newLocalMemoryContext(MergeSortedPages.class.getSimpleName());
+            this.pageBuilder = new PageBuilder(outputTypes);
+            this.inputs = new PriorityQueue<>(
+                    Math.max(pageProducers.size(), 1),
+                    (first, second) -> comparator.compareTo(first.getPage(), first.getPosition(), second.getPage(), second.getPosition()));
+            for (WorkProcessor<Page> pageProducer : pageProducers) {
+                inputsToLoad.add(new MergeInput(pageProducer, aggregatedMemoryContext.newLocalMemoryContext(MergeSortedPages.class.getSimpleName())));
+            }
+        }
+
+        @Override
+        public ProcessState<Page> process()
+        {
+            if (pendingRun != null) {
+                Page run = pendingRun;
+                pendingRun = null;
+                return ProcessState.ofResult(run);
+            }
+
+            while (true) {
+                // every input needs a current row before the smallest one can be picked
+                while (!inputsToLoad.isEmpty()) {
+                    MergeInput input = inputsToLoad.peekFirst();
+                    WorkProcessor<Page> pages = input.getPages();
+                    if (!pages.process()) {
+                        if (pages.isBlocked()) {
+                            return ProcessState.blocked(pages.getBlockedFuture());
+                        }
+                        return ProcessState.yield();
+                    }
+                    if (pages.isFinished()) {
+                        inputsToLoad.removeFirst();
+                        input.close();
+                    }
+                    else if (input.setPage(pages.getResult())) {
+                        inputsToLoad.removeFirst();
+                        inputs.add(input);
+                    }
+                }
+
+                if (inputs.isEmpty()) {
+                    if (pageBuilder.isEmpty()) {
+                        memoryContext.close();
+                        return ProcessState.finished();
+                    }
+                    return ProcessState.ofResult(flushPageBuilder());
+                }
+
+                if (!lastProcessYielded && yieldSignal.isSet()) {
+                    lastProcessYielded = true;
+                    return ProcessState.yield();
+                }
+                lastProcessYielded = false;
+
+                MergeInput input = inputs.poll();
+                Page page = input.getPage();
+                int start = input.getPosition();
+                int end = findRunEnd(page, start, inputs.peek());
+                if (input.advance(end)) {
+                    inputs.add(input);
+                }
+                else {
+                    inputsToLoad.add(input);
+                }
+
+                if (end - start >= MIN_PASS_THROUGH_POSITIONS) {
+                    Page run = getRegion(page, start, end - start);
+                    if (pageBuilder.isEmpty()) {
+                        return ProcessState.ofResult(run);
+                    }
+                    pendingRun = run;
+                    return ProcessState.ofResult(flushPageBuilder());
+                }
+
+                for (int position = start; position < end; position++) {
+                    pageBuilder.declarePosition();
+                    for (int i = 0; i < outputChannels.length; i++) {
+                        outputTypes.get(i).appendTo(page.getBlock(outputChannels[i]), position, pageBuilder.getBlockBuilder(i));
+                    }
+                }
+                if (pageBuilder.isFull()) {
+                    return ProcessState.ofResult(flushPageBuilder());
+                }
+            }
+        }
+
+        /**
+         * Returns the end (exclusive) of the run of rows starting at {@code start} that are
+         * not greater than the current row of {@code next}, searching exponentially and then
+         * binary so that both short and long runs are cheap to find.
+         */
+        private int findRunEnd(Page page, int start, @Nullable MergeInput next)
+        {
+            int last = page.getPositionCount() - 1;
+            if (next == null || comparator.compareTo(page, last, next.getPage(), next.getPosition()) <= 0) {
+                return last + 1;
+            }
+
+            // rows before low belong to the run, and row high is known to be past it once the search stops
+            int low = start + 1;
+            int high = low;
+            int step = 1;
+            while (high < last && comparator.compareTo(page, high, next.getPage(), next.getPosition()) <= 0) {
+                low = high + 1;
+                high = Math.min(high + step, last);
+                step *= 2;
+            }
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compareTo(page, middle, next.getPage(), next.getPosition()) <= 0) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private Page getRegion(Page page, int start, int length)
+        {
+            Block[] blocks = new Block[outputChannels.length];
+            for (int i = 0; i < outputChannels.length; i++) {
+                blocks[i] = page.getBlock(outputChannels[i]).getRegion(start, length);
+            }
+            return new Page(length, blocks);
+        }
+
+        private Page flushPageBuilder()
+        {
+            // update memory usage just before producing page to cap from top
+            memoryContext.setBytes(pageBuilder.getRetainedSizeInBytes());
+            Page page = pageBuilder.build();
+            pageBuilder.reset();
+            return page;
+        }
+    }
+
+    private static class MergeInput
+    {
+        private final WorkProcessor<Page> pages;
+        private final LocalMemoryContext memoryContext;
+
+        private Page page;
+        private int position;
+
+        private MergeInput(WorkProcessor<Page> pages, LocalMemoryContext memoryContext)
+        {
+            this.pages = pages;
+            this.memoryContext = memoryContext;
+        }
+
+        public WorkProcessor<Page> getPages()
+        {
+            return pages;
+        }
+
+        public Page getPage()
+        {
+            return page;
+        }
+
+        public int getPosition()
+        {
+            return position;
+        }
+
+        /**
+         * Returns false if the page is empty, and another page has to be loaded.
+         */
+        public boolean setPage(Page page)
+        {
+            this.page = page;
+            this.position = 0;
+            memoryContext.setBytes(page.getRetainedSizeInBytes());
+            return page.getPositionCount() > 0;
+        }
+
+        /**
+         * Returns false if the current page is exhausted.
+         */
+        public boolean advance(int position)
+        {
+            this.position = position;
+            if (position < page.getPositionCount()) {
+                return true;
+            }
+            page = null;
+            memoryContext.setBytes(0);
+            return false;
+        }
+
+        public void close()
+        {
+            memoryContext.close();
+        }
+    }
+
     public static class PageWithPosition
     {
         private final Page page;
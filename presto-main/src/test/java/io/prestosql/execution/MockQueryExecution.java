@@ -45,6 +45,7 @@ import static io.prestosql.execution.QueryState.FINISHED;
 import static io.prestosql.execution.QueryState.QUEUED;
 import static io.prestosql.execution.QueryState.RUNNING;
 import static io.prestosql.testing.TestingSession.testSessionBuilder;
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
@@ -56,6 +57,7 @@ public class MockQueryExecution
     private final Duration cpuUsage;
     private final Session session;
     private final QueryId queryId;
+    private final String query;
     private QueryState state = QUEUED;
     private Throwable failureCause;
     private Optional<ResourceGroupId> resourceGroupId;
@@ -71,8 +73,14 @@ public class MockQueryExecution
     }
 
     public MockQueryExecution(long memoryUsage, String queryId, int priority, Duration cpuUsage)
+    {
+        this(memoryUsage, queryId, priority, cpuUsage, "SELECT 1");
+    }
+
+    public MockQueryExecution(long memoryUsage, String queryId, int priority, Duration cpuUsage, String query)
     {
         this.memoryUsage = succinctBytes(memoryUsage);
+        this.query = requireNonNull(query, "query is null");
         this.cpuUsage = cpuUsage;
         this.session = testSessionBuilder()
                 .setSystemProperty(QUERY_PRIORITY, String.valueOf(priority))
@@ -104,7 +112,7 @@ public class MockQueryExecution
                 !state.isDone(),
                 URI.create("http://test"),
                 ImmutableList.of(),
-                "SELECT 1",
+                query,
                 new QueryStats(
                         new DateTime(1),
                         new DateTime(2),
@@ -33,6 +33,8 @@ import io.prestosql.metadata.InMemoryNodeManager;
 import io.prestosql.metadata.MetadataManager;
 import io.prestosql.metadata.Split;
 import io.prestosql.metadata.TableHandle;
+import io.prestosql.operator.FragmentResultCacheConfig;
+import io.prestosql.operator.FragmentResultCacheManager;
 import io.prestosql.operator.LookupJoinOperators;
 import io.prestosql.operator.PagesIndex;
 import io.prestosql.operator.StageExecutionStrategy;
@@ -49,6 +51,8 @@ import io.prestosql.sql.gen.JoinFilterFunctionCompiler;
 import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.parser.SqlParser;
+import io.prestosql.sql.planner.CompiledFilterAndProjectCache;
+import io.prestosql.sql.planner.CompilerConfig;
 import io.prestosql.sql.planner.LocalExecutionPlanner;
 import io.prestosql.sql.planner.NodePartitioningManager;
 import io.prestosql.sql.planner.Partitioning;
@@ -68,6 +72,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
@@ -125,6 +130,7 @@ public final class TaskTestUtils
         NodePartitioningManager nodePartitioningManager = new NodePartitioningManager(nodeScheduler);
 
         PageFunctionCompiler pageFunctionCompiler = new PageFunctionCompiler(metadata, 0);
+        BlockEncodingManager blockEncodingManager = new BlockEncodingManager(new TestingTypeManager());
         return new LocalExecutionPlanner(
                 metadata,
                 new SqlParser(),
@@ -148,11 +154,16 @@ public final class TaskTestUtils
                 (types, partitionFunction, spillContext, memoryContext) -> {
                     throw new UnsupportedOperationException();
                 },
-                new BlockEncodingManager(new TestingTypeManager()),
+                blockEncodingManager,
                 new PagesIndex.TestingFactory(false),
                 new JoinCompiler(MetadataManager.createTestMetadataManager(), new FeaturesConfig()),
                 new LookupJoinOperators(),
-                new OrderingCompiler());
+                new OrderingCompiler(),
+                new FragmentResultCacheManager(
+                        new FragmentResultCacheConfig(),
+                        blockEncodingManager,
+                                newDirectExecutorService()),
+                new CompiledFilterAndProjectCache(new CompilerConfig()));
     }
 
     public static TaskInfo updateTask(SqlTask sqlTask, List<TaskSource> taskSources, OutputBuffers outputBuffers)
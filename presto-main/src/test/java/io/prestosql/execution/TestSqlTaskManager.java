@@ -27,6 +27,7 @@ import io.prestosql.ScheduledSplit;
 import io.prestosql.TaskSource;
 import io.prestosql.execution.buffer.BufferResult;
 import io.prestosql.execution.buffer.BufferState;
+import io.prestosql.execution.buffer.SerializedPage;
 import io.prestosql.execution.executor.TaskExecutor;
 import io.prestosql.memory.LocalMemoryManager;
 import io.prestosql.memory.NodeMemoryConfig;
@@ -34,6 +35,8 @@ import io.prestosql.memory.ReservedSystemMemoryConfig;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.ExchangeClient;
 import io.prestosql.operator.ExchangeClientSupplier;
+import io.prestosql.operator.LocalTaskResults;
+import io.prestosql.operator.LocalTaskResultsFactory;
 import io.prestosql.spi.Node;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spiller.LocalSpillManager;
@@ -44,9 +47,12 @@ import org.testng.annotations.Test;
 import java.net.URI;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.prestosql.OutputBuffers.BufferType.PARTITIONED;
 import static io.prestosql.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
@@ -56,7 +62,9 @@ import static io.prestosql.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
 import static io.prestosql.execution.TaskTestUtils.createTestSplitMonitor;
 import static io.prestosql.execution.TaskTestUtils.createTestingPlanner;
 import static io.prestosql.testing.TestingSession.testSessionBuilder;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
@@ -141,6 +149,51 @@ public class TestSqlTaskManager
         }
     }
 
+    @Test
+    public void testLocalTaskResults()
+            throws Exception
+    {
+        ScheduledExecutorService timeoutExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("test-local-task-results-%s"));
+        try (SqlTaskManager sqlTaskManager = createSqlTaskManager(new TaskManagerConfig())) {
+            TaskId taskId = TASK_ID;
+            TaskInfo taskInfo = createTask(sqlTaskManager, taskId, ImmutableSet.of(SPLIT), createInitialEmptyOutputBuffers(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds());
+            assertEquals(taskInfo.getTaskStatus().getState(), TaskState.RUNNING);
+
+            LocationFactory locationFactory = new MockLocationFactory();
+            LocalTaskResultsFactory localTaskResultsFactory = new LocalTaskResultsFactory(() -> sqlTaskManager, locationFactory);
+            URI localLocation = uriBuilderFrom(locationFactory.createLocalTaskLocation(taskId)).appendPath("results").appendPath(OUT.toString()).build();
+            URI remoteLocation = uriBuilderFrom(URI.create("http://remote.invalid/task/" + taskId)).appendPath("results").appendPath(OUT.toString()).build();
+            assertFalse(localTaskResultsFactory.getLocalTaskResults(remoteLocation).isPresent());
+            assertFalse(localTaskResultsFactory.getLocalTaskResults(URI.create("http://fake.invalid/task/" + taskId)).isPresent());
+
+            LocalTaskResults localTaskResults = localTaskResultsFactory.getLocalTaskResults(localLocation).get();
+            assertEquals(localTaskResults.getTaskId(), taskId);
+            assertEquals(localTaskResults.getBufferId(), OUT);
+
+            long positions = 0;
+            long token = 0;
+            BufferResult results;
+            do {
+                results = localTaskResults.getResults(token, new DataSize(1, Unit.MEGABYTE), timeoutExecutor).get();
+                positions += results.getSerializedPages().stream()
+                        .mapToLong(SerializedPage::getPositionCount)
+                        .sum();
+                token = results.getNextToken();
+                localTaskResults.acknowledge(token);
+            }
+            while (!results.isBufferComplete());
+            assertEquals(positions, 1);
+
+            // complete the task by aborting the buffer
+            localTaskResults.abort();
+            taskInfo = sqlTaskManager.getTaskInfo(taskId, taskInfo.getTaskStatus().getState()).get(1, TimeUnit.SECONDS);
+            assertEquals(taskInfo.getTaskStatus().getState(), TaskState.FINISHED);
+        }
+        finally {
+            timeoutExecutor.shutdownNow();
+        }
+    }
+
     @Test
     public void testCancel()
     {
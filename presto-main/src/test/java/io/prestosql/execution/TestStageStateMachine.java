@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import io.prestosql.cost.StatsAndCosts;
 import io.prestosql.execution.scheduler.SplitSchedulerStats;
 import io.prestosql.operator.StageExecutionStrategy;
+import io.prestosql.operator.TaskStats;
 import io.prestosql.sql.planner.Partitioning;
 import io.prestosql.sql.planner.PartitioningScheme;
 import io.prestosql.sql.planner.PlanFragment;
@@ -26,6 +27,7 @@ import io.prestosql.sql.planner.plan.PlanFragmentId;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.sql.planner.plan.ValuesNode;
 import io.prestosql.sql.tree.StringLiteral;
+import org.joda.time.DateTime;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
@@ -41,6 +43,7 @@ import static io.prestosql.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUT
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
@@ -257,6 +260,27 @@ public class TestStageStateMachine
         assertFinalState(stateMachine, StageState.CANCELED);
     }
 
+    @Test
+    public void testStageInfoReusedWhileTaskInfosUnchanged()
+    {
+        StageStateMachine stateMachine = createStageStateMachine();
+        assertTrue(stateMachine.transitionToRunning());
+
+        TaskInfo first = createTaskInfo(0);
+        TaskInfo second = createTaskInfo(1);
+        StageInfo stageInfo = stateMachine.getStageInfo(() -> ImmutableList.of(first, second));
+        assertSame(stateMachine.getStageInfo(() -> ImmutableList.of(first, second)), stageInfo);
+
+        // a new info for one of the tasks invalidates the cached stage info
+        StageInfo updatedStageInfo = stateMachine.getStageInfo(() -> ImmutableList.of(first, createTaskInfo(1)));
+        assertNotSame(updatedStageInfo, stageInfo);
+        assertEquals(updatedStageInfo.getTasks().size(), 2);
+
+        // so does a state change
+        assertTrue(stateMachine.transitionToFinished());
+        assertEquals(stateMachine.getStageInfo(() -> ImmutableList.of(first, second)).getState(), StageState.FINISHED);
+    }
+
     private static void assertFinalState(StageStateMachine stateMachine, StageState expectedState)
     {
         assertTrue(expectedState.isDone());
@@ -313,6 +337,16 @@ public class TestStageStateMachine
         }
     }
 
+    private static TaskInfo createTaskInfo(int taskId)
+    {
+        return TaskInfo.createInitialTask(
+                new TaskId(STAGE_ID, taskId),
+                URI.create("fake://fake-task/" + taskId),
+                "node",
+                ImmutableList.of(),
+                new TaskStats(DateTime.now(), null));
+    }
+
     private StageStateMachine createStageStateMachine()
     {
         return new StageStateMachine(STAGE_ID, LOCATION, TEST_SESSION, PLAN_FRAGMENT, executor, new SplitSchedulerStats());
@@ -58,6 +58,7 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(5)
                 .setTaskYieldThreads(3)
                 .setLevelTimeMultiplier(new BigDecimal("2"))
+                .setSplitQueueShards(1)
                 .setStatisticsCpuTimerEnabled(true));
     }
 
@@ -90,6 +91,7 @@ public class TestTaskManagerConfig
                 .put("task.task-notification-threads", "13")
                 .put("task.task-yield-threads", "8")
                 .put("task.level-time-multiplier", "2.1")
+                .put("task.split-queue-shards", "8")
                 .put("task.statistics-cpu-timer-enabled", "false")
                 .build();
 
@@ -119,6 +121,7 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(13)
                 .setTaskYieldThreads(8)
                 .setLevelTimeMultiplier(new BigDecimal("2.1"))
+                .setSplitQueueShards(8)
                 .setStatisticsCpuTimerEnabled(false);
 
         assertFullMapping(properties, expected);
@@ -16,19 +16,26 @@ package io.prestosql.execution.buffer;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.block.BlockEncodingManager;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.TestingTypeManager;
 import io.prestosql.spi.type.Type;
 import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import static io.prestosql.execution.buffer.PageCompression.LZ4;
+import static io.prestosql.execution.buffer.PageCompression.UNCOMPRESSED;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.readPages;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writePages;
 import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -59,6 +66,80 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testRoundTripWithAllCodecs()
+    {
+        Page expectedPage = createCompressiblePage();
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = new PagesSerdeFactory(new BlockEncodingManager(new TestingTypeManager()), codec).createPagesSerde();
+            SerializedPage serializedPage = serde.serialize(expectedPage);
+            assertEquals(serializedPage.getCompression(), PageCompression.forCodec(codec), codec.name());
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), expectedPage);
+
+            // pages read from the network are usually slices in the middle of a larger buffer
+            Slice slice = serializedPage.getSlice();
+            byte[] buffer = new byte[slice.length() + 16];
+            slice.getBytes(0, buffer, 7, slice.length());
+            SerializedPage embeddedPage = new SerializedPage(
+                    Slices.wrappedBuffer(buffer, 7, slice.length()),
+                    serializedPage.getCompression(),
+                    serializedPage.getPositionCount(),
+                    serializedPage.getUncompressedSizeInBytes());
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(embeddedPage), expectedPage);
+        }
+    }
+
+    @Test
+    public void testDeserializeWithOtherCodec()
+    {
+        Page expectedPage = createCompressiblePage();
+        for (CompressionCodec writerCodec : CompressionCodec.values()) {
+            SerializedPage serializedPage = new PagesSerdeFactory(new BlockEncodingManager(new TestingTypeManager()), writerCodec).createPagesSerde().serialize(expectedPage);
+            for (CompressionCodec readerCodec : CompressionCodec.values()) {
+                PagesSerde reader = new PagesSerdeFactory(new BlockEncodingManager(new TestingTypeManager()), readerCodec).createPagesSerde();
+                assertPageEquals(ImmutableList.of(BIGINT), reader.deserialize(serializedPage), expectedPage);
+            }
+        }
+    }
+
+    @Test
+    public void testSkipCompressionOfIncompressiblePages()
+    {
+        PagesSerde serde = new PagesSerdeFactory(new BlockEncodingManager(new TestingTypeManager()), CompressionCodec.LZ4).createPagesSerde();
+        Random random = new Random(42);
+
+        // a compressible page is compressed
+        assertEquals(serde.serialize(createCompressiblePage()).getCompression(), LZ4);
+
+        // consecutive incompressible pages make the serde stop compressing
+        for (int i = 0; i < 4; i++) {
+            assertEquals(serde.serialize(createIncompressiblePage(random)).getCompression(), UNCOMPRESSED);
+        }
+        Page compressiblePage = createCompressiblePage();
+        for (int i = 0; i < 8; i++) {
+            SerializedPage serializedPage = serde.serialize(compressiblePage);
+            assertEquals(serializedPage.getCompression(), UNCOMPRESSED);
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), compressiblePage);
+        }
+
+        // compression is probed again once the skipped pages are exhausted
+        assertEquals(serde.serialize(compressiblePage).getCompression(), LZ4);
+        assertEquals(serde.serialize(compressiblePage).getCompression(), LZ4);
+
+        // after another run of incompressible pages and a failed probe, the backoff doubles
+        for (int i = 0; i < 4; i++) {
+            serde.serialize(createIncompressiblePage(random));
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals(serde.serialize(compressiblePage).getCompression(), UNCOMPRESSED);
+        }
+        assertEquals(serde.serialize(createIncompressiblePage(random)).getCompression(), UNCOMPRESSED);
+        for (int i = 0; i < 16; i++) {
+            assertEquals(serde.serialize(compressiblePage).getCompression(), UNCOMPRESSED);
+        }
+        assertEquals(serde.serialize(compressiblePage).getCompression(), LZ4);
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -106,6 +187,26 @@ public class TestPagesSerde
         assertEquals(secondValueSize, 4 + 3); // length + "bob" (null shared with first entry)
     }
 
+    private static Page createCompressiblePage()
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(builder, i % 10);
+        }
+        return new Page(builder.build());
+    }
+
+    private static Page createIncompressiblePage(Random random)
+    {
+        BlockBuilder builder = VARBINARY.createBlockBuilder(null, 100);
+        for (int i = 0; i < 100; i++) {
+            byte[] value = new byte[100];
+            random.nextBytes(value);
+            VARBINARY.writeSlice(builder, Slices.wrappedBuffer(value));
+        }
+        return new Page(builder.build());
+    }
+
     private static int serializedSize(List<? extends Type> types, Page expectedPage)
     {
         PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
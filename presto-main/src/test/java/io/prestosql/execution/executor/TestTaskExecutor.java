@@ -13,29 +13,43 @@
  */
 package io.prestosql.execution.executor;
 
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.airlift.testing.TestingTicker;
 import io.airlift.units.Duration;
 import io.prestosql.execution.SplitRunner;
 import io.prestosql.execution.TaskId;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertLessThan;
 import static io.prestosql.execution.executor.MultilevelSplitQueue.LEVEL_CONTRIBUTION_CAP;
 import static io.prestosql.execution.executor.MultilevelSplitQueue.LEVEL_THRESHOLD_SECONDS;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -449,6 +463,126 @@ public class TestTaskExecutor
         }
     }
 
+    @Test(timeOut = 30_000)
+    public void testShardedSplitQueue()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, 4);
+        TestingTicker ticker = new TestingTicker();
+        TaskExecutor taskExecutor = new TaskExecutor(4, 16, 4, 8, splitQueue, ticker);
+        taskExecutor.start();
+        try {
+            TaskHandle taskHandle = taskExecutor.addTask(new TaskId("test", 0, 0), () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+
+            // splits enqueued from a single thread are spread over the shards and stolen by idle runners
+            ImmutableList.Builder<TestingJob> splits = ImmutableList.builder();
+            for (int i = 0; i < 32; i++) {
+                splits.add(new TestingJob(ticker, new Phaser(), new Phaser(), new Phaser(), 3, 0));
+            }
+            List<ListenableFuture<?>> futures = taskExecutor.enqueueSplits(taskHandle, false, splits.build());
+            for (ListenableFuture<?> future : futures) {
+                future.get();
+            }
+            assertEquals(splitQueue.size(), 0);
+        }
+        finally {
+            taskExecutor.stop();
+        }
+    }
+
+    @Test(timeOut = 120_000)
+    public void testSplitQueueStealContention()
+            throws Exception
+    {
+        testSplitQueueStealContention(1);
+        testSplitQueueStealContention(4);
+    }
+
+    private static void testSplitQueueStealContention(int shardCount)
+            throws Exception
+    {
+        int runnerCount = 8;
+        int producerCount = 4;
+        int splitsPerProducer = 20_000;
+
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, shardCount);
+        TaskHandle taskHandle = new TaskHandle(new TaskId("test", 0, 0), splitQueue, () -> 0, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        Set<PrioritizedSplitRunner> markers = newConcurrentHashSet();
+        AtomicInteger completedSplits = new AtomicInteger();
+        CyclicBarrier markerBarrier = new CyclicBarrier(runnerCount);
+        CountDownLatch markersTaken = new CountDownLatch(runnerCount);
+
+        ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("test-split-queue-%s"));
+        try {
+            for (int runner = 0; runner < runnerCount; runner++) {
+                executor.execute(() -> {
+                    try {
+                        while (true) {
+                            PrioritizedSplitRunner split = splitQueue.take();
+                            if (markers.contains(split)) {
+                                // every runner must still be able to take a split after the contention phase
+                                markerBarrier.await();
+                                markersTaken.countDown();
+                            }
+                            else if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                                // re-offer from the runner thread, which puts the split in the runner's home shard
+                                splitQueue.offer(split);
+                            }
+                            else {
+                                completedSplits.incrementAndGet();
+                            }
+                        }
+                    }
+                    catch (InterruptedException | BrokenBarrierException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            // producers offer in small bursts, so runners keep going idle and racing each other for the splits of a wake up
+            List<Future<?>> producers = new ArrayList<>();
+            for (int producer = 0; producer < producerCount; producer++) {
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < splitsPerProducer; i++) {
+                        splitQueue.offer(createSplit(taskHandle));
+                        if (i % 16 == 0) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+            while (completedSplits.get() < producerCount * splitsPerProducer) {
+                MILLISECONDS.sleep(10);
+            }
+
+            for (int i = 0; i < runnerCount; i++) {
+                PrioritizedSplitRunner marker = createSplit(taskHandle);
+                markers.add(marker);
+                splitQueue.offer(marker);
+            }
+            assertTrue(markersTaken.await(30, SECONDS), "runner threads were lost: " + markersTaken.getCount() + " never woke up");
+            assertEquals(splitQueue.size(), 0);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PrioritizedSplitRunner createSplit(TaskHandle taskHandle)
+    {
+        return new PrioritizedSplitRunner(
+                taskHandle,
+                new NoOpSplitRunner(),
+                Ticker.systemTicker(),
+                new CounterStat(),
+                new CounterStat(),
+                new TimeStat(MICROSECONDS),
+                new TimeStat(MICROSECONDS));
+    }
+
     private void assertSplitStates(int endIndex, TestingJob[] splits)
     {
         // assert that splits up to and including endIndex are all started
@@ -571,4 +705,31 @@ public class TestTaskExecutor
             return completed;
         }
     }
+
+    private static class NoOpSplitRunner
+            implements SplitRunner
+    {
+        @Override
+        public boolean isFinished()
+        {
+            return false;
+        }
+
+        @Override
+        public ListenableFuture<?> processFor(Duration duration)
+        {
+            return Futures.immediateFuture(null);
+        }
+
+        @Override
+        public String getInfo()
+        {
+            return "no-op-split";
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
 }
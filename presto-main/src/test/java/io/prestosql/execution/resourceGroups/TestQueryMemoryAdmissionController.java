@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resourceGroups;
+
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.execution.MockQueryExecution;
+import io.prestosql.spi.memory.MemoryPoolInfo;
+import org.testng.annotations.Test;
+
+import static io.prestosql.execution.resourceGroups.QueryMemoryAdmissionController.fingerprint;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestQueryMemoryAdmissionController
+{
+    @Test
+    public void testFingerprint()
+    {
+        assertEquals(fingerprint("SELECT * FROM t1\n WHERE x = 42   AND y = 'it''s'"), "SELECT * FROM t1 WHERE x = ? AND y = ?");
+        assertEquals(fingerprint("SELECT 1.5e3"), fingerprint("SELECT 7"));
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        QueryMemoryAdmissionController controller = new QueryMemoryAdmissionController(false, 1.0, 100);
+        controller.updateMemoryPool(memoryPoolInfo(100, 100));
+        assertTrue(controller.tryAdmit(new MockQueryExecution(0)));
+        assertTrue(controller.tryAdmit(new MockQueryExecution(0)));
+        assertEquals(controller.getAdmittedQueries(), 0);
+    }
+
+    @Test
+    public void testAdmission()
+    {
+        QueryMemoryAdmissionController controller = new QueryMemoryAdmissionController(true, 1.0, 100);
+
+        // unknown queries are admitted and their peak memory (20 bytes for the mock) is recorded
+        MockQueryExecution first = new MockQueryExecution(0);
+        assertTrue(controller.tryAdmit(first));
+        controller.queryFinished(first);
+        assertEquals(controller.getTrackedQueryFingerprints(), 1);
+
+        controller.updateMemoryPool(memoryPoolInfo(100, 90));
+
+        // the only query is admitted even if it does not fit
+        MockQueryExecution second = new MockQueryExecution(0);
+        assertTrue(controller.tryAdmit(second));
+
+        // the second query is expected to reserve 20 more bytes
+        MockQueryExecution third = new MockQueryExecution(0);
+        assertFalse(controller.tryAdmit(third));
+        assertEquals(controller.getDelayedAdmissions(), 1);
+
+        controller.queryFinished(second);
+        assertTrue(controller.tryAdmit(third));
+
+        // admission resumes once the pool has room for the expected memory of all admitted queries
+        MockQueryExecution fourth = new MockQueryExecution(0);
+        assertFalse(controller.tryAdmit(fourth));
+        controller.updateMemoryPool(memoryPoolInfo(100, 50));
+        assertTrue(controller.tryAdmit(fourth));
+        assertEquals(controller.getAdmittedQueries(), 2);
+    }
+
+    private static MemoryPoolInfo memoryPoolInfo(long maxBytes, long reservedBytes)
+    {
+        return new MemoryPoolInfo(maxBytes, reservedBytes, 0, ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of());
+    }
+}
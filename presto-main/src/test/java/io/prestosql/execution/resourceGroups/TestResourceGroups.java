@@ -13,6 +13,7 @@
  */
 package io.prestosql.execution.resourceGroups;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -20,6 +21,7 @@ import io.prestosql.execution.MockQueryExecution;
 import io.prestosql.execution.resourceGroups.InternalResourceGroup.RootInternalResourceGroup;
 import io.prestosql.server.QueryStateInfo;
 import io.prestosql.server.ResourceGroupInfo;
+import io.prestosql.spi.memory.MemoryPoolInfo;
 import org.apache.commons.math3.distribution.BinomialDistribution;
 import org.testng.annotations.Test;
 
@@ -76,6 +78,133 @@ public class TestResourceGroups
         assertEquals(query3.getThrowable().getMessage(), "Too many queued queries for \"root\"");
     }
 
+    @Test(timeOut = 10_000)
+    public void testMemoryAdmission()
+    {
+        QueryMemoryAdmissionController admissionController = new QueryMemoryAdmissionController(true, 1.0, 100);
+        RootInternalResourceGroup root = new RootInternalResourceGroup("root", (group, export) -> {}, directExecutor(), admissionController);
+        root.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        root.setMaxQueuedQueries(4);
+        root.setHardConcurrencyLimit(4);
+        InternalResourceGroup group = root.getOrCreateSubGroup("1");
+        group.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        group.setMaxQueuedQueries(4);
+        group.setHardConcurrencyLimit(4);
+
+        // record the peak memory of the query
+        MockQueryExecution query1 = new MockQueryExecution(0);
+        group.run(query1);
+        assertEquals(query1.getState(), RUNNING);
+        query1.complete();
+
+        admissionController.updateMemoryPool(new MemoryPoolInfo(100, 90, 0, ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of()));
+        MockQueryExecution query2 = new MockQueryExecution(0);
+        group.run(query2);
+        assertEquals(query2.getState(), RUNNING);
+        MockQueryExecution query3 = new MockQueryExecution(0);
+        group.run(query3);
+        assertEquals(query3.getState(), QUEUED);
+        root.processQueuedQueries();
+        assertEquals(query3.getState(), QUEUED);
+
+        query2.complete();
+        root.processQueuedQueries();
+        assertEquals(query3.getState(), RUNNING);
+    }
+
+    @Test(timeOut = 10_000)
+    public void testMemoryAdmissionKeepsQueueOrder()
+    {
+        QueryMemoryAdmissionController admissionController = new QueryMemoryAdmissionController(true, 1.0, 100);
+        RootInternalResourceGroup root = new RootInternalResourceGroup("root", (group, export) -> {}, directExecutor(), admissionController);
+        root.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        root.setMaxQueuedQueries(4);
+        root.setHardConcurrencyLimit(4);
+        InternalResourceGroup group = root.getOrCreateSubGroup("1");
+        group.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        group.setMaxQueuedQueries(4);
+        group.setHardConcurrencyLimit(4);
+
+        // record the peak memory of the query
+        MockQueryExecution query1 = new MockQueryExecution(0);
+        group.run(query1);
+        query1.complete();
+
+        admissionController.updateMemoryPool(new MemoryPoolInfo(100, 90, 0, ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of()));
+        MockQueryExecution query2 = new MockQueryExecution(0);
+        group.run(query2);
+        assertEquals(query2.getState(), RUNNING);
+
+        // query3 is rejected by the admission controller, and must not lose its place to queries queued after it
+        MockQueryExecution query3 = new MockQueryExecution(0);
+        group.run(query3);
+        root.processQueuedQueries();
+        MockQueryExecution query4 = new MockQueryExecution(0);
+        group.run(query4);
+        root.processQueuedQueries();
+        assertEquals(query3.getState(), QUEUED);
+        assertEquals(query4.getState(), QUEUED);
+
+        query2.complete();
+        root.processQueuedQueries();
+        assertEquals(query3.getState(), RUNNING);
+        assertEquals(query4.getState(), QUEUED);
+
+        query3.complete();
+        root.processQueuedQueries();
+        assertEquals(query4.getState(), RUNNING);
+    }
+
+    @Test
+    public void testMemoryAdmissionSkipsBlockedSubGroup()
+    {
+        QueryMemoryAdmissionController admissionController = new QueryMemoryAdmissionController(true, 1.0, 100);
+        RootInternalResourceGroup root = new RootInternalResourceGroup("root", (group, export) -> {}, directExecutor(), admissionController);
+        root.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        root.setMaxQueuedQueries(4);
+        root.setHardConcurrencyLimit(2);
+        InternalResourceGroup group1 = root.getOrCreateSubGroup("1");
+        group1.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        group1.setMaxQueuedQueries(4);
+        group1.setHardConcurrencyLimit(2);
+        InternalResourceGroup group2 = root.getOrCreateSubGroup("2");
+        group2.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        group2.setMaxQueuedQueries(4);
+        group2.setHardConcurrencyLimit(2);
+
+        // record the peak memory of the queries of group1
+        MockQueryExecution query1 = new MockQueryExecution(0);
+        group1.run(query1);
+        query1.complete();
+
+        admissionController.updateMemoryPool(new MemoryPoolInfo(100, 90, 0, ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of()));
+        MockQueryExecution query2 = new MockQueryExecution(0);
+        group1.run(query2);
+        MockQueryExecution query3 = newQuery("SELECT 3");
+        group2.run(query3);
+        assertEquals(query2.getState(), RUNNING);
+        assertEquals(query3.getState(), RUNNING);
+
+        // both groups queue a query while the root is full
+        MockQueryExecution query4 = new MockQueryExecution(0);
+        group1.run(query4);
+        MockQueryExecution query5 = newQuery("SELECT 5");
+        group2.run(query5);
+        assertEquals(query4.getState(), QUEUED);
+        assertEquals(query5.getState(), QUEUED);
+
+        // query4 is not expected to fit in memory, which must not stop the sibling group from starting query5
+        query3.complete();
+        root.processQueuedQueries();
+        assertEquals(query4.getState(), QUEUED);
+        assertEquals(query5.getState(), RUNNING);
+
+        query2.complete();
+        query5.complete();
+        root.processQueuedQueries();
+        assertEquals(query4.getState(), RUNNING);
+    }
+
     @Test(timeOut = 10_000)
     public void testFairEligibility()
     {
@@ -807,6 +936,11 @@ public class TestResourceGroups
         return groupRan;
     }
 
+    private static MockQueryExecution newQuery(String query)
+    {
+        return new MockQueryExecution(0, "query_id", 1, new Duration(0, SECONDS), query);
+    }
+
     private static Set<MockQueryExecution> fillGroupTo(InternalResourceGroup group, Set<MockQueryExecution> existingQueries, int count)
     {
         return fillGroupTo(group, existingQueries, count, false);
@@ -38,7 +38,10 @@ public class TestMemoryManagerConfig
                 .setLowMemoryKillerPolicy(NONE)
                 .setKillOnOutOfMemoryDelay(new Duration(5, MINUTES))
                 .setMaxQueryMemory(new DataSize(20, GIGABYTE))
-                .setMaxQueryTotalMemory(new DataSize(40, GIGABYTE)));
+                .setMaxQueryTotalMemory(new DataSize(40, GIGABYTE))
+                .setMemoryAdmissionEnabled(false)
+                .setMemoryAdmissionMaxPoolUsage(0.9)
+                .setMemoryAdmissionMaxTrackedQueries(10_000));
     }
 
     @Test
@@ -49,13 +52,19 @@ public class TestMemoryManagerConfig
                 .put("query.low-memory-killer.delay", "20s")
                 .put("query.max-memory", "2GB")
                 .put("query.max-total-memory", "3GB")
+                .put("query.memory-admission.enabled", "true")
+                .put("query.memory-admission.max-pool-usage", "0.75")
+                .put("query.memory-admission.max-tracked-queries", "100")
                 .build();
 
         MemoryManagerConfig expected = new MemoryManagerConfig()
                 .setLowMemoryKillerPolicy(TOTAL_RESERVATION_ON_BLOCKED_NODES)
                 .setKillOnOutOfMemoryDelay(new Duration(20, SECONDS))
                 .setMaxQueryMemory(new DataSize(2, GIGABYTE))
-                .setMaxQueryTotalMemory(new DataSize(3, GIGABYTE));
+                .setMaxQueryTotalMemory(new DataSize(3, GIGABYTE))
+                .setMemoryAdmissionEnabled(true)
+                .setMemoryAdmissionMaxPoolUsage(0.75)
+                .setMemoryAdmissionMaxTrackedQueries(100);
 
         assertFullMapping(properties, expected);
     }
@@ -30,6 +30,7 @@ import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.FixedPageSource;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.MaterializedResult;
@@ -103,7 +104,8 @@ public class TestSystemMemoryBlocking
                         .addSequencePage(10, 1)
                         .addSequencePage(10, 1)
                         .build()),
-                ImmutableList.of());
+                ImmutableList.of(),
+                TupleDomain::all);
         PageConsumerOperator sink = createSinkOperator(types);
         Driver driver = Driver.createDriver(driverContext, source, sink);
         assertSame(driver.getDriverContext(), driverContext);
@@ -0,0 +1,193 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.http.client.testing.TestingHttpClient;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import io.prestosql.spi.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Compares fetching pages from many upstream buffers with asynchronous requests and
+ * with blocking requests on a dedicated thread pool.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkExchangeClient
+{
+    @Benchmark
+    public long fetchPages(BenchmarkData data)
+    {
+        long positions = 0;
+        try (ExchangeClient exchangeClient = data.createExchangeClient()) {
+            while (!exchangeClient.isFinished()) {
+                SerializedPage page = exchangeClient.pollPage();
+                if (page == null) {
+                    getFutureValue(exchangeClient.isBlocked());
+                    continue;
+                }
+                positions += page.getPositionCount();
+            }
+        }
+        checkState(positions == data.getExpectedPositions(), "unexpected number of positions: %s", positions);
+        return positions;
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        private static final DataSize MAX_RESPONSE_SIZE = new DataSize(1, MEGABYTE);
+        private static final int PAGES_PER_LOCATION = 16;
+        private static final int POSITIONS_PER_PAGE = 1024;
+
+        @Param({"16", "256"})
+        private int locationCount = 16;
+
+        @Param({"false", "true"})
+        private boolean blockingRequests;
+
+        private final Page page = new Page(createLongSequenceBlock(0, POSITIONS_PER_PAGE));
+
+        private ScheduledExecutorService scheduler;
+        private ExecutorService pageBufferClientCallbackExecutor;
+        private ExecutorService blockingRequestExecutor;
+        private List<URI> locations;
+        private MockExchangeRequestProcessor processor;
+
+        @Setup
+        public void setup()
+        {
+            scheduler = newScheduledThreadPool(4, daemonThreadsNamed("benchmark-scheduler-%s"));
+            pageBufferClientCallbackExecutor = newFixedThreadPool(25, daemonThreadsNamed("benchmark-callback-%s"));
+            blockingRequestExecutor = newCachedThreadPool(daemonThreadsNamed("benchmark-blocking-request-%s"));
+
+            ImmutableList.Builder<URI> locations = ImmutableList.builder();
+            for (int i = 0; i < locationCount; i++) {
+                locations.add(URI.create("http://localhost:8080/task" + i));
+            }
+            this.locations = locations.build();
+        }
+
+        @Setup(Level.Invocation)
+        public void fillBuffers()
+        {
+            processor = new MockExchangeRequestProcessor(MAX_RESPONSE_SIZE);
+            for (URI location : locations) {
+                for (int i = 0; i < PAGES_PER_LOCATION; i++) {
+                    processor.addPage(location, page);
+                }
+                processor.setComplete(location);
+            }
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            scheduler.shutdownNow();
+            pageBufferClientCallbackExecutor.shutdownNow();
+            blockingRequestExecutor.shutdownNow();
+        }
+
+        public ExchangeClient createExchangeClient()
+        {
+            ExchangeClient exchangeClient = new ExchangeClient(
+                    new DataSize(32, MEGABYTE),
+                    MAX_RESPONSE_SIZE,
+                    3,
+                    new Duration(1, MINUTES),
+                    true,
+                    new TestingHttpClient(processor, scheduler),
+                    scheduler,
+                    new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "benchmark"),
+                    pageBufferClientCallbackExecutor,
+                    blockingRequests ? Optional.of((Executor) blockingRequestExecutor) : Optional.empty(),
+                    Optional.empty());
+            for (URI location : locations) {
+                exchangeClient.addLocation(location);
+            }
+            exchangeClient.noMoreLocations();
+            return exchangeClient;
+        }
+
+        public long getExpectedPositions()
+        {
+            return (long) locationCount * PAGES_PER_LOCATION * POSITIONS_PER_PAGE;
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        data.fillBuffers();
+        try {
+            new BenchmarkExchangeClient().fetchPages(data);
+        }
+        finally {
+            data.tearDown();
+        }
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkExchangeClient.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
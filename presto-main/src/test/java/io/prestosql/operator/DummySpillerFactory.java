@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.prestosql.memory.context.AggregatedMemoryContext;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.SingleStreamSpiller;
+import io.prestosql.spiller.SingleStreamSpillerFactory;
+import io.prestosql.spiller.Spiller;
+import io.prestosql.spiller.SpillerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.unmodifiableIterator;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+
+/**
+ * Keeps spilled pages in memory. Serves as both a {@link SpillerFactory} and a {@link SingleStreamSpillerFactory}.
+ */
+public class DummySpillerFactory
+        implements SpillerFactory, SingleStreamSpillerFactory
+{
+    private final AtomicLong spillsCount = new AtomicLong();
+    private volatile boolean failSpill;
+    private volatile boolean failUnspill;
+
+    public void failSpill()
+    {
+        failSpill = true;
+    }
+
+    public void failUnspill()
+    {
+        failUnspill = true;
+    }
+
+    public long getSpillsCount()
+    {
+        return spillsCount.get();
+    }
+
+    @Override
+    public Spiller create(List<Type> types, SpillContext spillContext, AggregatedMemoryContext memoryContext)
+    {
+        return new Spiller()
+        {
+            private final List<Iterable<Page>> spills = new ArrayList<>();
+
+            @Override
+            public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+            {
+                if (failSpill) {
+                    return immediateFailedFuture(new PrestoException(GENERIC_INTERNAL_ERROR, "Spill failed"));
+                }
+                spillsCount.incrementAndGet();
+                spills.add(ImmutableList.copyOf(pageIterator));
+                return immediateFuture(null);
+            }
+
+            @Override
+            public List<Iterator<Page>> getSpills()
+            {
+                if (failUnspill) {
+                    throw new PrestoException(GENERIC_INTERNAL_ERROR, "Unspill failed");
+                }
+                return spills.stream()
+                        .map(Iterable::iterator)
+                        .collect(toImmutableList());
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+    }
+
+    @Override
+    public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
+    {
+        return new SingleStreamSpiller()
+        {
+            private boolean writing = true;
+            private final List<Page> spills = new ArrayList<>();
+
+            @Override
+            public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+            {
+                checkState(writing, "writing already finished");
+                if (failSpill) {
+                    return immediateFailedFuture(new PrestoException(GENERIC_INTERNAL_ERROR, "Spill failed"));
+                }
+                spillsCount.incrementAndGet();
+                Iterators.addAll(spills, pageIterator);
+                return immediateFuture(null);
+            }
+
+            @Override
+            public Iterator<Page> getSpilledPages()
+            {
+                if (failUnspill) {
+                    throw new PrestoException(GENERIC_INTERNAL_ERROR, "Unspill failed");
+                }
+                writing = false;
+                return unmodifiableIterator(spills.iterator());
+            }
+
+            @Override
+            public long getSpilledPagesInMemorySize()
+            {
+                return spills.stream()
+                        .mapToLong(Page::getSizeInBytes)
+                        .sum();
+            }
+
+            @Override
+            public ListenableFuture<List<Page>> getAllSpilledPages()
+            {
+                if (failUnspill) {
+                    return immediateFailedFuture(new PrestoException(GENERIC_INTERNAL_ERROR, "Unspill failed"));
+                }
+                writing = false;
+                return immediateFuture(ImmutableList.copyOf(spills));
+            }
+
+            @Override
+            public void close()
+            {
+                writing = false;
+            }
+        };
+    }
+}
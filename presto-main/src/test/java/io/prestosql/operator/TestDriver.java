@@ -32,6 +32,7 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.FixedPageSource;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.split.PageSourceProvider;
 import io.prestosql.sql.planner.plan.PlanNodeId;
@@ -179,7 +180,8 @@ public class TestDriver
                                 .build());
                     }
                 },
-                ImmutableList.of());
+                ImmutableList.of(),
+                TupleDomain::all);
 
         PageConsumerOperator sink = createSinkOperator(types);
         Driver driver = Driver.createDriver(driverContext, source, sink);
@@ -484,7 +486,7 @@ public class TestDriver
                 PageSourceProvider pageSourceProvider,
                 Iterable<ColumnHandle> columns)
         {
-            super(operatorContext, planNodeId, pageSourceProvider, columns);
+            super(operatorContext, planNodeId, pageSourceProvider, columns, TupleDomain::all);
         }
 
         @Override
@@ -508,7 +510,7 @@ public class TestDriver
                 PageSourceProvider pageSourceProvider,
                 Iterable<ColumnHandle> columns)
         {
-            super(operatorContext, planNodeId, pageSourceProvider, columns);
+            super(operatorContext, planNodeId, pageSourceProvider, columns, TupleDomain::all);
         }
 
         @Override
@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.operator.DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.operator.OperatorAssertion.toPages;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestDynamicFilterSourceOperator
+{
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private PipelineContext pipelineContext;
+    private List<TupleDomain<Integer>> published;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+        pipelineContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false);
+        published = new ArrayList<>();
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testCollectDistinctValues()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(ImmutableList.of(0, 1), ImmutableList.of(BIGINT, VARCHAR), 10);
+        List<Page> input = rowPagesBuilder(BIGINT, VARCHAR)
+                .row(1L, "a")
+                .row(2L, "b")
+                .pageBreak()
+                .row(1L, null)
+                .row(null, "c")
+                .build();
+
+        List<Page> output = toPages(operatorFactory, pipelineContext.addDriverContext(), input);
+        assertEquals(output, input);
+        assertTrue(published.isEmpty(), "predicate published before all operators are created");
+
+        operatorFactory.noMoreOperators();
+        assertEquals(published, ImmutableList.of(TupleDomain.withColumnDomains(ImmutableMap.of(
+                0, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L)),
+                1, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("a"), utf8Slice("b"), utf8Slice("c")))))));
+    }
+
+    @Test
+    public void testFallbackToRange()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(ImmutableList.of(0), ImmutableList.of(BIGINT), 3);
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .addSequencePage(5, 10)
+                .addSequencePage(5, -3)
+                .build();
+
+        toPages(operatorFactory, pipelineContext.addDriverContext(), input);
+        operatorFactory.noMoreOperators();
+
+        assertEquals(published, ImmutableList.of(TupleDomain.withColumnDomains(ImmutableMap.of(
+                0, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, -3L, true, 14L, true)), false)))));
+    }
+
+    @Test
+    public void testNaNIgnored()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(ImmutableList.of(0), ImmutableList.of(DOUBLE), 10);
+        List<Page> input = rowPagesBuilder(DOUBLE)
+                .row(Double.NaN)
+                .row(1.5)
+                .build();
+
+        toPages(operatorFactory, pipelineContext.addDriverContext(), input);
+        operatorFactory.noMoreOperators();
+
+        assertEquals(published, ImmutableList.of(TupleDomain.withColumnDomains(ImmutableMap.of(
+                0, Domain.singleValue(DOUBLE, 1.5)))));
+    }
+
+    @Test
+    public void testEmptyBuildSide()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(ImmutableList.of(0), ImmutableList.of(BIGINT), 10);
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .row((Object) null)
+                .build();
+
+        toPages(operatorFactory, pipelineContext.addDriverContext(), input);
+        operatorFactory.noMoreOperators();
+
+        assertEquals(published, ImmutableList.of(TupleDomain.none()));
+    }
+
+    @Test
+    public void testUnionAcrossOperators()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(ImmutableList.of(0), ImmutableList.of(BIGINT), 10);
+        Operator first = operatorFactory.createOperator(pipelineContext.addDriverContext());
+        Operator second = operatorFactory.createOperator(pipelineContext.addDriverContext());
+        operatorFactory.noMoreOperators();
+
+        toPages(first, rowPagesBuilder(BIGINT).row(1L).build().iterator());
+        assertTrue(published.isEmpty(), "predicate published before all operators are finished");
+
+        toPages(second, rowPagesBuilder(BIGINT).row(5L).build().iterator());
+        assertEquals(published, ImmutableList.of(TupleDomain.withColumnDomains(ImmutableMap.of(
+                0, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 5L))))));
+    }
+
+    private OperatorFactory createOperatorFactory(List<Integer> channels, List<Type> types, int maxDistinctValues)
+    {
+        return new DynamicFilterSourceOperatorFactory(0, new PlanNodeId("test"), published::add, channels, types, maxDistinctValues);
+    }
+}
@@ -30,6 +30,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.net.URI;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -102,7 +103,9 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, scheduler),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -124,6 +127,59 @@ public class TestExchangeClient
         assertStatus(status.getPageBufferClientStatuses().get(0), location, "closed", 3, 3, 3, "not scheduled");
     }
 
+    @Test(timeOut = 10000)
+    public void testBlockingRequests()
+    {
+        DataSize maxResponseSize = new DataSize(10, Unit.MEGABYTE);
+        MockExchangeRequestProcessor processor = new MockExchangeRequestProcessor(maxResponseSize);
+
+        URI location1 = URI.create("http://localhost:8081/foo");
+        processor.addPage(location1, createPage(1));
+        processor.addPage(location1, createPage(2));
+        processor.setComplete(location1);
+        URI location2 = URI.create("http://localhost:8082/bar");
+        processor.addPage(location2, createPage(3));
+        processor.setComplete(location2);
+
+        ExecutorService blockingRequestExecutor = newCachedThreadPool(daemonThreadsNamed("test-blocking-request-%s"));
+        try {
+            @SuppressWarnings("resource")
+            ExchangeClient exchangeClient = new ExchangeClient(
+                    new DataSize(32, Unit.MEGABYTE),
+                    maxResponseSize,
+                    1,
+                    new Duration(1, TimeUnit.MINUTES),
+                    true,
+                    new TestingHttpClient(processor, scheduler),
+                    scheduler,
+                    new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                    pageBufferClientCallbackExecutor,
+                    Optional.of(blockingRequestExecutor),
+                    Optional.empty());
+
+            exchangeClient.addLocation(location1);
+            exchangeClient.addLocation(location2);
+            exchangeClient.noMoreLocations();
+
+            long positions = 0;
+            SerializedPage page;
+            while ((page = getNextPage(exchangeClient)) != null) {
+                positions += page.getPositionCount();
+            }
+            assertEquals(positions, 6);
+            assertEquals(exchangeClient.isClosed(), true);
+
+            ExchangeClientStatus status = exchangeClient.getStatus();
+            assertEquals(status.getBufferedPages(), 0);
+            ImmutableMap<URI, PageBufferClientStatus> statuses = uniqueIndex(status.getPageBufferClientStatuses(), PageBufferClientStatus::getUri);
+            assertStatus(statuses.get(location1), location1, "closed", 2, 3, 3, "not scheduled");
+            assertStatus(statuses.get(location2), location2, "closed", 1, 3, 3, "not scheduled");
+        }
+        finally {
+            blockingRequestExecutor.shutdownNow();
+        }
+    }
+
     @Test(timeOut = 10000)
     public void testAddLocation()
             throws Exception
@@ -141,7 +197,9 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed("test-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         URI location1 = URI.create("http://localhost:8081/foo");
         processor.addPage(location1, createPage(1));
@@ -213,7 +271,9 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed("test-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -295,7 +355,9 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed("test-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
 
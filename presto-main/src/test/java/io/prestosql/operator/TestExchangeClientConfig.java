@@ -40,7 +40,10 @@ public class TestExchangeClientConfig
                 .setMaxResponseSize(new HttpClientConfig().getMaxContentLength())
                 .setPageBufferClientMaxCallbackThreads(25)
                 .setClientThreads(25)
-                .setAcknowledgePages(true));
+                .setAcknowledgePages(true)
+                .setBlockingRequestsEnabled(false)
+                .setBlockingRequestThreads(100)
+                .setLocalTransportEnabled(true));
     }
 
     @Test
@@ -55,6 +58,9 @@ public class TestExchangeClientConfig
                 .put("exchange.client-threads", "2")
                 .put("exchange.page-buffer-client.max-callback-threads", "16")
                 .put("exchange.acknowledge-pages", "false")
+                .put("exchange.blocking-requests-enabled", "true")
+                .put("exchange.blocking-request-threads", "7")
+                .put("exchange.local-transport-enabled", "false")
                 .build();
 
         ExchangeClientConfig expected = new ExchangeClientConfig()
@@ -65,7 +71,10 @@ public class TestExchangeClientConfig
                 .setMaxResponseSize(new DataSize(1, Unit.MEGABYTE))
                 .setClientThreads(2)
                 .setPageBufferClientMaxCallbackThreads(16)
-                .setAcknowledgePages(false);
+                .setAcknowledgePages(false)
+                .setBlockingRequestsEnabled(true)
+                .setBlockingRequestThreads(7)
+                .setLocalTransportEnabled(false);
 
         assertFullMapping(properties, expected);
     }
@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class TestFragmentResultCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(FragmentResultCacheConfig.class)
+                .setMaxInMemorySize(new DataSize(128, MEGABYTE))
+                .setMaxEntrySize(new DataSize(4, MEGABYTE))
+                .setDirectory(null)
+                .setMaxDiskSize(new DataSize(4, GIGABYTE))
+                .setTtl(new Duration(6, HOURS)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("fragment-result-cache.max-in-memory-size", "1GB")
+                .put("fragment-result-cache.max-entry-size", "16MB")
+                .put("fragment-result-cache.directory", "/tmp/fragment-result-cache")
+                .put("fragment-result-cache.max-disk-size", "100GB")
+                .put("fragment-result-cache.ttl", "30m")
+                .build();
+
+        FragmentResultCacheConfig expected = new FragmentResultCacheConfig()
+                .setMaxInMemorySize(new DataSize(1, GIGABYTE))
+                .setMaxEntrySize(new DataSize(16, MEGABYTE))
+                .setDirectory("/tmp/fragment-result-cache")
+                .setMaxDiskSize(new DataSize(100, GIGABYTE))
+                .setTtl(new Duration(30, MINUTES));
+
+        assertFullMapping(properties, expected);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import io.airlift.units.DataSize;
+import io.prestosql.block.BlockEncodingManager;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.memory.LocalMemoryManager;
+import io.prestosql.memory.NodeMemoryConfig;
+import io.prestosql.memory.ReservedSystemMemoryConfig;
+import io.prestosql.operator.FragmentResultCacheManager.CacheKey;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.type.Type;
+import io.prestosql.type.TypeRegistry;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.SequencePageBuilder.createSequencePage;
+import static io.prestosql.operator.PageAssertions.assertPageEquals;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestFragmentResultCacheManager
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, DOUBLE);
+    private static final CacheKey KEY = new CacheKey("plan", "split");
+
+    private File directory;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        directory = Files.createTempDir();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        deleteRecursively(directory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testInMemoryHit()
+    {
+        FragmentResultCacheManager cacheManager = createCacheManager(new FragmentResultCacheConfig());
+        Page page = createSequencePage(TYPES, 100);
+
+        assertFalse(cacheManager.get(KEY).isPresent());
+        cacheManager.put(KEY, serialize(cacheManager, page));
+
+        assertCachedPage(cacheManager.get(KEY), page);
+        assertFalse(cacheManager.get(new CacheKey("plan", "other split")).isPresent());
+        assertFalse(cacheManager.get(new CacheKey("other plan", "split")).isPresent());
+        assertEquals(cacheManager.getMemoryHits(), 1);
+        assertEquals(cacheManager.getMisses(), 3);
+        assertEquals(cacheManager.getInMemoryEntries(), 1);
+        assertEquals(cacheManager.getOnDiskEntries(), 0);
+    }
+
+    @Test
+    public void testEntryTooLarge()
+    {
+        FragmentResultCacheConfig config = new FragmentResultCacheConfig()
+                .setMaxEntrySize(new DataSize(1, BYTE));
+        FragmentResultCacheManager cacheManager = createCacheManager(config);
+
+        cacheManager.put(KEY, serialize(cacheManager, createSequencePage(TYPES, 100)));
+
+        assertFalse(cacheManager.get(KEY).isPresent());
+        assertEquals(cacheManager.getStores(), 0);
+    }
+
+    @Test
+    public void testEvictionToDisk()
+    {
+        FragmentResultCacheConfig config = new FragmentResultCacheConfig()
+                .setMaxInMemorySize(new DataSize(1, BYTE))
+                .setDirectory(directory.getPath());
+        FragmentResultCacheManager cacheManager = createCacheManager(config);
+        Page page = createSequencePage(TYPES, 100);
+
+        cacheManager.put(KEY, serialize(cacheManager, page));
+        assertEquals(cacheManager.getInMemoryEntries(), 0);
+        assertEquals(cacheManager.getOnDiskEntries(), 1);
+        assertEquals(cacheManager.getFlushes(), 1);
+
+        assertCachedPage(cacheManager.get(KEY), page);
+        assertEquals(cacheManager.getDiskHits(), 1);
+
+        cacheManager.invalidateAll();
+        assertEquals(directory.list().length, 0);
+    }
+
+    @Test
+    public void testEvictionWithoutDirectory()
+    {
+        FragmentResultCacheConfig config = new FragmentResultCacheConfig()
+                .setMaxInMemorySize(new DataSize(1, BYTE));
+        FragmentResultCacheManager cacheManager = createCacheManager(config);
+
+        cacheManager.put(KEY, serialize(cacheManager, createSequencePage(TYPES, 100)));
+
+        assertFalse(cacheManager.get(KEY).isPresent());
+        assertEquals(cacheManager.getOnDiskEntries(), 0);
+    }
+
+    @Test
+    public void testMemoryNotAccountedToQueries()
+    {
+        FragmentResultCacheConfig config = new FragmentResultCacheConfig()
+                .setMaxInMemorySize(new DataSize(64, MEGABYTE));
+        NodeMemoryConfig memoryConfig = new NodeMemoryConfig()
+                .setHeapHeadroom(new DataSize(0, BYTE))
+                .setMaxQueryTotalMemoryPerNode(new DataSize(1, BYTE))
+                .setMaxQueryMemoryPerNode(new DataSize(1, BYTE))
+                .setReservedPoolEnabled(false);
+        long generalPoolSize = new LocalMemoryManager(memoryConfig, new ReservedSystemMemoryConfig()).getGeneralPool().getMaxBytes();
+
+        // the in-memory cache is set aside from the general pool rather than reserved by a query
+        LocalMemoryManager memoryManager = new LocalMemoryManager(memoryConfig, new ReservedSystemMemoryConfig(), config);
+        assertEquals(memoryManager.getGeneralPool().getMaxBytes(), generalPoolSize - config.getMaxInMemorySize().toBytes());
+
+        FragmentResultCacheManager cacheManager = createCacheManager(config);
+        cacheManager.put(KEY, serialize(cacheManager, createSequencePage(TYPES, 100)));
+        assertEquals(cacheManager.getInMemoryEntries(), 1);
+        assertEquals(memoryManager.getGeneralPool().getReservedBytes(), 0);
+    }
+
+    private FragmentResultCacheManager createCacheManager(FragmentResultCacheConfig config)
+    {
+        return new FragmentResultCacheManager(
+                config,
+                new BlockEncodingManager(new TypeRegistry()),
+                newDirectExecutorService());
+    }
+
+    private static List<SerializedPage> serialize(FragmentResultCacheManager cacheManager, Page page)
+    {
+        PagesSerde serde = cacheManager.createPagesSerde();
+        return ImmutableList.of(serde.serialize(page));
+    }
+
+    private static void assertCachedPage(Optional<Iterator<Page>> cachedPages, Page expected)
+    {
+        assertTrue(cachedPages.isPresent());
+        Iterator<Page> pages = cachedPages.get();
+        assertTrue(pages.hasNext());
+        assertPageEquals(TYPES, pages.next(), expected);
+        assertFalse(pages.hasNext());
+    }
+}
@@ -21,6 +21,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import io.prestosql.ExceededMemoryLimitException;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.Session;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.metadata.MetadataManager;
 import io.prestosql.metadata.Signature;
@@ -55,10 +56,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static com.google.common.base.Strings.nullToEmpty;
-import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
-import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.slice.SizeOf.SIZE_OF_DOUBLE;
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
@@ -69,6 +68,7 @@ import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.SystemSessionProperties.ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS;
 import static io.prestosql.metadata.FunctionKind.AGGREGATE;
 import static io.prestosql.operator.GroupByHashYieldAssertion.GroupByHashYieldResult;
 import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
@@ -578,6 +578,144 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(1000, 0)
+                .addSequencePage(1000, 1000)
+                .addSequencePage(1000, 2000)
+                .addSequencePage(1000, 3000)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                Optional.of(new DataSize(16, MEGABYTE)),
+                joinCompiler,
+                true);
+
+        Session session = Session.builder(TEST_SESSION)
+                .setSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, "1000")
+                .build();
+        DriverContext driverContext = TestingTaskContext.builder(executor, scheduledExecutor, session)
+                .build()
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            Iterator<Page> inputIterator = input.iterator();
+
+            // every key of the first page is unique, so the operator stops aggregating and flushes
+            operator.addInput(inputIterator.next());
+            assertTrue(!operator.needsInput());
+            List<Page> outputPages = new ArrayList<>();
+            while (true) {
+                Page output = operator.getOutput();
+                if (output == null) {
+                    break;
+                }
+                outputPages.add(output);
+            }
+            assertTrue(!outputPages.isEmpty());
+            assertTrue(operator.needsInput());
+
+            // the remaining pages are passed through without building a hash table
+            operator.addInput(inputIterator.next());
+            assertEquals(getHashCapacity(operator), 0);
+            assertTrue(!operator.needsInput());
+            Page passThroughPage = operator.getOutput();
+            assertEquals(passThroughPage.getPositionCount(), 1000);
+            outputPages.add(passThroughPage);
+
+            outputPages.addAll(toPages(operator, inputIterator));
+
+            if (hashEnabled) {
+                outputPages = dropChannel(outputPages, ImmutableList.of(1));
+            }
+            MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT)
+                    .pages(rowPagesBuilder(BIGINT, BIGINT).addSequencePage(4000, 0, 0).build())
+                    .build();
+            MaterializedResult actual = toMaterializedResult(driverContext.getSession(), expected.getTypes(), outputPages);
+            assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+        }
+    }
+
+    @Test
+    public void testAdaptivePartialAggregationAcrossFlushes()
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(BIGINT);
+        for (int i = 0; i < 11; i++) {
+            rowPagesBuilder.addSequencePage(100, i * 100);
+        }
+        List<Page> input = rowPagesBuilder.build();
+
+        // the partial memory limit is so low that the builder is flushed after every page
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                ImmutableList.of(0),
+                ImmutableList.of(),
+                Step.PARTIAL,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100,
+                Optional.of(new DataSize(1, KILOBYTE)),
+                joinCompiler,
+                false);
+
+        Session session = Session.builder(TEST_SESSION)
+                .setSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, "1000")
+                .build();
+        DriverContext driverContext = TestingTaskContext.builder(executor, scheduledExecutor, session)
+                .build()
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            Iterator<Page> inputIterator = input.iterator();
+            List<Page> outputPages = new ArrayList<>();
+
+            // the controller sees the rows of every flushed builder, so it decides once 1000 rows have been aggregated
+            for (int i = 0; i < 10; i++) {
+                assertTrue(operator.needsInput());
+                operator.addInput(inputIterator.next());
+                assertGreaterThan(getHashCapacity(operator), 0);
+                for (Page output = operator.getOutput(); output != null; output = operator.getOutput()) {
+                    outputPages.add(output);
+                }
+            }
+
+            // the last page is passed through, and its intermediate form is accounted until it is returned
+            assertTrue(operator.needsInput());
+            operator.addInput(inputIterator.next());
+            assertEquals(getHashCapacity(operator), 0);
+            assertGreaterThan(driverContext.getMemoryUsage(), 0L);
+            Page passThroughPage = operator.getOutput();
+            assertEquals(passThroughPage.getPositionCount(), 100);
+            assertEquals(driverContext.getMemoryUsage(), 0);
+            outputPages.add(passThroughPage);
+
+            MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT)
+                    .pages(rowPagesBuilder(BIGINT, BIGINT).addSequencePage(1100, 0, 0).build())
+                    .build();
+            MaterializedResult actual = toMaterializedResult(driverContext.getSession(), expected.getTypes(), outputPages);
+            assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+        }
+    }
+
     @Test
     public void testMergeWithMemorySpill()
     {
@@ -754,46 +892,6 @@ public class TestHashAggregationOperator
         return ((InMemoryHashAggregationBuilder) aggregationBuilder).getCapacity();
     }
 
-    private static class DummySpillerFactory
-            implements SpillerFactory
-    {
-        private long spillsCount;
-
-        @Override
-        public Spiller create(List<Type> types, SpillContext spillContext, AggregatedMemoryContext memoryContext)
-        {
-            return new Spiller()
-            {
-                private final List<Iterable<Page>> spills = new ArrayList<>();
-
-                @Override
-                public ListenableFuture<?> spill(Iterator<Page> pageIterator)
-                {
-                    spillsCount++;
-                    spills.add(ImmutableList.copyOf(pageIterator));
-                    return immediateFuture(null);
-                }
-
-                @Override
-                public List<Iterator<Page>> getSpills()
-                {
-                    return spills.stream()
-                            .map(Iterable::iterator)
-                            .collect(toImmutableList());
-                }
-
-                @Override
-                public void close()
-                {
-                }
-            };
-        }
-
-        public long getSpillsCount()
-        {
-            return spillsCount;
-        }
-    }
 
     private static class FailingSpillerFactory
             implements SpillerFactory
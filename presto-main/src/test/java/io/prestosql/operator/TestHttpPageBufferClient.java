@@ -36,6 +36,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
@@ -108,7 +109,9 @@ public class TestHttpPageBufferClient
                 location,
                 callback,
                 scheduler,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         assertStatus(client, location, "queued", 0, 0, 0, 0, "not scheduled");
 
@@ -193,7 +196,9 @@ public class TestHttpPageBufferClient
                 location,
                 callback,
                 scheduler,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         assertStatus(client, location, "queued", 0, 0, 0, 0, "not scheduled");
 
@@ -233,7 +238,9 @@ public class TestHttpPageBufferClient
                 location,
                 callback,
                 scheduler,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         assertStatus(client, location, "queued", 0, 0, 0, 0, "not scheduled");
 
@@ -301,7 +308,9 @@ public class TestHttpPageBufferClient
                 location,
                 callback,
                 scheduler,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         assertStatus(client, location, "queued", 0, 0, 0, 0, "not scheduled");
 
@@ -356,7 +365,9 @@ public class TestHttpPageBufferClient
                 callback,
                 scheduler,
                 ticker,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                Optional.empty(),
+                Optional.empty());
 
         assertStatus(client, location, "queued", 0, 0, 0, 0, "not scheduled");
 
@@ -14,12 +14,18 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.metadata.MetadataManager;
 import io.prestosql.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.GenericPartitioningSpillerFactory;
+import io.prestosql.spiller.SingleStreamSpiller;
+import io.prestosql.spiller.SingleStreamSpillerFactory;
 import io.prestosql.sql.analyzer.FeaturesConfig;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
@@ -29,11 +35,15 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static com.google.common.collect.Iterators.unmodifiableIterator;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
@@ -106,6 +116,41 @@ public class TestMarkDistinctOperator
         OperatorAssertion.assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected.build(), hashEnabled, Optional.of(1));
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testMarkDistinctWithSpill(boolean hashEnabled)
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT, VARCHAR);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(100, 0, 0)
+                .addSequencePage(100, 0, 100)
+                .addSequencePage(100, 50, 200)
+                .build();
+
+        InMemorySingleStreamSpillerFactory spillerFactory = new InMemorySingleStreamSpillerFactory();
+        OperatorFactory operatorFactory = new MarkDistinctOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                ImmutableList.of(0),
+                rowPagesBuilder.getHashChannel(),
+                joinCompiler,
+                true,
+                new GenericPartitioningSpillerFactory(spillerFactory));
+
+        // the first page is marked in memory, and the remaining pages are marked after the distinct values have been spilled
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BOOLEAN);
+        for (long i = 0; i < 100; i++) {
+            expected.row(i, String.valueOf(i), true);
+            expected.row(i, String.valueOf(i + 100), false);
+        }
+        for (long i = 50; i < 150; i++) {
+            expected.row(i, String.valueOf(i + 150), i >= 100);
+        }
+
+        OperatorAssertion.assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected.build(), hashEnabled, Optional.of(2));
+        assertGreaterThan(spillerFactory.getSpillersCount(), 0);
+    }
+
     @Test(dataProvider = "dataType")
     public void testMemoryReservationYield(Type type)
     {
@@ -128,4 +173,58 @@ public class TestMarkDistinctOperator
         }
         assertEquals(count, 6_000 * 600);
     }
+
+    private static class InMemorySingleStreamSpillerFactory
+            implements SingleStreamSpillerFactory
+    {
+        private int spillersCount;
+
+        public int getSpillersCount()
+        {
+            return spillersCount;
+        }
+
+        @Override
+        public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
+        {
+            spillersCount++;
+            return new SingleStreamSpiller()
+            {
+                private final List<Page> spills = new ArrayList<>();
+
+                @Override
+                public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+                {
+                    Iterators.addAll(spills, pageIterator);
+                    return immediateFuture(null);
+                }
+
+                @Override
+                public Iterator<Page> getSpilledPages()
+                {
+                    return unmodifiableIterator(spills.iterator());
+                }
+
+                @Override
+                public long getSpilledPagesInMemorySize()
+                {
+                    return spills.stream()
+                            .mapToLong(Page::getSizeInBytes)
+                            .sum();
+                }
+
+                @Override
+                public ListenableFuture<List<Page>> getAllSpilledPages()
+                {
+                    return immediateFuture(ImmutableList.copyOf(spills));
+                }
+
+                @Override
+                public void close()
+                {
+                    spills.clear();
+                }
+            };
+        }
+    }
 }
@@ -19,6 +19,7 @@ import io.airlift.units.DataSize.Unit;
 import io.prestosql.ExceededMemoryLimitException;
 import io.prestosql.operator.OrderByOperator.OrderByOperatorFactory;
 import io.prestosql.spi.Page;
+import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.MaterializedResult;
 import org.testng.annotations.AfterMethod;
@@ -26,13 +27,16 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEquals;
+import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
 import static io.prestosql.operator.OperatorAssertion.toPages;
 import static io.prestosql.spi.block.SortOrder.ASC_NULLS_LAST;
 import static io.prestosql.spi.block.SortOrder.DESC_NULLS_LAST;
@@ -43,6 +47,8 @@ import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.TestingTaskContext.createTaskContext;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestOrderByOperator
@@ -87,7 +93,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0),
                 ImmutableList.of(ASC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                false,
+                Optional.empty(),
+                new OrderingCompiler());
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE)
                 .row(-0.1)
@@ -118,7 +127,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0, 1),
                 ImmutableList.of(ASC_NULLS_LAST, DESC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                false,
+                Optional.empty(),
+                new OrderingCompiler());
 
         MaterializedResult expected = MaterializedResult.resultBuilder(driverContext.getSession(), VARCHAR, BIGINT)
                 .row("a", 4L)
@@ -149,7 +161,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0),
                 ImmutableList.of(DESC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                false,
+                Optional.empty(),
+                new OrderingCompiler());
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT)
                 .row(4L)
@@ -161,6 +176,111 @@ public class TestOrderByOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
 
+    @Test
+    public void testSpill()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
+                .row(3L, 0.3)
+                .row(1L, 0.1)
+                .pageBreak()
+                .row(-1L, -0.1)
+                .row(4L, 0.4)
+                .pageBreak()
+                .row(2L, 0.2)
+                .row(0L, 0.0)
+                .build();
+
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        OrderByOperatorFactory operatorFactory = new OrderByOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, DOUBLE),
+                ImmutableList.of(1),
+                10,
+                ImmutableList.of(0),
+                ImmutableList.of(ASC_NULLS_LAST),
+                new PagesIndex.TestingFactory(false),
+                true,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        // spill a sorted run after each of the first two pages, and keep the last one in memory
+        for (int i = 0; i < input.size(); i++) {
+            operator.addInput(input.get(i));
+            if (i < input.size() - 1) {
+                assertTrue(operator.getOperatorContext().getReservedRevocableBytes() > 0);
+                getFutureValue(operator.startMemoryRevoke());
+                operator.finishMemoryRevoke();
+                assertEquals(operator.getOperatorContext().getReservedRevocableBytes(), 0);
+            }
+        }
+        assertEquals(spillerFactory.getSpillsCount(), 2);
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE)
+                .row(-0.1)
+                .row(0.0)
+                .row(0.1)
+                .row(0.2)
+                .row(0.3)
+                .row(0.4)
+                .build();
+
+        List<Page> output = toPages(operator, ImmutableList.<Page>of().iterator());
+        assertEquals(toMaterializedResult(driverContext.getSession(), ImmutableList.of(DOUBLE), output), expected);
+    }
+
+    @Test
+    public void testSpillOnFinishWithoutUserMemory()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
+                .row(3L, 0.3)
+                .row(1L, 0.1)
+                .pageBreak()
+                .row(-1L, -0.1)
+                .row(2L, 0.2)
+                .build();
+
+        // the user memory is too small to hold the in-memory run on finish
+        DriverContext driverContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION, new DataSize(10, Unit.BYTE))
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        OrderByOperatorFactory operatorFactory = new OrderByOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, DOUBLE),
+                ImmutableList.of(1),
+                10,
+                ImmutableList.of(0),
+                ImmutableList.of(ASC_NULLS_LAST),
+                new PagesIndex.TestingFactory(false),
+                true,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+        operator.addInput(input.get(0));
+        getFutureValue(operator.startMemoryRevoke());
+        operator.finishMemoryRevoke();
+        operator.addInput(input.get(1));
+        assertEquals(spillerFactory.getSpillsCount(), 1);
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE)
+                .row(-0.1)
+                .row(0.1)
+                .row(0.2)
+                .row(0.3)
+                .build();
+
+        List<Page> output = toPages(operator, ImmutableList.<Page>of().iterator());
+        assertEquals(toMaterializedResult(driverContext.getSession(), ImmutableList.of(DOUBLE), output), expected);
+        assertEquals(spillerFactory.getSpillsCount(), 2);
+        assertEquals(operator.getOperatorContext().getReservedRevocableBytes(), 0);
+    }
+
     @Test(expectedExceptions = ExceededMemoryLimitException.class, expectedExceptionsMessageRegExp = "Query exceeded per-node user memory limit of 10B when increasing allocation of 0B by .*")
     public void testMemoryLimit()
     {
@@ -184,7 +304,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0),
                 ImmutableList.of(ASC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                false,
+                Optional.empty(),
+                new OrderingCompiler());
 
         toPages(operatorFactory, driverContext, input);
     }
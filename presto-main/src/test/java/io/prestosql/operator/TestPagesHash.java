@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.MetadataManager;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.sql.analyzer.FeaturesConfig;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static io.prestosql.operator.SyntheticAddress.encodeSyntheticAddress;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestPagesHash
+{
+    private static final int BUILD_POSITIONS = 10_000;
+    private static final int PROBE_POSITIONS = 20_000;
+
+    @Test
+    public void testBatchProbe()
+    {
+        assertBatchProbeMatchesSingleProbe(false);
+    }
+
+    @Test
+    public void testBatchProbeBigint()
+    {
+        assertBatchProbeMatchesSingleProbe(true);
+    }
+
+    private static void assertBatchProbeMatchesSingleProbe(boolean bigintJoinChannel)
+    {
+        Random random = new Random(42);
+
+        // keys are drawn from a small range, so the build side has duplicates and the hash table has long collision chains
+        Block buildBlock = createBlock(random, BUILD_POSITIONS, BUILD_POSITIONS);
+        List<Block> buildChannel = ImmutableList.of(buildBlock);
+        LongArrayList addresses = new LongArrayList();
+        for (int position = 0; position < buildBlock.getPositionCount(); position++) {
+            addresses.add(encodeSyntheticAddress(0, position));
+        }
+        PagesHash pagesHash = new PagesHash(
+                addresses,
+                createHashStrategy(buildChannel),
+                ArrayPositionLinks.builder(addresses.size()),
+                bigintJoinChannel ? Optional.of(buildChannel) : Optional.empty());
+
+        // half of the probe keys are not on the build side
+        Page probePage = new Page(createBlock(random, PROBE_POSITIONS, 2 * BUILD_POSITIONS));
+
+        // probe a random subset of the positions, in random order
+        int positionCount = PROBE_POSITIONS / 2;
+        int[] positions = new int[positionCount];
+        long[] rawHashes = new long[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            positions[i] = random.nextInt(PROBE_POSITIONS);
+            rawHashes[i] = pagesHash.hashRow(positions[i], probePage);
+        }
+
+        int[] addressIndexes = new int[positionCount];
+        pagesHash.getAddressIndexes(positions, positionCount, probePage, rawHashes, addressIndexes);
+
+        int matches = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int expected = pagesHash.getAddressIndex(positions[i], probePage, rawHashes[i]);
+            assertEquals(addressIndexes[i], expected, "position " + positions[i]);
+            if (expected != -1) {
+                matches++;
+            }
+        }
+        assertTrue(matches > 0 && matches < positionCount, "expected both matching and non-matching probes");
+        assertTrue(pagesHash.getHashCollisions() > 0, "expected hash collisions");
+    }
+
+    private static Block createBlock(Random random, int positionCount, int maxValue)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            BIGINT.writeLong(blockBuilder, random.nextInt(maxValue));
+        }
+        return blockBuilder.build();
+    }
+
+    private static PagesHashStrategy createHashStrategy(List<Block> channel)
+    {
+        return new SimplePagesHashStrategy(
+                ImmutableList.of(BIGINT),
+                ImmutableList.of(),
+                ImmutableList.of(channel),
+                ImmutableList.of(0),
+                OptionalInt.empty(),
+                Optional.empty(),
+                MetadataManager.createTestMetadataManager().getFunctionRegistry(),
+                new FeaturesConfig().isGroupByUsesEqualTo());
+    }
+}
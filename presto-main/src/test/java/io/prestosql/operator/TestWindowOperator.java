@@ -13,11 +13,13 @@
  */
 package io.prestosql.operator;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import io.prestosql.ExceededMemoryLimitException;
+import io.prestosql.RowPagesBuilder;
 import io.prestosql.operator.WindowOperator.WindowOperatorFactory;
 import io.prestosql.operator.window.FirstValueFunction;
 import io.prestosql.operator.window.FrameInfo;
@@ -30,8 +32,11 @@ import io.prestosql.operator.window.RowNumberFunction;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.SpillerFactory;
+import io.prestosql.sql.gen.OrderingCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.MaterializedResult;
+import io.prestosql.testing.MaterializedRow;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -41,11 +46,14 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEquals;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEqualsIgnoreOrder;
+import static io.prestosql.operator.OperatorAssertion.finishOperator;
+import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
 import static io.prestosql.operator.OperatorAssertion.toPages;
 import static io.prestosql.operator.WindowFunctionDefinition.window;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -60,6 +68,7 @@ import static io.prestosql.testing.TestingTaskContext.createTaskContext;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestWindowOperator
@@ -167,6 +176,150 @@ public class TestWindowOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
 
+    @Test
+    public void testRowNumberPartitionSpill()
+    {
+        List<Page> input = rowPagesBuilder(VARCHAR, BIGINT, DOUBLE, BOOLEAN)
+                .row("b", -1L, -0.1, true)
+                .row("a", 2L, 0.3, false)
+                .pageBreak()
+                .row("a", 4L, 0.2, true)
+                .row("c", 7L, 0.5, false)
+                .pageBreak()
+                .row("b", 5L, 0.4, false)
+                .row("a", 6L, 0.1, true)
+                .build();
+
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        WindowOperatorFactory operatorFactory = createFactoryUnbounded(
+                ImmutableList.of(VARCHAR, BIGINT, DOUBLE, BOOLEAN),
+                Ints.asList(0, 1, 2, 3),
+                ROW_NUMBER,
+                Ints.asList(0),
+                ImmutableList.of(),
+                Ints.asList(1),
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                0,
+                true,
+                Optional.of(spillerFactory));
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, DOUBLE, BOOLEAN, BIGINT)
+                .row("a", 2L, 0.3, false, 1L)
+                .row("a", 4L, 0.2, true, 2L)
+                .row("a", 6L, 0.1, true, 3L)
+                .row("b", -1L, -0.1, true, 1L)
+                .row("b", 5L, 0.4, false, 2L)
+                .row("c", 7L, 0.5, false, 1L)
+                .build();
+
+        List<Page> output = toPagesRevokingAfterEachPage(operatorFactory.createOperator(driverContext), input);
+        assertEquals(toMaterializedResult(driverContext.getSession(), expected.getTypes(), output), expected);
+        assertEquals(spillerFactory.getSpillsCount(), 3);
+    }
+
+    @Test
+    public void testPartiallyPreGroupedPartitionSpill()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, VARCHAR, BIGINT)
+                .row(1L, "b", 100L)
+                .row(1L, "a", 101L)
+                .pageBreak()
+                .row(1L, "b", 102L)
+                .row(2L, "a", 103L)
+                .pageBreak()
+                .row(2L, "a", 104L)
+                .row(3L, "c", 105L)
+                .build();
+
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        WindowOperatorFactory operatorFactory = createFactoryUnbounded(
+                ImmutableList.of(BIGINT, VARCHAR, BIGINT),
+                Ints.asList(0, 1, 2),
+                ROW_NUMBER,
+                Ints.asList(0, 1),
+                Ints.asList(0),
+                Ints.asList(2),
+                ImmutableList.of(SortOrder.DESC_NULLS_LAST),
+                0,
+                true,
+                Optional.of(spillerFactory));
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, BIGINT)
+                .row(1L, "a", 101L, 1L)
+                .row(1L, "b", 102L, 1L)
+                .row(1L, "b", 100L, 2L)
+                .row(2L, "a", 104L, 1L)
+                .row(2L, "a", 103L, 2L)
+                .row(3L, "c", 105L, 1L)
+                .build();
+
+        List<Page> output = toPagesRevokingAfterEachPage(operatorFactory.createOperator(driverContext), input);
+        assertEquals(toMaterializedResult(driverContext.getSession(), expected.getTypes(), output), expected);
+        assertTrue(spillerFactory.getSpillsCount() > 0);
+    }
+
+    @Test
+    public void testSpilledPartitionLoadYields()
+    {
+        // wide rows so that the single partition spans several merged pages of the spilled runs
+        String payload = Strings.repeat("x", 2000);
+        RowPagesBuilder inputBuilder = rowPagesBuilder(VARCHAR, BIGINT, VARCHAR);
+        int runs = 3;
+        int rowsPerRun = 400;
+        for (int run = 0; run < runs; run++) {
+            for (int row = 0; row < rowsPerRun; row++) {
+                inputBuilder.row("a", (long) (row * runs + run), payload);
+            }
+            inputBuilder.pageBreak();
+        }
+        List<Page> input = inputBuilder.build();
+
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        WindowOperatorFactory operatorFactory = createFactoryUnbounded(
+                ImmutableList.of(VARCHAR, BIGINT, VARCHAR),
+                Ints.asList(0, 1),
+                ROW_NUMBER,
+                Ints.asList(0),
+                ImmutableList.of(),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                0,
+                true,
+                Optional.of(spillerFactory));
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+        for (Page inputPage : input) {
+            assertTrue(operator.needsInput());
+            operator.addInput(inputPage);
+            getFutureValue(operator.startMemoryRevoke());
+            operator.finishMemoryRevoke();
+        }
+        operator.finish();
+
+        // force the merge of the spilled runs to yield on every call
+        ImmutableList.Builder<Page> output = ImmutableList.builder();
+        int yields = 0;
+        while (!operator.isFinished()) {
+            driverContext.getYieldSignal().forceYieldForTesting();
+            Page outputPage = operator.getOutput();
+            if (outputPage == null) {
+                yields++;
+            }
+            else {
+                output.add(outputPage);
+            }
+        }
+        driverContext.getYieldSignal().resetYieldForTesting();
+
+        assertTrue(yields > 0);
+        assertEquals(spillerFactory.getSpillsCount(), runs);
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), ImmutableList.of(VARCHAR, BIGINT, BIGINT), output.build());
+        assertEquals(actual.getRowCount(), runs * rowsPerRun);
+        for (MaterializedRow row : actual.getMaterializedRows()) {
+            assertEquals(row.getField(2), (long) row.getField(1) + 1);
+        }
+    }
+
     @Test
     public void testRowNumberArbitrary()
     {
@@ -607,6 +760,26 @@ public class TestWindowOperator
         assertFindEndPosition("000000000000001111111111", 14);
     }
 
+    private static List<Page> toPagesRevokingAfterEachPage(Operator operator, List<Page> input)
+    {
+        ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
+        for (Page inputPage : input) {
+            while (!operator.needsInput()) {
+                Page outputPage = operator.getOutput();
+                if (outputPage != null) {
+                    outputPages.add(outputPage);
+                }
+            }
+            operator.addInput(inputPage);
+
+            getFutureValue(operator.startMemoryRevoke());
+            operator.finishMemoryRevoke();
+            assertEquals(operator.getOperatorContext().getReservedRevocableBytes(), 0);
+        }
+        outputPages.addAll(finishOperator(operator));
+        return outputPages.build();
+    }
+
     private static void assertFindEndPosition(String values, int expected)
     {
         char[] array = values.toCharArray();
@@ -641,6 +814,31 @@ public class TestWindowOperator
             List<Integer> sortChannels,
             List<SortOrder> sortOrder,
             int preSortedChannelPrefix)
+    {
+        return createFactoryUnbounded(
+                sourceTypes,
+                outputChannels,
+                functions,
+                partitionChannels,
+                preGroupedChannels,
+                sortChannels,
+                sortOrder,
+                preSortedChannelPrefix,
+                false,
+                Optional.empty());
+    }
+
+    private static WindowOperatorFactory createFactoryUnbounded(
+            List<? extends Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<WindowFunctionDefinition> functions,
+            List<Integer> partitionChannels,
+            List<Integer> preGroupedChannels,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            int preSortedChannelPrefix,
+            boolean spillEnabled,
+            Optional<SpillerFactory> spillerFactory)
     {
         return new WindowOperatorFactory(
                 0,
@@ -654,6 +852,9 @@ public class TestWindowOperator
                 sortOrder,
                 preSortedChannelPrefix,
                 10,
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                spillEnabled,
+                spillerFactory,
+                new OrderingCompiler());
     }
 }
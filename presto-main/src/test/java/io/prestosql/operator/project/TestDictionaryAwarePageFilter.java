@@ -134,6 +134,34 @@ public class TestDictionaryAwarePageFilter
         testFilter(filter, effectiveBlock, true);
     }
 
+    @Test
+    public void testDictionaryProcessingLateEnable()
+    {
+        TestDictionaryFilter nestedFilter = new TestDictionaryFilter(false);
+        DictionaryAwarePageFilter filter = new DictionaryAwarePageFilter(nestedFilter);
+
+        DictionaryBlock ineffectiveBlock = createDictionaryBlock(100, 20);
+        DictionaryBlock reusedBlock = createDictionaryBlock(30, 10);
+
+        // function will always processes the first dictionary
+        nestedFilter.setExpectedType(LongArrayBlock.class);
+        testFilter(filter, ineffectiveBlock, false);
+
+        // last dictionary not effective, so dictionary processing is disabled
+        nestedFilter.setExpectedType(DictionaryBlock.class);
+        testFilter(filter, reusedBlock, false);
+        testFilter(filter, reusedBlock, false);
+        testFilter(filter, reusedBlock, false);
+
+        // dictionary has now been used for as many positions as it has entries, so it is processed
+        nestedFilter.setExpectedType(LongArrayBlock.class);
+        testFilter(filter, reusedBlock, false);
+
+        // result for the dictionary is cached
+        nestedFilter.setExpectedType(RunLengthEncodedBlock.class);
+        testFilter(filter, reusedBlock, false);
+    }
+
     private static DictionaryBlock createDictionaryBlock(int dictionarySize, int blockSize)
     {
         Block dictionary = createLongSequenceBlock(0, dictionarySize);
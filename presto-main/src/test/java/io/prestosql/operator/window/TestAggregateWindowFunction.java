@@ -13,15 +13,23 @@
  */
 package io.prestosql.operator.window;
 
+import com.google.common.collect.ImmutableList;
 import io.prestosql.testing.MaterializedResult;
+import io.prestosql.testing.MaterializedRow;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -530,4 +538,158 @@ public class TestAggregateWindowFunction
                         .row(null, null, null)
                         .build());
     }
+
+    @Test
+    public void testSlidingFrame()
+    {
+        assertWindowQuery("sum(orderkey) OVER (PARTITION BY orderstatus ORDER BY orderkey " +
+                        "ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)",
+                resultBuilder(TEST_SESSION, INTEGER, VARCHAR, BIGINT)
+                        .row(3, "F", 3L)
+                        .row(5, "F", 8L)
+                        .row(6, "F", 11L)
+                        .row(33, "F", 39L)
+                        .row(1, "O", 1L)
+                        .row(2, "O", 3L)
+                        .row(4, "O", 6L)
+                        .row(7, "O", 11L)
+                        .row(32, "O", 39L)
+                        .row(34, "O", 66L)
+                        .build());
+        assertWindowQuery("avg(orderkey) OVER (PARTITION BY orderstatus ORDER BY orderkey " +
+                        "ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)",
+                resultBuilder(TEST_SESSION, INTEGER, VARCHAR, DOUBLE)
+                        .row(3, "F", 3.0)
+                        .row(5, "F", 4.0)
+                        .row(6, "F", 5.5)
+                        .row(33, "F", 19.5)
+                        .row(1, "O", 1.0)
+                        .row(2, "O", 1.5)
+                        .row(4, "O", 3.0)
+                        .row(7, "O", 5.5)
+                        .row(32, "O", 19.5)
+                        .row(34, "O", 33.0)
+                        .build());
+        assertWindowQueryWithNulls("sum(orderkey) OVER (PARTITION BY orderstatus ORDER BY orderkey " +
+                        "ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)",
+                resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT)
+                        .row(3L, "F", 3L)
+                        .row(5L, "F", 8L)
+                        .row(6L, "F", 11L)
+                        .row(null, "F", 6L)
+                        .row(34L, "O", 34L)
+                        .row(null, "O", 34L)
+                        .row(1L, null, 1L)
+                        .row(7L, null, 8L)
+                        .row(null, null, 7L)
+                        .row(null, null, null)
+                        .build());
+        assertWindowQueryWithNulls("count(orderkey) OVER (PARTITION BY orderstatus ORDER BY orderkey " +
+                        "ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)",
+                resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT)
+                        .row(3L, "F", 1L)
+                        .row(5L, "F", 2L)
+                        .row(6L, "F", 2L)
+                        .row(null, "F", 1L)
+                        .row(34L, "O", 1L)
+                        .row(null, "O", 1L)
+                        .row(1L, null, 1L)
+                        .row(7L, null, 2L)
+                        .row(null, null, 1L)
+                        .row(null, null, 0L)
+                        .build());
+    }
+
+    @Test
+    public void testSlidingFrameNonFiniteValues()
+    {
+        MaterializedResult actual = queryRunner.execute("" +
+                "SELECT x, sum(v) OVER (ORDER BY x ROWS BETWEEN 1 PRECEDING AND CURRENT ROW) " +
+                "FROM (VALUES (1, 1.0), (2, infinity()), (3, 2.0), (4, 3.0), (5, nan()), (6, 4.0), (7, 5.0)) t(x, v) " +
+                "ORDER BY x");
+        List<Double> sums = actual.getMaterializedRows().stream()
+                .map(row -> (Double) row.getField(1))
+                .collect(toImmutableList());
+
+        assertEquals(sums.subList(0, 3), ImmutableList.of(1.0, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY));
+        assertEquals(sums.get(3), 5.0);
+        assertTrue(sums.get(4).isNaN());
+        assertTrue(sums.get(5).isNaN());
+        assertEquals(sums.get(6), 9.0);
+    }
+
+    @Test
+    public void testSlidingFrameMixedMagnitudes()
+    {
+        // the large value absorbs the small ones, so subtracting it out again would lose them
+        MaterializedResult actual = queryRunner.execute("" +
+                "SELECT x,\n" +
+                "  sum(d) OVER (ORDER BY x ROWS BETWEEN 1 PRECEDING AND CURRENT ROW),\n" +
+                "  avg(d) OVER (ORDER BY x ROWS BETWEEN 1 PRECEDING AND CURRENT ROW),\n" +
+                "  avg(b) OVER (ORDER BY x ROWS BETWEEN 1 PRECEDING AND CURRENT ROW),\n" +
+                "  var_pop(d) OVER (ORDER BY x ROWS BETWEEN 2 PRECEDING AND CURRENT ROW),\n" +
+                "  sum(b) OVER (ORDER BY x ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)\n" +
+                "FROM (VALUES (1, 1e20, BIGINT '100000000000000000'), (2, 1.0, BIGINT '1'), (3, 1.0, BIGINT '1'), (4, 2.0, BIGINT '2'), (5, 3.0, BIGINT '3')) t(x, d, b)\n" +
+                "ORDER BY x");
+        List<MaterializedRow> rows = actual.getMaterializedRows();
+
+        assertEquals(rows.get(2).getField(1), 2.0);
+        assertEquals(rows.get(3).getField(1), 3.0);
+        assertEquals(rows.get(2).getField(2), 1.0);
+        assertEquals(rows.get(3).getField(2), 1.5);
+        assertEquals(rows.get(2).getField(3), 1.0);
+        assertEquals(rows.get(3).getField(3), 1.5);
+        assertEquals((double) rows.get(4).getField(4), 2.0 / 3, 1e-12);
+        assertEquals(rows.get(2).getField(5), 2L);
+        assertEquals(rows.get(4).getField(5), 5L);
+    }
+
+    @Test
+    public void testLargeSlidingFrame()
+    {
+        int rows = 1000;
+        MaterializedResult actual = queryRunner.execute("" +
+                "SELECT x,\n" +
+                "  sum(v) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND 10 FOLLOWING),\n" +
+                "  count(v) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND 10 FOLLOWING),\n" +
+                "  min(v) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND 10 FOLLOWING),\n" +
+                "  max(v) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND 10 FOLLOWING),\n" +
+                "  var_pop(v) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND 10 FOLLOWING)\n" +
+                "FROM (\n" +
+                "  SELECT x, IF(x % 10 = 0, NULL, (x * 7) % 37) v\n" +
+                "  FROM UNNEST(sequence(1, " + rows + ")) t(x))\n" +
+                "ORDER BY x");
+        assertEquals(actual.getRowCount(), rows);
+
+        for (MaterializedRow row : actual.getMaterializedRows()) {
+            long x = (Long) row.getField(0);
+            long sum = 0;
+            long count = 0;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long y = Math.max(1, x - 99); y <= Math.min(rows, x + 10); y++) {
+                if (y % 10 != 0) {
+                    long value = (y * 7) % 37;
+                    sum += value;
+                    count++;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            double mean = (double) sum / count;
+            double squares = 0;
+            for (long y = Math.max(1, x - 99); y <= Math.min(rows, x + 10); y++) {
+                if (y % 10 != 0) {
+                    double delta = (y * 7) % 37 - mean;
+                    squares += delta * delta;
+                }
+            }
+
+            assertEquals(row.getField(1), sum, "sum for row " + x);
+            assertEquals(row.getField(2), count, "count for row " + x);
+            assertEquals(row.getField(3), min, "min for row " + x);
+            assertEquals(row.getField(4), max, "max for row " + x);
+            assertEquals((double) row.getField(5), squares / count, 1e-9, "var_pop for row " + x);
+        }
+    }
 }
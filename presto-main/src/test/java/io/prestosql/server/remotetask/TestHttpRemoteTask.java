@@ -26,6 +26,7 @@ import io.airlift.jaxrs.JsonMapper;
 import io.airlift.jaxrs.testing.JaxrsTestingHttpProcessor;
 import io.airlift.json.JsonCodec;
 import io.airlift.json.JsonModule;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.OutputBuffers;
 import io.prestosql.TaskSource;
@@ -41,6 +42,7 @@ import io.prestosql.execution.TaskManagerConfig;
 import io.prestosql.execution.TaskState;
 import io.prestosql.execution.TaskStatus;
 import io.prestosql.execution.TaskTestUtils;
+import io.prestosql.execution.buffer.OutputBufferInfo;
 import io.prestosql.execution.TestSqlTaskManager;
 import io.prestosql.metadata.HandleJsonModule;
 import io.prestosql.metadata.HandleResolver;
@@ -52,6 +54,7 @@ import io.prestosql.spi.ErrorCode;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
 import io.prestosql.sql.analyzer.FeaturesConfig;
+import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.TestingHandleResolver;
 import io.prestosql.testing.TestingSplit;
@@ -72,6 +75,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
@@ -88,10 +92,12 @@ import static com.google.inject.multibindings.Multibinder.newSetBinder;
 import static io.airlift.configuration.ConfigBinder.configBinder;
 import static io.airlift.json.JsonBinder.jsonBinder;
 import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
+import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CURRENT_STATE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_WAIT;
+import static io.prestosql.client.PrestoHeaders.PRESTO_TASK_INFO_FINGERPRINT;
 import static io.prestosql.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
 import static io.prestosql.spi.StandardErrorCode.REMOTE_TASK_ERROR;
 import static io.prestosql.spi.StandardErrorCode.REMOTE_TASK_MISMATCH;
@@ -102,6 +108,7 @@ import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
 public class TestHttpRemoteTask
@@ -157,6 +164,15 @@ public class TestHttpRemoteTask
         poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID) != null);
         poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).getSplits().size() == 1);
 
+        // the fragment is encoded once by the factory and decoded from the task update request by the worker
+        PlanFragment planFragment = testingTaskResource.getPlanFragment();
+        assertNotNull(planFragment);
+        assertEquals(planFragment.getId(), TaskTestUtils.PLAN_FRAGMENT.getId());
+        assertEquals(planFragment.getRoot().getId(), TaskTestUtils.PLAN_FRAGMENT.getRoot().getId());
+        assertEquals(planFragment.getSymbols(), TaskTestUtils.PLAN_FRAGMENT.getSymbols());
+        assertEquals(planFragment.getPartitioning(), TaskTestUtils.PLAN_FRAGMENT.getPartitioning());
+        assertEquals(planFragment.getPartitionedSources(), TaskTestUtils.PLAN_FRAGMENT.getPartitionedSources());
+
         remoteTask.noMoreSplits(TABLE_SCAN_NODE_ID, lifespan);
         poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).getNoMoreSplitsForLifespan().size() == 1);
 
@@ -170,6 +186,36 @@ public class TestHttpRemoteTask
         httpRemoteTaskFactory.stop();
     }
 
+    @Test(timeOut = 30000)
+    public void testTaskInfoNotModified()
+            throws Exception
+    {
+        AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
+        TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, FailureScenario.NO_FAILURE);
+
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+
+        RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
+
+        testingTaskResource.setInitialTaskInfo(remoteTask.getTaskInfo());
+        remoteTask.start();
+
+        // the task makes no progress, so the worker answers info requests with Not Modified
+        poll(() -> testingTaskResource.getNotModifiedResponses() > 0);
+
+        // progress is picked up, and a memory reservation that is rounded in JSON does not defeat Not Modified afterwards
+        testingTaskResource.setProgress(42, succinctBytes(12_345_678));
+        poll(() -> remoteTask.getTaskInfo().getOutputBuffers().getTotalRowsSent() == 42);
+        assertEquals(remoteTask.getTaskInfo().getTaskStatus().getMemoryReservation().toString(), succinctBytes(12_345_678).toString());
+        long notModifiedResponses = testingTaskResource.getNotModifiedResponses();
+        poll(() -> testingTaskResource.getNotModifiedResponses() > notModifiedResponses);
+
+        remoteTask.cancel();
+        poll(() -> remoteTask.getTaskInfo().getTaskStatus().getState().isDone());
+
+        httpRemoteTaskFactory.stop();
+    }
+
     private void runTest(FailureScenario failureScenario)
             throws Exception
     {
@@ -237,6 +283,7 @@ public class TestHttpRemoteTask
                         jsonCodecBinder(binder).bindJsonCodec(TaskStatus.class);
                         jsonCodecBinder(binder).bindJsonCodec(TaskInfo.class);
                         jsonCodecBinder(binder).bindJsonCodec(TaskUpdateRequest.class);
+                        jsonCodecBinder(binder).bindJsonCodec(PlanFragment.class);
                     }
 
                     @Provides
@@ -244,11 +291,13 @@ public class TestHttpRemoteTask
                             JsonMapper jsonMapper,
                             JsonCodec<TaskStatus> taskStatusCodec,
                             JsonCodec<TaskInfo> taskInfoCodec,
-                            JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec)
+                            JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+                            JsonCodec<PlanFragment> planFragmentCodec)
                     {
                         JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper);
                         TestingHttpClient testingHttpClient = new TestingHttpClient(jaxrsTestingHttpProcessor.setTrace(TRACE_HTTP));
                         testingTaskResource.setHttpClient(testingHttpClient);
+                        testingTaskResource.setPlanFragmentCodec(planFragmentCodec);
                         return new HttpRemoteTaskFactory(
                                 new QueryManagerConfig(),
                                 TASK_MANAGER_CONFIG,
@@ -257,6 +306,7 @@ public class TestHttpRemoteTask
                                 taskStatusCodec,
                                 taskInfoCodec,
                                 taskUpdateRequestCodec,
+                                planFragmentCodec,
                                 new RemoteTaskStats());
                     }
                 });
@@ -322,6 +372,8 @@ public class TestHttpRemoteTask
         private final FailureScenario failureScenario;
 
         private AtomicReference<TestingHttpClient> httpClient = new AtomicReference<>();
+        private AtomicReference<JsonCodec<PlanFragment>> planFragmentCodec = new AtomicReference<>();
+        private PlanFragment planFragment;
 
         private TaskInfo initialTaskInfo;
         private TaskStatus initialTaskStatus;
@@ -330,6 +382,9 @@ public class TestHttpRemoteTask
         private String taskInstanceId = INITIAL_TASK_INSTANCE_ID;
 
         private long statusFetchCounter;
+        private long notModifiedResponses;
+        private long totalRowsSent;
+        private DataSize memoryReservation;
 
         public TestingTaskResource(AtomicLong lastActivityNanos, FailureScenario failureScenario)
         {
@@ -342,17 +397,28 @@ public class TestHttpRemoteTask
             httpClient.set(newValue);
         }
 
+        public void setPlanFragmentCodec(JsonCodec<PlanFragment> newValue)
+        {
+            planFragmentCodec.set(newValue);
+        }
+
         @GET
         @Path("{taskId}")
         @Produces(MediaType.APPLICATION_JSON)
-        public synchronized TaskInfo getTaskInfo(
+        public synchronized Response getTaskInfo(
                 @PathParam("taskId") final TaskId taskId,
                 @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
                 @HeaderParam(PRESTO_MAX_WAIT) Duration maxWait,
+                @HeaderParam(PRESTO_TASK_INFO_FINGERPRINT) String fingerprint,
                 @Context UriInfo uriInfo)
         {
             lastActivityNanos.set(System.nanoTime());
-            return buildTaskInfo();
+            TaskInfo taskInfo = buildTaskInfo();
+            if (fingerprint != null && !taskInfo.getTaskStatus().getState().isDone() && fingerprint.equals(taskInfo.getProgressFingerprint())) {
+                notModifiedResponses++;
+                return Response.notModified().build();
+            }
+            return Response.ok(taskInfo).build();
         }
 
         Map<PlanNodeId, TaskSource> taskSourceMap = new HashMap<>();
@@ -366,6 +432,8 @@ public class TestHttpRemoteTask
                 TaskUpdateRequest taskUpdateRequest,
                 @Context UriInfo uriInfo)
         {
+            // decode the fragment the same way TaskResource does
+            taskUpdateRequest.decodeFragment(planFragmentCodec.get()).ifPresent(fragment -> planFragment = fragment);
             for (TaskSource source : taskUpdateRequest.getSources()) {
                 taskSourceMap.compute(source.getPlanNodeId(), (planNodeId, taskSource) -> taskSource == null ? source : taskSource.update(source));
             }
@@ -373,6 +441,11 @@ public class TestHttpRemoteTask
             return buildTaskInfo();
         }
 
+        public synchronized PlanFragment getPlanFragment()
+        {
+            return planFragment;
+        }
+
         public synchronized TaskSource getTaskSource(PlanNodeId planNodeId)
         {
             TaskSource source = taskSourceMap.get(planNodeId);
@@ -418,6 +491,8 @@ public class TestHttpRemoteTask
             this.initialTaskStatus = initialTaskInfo.getTaskStatus();
             this.taskState = initialTaskStatus.getState();
             this.version = initialTaskStatus.getVersion();
+            this.totalRowsSent = initialTaskInfo.getOutputBuffers().getTotalRowsSent();
+            this.memoryReservation = initialTaskStatus.getMemoryReservation();
             switch (failureScenario) {
                 case TASK_MISMATCH_WHEN_VERSION_IS_HIGH:
                     // Make the initial version large enough.
@@ -433,12 +508,33 @@ public class TestHttpRemoteTask
             }
         }
 
+        public synchronized void setProgress(long totalRowsSent, DataSize memoryReservation)
+        {
+            this.totalRowsSent = totalRowsSent;
+            this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
+        }
+
+        public synchronized long getNotModifiedResponses()
+        {
+            return notModifiedResponses;
+        }
+
         private TaskInfo buildTaskInfo()
         {
+            OutputBufferInfo outputBuffers = initialTaskInfo.getOutputBuffers();
             return new TaskInfo(
                     buildTaskStatus(),
                     initialTaskInfo.getLastHeartbeat(),
-                    initialTaskInfo.getOutputBuffers(),
+                    new OutputBufferInfo(
+                            outputBuffers.getType(),
+                            outputBuffers.getState(),
+                            outputBuffers.isCanAddBuffers(),
+                            outputBuffers.isCanAddPages(),
+                            outputBuffers.getTotalBufferedBytes(),
+                            outputBuffers.getTotalBufferedPages(),
+                            totalRowsSent,
+                            outputBuffers.getTotalPagesSent(),
+                            outputBuffers.getBuffers()),
                     initialTaskInfo.getNoMoreSplits(),
                     initialTaskInfo.getStats(),
                     initialTaskInfo.isNeedsPlan());
@@ -481,7 +577,7 @@ public class TestHttpRemoteTask
                     initialTaskStatus.getRunningPartitionedDrivers(),
                     initialTaskStatus.isOutputBufferOverutilized(),
                     initialTaskStatus.getPhysicalWrittenDataSize(),
-                    initialTaskStatus.getMemoryReservation(),
+                    memoryReservation,
                     initialTaskStatus.getSystemMemoryReservation(),
                     initialTaskStatus.getFullGcCount(),
                     initialTaskStatus.getFullGcTime());
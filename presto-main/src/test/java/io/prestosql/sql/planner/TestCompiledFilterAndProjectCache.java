@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.CompiledFilterAndProjectCache.CompiledFilterAndProject;
+import io.prestosql.sql.tree.Expression;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.TimeZoneKey.getTimeZoneKey;
+import static io.prestosql.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class TestCompiledFilterAndProjectCache
+{
+    private static final Map<Integer, Type> INPUT_TYPES = ImmutableMap.of(0, BIGINT);
+    private static final Optional<Expression> FILTER = Optional.of(expression("a > 5"));
+    private static final List<Expression> PROJECTIONS = ImmutableList.of(expression("a + 1"));
+
+    @Test
+    public void testReuse()
+    {
+        CompiledFilterAndProjectCache cache = new CompiledFilterAndProjectCache(100);
+        CountingCompiler compiler = new CountingCompiler();
+
+        CompiledFilterAndProject compiled = cache.get(TEST_SESSION, FILTER, PROJECTIONS, INPUT_TYPES, true, compiler);
+        assertSame(cache.get(TEST_SESSION, FILTER, PROJECTIONS, INPUT_TYPES, true, compiler), compiled);
+        assertEquals(compiler.getCompilations(), 1);
+
+        cache.get(TEST_SESSION, Optional.of(expression("a > 6")), PROJECTIONS, INPUT_TYPES, true, compiler);
+        cache.get(TEST_SESSION, FILTER, PROJECTIONS, INPUT_TYPES, false, compiler);
+        cache.get(TEST_SESSION, FILTER, PROJECTIONS, ImmutableMap.of(1, BIGINT), true, compiler);
+        assertEquals(compiler.getCompilations(), 4);
+        assertEquals(cache.size(), 4);
+    }
+
+    @Test
+    public void testSessionTimeZone()
+    {
+        CompiledFilterAndProjectCache cache = new CompiledFilterAndProjectCache(100);
+        CountingCompiler compiler = new CountingCompiler();
+        Session session = Session.builder(TEST_SESSION)
+                .setTimeZoneKey(getTimeZoneKey("Asia/Kathmandu"))
+                .build();
+
+        cache.get(TEST_SESSION, FILTER, PROJECTIONS, INPUT_TYPES, true, compiler);
+        cache.get(session, FILTER, PROJECTIONS, INPUT_TYPES, true, compiler);
+        assertEquals(compiler.getCompilations(), 2);
+    }
+
+    @Test
+    public void testSessionDependentExpressionsNotCached()
+    {
+        CompiledFilterAndProjectCache cache = new CompiledFilterAndProjectCache(100);
+        CountingCompiler compiler = new CountingCompiler();
+        Optional<Expression> filter = Optional.of(expression("a > to_unixtime(now())"));
+
+        cache.get(TEST_SESSION, filter, PROJECTIONS, INPUT_TYPES, true, compiler);
+        cache.get(TEST_SESSION, filter, PROJECTIONS, INPUT_TYPES, true, compiler);
+        assertEquals(compiler.getCompilations(), 2);
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        CompiledFilterAndProjectCache cache = new CompiledFilterAndProjectCache(0);
+        CountingCompiler compiler = new CountingCompiler();
+
+        cache.get(TEST_SESSION, FILTER, PROJECTIONS, INPUT_TYPES, true, compiler);
+        cache.get(TEST_SESSION, FILTER, PROJECTIONS, INPUT_TYPES, true, compiler);
+        assertEquals(compiler.getCompilations(), 2);
+    }
+
+    private static class CountingCompiler
+            implements Supplier<CompiledFilterAndProject>
+    {
+        private final AtomicInteger compilations = new AtomicInteger();
+
+        @Override
+        public CompiledFilterAndProject get()
+        {
+            compilations.incrementAndGet();
+            return new CompiledFilterAndProject(Optional.empty(), () -> null, ImmutableList.of(BIGINT));
+        }
+
+        public int getCompilations()
+        {
+            return compilations.get();
+        }
+    }
+}
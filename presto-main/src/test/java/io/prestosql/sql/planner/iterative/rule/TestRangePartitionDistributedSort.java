@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.cost.PlanNodeStatsEstimate;
+import io.prestosql.cost.SymbolStatsEstimate;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.Partitioning;
+import io.prestosql.sql.planner.PartitioningScheme;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import org.testng.annotations.Test;
+
+import static io.prestosql.SystemSessionProperties.DISTRIBUTED_SORT_RANGE_PARTITIONING;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.exchange;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.expression;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.project;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.sort;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.strictProject;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.values;
+import static io.prestosql.sql.planner.plan.ExchangeNode.Scope.REMOTE;
+import static io.prestosql.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+
+public class TestRangePartitionDistributedSort
+        extends BaseRuleTest
+{
+    private static final PlanNodeStatsEstimate VALUES_STATS = PlanNodeStatsEstimate.builder()
+            .setOutputRowCount(1000)
+            .addSymbolStatistics(ImmutableMap.of(new Symbol("key"), new SymbolStatsEstimate(10, 100, 0, 8, 90)))
+            .build();
+
+    @Test
+    public void testRangePartitionsOnFirstSortKey()
+    {
+        tester().assertThat(new RangePartitionDistributedSort())
+                .setSystemProperty(DISTRIBUTED_SORT_RANGE_PARTITIONING, "true")
+                .overrideStats("values", VALUES_STATS)
+                .on(p -> distributedSort(p, BIGINT))
+                .matches(
+                        sort(
+                                strictProject(
+                                        ImmutableMap.of("key", expression("key")),
+                                        exchange(REMOTE, REPARTITION,
+                                                project(
+                                                        ImmutableMap.of("range_position", expression("COALESCE((CAST(key AS double) - 10.0) / 90.0, 0.0)")),
+                                                        values("key"))))));
+    }
+
+    @Test
+    public void testDoesNotFireWhenDisabled()
+    {
+        tester().assertThat(new RangePartitionDistributedSort())
+                .overrideStats("values", VALUES_STATS)
+                .on(p -> distributedSort(p, BIGINT))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireWithoutStatistics()
+    {
+        tester().assertThat(new RangePartitionDistributedSort())
+                .setSystemProperty(DISTRIBUTED_SORT_RANGE_PARTITIONING, "true")
+                .on(p -> distributedSort(p, BIGINT))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireForUnsupportedType()
+    {
+        tester().assertThat(new RangePartitionDistributedSort())
+                .setSystemProperty(DISTRIBUTED_SORT_RANGE_PARTITIONING, "true")
+                .overrideStats("values", VALUES_STATS)
+                .on(p -> distributedSort(p, VARCHAR))
+                .doesNotFire();
+    }
+
+    private static PlanNode distributedSort(PlanBuilder p, Type keyType)
+    {
+        Symbol key = p.symbol("key", keyType);
+        return p.sort(
+                ImmutableList.of(key),
+                p.exchange(e -> e
+                        .type(REPARTITION)
+                        .scope(REMOTE)
+                        .partitioningScheme(new PartitioningScheme(Partitioning.create(FIXED_ARBITRARY_DISTRIBUTION, ImmutableList.of()), ImmutableList.of(key)))
+                        .addSource(p.values(new PlanNodeId("values"), 10, key))
+                        .addInputsSet(key)));
+    }
+}
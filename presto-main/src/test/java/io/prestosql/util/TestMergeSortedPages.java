@@ -14,6 +14,7 @@
 package io.prestosql.util;
 
 import com.google.common.collect.ImmutableList;
+import io.prestosql.RowPagesBuilder;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.operator.DriverYieldSignal;
 import io.prestosql.operator.PageWithPositionComparator;
@@ -25,7 +26,11 @@ import io.prestosql.spi.type.Type;
 import io.prestosql.testing.MaterializedResult;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
@@ -378,6 +383,143 @@ public class TestMergeSortedPages
         assertTrue(mergedPages.isFinished());
     }
 
+    @Test
+    public void testPassThroughDisjointStreams()
+            throws Exception
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        List<Page> firstStream = sequencePages(types, 0, 1000, 300);
+        List<Page> secondStream = sequencePages(types, 1000, 1000, 300);
+        List<Page> thirdStream = sequencePages(types, 2000, 1000, 300);
+
+        List<Page> mergedPages = mergeSortedPagesWithPassThrough(
+                types,
+                ImmutableList.of(0),
+                ImmutableList.of(ASC_NULLS_FIRST),
+                ImmutableList.of(thirdStream, firstStream, secondStream));
+
+        // the streams are concatenated, so no input page is split
+        assertEquals(mergedPages.size(), 12);
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, types);
+        for (long value = 0; value < 3000; value++) {
+            expected.row(value, "value_" + value);
+        }
+        assertEquals(toMaterializedResult(TEST_SESSION, types, mergedPages), expected.build());
+    }
+
+    @Test
+    public void testPassThroughInterleavedStreams()
+            throws Exception
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        Random random = new Random(0);
+        List<List<Page>> streams = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        for (int stream = 0; stream < 5; stream++) {
+            // a mix of long runs and values that interleave with the other streams
+            List<Long> streamValues = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                streamValues.add(random.nextInt(4) == 0 ? random.nextInt(100_000) : stream * 20_000L + random.nextInt(20_000));
+            }
+            Collections.sort(streamValues);
+            values.addAll(streamValues);
+
+            RowPagesBuilder pages = rowPagesBuilder(types);
+            for (int i = 0; i < streamValues.size(); i++) {
+                if (i > 0 && random.nextInt(300) == 0) {
+                    pages.pageBreak();
+                }
+                pages.row(streamValues.get(i), "value_" + streamValues.get(i));
+            }
+            streams.add(pages.build());
+        }
+
+        List<Page> mergedPages = mergeSortedPagesWithPassThrough(types, ImmutableList.of(0), ImmutableList.of(ASC_NULLS_FIRST), streams);
+
+        Collections.sort(values);
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, types);
+        for (long value : values) {
+            expected.row(value, "value_" + value);
+        }
+        assertEquals(toMaterializedResult(TEST_SESSION, types, mergedPages), expected.build());
+    }
+
+    @Test
+    public void testPassThroughEmptyStreams()
+            throws Exception
+    {
+        List<Type> types = ImmutableList.of(INTEGER);
+        List<Page> mergedPages = mergeSortedPagesWithPassThrough(
+                types,
+                ImmutableList.of(0),
+                ImmutableList.of(DESC_NULLS_LAST),
+                ImmutableList.of(
+                        rowPagesBuilder(types).build(),
+                        ImmutableList.<Page>builder()
+                                .add(new Page(INTEGER.createBlockBuilder(null, 0).build()))
+                                .addAll(rowPagesBuilder(types)
+                                        .row(2)
+                                        .pageBreak()
+                                        .row(1)
+                                        .row((Object) null)
+                                        .build())
+                                .build(),
+                        rowPagesBuilder(types)
+                                .row(3)
+                                .build()));
+        MaterializedResult expected = resultBuilder(TEST_SESSION, types)
+                .row(3)
+                .row(2)
+                .row(1)
+                .row((Object) null)
+                .build();
+        assertEquals(toMaterializedResult(TEST_SESSION, types, mergedPages), expected);
+    }
+
+    private static List<Page> sequencePages(List<Type> types, long start, int count, int pageSize)
+    {
+        RowPagesBuilder pages = rowPagesBuilder(types);
+        for (long value = start; value < start + count; value++) {
+            if (value > start && (value - start) % pageSize == 0) {
+                pages.pageBreak();
+            }
+            pages.row(value, "value_" + value);
+        }
+        return pages.build();
+    }
+
+    private static List<Page> mergeSortedPagesWithPassThrough(
+            List<Type> types,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            List<List<Page>> sortedPages)
+    {
+        List<WorkProcessor<Page>> pageProducers = sortedPages.stream()
+                .map(WorkProcessor::fromIterable)
+                .collect(toImmutableList());
+        PageWithPositionComparator comparator = new SimplePageWithPositionComparator(types, sortChannels, sortOrder);
+
+        AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newAggregatedMemoryContext();
+        WorkProcessor<Page> mergedPages = MergeSortedPages.mergeSortedPagesWithPassThrough(
+                pageProducers,
+                comparator,
+                IntStream.range(0, types.size()).boxed().collect(toImmutableList()),
+                types,
+                memoryContext,
+                new DriverYieldSignal());
+
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        while (true) {
+            assertTrue(mergedPages.process());
+            if (mergedPages.isFinished()) {
+                break;
+            }
+            pages.add(mergedPages.getResult());
+        }
+        assertEquals(memoryContext.getBytes(), 0L);
+        return pages.build();
+    }
+
     private static MaterializedResult mergeSortedPages(
             List<Type> types,
             List<Integer> sortChannels,
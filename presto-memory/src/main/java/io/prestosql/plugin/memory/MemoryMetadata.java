@@ -51,6 +51,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -81,6 +82,9 @@ public class MemoryMetadata
     private final Map<SchemaTableName, Long> tableIds = new HashMap<>();
     private final Map<Long, MemoryTableHandle> tables = new HashMap<>();
     private final Map<Long, Map<HostAddress, MemoryDataFragment>> tableDataFragments = new HashMap<>();
+    // versions are unique across tables, so a table that is dropped and created again does not reuse a version
+    private final Map<Long, Long> tableVersions = new HashMap<>();
+    private long nextTableVersion;
     private final Map<SchemaTableName, String> views = new HashMap<>();
 
     @Inject
@@ -180,6 +184,7 @@ public class MemoryMetadata
         if (tableId != null) {
             tables.remove(tableId);
             tableDataFragments.remove(tableId);
+            tableVersions.remove(tableId);
         }
     }
 
@@ -224,6 +229,7 @@ public class MemoryMetadata
                 tableMetadata);
         tables.put(table.getTableId(), table);
         tableDataFragments.put(table.getTableId(), new HashMap<>());
+        tableVersions.put(table.getTableId(), nextTableVersion++);
 
         return new MemoryOutputTableHandle(table, ImmutableSet.copyOf(tableIds.values()));
     }
@@ -329,6 +335,17 @@ public class MemoryMetadata
             MemoryDataFragment memoryDataFragment = MemoryDataFragment.fromSlice(fragment);
             dataFragments.merge(memoryDataFragment.getHostAddress(), memoryDataFragment, MemoryDataFragment::merge);
         }
+        tableVersions.put(table.getTableId(), nextTableVersion++);
+    }
+
+    @Override
+    public synchronized OptionalLong getTableVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        Long version = tableVersions.get(((MemoryTableHandle) tableHandle).getTableId());
+        if (version == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(version);
     }
 
     @Override
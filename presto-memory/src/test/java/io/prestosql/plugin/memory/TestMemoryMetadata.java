@@ -35,12 +35,14 @@ import org.testng.annotations.Test;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static io.prestosql.spi.StandardErrorCode.ALREADY_EXISTS;
 import static io.prestosql.spi.StandardErrorCode.NOT_FOUND;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.expectThrows;
@@ -131,6 +133,32 @@ public class TestMemoryMetadata
         assertTrue(metadata.beginInsert(SESSION, secondTableHandle).getActiveTableIds().contains(secondTableId));
     }
 
+    @Test
+    public void testTableVersion()
+    {
+        assertNoTables();
+
+        SchemaTableName tableName = new SchemaTableName("default", "versioned_table");
+        metadata.createTable(SESSION, new ConnectorTableMetadata(tableName, ImmutableList.of(), ImmutableMap.of()), false);
+        ConnectorTableHandle tableHandle = metadata.getTableHandle(SESSION, tableName);
+        OptionalLong createdVersion = metadata.getTableVersion(SESSION, tableHandle);
+        assertTrue(createdVersion.isPresent());
+        assertEquals(metadata.getTableVersion(SESSION, tableHandle), createdVersion);
+
+        metadata.finishInsert(SESSION, metadata.beginInsert(SESSION, tableHandle), ImmutableList.of(), ImmutableList.of());
+        OptionalLong insertedVersion = metadata.getTableVersion(SESSION, tableHandle);
+        assertTrue(insertedVersion.isPresent());
+        assertNotEquals(insertedVersion, createdVersion);
+
+        // a table created again under the same name does not reuse a version
+        metadata.dropTable(SESSION, tableHandle);
+        assertFalse(metadata.getTableVersion(SESSION, tableHandle).isPresent());
+        metadata.createTable(SESSION, new ConnectorTableMetadata(tableName, ImmutableList.of(), ImmutableMap.of()), false);
+        OptionalLong recreatedVersion = metadata.getTableVersion(SESSION, metadata.getTableHandle(SESSION, tableName));
+        assertNotEquals(recreatedVersion, createdVersion);
+        assertNotEquals(recreatedVersion, insertedVersion);
+    }
+
     @Test
     public void testReadTableBeforeCreationCompleted()
     {
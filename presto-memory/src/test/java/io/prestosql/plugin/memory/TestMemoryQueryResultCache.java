@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.memory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import io.airlift.units.Duration;
+import io.prestosql.Session;
+import io.prestosql.server.protocol.QueryResultCache;
+import io.prestosql.spi.Plugin;
+import io.prestosql.spi.eventlistener.EventListener;
+import io.prestosql.spi.eventlistener.EventListenerFactory;
+import io.prestosql.spi.eventlistener.QueryCompletedEvent;
+import io.prestosql.spi.eventlistener.QueryCreatedEvent;
+import io.prestosql.testing.MaterializedResult;
+import io.prestosql.tests.DistributedQueryRunner;
+import org.intellij.lang.annotations.Language;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static io.airlift.testing.Assertions.assertContains;
+import static io.prestosql.testing.TestingAccessControlManager.TestingPrivilegeType.SELECT_COLUMN;
+import static io.prestosql.testing.TestingAccessControlManager.privilege;
+import static io.prestosql.testing.TestingSession.testSessionBuilder;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestMemoryQueryResultCache
+{
+    private static final Duration TIMEOUT = new Duration(10, SECONDS);
+
+    private final List<QueryCreatedEvent> createdEvents = new CopyOnWriteArrayList<>();
+    private final List<QueryCompletedEvent> completedEvents = new CopyOnWriteArrayList<>();
+
+    private DistributedQueryRunner queryRunner;
+    private QueryResultCache resultCache;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        Session session = testSessionBuilder()
+                .setCatalog("memory")
+                .setSchema("default")
+                .build();
+        queryRunner = DistributedQueryRunner.builder(session)
+                .setNodeCount(2)
+                .setSingleCoordinatorProperty("query-result-cache.enabled", "true")
+                .build();
+        queryRunner.installPlugin(new MemoryPlugin());
+        queryRunner.createCatalog("memory", "memory", ImmutableMap.of());
+        queryRunner.installPlugin(new RecordingEventListenerPlugin(createdEvents, completedEvents));
+        resultCache = queryRunner.getCoordinator().getInstance(Key.get(QueryResultCache.class));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        queryRunner.close();
+        queryRunner = null;
+        resultCache = null;
+    }
+
+    @Test
+    public void testHitAndMiss()
+    {
+        createTable("test_hit_miss");
+        @Language("SQL") String sql = "SELECT x FROM test_hit_miss ORDER BY x";
+
+        long hits = resultCache.getHits();
+        long misses = resultCache.getMisses();
+        MaterializedResult expected = execute(sql);
+        assertEquals(resultCache.getMisses(), misses + 1);
+        assertEquals(resultCache.getHits(), hits);
+
+        MaterializedResult cached = execute(sql);
+        assertEquals(resultCache.getHits(), hits + 1);
+        assertEquals(cached.getMaterializedRows(), expected.getMaterializedRows());
+
+        // a different query text is not served from the cache
+        execute("SELECT x + 1 FROM test_hit_miss ORDER BY 1");
+        assertEquals(resultCache.getHits(), hits + 1);
+    }
+
+    @Test
+    public void testInvalidationAfterWrite()
+    {
+        createTable("test_invalidation");
+        @Language("SQL") String sql = "SELECT count(*) FROM test_invalidation";
+        assertEquals(execute(sql).getOnlyValue(), 3L);
+
+        long invalidations = resultCache.getInvalidations();
+        long hits = resultCache.getHits();
+        queryRunner.execute("INSERT INTO test_invalidation VALUES 4");
+
+        assertEquals(execute(sql).getOnlyValue(), 4L);
+        assertEquals(resultCache.getInvalidations(), invalidations + 1);
+        assertEquals(resultCache.getHits(), hits);
+
+        // the new results are cached again
+        assertEquals(execute(sql).getOnlyValue(), 4L);
+        assertEquals(resultCache.getHits(), hits + 1);
+    }
+
+    @Test
+    public void testAccessControlCheckedOnHit()
+    {
+        createTable("test_access");
+        @Language("SQL") String sql = "SELECT x FROM test_access ORDER BY x";
+        execute(sql);
+
+        long hits = resultCache.getHits();
+        queryRunner.getAccessControl().deny(privilege("test_access", SELECT_COLUMN));
+        try {
+            queryRunner.execute(sql);
+            fail("expected access to be denied");
+        }
+        catch (RuntimeException e) {
+            assertContains(e.getMessage(), "Access Denied");
+        }
+        finally {
+            queryRunner.getAccessControl().reset();
+        }
+        assertEquals(resultCache.getHits(), hits);
+
+        execute(sql);
+        assertEquals(resultCache.getHits(), hits + 1);
+    }
+
+    @Test
+    public void testEventsForCachedQuery()
+    {
+        createTable("test_events");
+        @Language("SQL") String sql = "SELECT x FROM test_events ORDER BY x";
+        long hits = resultCache.getHits();
+        execute(sql);
+        execute(sql);
+        assertEquals(resultCache.getHits(), hits + 1);
+
+        waitUntil(() -> countCompleted(sql) == 2);
+        assertEquals(createdEvents.stream().filter(event -> event.getMetadata().getQuery().equals(sql)).count(), 2);
+
+        QueryCompletedEvent cached = completedEvents.stream()
+                .filter(event -> event.getMetadata().getQuery().equals(sql))
+                .reduce((first, second) -> second)
+                .get();
+        assertEquals(cached.getMetadata().getQueryState(), "FINISHED");
+        assertEquals(cached.getIoMetadata().getInputs().size(), 1);
+        assertEquals(cached.getIoMetadata().getInputs().get(0).getTable(), "test_events");
+        assertFalse(cached.getFailureInfo().isPresent());
+    }
+
+    @Test
+    public void testQueryOnViewNotCached()
+    {
+        createTable("test_view_base");
+        queryRunner.execute("CREATE VIEW test_nondeterministic_view AS SELECT x, random() r, current_date d FROM test_view_base");
+        @Language("SQL") String sql = "SELECT x FROM test_nondeterministic_view WHERE r >= 0 AND d IS NOT NULL ORDER BY x";
+
+        long hits = resultCache.getHits();
+        long stores = resultCache.getStores();
+        queryRunner.execute(sql);
+        queryRunner.execute(sql);
+        assertEquals(resultCache.getHits(), hits);
+        assertEquals(resultCache.getStores(), stores);
+    }
+
+    private void createTable(String name)
+    {
+        queryRunner.execute(format("CREATE TABLE %s AS SELECT * FROM (VALUES 1, 2, 3) t(x)", name));
+    }
+
+    private MaterializedResult execute(@Language("SQL") String sql)
+    {
+        // results are stored after the client has read them, so wait for the store before the next query
+        long stores = resultCache.getStores();
+        long hits = resultCache.getHits();
+        MaterializedResult result = queryRunner.execute(sql);
+        if (resultCache.getHits() == hits) {
+            waitUntil(() -> resultCache.getStores() > stores);
+        }
+        return result;
+    }
+
+    private long countCompleted(String sql)
+    {
+        return completedEvents.stream()
+                .filter(event -> event.getMetadata().getQuery().equals(sql))
+                .count();
+    }
+
+    private static void waitUntil(BooleanSupplier condition)
+    {
+        long deadline = System.nanoTime() + TIMEOUT.roundTo(NANOSECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within " + TIMEOUT);
+            }
+            try {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static class RecordingEventListenerPlugin
+            implements Plugin
+    {
+        private final List<QueryCreatedEvent> createdEvents;
+        private final List<QueryCompletedEvent> completedEvents;
+
+        public RecordingEventListenerPlugin(List<QueryCreatedEvent> createdEvents, List<QueryCompletedEvent> completedEvents)
+        {
+            this.createdEvents = createdEvents;
+            this.completedEvents = completedEvents;
+        }
+
+        @Override
+        public Iterable<EventListenerFactory> getEventListenerFactories()
+        {
+            return ImmutableList.of(new EventListenerFactory()
+            {
+                @Override
+                public String getName()
+                {
+                    return "recording";
+                }
+
+                @Override
+                public EventListener create(Map<String, String> config)
+                {
+                    return new EventListener()
+                    {
+                        @Override
+                        public void queryCreated(QueryCreatedEvent queryCreatedEvent)
+                        {
+                            createdEvents.add(queryCreatedEvent);
+                        }
+
+                        @Override
+                        public void queryCompleted(QueryCompletedEvent queryCompletedEvent)
+                        {
+                            completedEvents.add(queryCompletedEvent);
+                        }
+                    };
+                }
+            });
+        }
+    }
+}
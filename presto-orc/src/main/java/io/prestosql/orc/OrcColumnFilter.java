@@ -0,0 +1,349 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Marker;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarbinaryType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.prestosql.spi.predicate.Marker.Bound.ABOVE;
+import static io.prestosql.spi.predicate.Marker.Bound.BELOW;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.Decimals.isShortDecimal;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.Varchars.isVarcharType;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates the domain of a single column on decoded values, so that rows can
+ * be discarded before the remaining columns of a batch are decoded. Only
+ * domains of scalar types with a natural order are supported.
+ */
+public abstract class OrcColumnFilter
+{
+    private final boolean nullAllowed;
+
+    private OrcColumnFilter(boolean nullAllowed)
+    {
+        this.nullAllowed = nullAllowed;
+    }
+
+    public static Optional<OrcColumnFilter> createColumnFilter(Type type, Domain domain)
+    {
+        requireNonNull(type, "type is null");
+        requireNonNull(domain, "domain is null");
+
+        if (domain.isAll()) {
+            return Optional.empty();
+        }
+        if (domain.getValues().isNone()) {
+            return Optional.of(new NoneFilter(domain.isNullAllowed()));
+        }
+        if (domain.getValues().isAll()) {
+            return Optional.of(new NotNullFilter());
+        }
+        if (!domain.getType().equals(type)) {
+            return Optional.empty();
+        }
+
+        return domain.getValues().getValuesProcessor().transform(
+                ranges -> createRangesFilter(type, ranges.getOrderedRanges(), domain.isNullAllowed()),
+                discreteValues -> Optional.empty(),
+                allOrNone -> Optional.empty());
+    }
+
+    private static Optional<OrcColumnFilter> createRangesFilter(Type type, List<Range> ranges, boolean nullAllowed)
+    {
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) ||
+                type.equals(DATE) || type.equals(TIMESTAMP) || isShortDecimal(type)) {
+            return Optional.of(new LongRangesFilter(type, ranges, nullAllowed));
+        }
+        if (type.equals(DOUBLE) || type.equals(REAL)) {
+            return Optional.of(new DoubleRangesFilter(type, ranges, nullAllowed));
+        }
+        if (isVarcharType(type) || type instanceof VarbinaryType) {
+            return Optional.of(new SliceRangesFilter(type, ranges, nullAllowed));
+        }
+        if (type.equals(BOOLEAN)) {
+            boolean trueAllowed = ranges.stream().anyMatch(range -> range.includes(Marker.exactly(BOOLEAN, true)));
+            boolean falseAllowed = ranges.stream().anyMatch(range -> range.includes(Marker.exactly(BOOLEAN, false)));
+            return Optional.of(new BooleanFilter(trueAllowed, falseAllowed, nullAllowed));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the positions whose values do not match the domain. The matching
+     * positions are moved to the start of the array in their original order.
+     *
+     * @return the number of matching positions
+     */
+    public int filter(Block block, int[] positions, int positionCount)
+    {
+        int selectedCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            if (block.isNull(position) ? nullAllowed : testValue(block, position)) {
+                positions[selectedCount] = position;
+                selectedCount++;
+            }
+        }
+        return selectedCount;
+    }
+
+    protected abstract boolean testValue(Block block, int position);
+
+    private static final class NoneFilter
+            extends OrcColumnFilter
+    {
+        private NoneFilter(boolean nullAllowed)
+        {
+            super(nullAllowed);
+        }
+
+        @Override
+        protected boolean testValue(Block block, int position)
+        {
+            return false;
+        }
+    }
+
+    private static final class NotNullFilter
+            extends OrcColumnFilter
+    {
+        private NotNullFilter()
+        {
+            super(false);
+        }
+
+        @Override
+        protected boolean testValue(Block block, int position)
+        {
+            return true;
+        }
+    }
+
+    private static final class BooleanFilter
+            extends OrcColumnFilter
+    {
+        private final boolean trueAllowed;
+        private final boolean falseAllowed;
+
+        private BooleanFilter(boolean trueAllowed, boolean falseAllowed, boolean nullAllowed)
+        {
+            super(nullAllowed);
+            this.trueAllowed = trueAllowed;
+            this.falseAllowed = falseAllowed;
+        }
+
+        @Override
+        protected boolean testValue(Block block, int position)
+        {
+            return BOOLEAN.getBoolean(block, position) ? trueAllowed : falseAllowed;
+        }
+    }
+
+    private static final class LongRangesFilter
+            extends OrcColumnFilter
+    {
+        private final Type type;
+        // inclusive bounds of disjoint ranges, ordered by lower bound
+        private final long[] lows;
+        private final long[] highs;
+
+        private LongRangesFilter(Type type, List<Range> ranges, boolean nullAllowed)
+        {
+            super(nullAllowed);
+            this.type = requireNonNull(type, "type is null");
+
+            long[] lows = new long[ranges.size()];
+            long[] highs = new long[ranges.size()];
+            int rangeCount = 0;
+            for (Range range : ranges) {
+                long low = Long.MIN_VALUE;
+                if (!range.getLow().isLowerUnbounded()) {
+                    low = (long) range.getLow().getValue();
+                    if (range.getLow().getBound() == ABOVE) {
+                        if (low == Long.MAX_VALUE) {
+                            continue;
+                        }
+                        low++;
+                    }
+                }
+                long high = Long.MAX_VALUE;
+                if (!range.getHigh().isUpperUnbounded()) {
+                    high = (long) range.getHigh().getValue();
+                    if (range.getHigh().getBound() == BELOW) {
+                        if (high == Long.MIN_VALUE) {
+                            continue;
+                        }
+                        high--;
+                    }
+                }
+                if (low <= high) {
+                    lows[rangeCount] = low;
+                    highs[rangeCount] = high;
+                    rangeCount++;
+                }
+            }
+            this.lows = Arrays.copyOf(lows, rangeCount);
+            this.highs = Arrays.copyOf(highs, rangeCount);
+        }
+
+        @Override
+        protected boolean testValue(Block block, int position)
+        {
+            long value = type.getLong(block, position);
+
+            // find the last range that starts at or before the value
+            int index = Arrays.binarySearch(lows, value);
+            if (index < 0) {
+                index = -index - 2;
+                if (index < 0) {
+                    return false;
+                }
+            }
+            return value <= highs[index];
+        }
+    }
+
+    private static final class DoubleRangesFilter
+            extends OrcColumnFilter
+    {
+        private final Type type;
+        private final List<Range> ranges;
+
+        private DoubleRangesFilter(Type type, List<Range> ranges, boolean nullAllowed)
+        {
+            super(nullAllowed);
+            this.type = requireNonNull(type, "type is null");
+            this.ranges = requireNonNull(ranges, "ranges is null");
+        }
+
+        @Override
+        protected boolean testValue(Block block, int position)
+        {
+            double value = type.equals(REAL) ? intBitsToFloat((int) type.getLong(block, position)) : type.getDouble(block, position);
+            if (Double.isNaN(value)) {
+                // domains do not describe NaN, so leave these rows to the filter of the query
+                return true;
+            }
+            for (Range range : ranges) {
+                Marker low = range.getLow();
+                Marker high = range.getHigh();
+                if (!low.isLowerUnbounded()) {
+                    double lowValue = toDouble(low.getValue());
+                    if (value < lowValue || (value == lowValue && low.getBound() == ABOVE)) {
+                        continue;
+                    }
+                }
+                if (!high.isUpperUnbounded()) {
+                    double highValue = toDouble(high.getValue());
+                    if (value > highValue || (value == highValue && high.getBound() == BELOW)) {
+                        continue;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private double toDouble(Object value)
+        {
+            if (type.equals(REAL)) {
+                return intBitsToFloat(toIntExact((long) value));
+            }
+            return (double) value;
+        }
+    }
+
+    private static final class SliceRangesFilter
+            extends OrcColumnFilter
+    {
+        private final Type type;
+        private final Set<Slice> values;
+        private final List<Range> ranges;
+
+        private SliceRangesFilter(Type type, List<Range> ranges, boolean nullAllowed)
+        {
+            super(nullAllowed);
+            this.type = requireNonNull(type, "type is null");
+            if (ranges.stream().allMatch(Range::isSingleValue)) {
+                this.values = ranges.stream()
+                        .map(range -> (Slice) range.getSingleValue())
+                        .collect(ImmutableSet.toImmutableSet());
+                this.ranges = null;
+            }
+            else {
+                this.values = null;
+                this.ranges = ranges;
+            }
+        }
+
+        @Override
+        protected boolean testValue(Block block, int position)
+        {
+            Slice value = type.getSlice(block, position);
+            if (values != null) {
+                return values.contains(value);
+            }
+            for (Range range : ranges) {
+                Marker low = range.getLow();
+                Marker high = range.getHigh();
+                if (!low.isLowerUnbounded()) {
+                    int compare = value.compareTo((Slice) low.getValue());
+                    if (compare < 0 || (compare == 0 && low.getBound() == ABOVE)) {
+                        continue;
+                    }
+                }
+                if (!high.isUpperUnbounded()) {
+                    int compare = value.compareTo((Slice) high.getValue());
+                    if (compare > 0 || (compare == 0 && high.getBound() == BELOW)) {
+                        continue;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("nullAllowed", nullAllowed)
+                .toString();
+    }
+}
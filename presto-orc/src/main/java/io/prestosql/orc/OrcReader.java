@@ -27,6 +27,7 @@ import io.prestosql.orc.metadata.Metadata;
 import io.prestosql.orc.metadata.PostScript;
 import io.prestosql.orc.metadata.PostScript.HiveWriterVersion;
 import io.prestosql.orc.stream.OrcInputStream;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.type.Type;
 import org.joda.time.DateTimeZone;
 
@@ -235,10 +236,29 @@ public class OrcReader
             DateTimeZone hiveStorageTimeZone,
             AggregatedMemoryContext systemMemoryUsage,
             int initialBatchSize)
+    {
+        return createRecordReader(includedColumns, predicate, ImmutableMap.of(), offset, length, hiveStorageTimeZone, systemMemoryUsage, initialBatchSize);
+    }
+
+    /**
+     * Creates a reader that only returns the rows whose values match the row filters,
+     * which are keyed by column index. Rows may be filtered for some of the columns
+     * only, so callers must still evaluate the filters themselves.
+     */
+    public OrcRecordReader createRecordReader(
+            Map<Integer, Type> includedColumns,
+            OrcPredicate predicate,
+            Map<Integer, Domain> rowFilters,
+            long offset,
+            long length,
+            DateTimeZone hiveStorageTimeZone,
+            AggregatedMemoryContext systemMemoryUsage,
+            int initialBatchSize)
     {
         return new OrcRecordReader(
                 requireNonNull(includedColumns, "includedColumns is null"),
                 requireNonNull(predicate, "predicate is null"),
+                requireNonNull(rowFilters, "rowFilters is null"),
                 footer.getNumberOfRows(),
                 footer.getStripes(),
                 footer.getFileStats(),
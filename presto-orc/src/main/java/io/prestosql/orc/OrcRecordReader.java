@@ -40,6 +40,7 @@ import io.prestosql.orc.reader.StreamReaders;
 import io.prestosql.orc.stream.InputStreamSources;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.type.Type;
 import org.joda.time.DateTimeZone;
 import org.openjdk.jol.info.ClassLayout;
@@ -47,6 +48,7 @@ import org.openjdk.jol.info.ClassLayout;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -56,6 +58,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.orc.OrcColumnFilter.createColumnFilter;
 import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
 import static io.prestosql.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.prestosql.orc.OrcReader.MAX_BATCH_SIZE;
@@ -83,6 +87,11 @@ public class OrcRecordReader
     private final Set<Integer> presentColumns;
     private final long maxBlockBytes;
     private final Map<Integer, Type> includedColumns;
+    // filters evaluated on decoded values before the other columns of a batch are read
+    private final Map<Integer, OrcColumnFilter> columnFilters;
+    private final Block[] filteredBlocks;
+    private int[] selectedPositions = new int[0];
+    private int selectedPositionCount = -1;
     private long currentPosition;
     private long currentStripePosition;
     private int currentBatchSize;
@@ -117,6 +126,7 @@ public class OrcRecordReader
     public OrcRecordReader(
             Map<Integer, Type> includedColumns,
             OrcPredicate predicate,
+            Map<Integer, Domain> rowFilters,
             long numberOfRows,
             List<StripeInformation> fileStripes,
             List<ColumnStatistics> fileStats,
@@ -140,6 +150,7 @@ public class OrcRecordReader
     {
         requireNonNull(includedColumns, "includedColumns is null");
         requireNonNull(predicate, "predicate is null");
+        requireNonNull(rowFilters, "rowFilters is null");
         requireNonNull(fileStripes, "fileStripes is null");
         requireNonNull(stripeStats, "stripeStats is null");
         requireNonNull(orcDataSource, "orcDataSource is null");
@@ -171,6 +182,19 @@ public class OrcRecordReader
         }
         this.presentColumns = presentColumns.build();
 
+        // row filters are only evaluated on columns present in the file, and not while validating
+        // a write, since validation needs every row of the file
+        ImmutableMap.Builder<Integer, OrcColumnFilter> columnFilters = ImmutableMap.builder();
+        if (!writeValidation.isPresent()) {
+            for (Map.Entry<Integer, Domain> entry : rowFilters.entrySet()) {
+                Type type = includedColumns.get(entry.getKey());
+                if (type != null && this.presentColumns.contains(entry.getKey())) {
+                    createColumnFilter(type, entry.getValue()).ifPresent(filter -> columnFilters.put(entry.getKey(), filter));
+                }
+            }
+        }
+        this.columnFilters = columnFilters.build();
+
         this.maxBlockBytes = requireNonNull(maxBlockSize, "maxBlockSize is null").toBytes();
 
         // it is possible that old versions of orc use 0 to mean there are no row groups
@@ -240,6 +264,7 @@ public class OrcRecordReader
 
         streamReaders = createStreamReaders(orcDataSource, types, hiveStorageTimeZone, presentColumnsAndTypes.build(), streamReadersSystemMemoryContext);
         maxBytesPerCell = new long[streamReaders.length];
+        filteredBlocks = new Block[streamReaders.length];
         nextBatchSize = initialBatchSize;
     }
 
@@ -368,9 +393,34 @@ public class OrcRecordReader
         return presentColumns.contains(hiveColumnIndex);
     }
 
+    /**
+     * Advances to the next batch of rows. When row filters are set, batches
+     * without matching rows are skipped, and only the matching rows of the
+     * batch are returned by {@link #readBlock}.
+     *
+     * @return the number of rows in the batch, or -1 when there are no more rows
+     */
     public int nextBatch()
             throws IOException
     {
+        while (true) {
+            int batchSize = nextRowBatch();
+            if (batchSize <= 0 || columnFilters.isEmpty()) {
+                return batchSize;
+            }
+
+            int selectedCount = selectPositions(batchSize);
+            if (selectedCount > 0) {
+                return selectedCount;
+            }
+        }
+    }
+
+    private int nextRowBatch()
+            throws IOException
+    {
+        selectedPositionCount = -1;
+
         // update position for current row group (advancing resets them)
         filePosition += currentBatchSize;
         currentPosition += currentBatchSize;
@@ -409,10 +459,51 @@ public class OrcRecordReader
         return currentBatchSize;
     }
 
+    private int selectPositions(int batchSize)
+            throws IOException
+    {
+        if (selectedPositions.length < batchSize) {
+            selectedPositions = new int[batchSize];
+        }
+        for (int i = 0; i < batchSize; i++) {
+            selectedPositions[i] = i;
+        }
+        Arrays.fill(filteredBlocks, null);
+
+        // filter columns are decoded in full, and each filter is only evaluated on the rows that passed the previous ones
+        int selectedCount = batchSize;
+        for (Map.Entry<Integer, OrcColumnFilter> entry : columnFilters.entrySet()) {
+            int columnIndex = entry.getKey();
+            Block block = streamReaders[columnIndex].readBlock(includedColumns.get(columnIndex));
+            filteredBlocks[columnIndex] = block;
+            selectedCount = entry.getValue().filter(block, selectedPositions, selectedCount);
+            if (selectedCount == 0) {
+                return 0;
+            }
+        }
+
+        if (selectedCount < batchSize) {
+            for (int columnIndex : columnFilters.keySet()) {
+                filteredBlocks[columnIndex] = filteredBlocks[columnIndex].copyPositions(selectedPositions, 0, selectedCount);
+            }
+            selectedPositionCount = selectedCount;
+        }
+        return selectedCount;
+    }
+
     public Block readBlock(Type type, int columnIndex)
             throws IOException
     {
-        Block block = streamReaders[columnIndex].readBlock(type);
+        Block block;
+        if (filteredBlocks[columnIndex] != null) {
+            block = filteredBlocks[columnIndex];
+        }
+        else if (selectedPositionCount >= 0) {
+            block = streamReaders[columnIndex].readBlock(type, selectedPositions, selectedPositionCount);
+        }
+        else {
+            block = streamReaders[columnIndex].readBlock(type);
+        }
         if (block.getPositionCount() > 0) {
             long bytesPerCell = block.getSizeInBytes() / block.getPositionCount();
             if (maxBytesPerCell[columnIndex] < bytesPerCell) {
@@ -645,7 +736,7 @@ public class OrcRecordReader
     @VisibleForTesting
     long getRetainedSizeInBytes()
     {
-        return INSTANCE_SIZE + getStreamReaderRetainedSizeInBytes() + getCurrentStripeRetainedSizeInBytes();
+        return INSTANCE_SIZE + sizeOf(selectedPositions) + getStreamReaderRetainedSizeInBytes() + getCurrentStripeRetainedSizeInBytes();
     }
 
     /**
@@ -35,6 +35,7 @@ import io.prestosql.orc.metadata.statistics.ColumnStatistics;
 import io.prestosql.orc.metadata.statistics.StripeStatistics;
 import io.prestosql.orc.stream.OrcDataOutput;
 import io.prestosql.orc.stream.StreamDataOutput;
+import io.prestosql.orc.writer.BloomFilterBuilder;
 import io.prestosql.orc.writer.ColumnWriter;
 import io.prestosql.orc.writer.SliceDictionaryColumnWriter;
 import io.prestosql.spi.Page;
@@ -52,6 +53,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -59,6 +61,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.orc.OrcEncoding.DWRF;
 import static io.prestosql.orc.OrcReader.validateFile;
 import static io.prestosql.orc.OrcWriterStats.FlushReason.CLOSED;
 import static io.prestosql.orc.OrcWriterStats.FlushReason.DICTIONARY_FULL;
@@ -161,6 +164,8 @@ public class OrcWriter
         this.orcTypes = OrcType.createOrcRowType(0, columnNames, types);
         recordValidation(validation -> validation.setColumnNames(columnNames));
 
+        checkArgument(orcEncoding != DWRF || options.getBloomFilterColumns().isEmpty(), "DWRF does not support bloom filters");
+
         // create column writers
         OrcType rootType = orcTypes.get(0);
         checkArgument(rootType.getFieldCount() == types.size());
@@ -169,7 +174,20 @@ public class OrcWriter
         for (int fieldId = 0; fieldId < types.size(); fieldId++) {
             int fieldColumnIndex = rootType.getFieldTypeIndex(fieldId);
             Type fieldType = types.get(fieldId);
-            ColumnWriter columnWriter = createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, maxCompressionBufferSize, orcEncoding, hiveStorageTimeZone, options.getMaxStringStatisticsLimit());
+            Optional<BloomFilterBuilder> bloomFilterBuilder = Optional.empty();
+            if (options.getBloomFilterColumns().contains(columnNames.get(fieldId))) {
+                bloomFilterBuilder = Optional.of(new BloomFilterBuilder(rowGroupMaxRowCount, options.getBloomFilterFpp()));
+            }
+            ColumnWriter columnWriter = createColumnWriter(
+                    fieldColumnIndex,
+                    orcTypes,
+                    fieldType,
+                    compression,
+                    maxCompressionBufferSize,
+                    orcEncoding,
+                    hiveStorageTimeZone,
+                    options.getMaxStringStatisticsLimit(),
+                    bloomFilterBuilder);
             columnWriters.add(columnWriter);
 
             if (columnWriter instanceof SliceDictionaryColumnWriter) {
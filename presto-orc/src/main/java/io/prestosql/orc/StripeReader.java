@@ -147,15 +147,16 @@ public class StripeReader
             // read the file regions
             Map<StreamId, OrcInputStream> streamsData = readDiskRanges(stripe.getOffset(), diskRanges, systemMemoryUsage);
 
-            // read the bloom filter for each column
-            Map<StreamId, List<HiveBloomFilter>> bloomFilterIndexes = readBloomFilterIndexes(streams, streamsData);
-
             // read the row index for each column
-            Map<StreamId, List<RowGroupIndex>> columnIndexes = readColumnIndexes(streams, streamsData, bloomFilterIndexes);
+            Map<StreamId, List<RowGroupIndex>> columnIndexes = readColumnIndexes(streams, streamsData);
             if (writeValidation.isPresent()) {
+                // the writer does not record bloom filters with the row group statistics, so validate before adding them
                 writeValidation.get().validateRowGroupStatistics(orcDataSource.getId(), stripe.getOffset(), columnIndexes);
             }
 
+            // read the bloom filter for each column and attach it to the row group statistics
+            columnIndexes = addBloomFilters(columnIndexes, readBloomFilterIndexes(streams, streamsData));
+
             // select the row groups matching the tuple domain
             Set<Integer> selectedRowGroups = selectRowGroups(stripe, columnIndexes);
 
@@ -400,14 +401,15 @@ public class StripeReader
             Stream stream = entry.getValue();
             if (stream.getStreamKind() == BLOOM_FILTER) {
                 OrcInputStream inputStream = streamsData.get(entry.getKey());
-                bloomFilters.put(entry.getKey(), metadataReader.readBloomFilterIndexes(inputStream));
+                // key by the row index stream of the column, which the bloom filters are attached to
+                bloomFilters.put(new StreamId(stream.getColumn(), stream.getSequence(), ROW_INDEX), metadataReader.readBloomFilterIndexes(inputStream));
             }
             // TODO: add support for BLOOM_FILTER_UTF8
         }
         return bloomFilters.build();
     }
 
-    private Map<StreamId, List<RowGroupIndex>> readColumnIndexes(Map<StreamId, Stream> streams, Map<StreamId, OrcInputStream> streamsData, Map<StreamId, List<HiveBloomFilter>> bloomFilterIndexes)
+    private Map<StreamId, List<RowGroupIndex>> readColumnIndexes(Map<StreamId, Stream> streams, Map<StreamId, OrcInputStream> streamsData)
             throws IOException
     {
         ImmutableMap.Builder<StreamId, List<RowGroupIndex>> columnIndexes = ImmutableMap.builder();
@@ -415,24 +417,37 @@ public class StripeReader
             Stream stream = entry.getValue();
             if (stream.getStreamKind() == ROW_INDEX) {
                 OrcInputStream inputStream = streamsData.get(entry.getKey());
-                List<HiveBloomFilter> bloomFilters = bloomFilterIndexes.get(entry.getKey());
-                List<RowGroupIndex> rowGroupIndexes = metadataReader.readRowIndexes(hiveWriterVersion, inputStream);
-                if (bloomFilters != null && !bloomFilters.isEmpty()) {
-                    ImmutableList.Builder<RowGroupIndex> newRowGroupIndexes = ImmutableList.builder();
-                    for (int i = 0; i < rowGroupIndexes.size(); i++) {
-                        RowGroupIndex rowGroupIndex = rowGroupIndexes.get(i);
-                        ColumnStatistics columnStatistics = rowGroupIndex.getColumnStatistics()
-                                .withBloomFilter(bloomFilters.get(i));
-                        newRowGroupIndexes.add(new RowGroupIndex(rowGroupIndex.getPositions(), columnStatistics));
-                    }
-                    rowGroupIndexes = newRowGroupIndexes.build();
-                }
-                columnIndexes.put(entry.getKey(), rowGroupIndexes);
+                columnIndexes.put(entry.getKey(), metadataReader.readRowIndexes(hiveWriterVersion, inputStream));
             }
         }
         return columnIndexes.build();
     }
 
+    private static Map<StreamId, List<RowGroupIndex>> addBloomFilters(Map<StreamId, List<RowGroupIndex>> columnIndexes, Map<StreamId, List<HiveBloomFilter>> bloomFilterIndexes)
+    {
+        if (bloomFilterIndexes.isEmpty()) {
+            return columnIndexes;
+        }
+
+        ImmutableMap.Builder<StreamId, List<RowGroupIndex>> result = ImmutableMap.builder();
+        for (Entry<StreamId, List<RowGroupIndex>> entry : columnIndexes.entrySet()) {
+            List<RowGroupIndex> rowGroupIndexes = entry.getValue();
+            List<HiveBloomFilter> bloomFilters = bloomFilterIndexes.get(entry.getKey());
+            if (bloomFilters != null && bloomFilters.size() == rowGroupIndexes.size()) {
+                ImmutableList.Builder<RowGroupIndex> newRowGroupIndexes = ImmutableList.builder();
+                for (int i = 0; i < rowGroupIndexes.size(); i++) {
+                    RowGroupIndex rowGroupIndex = rowGroupIndexes.get(i);
+                    ColumnStatistics columnStatistics = rowGroupIndex.getColumnStatistics()
+                            .withBloomFilter(bloomFilters.get(i));
+                    newRowGroupIndexes.add(new RowGroupIndex(rowGroupIndex.getPositions(), columnStatistics));
+                }
+                rowGroupIndexes = newRowGroupIndexes.build();
+            }
+            result.put(entry.getKey(), rowGroupIndexes);
+        }
+        return result.build();
+    }
+
     private Set<Integer> selectRowGroups(StripeInformation stripe, Map<StreamId, List<RowGroupIndex>> columnIndexes)
     {
         int rowsInStripe = toIntExact(stripe.getNumberOfRows());
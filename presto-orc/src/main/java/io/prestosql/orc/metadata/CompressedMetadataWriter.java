@@ -16,10 +16,12 @@ package io.prestosql.orc.metadata;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.prestosql.orc.OrcOutputBuffer;
+import io.prestosql.orc.metadata.statistics.HiveBloomFilter;
 
 import java.io.IOException;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkState;
 import static java.lang.Math.toIntExact;
 
 public class CompressedMetadataWriter
@@ -75,6 +77,15 @@ public class CompressedMetadataWriter
         return getSliceOutput();
     }
 
+    public Slice writeBloomFilters(List<HiveBloomFilter> bloomFilters)
+            throws IOException
+    {
+        // only ORC has bloom filter streams; OrcWriter rejects bloom filter columns for DWRF
+        checkState(metadataWriter instanceof OrcMetadataWriter, "Bloom filters are only supported by the ORC format");
+        ((OrcMetadataWriter) metadataWriter).writeBloomFilters(buffer, bloomFilters);
+        return getSliceOutput();
+    }
+
     private Slice getSliceOutput()
     {
         buffer.close();
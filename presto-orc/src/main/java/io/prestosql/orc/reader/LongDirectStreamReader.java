@@ -83,19 +83,7 @@ public class LongDirectStreamReader
             openRowGroup();
         }
 
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
-                }
-                dataStream.skip(readOffset);
-            }
-        }
+        skipRows(readOffset);
 
         BlockBuilder builder = type.createBlockBuilder(null, nextBatchSize);
         if (presentStream == null) {
@@ -122,6 +110,59 @@ public class LongDirectStreamReader
         return builder.build();
     }
 
+    @Override
+    public Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        skipRows(readOffset);
+
+        BlockBuilder builder = type.createBlockBuilder(null, positionCount);
+        int nextRow = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            skipRows(position - nextRow);
+            if (presentStream == null || presentStream.nextBit()) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+                }
+                type.writeLong(builder, dataStream.next());
+            }
+            else {
+                builder.appendNull();
+            }
+            nextRow = position + 1;
+        }
+
+        // the rows after the last position are skipped by the next read
+        readOffset = nextBatchSize - nextRow;
+        nextBatchSize = 0;
+
+        return builder.build();
+    }
+
+    private void skipRows(int rows)
+            throws IOException
+    {
+        if (rows == 0) {
+            return;
+        }
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the data reader
+            rows = presentStream.countBitsSet(rows);
+        }
+        if (rows > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+            }
+            dataStream.skip(rows);
+        }
+    }
+
     private void openRowGroup()
             throws IOException
     {
@@ -26,6 +26,16 @@ public interface StreamReader
     Block readBlock(Type type)
             throws IOException;
 
+    /**
+     * Reads only the given positions of the next batch. The positions are
+     * relative to the start of the batch and must be in increasing order.
+     */
+    default Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        return readBlock(type).copyPositions(positions, 0, positionCount);
+    }
+
     void prepareNextRead(int batchSize);
 
     void startStripe(InputStreamSources dictionaryStreamSources, List<ColumnEncoding> encoding)
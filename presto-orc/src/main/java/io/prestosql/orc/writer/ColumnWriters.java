@@ -25,6 +25,7 @@ import io.prestosql.spi.type.Type;
 import org.joda.time.DateTimeZone;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.orc.OrcEncoding.DWRF;
@@ -42,7 +43,8 @@ public final class ColumnWriters
             int bufferSize,
             OrcEncoding orcEncoding,
             DateTimeZone hiveStorageTimeZone,
-            DataSize stringStatisticsLimit)
+            DataSize stringStatisticsLimit,
+            Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         requireNonNull(type, "type is null");
         OrcType orcType = orcTypes.get(columnIndex);
@@ -54,19 +56,19 @@ public final class ColumnWriters
                 return new FloatColumnWriter(columnIndex, type, compression, bufferSize);
 
             case DOUBLE:
-                return new DoubleColumnWriter(columnIndex, type, compression, bufferSize);
+                return new DoubleColumnWriter(columnIndex, type, compression, bufferSize, bloomFilterBuilder);
 
             case BYTE:
                 return new ByteColumnWriter(columnIndex, type, compression, bufferSize);
 
             case DATE:
                 checkArgument(orcEncoding != DWRF, "DWRF does not support %s type", type);
-                return new LongColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, DateStatisticsBuilder::new);
+                return new LongColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, DateStatisticsBuilder::new, bloomFilterBuilder);
 
             case SHORT:
             case INT:
             case LONG:
-                return new LongColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, IntegerStatisticsBuilder::new);
+                return new LongColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, IntegerStatisticsBuilder::new, bloomFilterBuilder);
 
             case DECIMAL:
                 checkArgument(orcEncoding != DWRF, "DWRF does not support %s type", type);
@@ -76,19 +78,19 @@ public final class ColumnWriters
                 return new TimestampColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, hiveStorageTimeZone);
 
             case BINARY:
-                return new SliceDirectColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, BinaryStatisticsBuilder::new);
+                return new SliceDirectColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, BinaryStatisticsBuilder::new, bloomFilterBuilder);
 
             case CHAR:
                 checkArgument(orcEncoding != DWRF, "DWRF does not support %s type", type);
                 // fall through
             case VARCHAR:
             case STRING:
-                return new SliceDictionaryColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, stringStatisticsLimit);
+                return new SliceDictionaryColumnWriter(columnIndex, type, compression, bufferSize, orcEncoding, stringStatisticsLimit, bloomFilterBuilder);
 
             case LIST: {
                 int fieldColumnIndex = orcType.getFieldTypeIndex(0);
                 Type fieldType = type.getTypeParameters().get(0);
-                ColumnWriter elementWriter = createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, orcEncoding, hiveStorageTimeZone, stringStatisticsLimit);
+                ColumnWriter elementWriter = createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, orcEncoding, hiveStorageTimeZone, stringStatisticsLimit, Optional.empty());
                 return new ListColumnWriter(columnIndex, compression, bufferSize, orcEncoding, elementWriter);
             }
 
@@ -101,7 +103,8 @@ public final class ColumnWriters
                         bufferSize,
                         orcEncoding,
                         hiveStorageTimeZone,
-                        stringStatisticsLimit);
+                        stringStatisticsLimit,
+                        Optional.empty());
                 ColumnWriter valueWriter = createColumnWriter(
                         orcType.getFieldTypeIndex(1),
                         orcTypes,
@@ -110,7 +113,8 @@ public final class ColumnWriters
                         bufferSize,
                         orcEncoding,
                         hiveStorageTimeZone,
-                        stringStatisticsLimit);
+                        stringStatisticsLimit,
+                        Optional.empty());
                 return new MapColumnWriter(columnIndex, compression, bufferSize, orcEncoding, keyWriter, valueWriter);
             }
 
@@ -119,7 +123,7 @@ public final class ColumnWriters
                 for (int fieldId = 0; fieldId < orcType.getFieldCount(); fieldId++) {
                     int fieldColumnIndex = orcType.getFieldTypeIndex(fieldId);
                     Type fieldType = type.getTypeParameters().get(fieldId);
-                    fieldWriters.add(createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, orcEncoding, hiveStorageTimeZone, stringStatisticsLimit));
+                    fieldWriters.add(createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, orcEncoding, hiveStorageTimeZone, stringStatisticsLimit, Optional.empty()));
                 }
                 return new StructColumnWriter(columnIndex, compression, bufferSize, fieldWriters.build());
             }
@@ -59,11 +59,13 @@ public class DoubleColumnWriter
 
     private final List<ColumnStatistics> rowGroupColumnStatistics = new ArrayList<>();
 
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
+
     private DoubleStatisticsBuilder statisticsBuilder = new DoubleStatisticsBuilder();
 
     private boolean closed;
 
-    public DoubleColumnWriter(int column, Type type, CompressionKind compression, int bufferSize)
+    public DoubleColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         checkArgument(column >= 0, "column is negative");
         this.column = column;
@@ -71,6 +73,7 @@ public class DoubleColumnWriter
         this.compressed = requireNonNull(compression, "compression is null") != NONE;
         this.dataStream = new DoubleOutputStream(compression, bufferSize);
         this.presentStream = new PresentOutputStream(compression, bufferSize);
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
     }
 
     @Override
@@ -102,6 +105,9 @@ public class DoubleColumnWriter
             if (!block.isNull(position)) {
                 double value = type.getDouble(block, position);
                 statisticsBuilder.addValue(value);
+                if (bloomFilterBuilder.isPresent()) {
+                    bloomFilterBuilder.get().addDouble(value);
+                }
                 dataStream.writeDouble(value);
             }
         }
@@ -113,6 +119,7 @@ public class DoubleColumnWriter
         checkState(!closed);
         ColumnStatistics statistics = statisticsBuilder.buildColumnStatistics();
         rowGroupColumnStatistics.add(statistics);
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::finishRowGroup);
         statisticsBuilder = new DoubleStatisticsBuilder();
         return ImmutableMap.of(column, statistics);
     }
@@ -153,7 +160,12 @@ public class DoubleColumnWriter
 
         Slice slice = metadataWriter.writeRowIndexes(rowGroupIndexes.build());
         Stream stream = new Stream(column, StreamKind.ROW_INDEX, slice.length(), false);
-        return ImmutableList.of(new StreamDataOutput(slice, stream));
+        ImmutableList.Builder<StreamDataOutput> indexStreams = ImmutableList.builder();
+        indexStreams.add(new StreamDataOutput(slice, stream));
+        if (bloomFilterBuilder.isPresent()) {
+            indexStreams.addAll(bloomFilterBuilder.get().getIndexStreams(column, metadataWriter));
+        }
+        return indexStreams.build();
     }
 
     private static List<Integer> createDoubleColumnPositionList(
@@ -188,6 +200,7 @@ public class DoubleColumnWriter
     public long getRetainedBytes()
     {
         long retainedBytes = INSTANCE_SIZE + dataStream.getRetainedBytes() + presentStream.getRetainedBytes();
+        retainedBytes += bloomFilterBuilder.map(BloomFilterBuilder::getRetainedBytes).orElse(0L);
         for (ColumnStatistics statistics : rowGroupColumnStatistics) {
             retainedBytes += statistics.getRetainedSizeInBytes();
         }
@@ -201,6 +214,7 @@ public class DoubleColumnWriter
         dataStream.reset();
         presentStream.reset();
         rowGroupColumnStatistics.clear();
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::reset);
         statisticsBuilder = new DoubleStatisticsBuilder();
     }
 }
@@ -68,9 +68,11 @@ public class LongColumnWriter
     private final Supplier<LongValueStatisticsBuilder> statisticsBuilderSupplier;
     private LongValueStatisticsBuilder statisticsBuilder;
 
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
+
     private boolean closed;
 
-    public LongColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, OrcEncoding orcEncoding, Supplier<LongValueStatisticsBuilder> statisticsBuilderSupplier)
+    public LongColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, OrcEncoding orcEncoding, Supplier<LongValueStatisticsBuilder> statisticsBuilderSupplier, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         checkArgument(column >= 0, "column is negative");
         this.column = column;
@@ -87,6 +89,7 @@ public class LongColumnWriter
         this.presentStream = new PresentOutputStream(compression, bufferSize);
         this.statisticsBuilderSupplier = requireNonNull(statisticsBuilderSupplier, "statisticsBuilderSupplier is null");
         this.statisticsBuilder = statisticsBuilderSupplier.get();
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
     }
 
     @Override
@@ -119,6 +122,9 @@ public class LongColumnWriter
                 long value = type.getLong(block, position);
                 dataStream.writeLong(value);
                 statisticsBuilder.addValue(value);
+                if (bloomFilterBuilder.isPresent()) {
+                    bloomFilterBuilder.get().addLong(value);
+                }
             }
         }
     }
@@ -129,6 +135,7 @@ public class LongColumnWriter
         checkState(!closed);
         ColumnStatistics statistics = statisticsBuilder.buildColumnStatistics();
         rowGroupColumnStatistics.add(statistics);
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::finishRowGroup);
         statisticsBuilder = statisticsBuilderSupplier.get();
         return ImmutableMap.of(column, statistics);
     }
@@ -169,7 +176,12 @@ public class LongColumnWriter
 
         Slice slice = metadataWriter.writeRowIndexes(rowGroupIndexes.build());
         Stream stream = new Stream(column, StreamKind.ROW_INDEX, slice.length(), false);
-        return ImmutableList.of(new StreamDataOutput(slice, stream));
+        ImmutableList.Builder<StreamDataOutput> indexStreams = ImmutableList.builder();
+        indexStreams.add(new StreamDataOutput(slice, stream));
+        if (bloomFilterBuilder.isPresent()) {
+            indexStreams.addAll(bloomFilterBuilder.get().getIndexStreams(column, metadataWriter));
+        }
+        return indexStreams.build();
     }
 
     private static List<Integer> createLongColumnPositionList(
@@ -204,6 +216,7 @@ public class LongColumnWriter
     public long getRetainedBytes()
     {
         long retainedBytes = INSTANCE_SIZE + dataStream.getRetainedBytes() + presentStream.getRetainedBytes();
+        retainedBytes += bloomFilterBuilder.map(BloomFilterBuilder::getRetainedBytes).orElse(0L);
         for (ColumnStatistics statistics : rowGroupColumnStatistics) {
             retainedBytes += statistics.getRetainedSizeInBytes();
         }
@@ -217,6 +230,7 @@ public class LongColumnWriter
         dataStream.reset();
         presentStream.reset();
         rowGroupColumnStatistics.clear();
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::reset);
         statisticsBuilder = statisticsBuilderSupplier.get();
     }
 }
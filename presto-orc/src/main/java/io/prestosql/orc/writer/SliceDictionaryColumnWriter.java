@@ -86,6 +86,9 @@ public class SliceDictionaryColumnWriter
 
     private final List<DictionaryRowGroup> rowGroups = new ArrayList<>();
 
+    // owned by this writer, so values are not added twice when converting to direct encoding
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
+
     private IntBigArray values;
     private int rowGroupValueCount;
     private StringStatisticsBuilder statisticsBuilder;
@@ -101,7 +104,7 @@ public class SliceDictionaryColumnWriter
     private boolean directEncoded;
     private SliceDirectColumnWriter directColumnWriter;
 
-    public SliceDictionaryColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, OrcEncoding orcEncoding, DataSize stringStatisticsLimit)
+    public SliceDictionaryColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, OrcEncoding orcEncoding, DataSize stringStatisticsLimit, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         checkArgument(column >= 0, "column is negative");
         this.column = column;
@@ -123,6 +126,7 @@ public class SliceDictionaryColumnWriter
         this.dictionaryLengthStream = createLengthOutputStream(compression, bufferSize, orcEncoding);
         values = new IntBigArray();
         this.statisticsBuilder = newStringStatisticsBuilder();
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
     }
 
     @Override
@@ -173,7 +177,7 @@ public class SliceDictionaryColumnWriter
         checkState(!closed);
         checkState(!directEncoded);
         if (directColumnWriter == null) {
-            directColumnWriter = new SliceDirectColumnWriter(column, type, compression, bufferSize, orcEncoding, this::newStringStatisticsBuilder);
+            directColumnWriter = new SliceDirectColumnWriter(column, type, compression, bufferSize, orcEncoding, this::newStringStatisticsBuilder, Optional.empty());
         }
         checkState(directColumnWriter.getBufferedBytes() == 0);
 
@@ -285,6 +289,14 @@ public class SliceDictionaryColumnWriter
         checkState(!closed);
         checkArgument(block.getPositionCount() > 0, "Block is empty");
 
+        if (bloomFilterBuilder.isPresent()) {
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    bloomFilterBuilder.get().addSlice(type.getSlice(block, position));
+                }
+            }
+        }
+
         if (directEncoded) {
             directColumnWriter.writeBlock(block);
             return;
@@ -314,6 +326,7 @@ public class SliceDictionaryColumnWriter
         checkState(!closed);
         checkState(inRowGroup);
         inRowGroup = false;
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::finishRowGroup);
 
         if (directEncoded) {
             return directColumnWriter.finishRowGroup();
@@ -458,6 +471,17 @@ public class SliceDictionaryColumnWriter
     {
         checkState(closed);
 
+        ImmutableList.Builder<StreamDataOutput> indexStreams = ImmutableList.builder();
+        indexStreams.addAll(getRowIndexStreams(metadataWriter));
+        if (bloomFilterBuilder.isPresent()) {
+            indexStreams.addAll(bloomFilterBuilder.get().getIndexStreams(column, metadataWriter));
+        }
+        return indexStreams.build();
+    }
+
+    private List<StreamDataOutput> getRowIndexStreams(CompressedMetadataWriter metadataWriter)
+            throws IOException
+    {
         if (directEncoded) {
             return directColumnWriter.getIndexStreams(metadataWriter);
         }
@@ -530,7 +554,8 @@ public class SliceDictionaryColumnWriter
                 dictionaryDataStream.getRetainedBytes() +
                 dictionaryLengthStream.getRetainedBytes() +
                 dictionary.getRetainedSizeInBytes() +
-                (directColumnWriter == null ? 0 : directColumnWriter.getRetainedBytes());
+                (directColumnWriter == null ? 0 : directColumnWriter.getRetainedBytes()) +
+                bloomFilterBuilder.map(BloomFilterBuilder::getRetainedBytes).orElse(0L);
 
         for (DictionaryRowGroup rowGroup : rowGroups) {
             retainedBytes += rowGroup.getColumnStatistics().getRetainedSizeInBytes();
@@ -551,6 +576,7 @@ public class SliceDictionaryColumnWriter
         rowGroupValueCount = 0;
         statisticsBuilder = newStringStatisticsBuilder();
         columnEncoding = null;
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::reset);
 
         dictionary.clear();
         rawBytes = 0;
@@ -69,9 +69,11 @@ public class SliceDirectColumnWriter
     private final Supplier<SliceColumnStatisticsBuilder> statisticsBuilderSupplier;
     private SliceColumnStatisticsBuilder statisticsBuilder;
 
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
+
     private boolean closed;
 
-    public SliceDirectColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, OrcEncoding orcEncoding, Supplier<SliceColumnStatisticsBuilder> statisticsBuilderSupplier)
+    public SliceDirectColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, OrcEncoding orcEncoding, Supplier<SliceColumnStatisticsBuilder> statisticsBuilderSupplier, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         checkArgument(column >= 0, "column is negative");
         this.column = column;
@@ -83,6 +85,7 @@ public class SliceDirectColumnWriter
         this.presentStream = new PresentOutputStream(compression, bufferSize);
         this.statisticsBuilderSupplier = statisticsBuilderSupplier;
         statisticsBuilder = statisticsBuilderSupplier.get();
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
     }
 
     @Override
@@ -118,6 +121,9 @@ public class SliceDirectColumnWriter
                 lengthStream.writeLong(value.length());
                 dataStream.writeSlice(value);
                 statisticsBuilder.addValue(value);
+                if (bloomFilterBuilder.isPresent()) {
+                    bloomFilterBuilder.get().addSlice(value);
+                }
             }
         }
     }
@@ -129,6 +135,7 @@ public class SliceDirectColumnWriter
 
         ColumnStatistics statistics = statisticsBuilder.buildColumnStatistics();
         rowGroupColumnStatistics.add(statistics);
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::finishRowGroup);
 
         statisticsBuilder = statisticsBuilderSupplier.get();
         return ImmutableMap.of(column, statistics);
@@ -174,7 +181,12 @@ public class SliceDirectColumnWriter
 
         Slice slice = metadataWriter.writeRowIndexes(rowGroupIndexes.build());
         Stream stream = new Stream(column, StreamKind.ROW_INDEX, slice.length(), false);
-        return ImmutableList.of(new StreamDataOutput(slice, stream));
+        ImmutableList.Builder<StreamDataOutput> indexStreams = ImmutableList.builder();
+        indexStreams.add(new StreamDataOutput(slice, stream));
+        if (bloomFilterBuilder.isPresent()) {
+            indexStreams.addAll(bloomFilterBuilder.get().getIndexStreams(column, metadataWriter));
+        }
+        return indexStreams.build();
     }
 
     private static List<Integer> createSliceColumnPositionList(
@@ -212,6 +224,7 @@ public class SliceDirectColumnWriter
     public long getRetainedBytes()
     {
         long retainedBytes = INSTANCE_SIZE + lengthStream.getRetainedBytes() + dataStream.getRetainedBytes() + presentStream.getRetainedBytes();
+        retainedBytes += bloomFilterBuilder.map(BloomFilterBuilder::getRetainedBytes).orElse(0L);
         for (ColumnStatistics statistics : rowGroupColumnStatistics) {
             retainedBytes += statistics.getRetainedSizeInBytes();
         }
@@ -227,6 +240,7 @@ public class SliceDirectColumnWriter
         dataStream.reset();
         presentStream.reset();
         rowGroupColumnStatistics.clear();
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::reset);
         statisticsBuilder = statisticsBuilderSupplier.get();
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.orc.OrcColumnFilter.createColumnFilter;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestOrcColumnFilter
+{
+    @Test
+    public void testUnsupportedDomains()
+    {
+        assertFalse(createColumnFilter(BIGINT, Domain.all(BIGINT)).isPresent());
+        assertFalse(createColumnFilter(BIGINT, Domain.singleValue(DOUBLE, 1.0)).isPresent());
+    }
+
+    @Test
+    public void testLong()
+    {
+        List<Object> values = Arrays.asList(1L, null, 5L, 10L, 11L, -3L, 20L);
+
+        assertSelected(BIGINT, Domain.singleValue(BIGINT, 10L), values, 3);
+        assertSelected(BIGINT, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 11L, 20L)), values, 0, 4, 6);
+        assertSelected(BIGINT, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 1L, false, 10L, true)), false), values, 2, 3);
+        assertSelected(BIGINT, Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 5L), Range.greaterThanOrEqual(BIGINT, 20L)), true), values, 0, 1, 5, 6);
+        assertSelected(BIGINT, Domain.notNull(BIGINT), values, 0, 2, 3, 4, 5, 6);
+        assertSelected(BIGINT, Domain.onlyNull(BIGINT), values, 1);
+    }
+
+    @Test
+    public void testDouble()
+    {
+        List<Object> values = Arrays.asList(1.5, null, Double.NaN, -2.0, 7.25);
+
+        assertSelected(DOUBLE, Domain.create(ValueSet.ofRanges(Range.greaterThan(DOUBLE, 1.5)), false), values, 2, 4);
+        assertSelected(DOUBLE, Domain.create(ValueSet.ofRanges(Range.lessThanOrEqual(DOUBLE, 1.5)), true), values, 0, 1, 2, 3);
+    }
+
+    @Test
+    public void testVarchar()
+    {
+        List<Object> values = Arrays.asList("apple", "banana", null, "cherry", "date");
+
+        assertSelected(VARCHAR, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("banana"), utf8Slice("date"))), values, 1, 4);
+        assertSelected(VARCHAR, Domain.create(ValueSet.ofRanges(Range.range(VARCHAR, utf8Slice("b"), true, utf8Slice("cz"), true)), true), values, 1, 2, 3);
+    }
+
+    @Test
+    public void testBoolean()
+    {
+        List<Object> values = Arrays.asList(true, false, null, true);
+
+        assertSelected(BOOLEAN, Domain.singleValue(BOOLEAN, true), values, 0, 3);
+        assertSelected(BOOLEAN, Domain.create(ValueSet.of(BOOLEAN, false), true), values, 1, 2);
+    }
+
+    private static void assertSelected(Type type, Domain domain, List<Object> values, int... expected)
+    {
+        OrcColumnFilter filter = createColumnFilter(type, domain).orElseThrow(() -> new AssertionError("no filter for " + domain));
+
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, values.size());
+        for (Object value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else if (value instanceof String) {
+                type.writeSlice(blockBuilder, utf8Slice((String) value));
+            }
+            else if (value instanceof Long) {
+                type.writeLong(blockBuilder, (Long) value);
+            }
+            else if (value instanceof Double) {
+                type.writeDouble(blockBuilder, (Double) value);
+            }
+            else {
+                type.writeBoolean(blockBuilder, (Boolean) value);
+            }
+        }
+        Block block = blockBuilder.build();
+
+        int[] positions = new int[values.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        int selectedCount = filter.filter(block, positions, positions.length);
+        assertEquals(Arrays.copyOf(positions, selectedCount), expected);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.orc.OrcEncoding.ORC;
+import static io.prestosql.orc.OrcReader.MAX_BATCH_SIZE;
+import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static io.prestosql.orc.OrcTester.MAX_BLOCK_SIZE;
+import static io.prestosql.orc.OrcWriteValidation.OrcWriteValidationMode.BOTH;
+import static io.prestosql.orc.TestingOrcPredicate.ORC_ROW_GROUP_SIZE;
+import static io.prestosql.orc.metadata.CompressionKind.NONE;
+import static io.prestosql.spi.predicate.Range.greaterThanOrEqual;
+import static io.prestosql.spi.predicate.Range.range;
+import static io.prestosql.spi.predicate.ValueSet.ofRanges;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Reads a file with row filters and compares the rows against an unfiltered read of
+ * the same file. Each batch of a row group has either all, none or some of its rows
+ * matching the filters.
+ */
+public class TestOrcRowFilters
+{
+    private static final int ROW_COUNT = ORC_ROW_GROUP_SIZE * 4;
+    private static final int PAGE_SIZE = 1000;
+
+    // the filter columns are a nullable direct bigint, a nullable double and a dictionary varchar
+    private static final int LONG_COLUMN = 0;
+    private static final int DOUBLE_COLUMN = 1;
+    private static final int STRING_COLUMN = 2;
+    private static final List<String> COLUMN_NAMES = ImmutableList.of("l", "d", "s", "p", "q", "r");
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, DOUBLE, VARCHAR, BIGINT, DOUBLE, VARCHAR);
+
+    private static final Domain LONG_FILTER = Domain.create(ofRanges(range(BIGINT, 1000L, true, 1099L, true)), false);
+    private static final Domain DOUBLE_FILTER = Domain.create(ofRanges(greaterThanOrEqual(DOUBLE, 0.5)), false);
+    private static final Domain STRING_FILTER = Domain.create(ofRanges(range(VARCHAR, utf8Slice("a"), true, utf8Slice("c"), false)), false);
+
+    private TempFile tempFile;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        tempFile = new TempFile();
+        writeFile();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        tempFile.close();
+    }
+
+    @Test
+    public void testLongFilter()
+            throws IOException
+    {
+        assertFilteredRead(ImmutableMap.of(LONG_COLUMN, LONG_FILTER));
+        // nulls are kept when the filter allows them
+        assertFilteredRead(ImmutableMap.of(LONG_COLUMN, Domain.create(LONG_FILTER.getValues(), true)));
+    }
+
+    @Test
+    public void testDoubleFilter()
+            throws IOException
+    {
+        assertFilteredRead(ImmutableMap.of(DOUBLE_COLUMN, DOUBLE_FILTER));
+    }
+
+    @Test
+    public void testDictionaryFilter()
+            throws IOException
+    {
+        assertFilteredRead(ImmutableMap.of(STRING_COLUMN, STRING_FILTER));
+    }
+
+    @Test
+    public void testMultipleFilters()
+            throws IOException
+    {
+        assertFilteredRead(ImmutableMap.of(LONG_COLUMN, LONG_FILTER, DOUBLE_COLUMN, DOUBLE_FILTER, STRING_COLUMN, STRING_FILTER));
+        assertFilteredRead(ImmutableMap.of(STRING_COLUMN, STRING_FILTER, LONG_COLUMN, Domain.create(LONG_FILTER.getValues(), true)));
+    }
+
+    @Test
+    public void testNoMatchingRows()
+            throws IOException
+    {
+        List<List<List<Object>>> batches = readBatches(ImmutableMap.of(LONG_COLUMN, Domain.singleValue(BIGINT, 5_000L)));
+        assertEquals(batches, ImmutableList.of());
+    }
+
+    private void assertFilteredRead(Map<Integer, Domain> filters)
+            throws IOException
+    {
+        List<List<List<Object>>> unfilteredBatches = readBatches(ImmutableMap.of());
+        assertEquals(unfilteredBatches.stream().mapToInt(List::size).sum(), ROW_COUNT);
+
+        List<List<List<Object>>> expectedBatches = unfilteredBatches.stream()
+                .map(batch -> batch.stream()
+                        .filter(row -> matches(row, filters))
+                        .collect(toImmutableList()))
+                .collect(toImmutableList());
+
+        // the data must produce batches where none, some and all rows match
+        List<Integer> batchSizes = unfilteredBatches.stream()
+                .map(List::size)
+                .collect(toImmutableList());
+        List<Integer> matchingRowCounts = expectedBatches.stream()
+                .map(List::size)
+                .collect(toImmutableList());
+        assertTrue(matchingRowCounts.contains(0));
+        assertTrue(IntStream.range(0, batchSizes.size()).anyMatch(batch -> matchingRowCounts.get(batch).equals(batchSizes.get(batch))));
+        assertTrue(IntStream.range(0, batchSizes.size()).anyMatch(batch -> matchingRowCounts.get(batch) > 0 && matchingRowCounts.get(batch) < batchSizes.get(batch)));
+
+        // batches without matching rows are skipped
+        expectedBatches = expectedBatches.stream()
+                .filter(batch -> !batch.isEmpty())
+                .collect(toImmutableList());
+
+        List<List<List<Object>>> actualBatches = readBatches(filters);
+        assertEquals(actualBatches.size(), expectedBatches.size());
+        for (int batch = 0; batch < actualBatches.size(); batch++) {
+            assertEquals(actualBatches.get(batch), expectedBatches.get(batch), "batch " + batch);
+        }
+    }
+
+    private static boolean matches(List<Object> row, Map<Integer, Domain> filters)
+    {
+        return filters.entrySet().stream()
+                .allMatch(entry -> entry.getValue().includesNullableValue(row.get(entry.getKey())));
+    }
+
+    private List<List<List<Object>>> readBatches(Map<Integer, Domain> filters)
+            throws IOException
+    {
+        DataSize dataSize = new DataSize(1, MEGABYTE);
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), dataSize, dataSize, dataSize, true);
+        OrcReader orcReader = new OrcReader(orcDataSource, ORC, dataSize, dataSize, dataSize, MAX_BLOCK_SIZE);
+
+        ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
+        for (int column = 0; column < TYPES.size(); column++) {
+            includedColumns.put(column, TYPES.get(column));
+        }
+
+        ImmutableList.Builder<List<List<Object>>> batches = ImmutableList.builder();
+        try (OrcRecordReader recordReader = orcReader.createRecordReader(
+                includedColumns.build(),
+                OrcPredicate.TRUE,
+                filters,
+                0,
+                orcDataSource.getSize(),
+                HIVE_STORAGE_TIME_ZONE,
+                newSimpleAggregatedMemoryContext(),
+                MAX_BATCH_SIZE)) {
+            for (int batchSize = recordReader.nextBatch(); batchSize > 0; batchSize = recordReader.nextBatch()) {
+                // read the other columns before the filter columns, which were decoded by nextBatch
+                Block[] blocks = new Block[TYPES.size()];
+                for (int column = TYPES.size() - 1; column >= 0; column--) {
+                    blocks[column] = recordReader.readBlock(TYPES.get(column), column);
+                    assertEquals(blocks[column].getPositionCount(), batchSize);
+                }
+
+                List<List<Object>> rows = new ArrayList<>(batchSize);
+                for (int position = 0; position < batchSize; position++) {
+                    List<Object> row = new ArrayList<>(TYPES.size());
+                    for (int column = 0; column < TYPES.size(); column++) {
+                        row.add(getValue(TYPES.get(column), blocks[column], position));
+                    }
+                    rows.add(row);
+                }
+                batches.add(rows);
+            }
+        }
+        return batches.build();
+    }
+
+    private static Object getValue(Type type, Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return null;
+        }
+        if (type.equals(BIGINT)) {
+            return BIGINT.getLong(block, position);
+        }
+        if (type.equals(DOUBLE)) {
+            return DOUBLE.getDouble(block, position);
+        }
+        return VARCHAR.getSlice(block, position);
+    }
+
+    private void writeFile()
+            throws IOException
+    {
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())),
+                COLUMN_NAMES,
+                TYPES,
+                ORC,
+                NONE,
+                new OrcWriterOptions()
+                        .withStripeMinSize(new DataSize(0, MEGABYTE))
+                        .withStripeMaxRowCount(ORC_ROW_GROUP_SIZE * 2)
+                        .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE),
+                ImmutableMap.of(),
+                HIVE_STORAGE_TIME_ZONE,
+                true,
+                BOTH,
+                new OrcWriterStats());
+
+        for (int pageStart = 0; pageStart < ROW_COUNT; pageStart += PAGE_SIZE) {
+            BlockBuilder[] blockBuilders = new BlockBuilder[TYPES.size()];
+            for (int column = 0; column < TYPES.size(); column++) {
+                blockBuilders[column] = TYPES.get(column).createBlockBuilder(null, PAGE_SIZE);
+            }
+            for (int row = pageStart; row < pageStart + PAGE_SIZE; row++) {
+                writeRow(row, blockBuilders);
+            }
+            Block[] blocks = new Block[TYPES.size()];
+            for (int column = 0; column < TYPES.size(); column++) {
+                blocks[column] = blockBuilders[column].build();
+            }
+            writer.write(new Page(blocks));
+        }
+        writer.close();
+
+        DataSize dataSize = new DataSize(1, MEGABYTE);
+        writer.validate(new FileOrcDataSource(tempFile.getFile(), dataSize, dataSize, dataSize, true));
+    }
+
+    /**
+     * Rows of the filter columns match in every batch of the first kind, in no batch of the
+     * second kind, and in a column specific pattern in batches of the third kind. Only rows
+     * that do not match have nulls.
+     */
+    private static void writeRow(int row, BlockBuilder[] blockBuilders)
+    {
+        int batchKind = (row % ORC_ROW_GROUP_SIZE) / MAX_BATCH_SIZE % 3;
+
+        if (batchKind == 0 || (batchKind == 2 && row % 7 < 4)) {
+            BIGINT.writeLong(blockBuilders[LONG_COLUMN], 1000 + row % 100);
+        }
+        else if (row % 11 == 0) {
+            blockBuilders[LONG_COLUMN].appendNull();
+        }
+        else {
+            BIGINT.writeLong(blockBuilders[LONG_COLUMN], -1 - row % 100);
+        }
+
+        if (batchKind == 0 || (batchKind == 2 && row % 5 < 3)) {
+            DOUBLE.writeDouble(blockBuilders[DOUBLE_COLUMN], 0.5 + (row % 10) / 10.0);
+        }
+        else if (row % 11 == 1) {
+            blockBuilders[DOUBLE_COLUMN].appendNull();
+        }
+        else {
+            DOUBLE.writeDouble(blockBuilders[DOUBLE_COLUMN], -1.0 - row % 10);
+        }
+
+        if (batchKind == 0 || (batchKind == 2 && row % 3 != 0)) {
+            VARCHAR.writeSlice(blockBuilders[STRING_COLUMN], utf8Slice(row % 2 == 0 ? "apple" : "banana"));
+        }
+        else if (row % 11 == 2) {
+            blockBuilders[STRING_COLUMN].appendNull();
+        }
+        else {
+            VARCHAR.writeSlice(blockBuilders[STRING_COLUMN], utf8Slice(row % 2 == 0 ? "cherry" : "date"));
+        }
+
+        // the remaining columns are only read at the selected positions
+        if (row % 13 == 0) {
+            blockBuilders[3].appendNull();
+        }
+        else {
+            BIGINT.writeLong(blockBuilders[3], row);
+        }
+        if (row % 17 == 0) {
+            blockBuilders[4].appendNull();
+        }
+        else {
+            DOUBLE.writeDouble(blockBuilders[4], row * 0.25);
+        }
+        if (row % 19 == 0) {
+            blockBuilders[5].appendNull();
+        }
+        else {
+            VARCHAR.writeSlice(blockBuilders[5], utf8Slice("row " + row));
+        }
+    }
+}
@@ -15,9 +15,12 @@ package io.prestosql.orc;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import io.prestosql.orc.OrcWriteValidation.OrcWriteValidationMode;
+import io.prestosql.orc.TupleDomainOrcPredicate.ColumnReference;
+import io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind;
 import io.prestosql.orc.metadata.Footer;
 import io.prestosql.orc.metadata.Stream;
 import io.prestosql.orc.metadata.StripeFooter;
@@ -26,24 +29,35 @@ import io.prestosql.orc.stream.OrcInputStream;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.Type;
 import org.testng.annotations.Test;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
+import static io.airlift.slice.Slices.utf8Slice;
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcEncoding.ORC;
+import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
 import static io.prestosql.orc.StripeReader.isIndexStream;
 import static io.prestosql.orc.TestingOrcPredicate.ORC_ROW_GROUP_SIZE;
 import static io.prestosql.orc.TestingOrcPredicate.ORC_STRIPE_SIZE;
+import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY_V2;
+import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT_V2;
 import static io.prestosql.orc.metadata.CompressionKind.NONE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.toIntExact;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
 public class TestOrcWriter
@@ -120,4 +134,104 @@ public class TestOrcWriter
             }
         }
     }
+
+    @Test
+    public void testBloomFilters()
+            throws IOException
+    {
+        // the default dictionary memory keeps the varchar column dictionary encoded
+        testBloomFilters(new OrcWriterOptions(), DICTIONARY_V2);
+        // a tiny dictionary memory converts the varchar column to direct encoding after the first chunk of the stripe
+        testBloomFilters(new OrcWriterOptions().withDictionaryMaxMemory(new DataSize(1, KILOBYTE)), DIRECT_V2);
+    }
+
+    private static void testBloomFilters(OrcWriterOptions options, ColumnEncodingKind expectedVarcharEncoding)
+            throws IOException
+    {
+        TempFile tempFile = new TempFile();
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())),
+                ImmutableList.of("key", "name"),
+                ImmutableList.of(BIGINT, VARCHAR),
+                ORC,
+                NONE,
+                options
+                        .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE)
+                        .withBloomFilterColumns(ImmutableSet.of("key", "name"))
+                        .withBloomFilterFpp(0.0001),
+                ImmutableMap.of(),
+                HIVE_STORAGE_TIME_ZONE,
+                true,
+                OrcWriteValidationMode.BOTH,
+                new OrcWriterStats());
+
+        // even values only, so odd values inside the row group ranges can only be excluded by the bloom filters
+        int rowCount = ORC_ROW_GROUP_SIZE * 3;
+        BlockBuilder keyBlockBuilder = BIGINT.createBlockBuilder(null, rowCount);
+        BlockBuilder nameBlockBuilder = VARCHAR.createBlockBuilder(null, rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            BIGINT.writeLong(keyBlockBuilder, i * 2L);
+            // every name is repeated 100 times, so the dictionary compresses well
+            VARCHAR.writeSlice(nameBlockBuilder, utf8Slice(name((i / 100) * 2)));
+        }
+        writer.write(new Page(keyBlockBuilder.build(), nameBlockBuilder.build()));
+        writer.close();
+
+        DataSize dataSize = new DataSize(1, MEGABYTE);
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), dataSize, dataSize, dataSize, true);
+        writer.validate(orcDataSource);
+
+        OrcReader reader = new OrcReader(orcDataSource, ORC, dataSize, dataSize, dataSize, dataSize);
+        for (StripeFooter stripeFooter : readStripeFooters(orcDataSource, reader.getFooter())) {
+            assertEquals(stripeFooter.getColumnEncodings().get(2).getColumnEncodingKind(), expectedVarcharEncoding);
+        }
+
+        assertEquals(readRowCount(reader, "key", BIGINT, 12_344L), ORC_ROW_GROUP_SIZE);
+        assertEquals(readRowCount(reader, "key", BIGINT, 12_345L), 0);
+        assertEquals(readRowCount(reader, "key", BIGINT, 45_677L), 0);
+
+        // the first row group is written before the dictionary is converted, and the third one after
+        assertEquals(readRowCount(reader, "name", VARCHAR, utf8Slice(name(24))), ORC_ROW_GROUP_SIZE);
+        assertEquals(readRowCount(reader, "name", VARCHAR, utf8Slice(name(25))), 0);
+        assertEquals(readRowCount(reader, "name", VARCHAR, utf8Slice(name(246))), ORC_ROW_GROUP_SIZE);
+        assertEquals(readRowCount(reader, "name", VARCHAR, utf8Slice(name(247))), 0);
+        assertEquals(readRowCount(reader, "name", VARCHAR, utf8Slice(name(598))), ORC_ROW_GROUP_SIZE);
+        assertEquals(readRowCount(reader, "name", VARCHAR, utf8Slice(name(599))), 0);
+    }
+
+    private static String name(int value)
+    {
+        return "bloom_filter_value_" + value;
+    }
+
+    private static List<StripeFooter> readStripeFooters(OrcDataSource orcDataSource, Footer footer)
+            throws IOException
+    {
+        ImmutableList.Builder<StripeFooter> stripeFooters = ImmutableList.builder();
+        for (StripeInformation stripe : footer.getStripes()) {
+            byte[] tailBuffer = new byte[toIntExact(stripe.getFooterLength())];
+            orcDataSource.readFully(stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength(), tailBuffer);
+            try (InputStream inputStream = new OrcInputStream(orcDataSource.getId(), Slices.wrappedBuffer(tailBuffer).getInput(), Optional.empty(), newSimpleAggregatedMemoryContext(), tailBuffer.length)) {
+                stripeFooters.add(ORC.createMetadataReader().readStripeFooter(footer.getTypes(), inputStream));
+            }
+        }
+        return stripeFooters.build();
+    }
+
+    private static int readRowCount(OrcReader reader, String column, Type type, Object value)
+            throws IOException
+    {
+        int columnIndex = reader.getColumnNames().indexOf(column);
+        TupleDomainOrcPredicate<String> predicate = new TupleDomainOrcPredicate<>(
+                TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.singleValue(type, value))),
+                ImmutableList.of(new ColumnReference<>(column, columnIndex, type)),
+                true);
+        try (OrcRecordReader recordReader = reader.createRecordReader(ImmutableMap.of(columnIndex, type), predicate, HIVE_STORAGE_TIME_ZONE, newSimpleAggregatedMemoryContext(), INITIAL_BATCH_SIZE)) {
+            int rowCount = 0;
+            for (int batchSize = recordReader.nextBatch(); batchSize > 0; batchSize = recordReader.nextBatch()) {
+                rowCount += batchSize;
+            }
+            return rowCount;
+        }
+    }
 }
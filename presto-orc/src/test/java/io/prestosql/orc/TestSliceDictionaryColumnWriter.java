@@ -21,6 +21,7 @@ import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RunLengthEncodedBlock;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -41,7 +42,8 @@ public class TestSliceDictionaryColumnWriter
                 CompressionKind.NONE,
                 toIntExact(DEFAULT_MAX_COMPRESSION_BUFFER_SIZE.toBytes()),
                 OrcEncoding.ORC,
-                DEFAULT_MAX_STRING_STATISTICS_LIMIT);
+                DEFAULT_MAX_STRING_STATISTICS_LIMIT,
+                Optional.empty());
 
         // a single row group exceeds 2G after direct conversion
         byte[] value = new byte[megabytes(1)];
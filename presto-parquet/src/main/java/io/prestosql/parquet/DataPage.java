@@ -13,6 +13,8 @@
  */
 package io.prestosql.parquet;
 
+import parquet.column.statistics.Statistics;
+
 public abstract class DataPage
         extends Page
 {
@@ -28,4 +30,6 @@ public abstract class DataPage
     {
         return valueCount;
     }
+
+    public abstract Statistics<?> getStatistics();
 }
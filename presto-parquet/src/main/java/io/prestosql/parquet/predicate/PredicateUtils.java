@@ -93,8 +93,17 @@ public final class PredicateUtils
             return false;
         }
 
-        Map<ColumnDescriptor, DictionaryDescriptor> dictionaries = getDictionaries(block, dataSource, descriptorsByPath, parquetTupleDomain);
-        return parquetPredicate.matches(dictionaries);
+        // check the dictionary of every predicate column, stopping at the first one with no matching entry
+        for (ColumnChunkMetaData columnMetaData : block.getColumns()) {
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
+            if (descriptor != null && isOnlyDictionaryEncodingPages(columnMetaData.getEncodings()) && isColumnPredicate(descriptor, parquetTupleDomain)) {
+                Optional<DictionaryPage> dictionaryPage = readDictionaryPage(dataSource, columnMetaData);
+                if (!parquetPredicate.matches(ImmutableMap.of(descriptor, new DictionaryDescriptor(descriptor, dictionaryPage)))) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
@@ -112,23 +121,17 @@ public final class PredicateUtils
         return statistics.build();
     }
 
-    private static Map<ColumnDescriptor, DictionaryDescriptor> getDictionaries(BlockMetaData blockMetadata, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+    private static Optional<DictionaryPage> readDictionaryPage(ParquetDataSource dataSource, ColumnChunkMetaData columnMetaData)
     {
-        ImmutableMap.Builder<ColumnDescriptor, DictionaryDescriptor> dictionaries = ImmutableMap.builder();
-        for (ColumnChunkMetaData columnMetaData : blockMetadata.getColumns()) {
-            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
-            if (descriptor != null) {
-                if (isOnlyDictionaryEncodingPages(columnMetaData.getEncodings()) && isColumnPredicate(descriptor, parquetTupleDomain)) {
-                    int totalSize = toIntExact(columnMetaData.getTotalSize());
-                    byte[] buffer = new byte[totalSize];
-                    dataSource.readFully(columnMetaData.getStartingPos(), buffer);
-                    Optional<DictionaryPage> dictionaryPage = readDictionaryPage(buffer, columnMetaData.getCodec());
-                    dictionaries.put(descriptor, new DictionaryDescriptor(descriptor, dictionaryPage));
-                    break;
-                }
-            }
+        // the dictionary page precedes the data pages, so there is no need to read the whole column chunk
+        // when the writer recorded where the data pages start
+        long dictionaryPageSize = columnMetaData.getFirstDataPageOffset() - columnMetaData.getStartingPos();
+        if (dictionaryPageSize <= 0) {
+            dictionaryPageSize = columnMetaData.getTotalSize();
         }
-        return dictionaries.build();
+        byte[] buffer = new byte[toIntExact(dictionaryPageSize)];
+        dataSource.readFully(columnMetaData.getStartingPos(), buffer);
+        return readDictionaryPage(buffer, columnMetaData.getCodec());
     }
 
     private static Optional<DictionaryPage> readDictionaryPage(byte[] data, CompressionCodecName codecName)
@@ -0,0 +1,205 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import io.prestosql.parquet.Field;
+import io.prestosql.parquet.ParquetEncoding;
+import io.prestosql.parquet.ParquetTypeUtils;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+import parquet.column.values.ValuesReader;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static java.lang.Math.min;
+
+/**
+ * Reader for columns whose values can be decoded a batch at a time. Columns without
+ * repetition levels read the definition levels of each page first, then decode all
+ * non-null values at once through {@link #readNonNullValues}, instead of reading a
+ * value at a time through {@link #readValue}.
+ */
+public abstract class BatchColumnReader
+        extends PrimitiveColumnReader
+{
+    private int[] skippedDefinitionLevels = new int[0];
+
+    public BatchColumnReader(RichColumnDescriptor columnDescriptor)
+    {
+        super(columnDescriptor);
+    }
+
+    protected abstract void initializeValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader);
+
+    protected abstract void beginBatch(int maxValueCount);
+
+    /**
+     * Decodes the next {@code count} non-null values of the current page, appending them to the batch.
+     */
+    protected abstract void readNonNullValues(int count);
+
+    protected abstract void skipNonNullValues(int count);
+
+    /**
+     * Creates a block from the values of the batch, spreading them over the positions that are not null.
+     */
+    protected abstract Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull);
+
+    @Override
+    protected void valuesReaderInitialized(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        if (isBatchDecoding()) {
+            initializeValuesDecoder(encoding, bytes, offset, dictionary, valuesReader);
+        }
+    }
+
+    @Override
+    public ColumnChunk readPrimitive(Field field)
+            throws IOException
+    {
+        if (!isBatchDecoding()) {
+            return super.readPrimitive(field);
+        }
+
+        seekBatch();
+        int batchSize = getNextBatchSize();
+        int[] definitionLevels = new int[batchSize];
+        beginBatch(batchSize);
+        int valueCount = 0;
+        while (valueCount < batchSize) {
+            if (!hasPage()) {
+                readNextPage();
+            }
+            int chunkSize = min(getRemainingValueCountInPage(), batchSize - valueCount);
+            getDefinitionReader().readLevels(definitionLevels, valueCount, chunkSize);
+            readNonNullValues(countNonNullValues(definitionLevels, valueCount, chunkSize));
+            updateValueCounts(chunkSize);
+            valueCount += chunkSize;
+        }
+
+        int maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+        int positionCount = batchSize;
+        Optional<boolean[]> isNull = Optional.empty();
+        if (maxDefinitionLevel > 0) {
+            // values with a level below the null level belong to a null parent and have no position
+            boolean[] valueIsNull = new boolean[batchSize];
+            boolean hasNull = false;
+            positionCount = 0;
+            for (int i = 0; i < batchSize; i++) {
+                int level = definitionLevels[i];
+                if (level == maxDefinitionLevel) {
+                    positionCount++;
+                }
+                else if (ParquetTypeUtils.isValueNull(columnDescriptor.isRequired(), level, maxDefinitionLevel)) {
+                    valueIsNull[positionCount++] = true;
+                    hasNull = true;
+                }
+            }
+            if (hasNull) {
+                isNull = Optional.of(valueIsNull);
+            }
+        }
+        Block block = createBlock(field.getType(), positionCount, isNull);
+
+        finishRead();
+        return new ColumnChunk(block, definitionLevels, new int[batchSize]);
+    }
+
+    private boolean isBatchDecoding()
+    {
+        return columnDescriptor.getMaxRepetitionLevel() == 0;
+    }
+
+    private void seekBatch()
+    {
+        checkValuesRemaining();
+        int readOffset = getReadOffset();
+        int valuePosition = 0;
+        while (valuePosition < readOffset) {
+            valuePosition += skipPages(readOffset - valuePosition);
+            if (valuePosition == readOffset) {
+                break;
+            }
+            if (!hasPage()) {
+                readNextPage();
+            }
+            int chunkSize = min(getRemainingValueCountInPage(), readOffset - valuePosition);
+            if (skippedDefinitionLevels.length < chunkSize) {
+                skippedDefinitionLevels = new int[chunkSize];
+            }
+            getDefinitionReader().readLevels(skippedDefinitionLevels, 0, chunkSize);
+            skipNonNullValues(countNonNullValues(skippedDefinitionLevels, 0, chunkSize));
+            updateValueCounts(chunkSize);
+            valuePosition += chunkSize;
+        }
+    }
+
+    private int countNonNullValues(int[] definitionLevels, int offset, int length)
+    {
+        int maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+        int count = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (definitionLevels[i] == maxDefinitionLevel) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves the non-null values packed at the start of {@code values} to their positions.
+     */
+    protected static void unpackNulls(long[] values, boolean[] isNull, int positionCount)
+    {
+        int valueIndex = countNonNullPositions(isNull, positionCount) - 1;
+        for (int position = positionCount - 1; position >= 0; position--) {
+            if (isNull[position]) {
+                values[position] = 0;
+            }
+            else {
+                values[position] = values[valueIndex--];
+            }
+        }
+    }
+
+    /**
+     * Moves the non-null values packed at the start of {@code values} to their positions.
+     */
+    protected static void unpackNulls(int[] values, boolean[] isNull, int positionCount)
+    {
+        int valueIndex = countNonNullPositions(isNull, positionCount) - 1;
+        for (int position = positionCount - 1; position >= 0; position--) {
+            if (isNull[position]) {
+                values[position] = 0;
+            }
+            else {
+                values[position] = values[valueIndex--];
+            }
+        }
+    }
+
+    private static int countNonNullPositions(boolean[] isNull, int positionCount)
+    {
+        int count = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!isNull[position]) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -13,22 +13,41 @@
  */
 package io.prestosql.parquet.reader;
 
+import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
+import io.prestosql.parquet.ParquetEncoding;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.parquet.reader.ValuesDecoder.BinaryValuesDecoder;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.VariableWidthBlock;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import parquet.column.values.ValuesReader;
 import parquet.io.api.Binary;
 
+import java.util.Optional;
+
 import static io.airlift.slice.Slices.EMPTY_SLICE;
 import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.parquet.reader.ValuesDecoders.createBinaryValuesDecoder;
 import static io.prestosql.spi.type.Chars.isCharType;
 import static io.prestosql.spi.type.Chars.truncateToLengthAndTrimSpaces;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.Varchars.isVarcharType;
 import static io.prestosql.spi.type.Varchars.truncateToLength;
 
 public class BinaryColumnReader
-        extends PrimitiveColumnReader
+        extends BatchColumnReader
 {
+    private static final int INITIAL_BATCH_BYTES = 1024;
+
+    private BinaryValuesDecoder valuesDecoder;
+    private DynamicSliceOutput output;
+    private int[] offsets;
+    private int valueCount;
+
     public BinaryColumnReader(RichColumnDescriptor descriptor)
     {
         super(descriptor);
@@ -46,13 +65,7 @@ public class BinaryColumnReader
             else {
                 value = wrappedBuffer(binary.getBytes());
             }
-            if (isVarcharType(type)) {
-                value = truncateToLength(value, type);
-            }
-            if (isCharType(type)) {
-                value = truncateToLengthAndTrimSpaces(value, type);
-            }
-            type.writeSlice(blockBuilder, value);
+            type.writeSlice(blockBuilder, truncate(value, type));
         }
         else if (isValueNull()) {
             blockBuilder.appendNull();
@@ -66,4 +79,75 @@ public class BinaryColumnReader
             valuesReader.readBytes();
         }
     }
+
+    @Override
+    protected void initializeValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        valuesDecoder = createBinaryValuesDecoder(encoding, bytes, offset, dictionary, valuesReader);
+    }
+
+    @Override
+    protected void beginBatch(int maxValueCount)
+    {
+        output = new DynamicSliceOutput(INITIAL_BATCH_BYTES);
+        offsets = new int[maxValueCount + 1];
+        valueCount = 0;
+    }
+
+    @Override
+    protected void readNonNullValues(int count)
+    {
+        valuesDecoder.read(output, offsets, valueCount, count);
+        valueCount += count;
+    }
+
+    @Override
+    protected void skipNonNullValues(int count)
+    {
+        valuesDecoder.skip(count);
+    }
+
+    @Override
+    protected Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull)
+    {
+        Slice data = output.slice();
+        int[] positionOffsets = offsets;
+        if (isNull.isPresent()) {
+            boolean[] valueIsNull = isNull.get();
+            positionOffsets = new int[positionCount + 1];
+            int valueIndex = 0;
+            for (int position = 0; position < positionCount; position++) {
+                if (!valueIsNull[position]) {
+                    valueIndex++;
+                }
+                positionOffsets[position + 1] = offsets[valueIndex];
+            }
+        }
+
+        if (type.equals(VARBINARY) || (type instanceof VarcharType && ((VarcharType) type).isUnbounded())) {
+            return new VariableWidthBlock(positionCount, data, positionOffsets, isNull);
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            if (isNull.isPresent() && isNull.get()[position]) {
+                blockBuilder.appendNull();
+            }
+            else {
+                Slice value = data.slice(positionOffsets[position], positionOffsets[position + 1] - positionOffsets[position]);
+                type.writeSlice(blockBuilder, truncate(value, type));
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private static Slice truncate(Slice value, Type type)
+    {
+        if (isVarcharType(type)) {
+            value = truncateToLength(value, type);
+        }
+        if (isCharType(type)) {
+            value = truncateToLengthAndTrimSpaces(value, type);
+        }
+        return value;
+    }
 }
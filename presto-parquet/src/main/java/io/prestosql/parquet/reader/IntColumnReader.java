@@ -13,13 +13,31 @@
  */
 package io.prestosql.parquet.reader;
 
+import io.prestosql.parquet.ParquetEncoding;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.parquet.reader.ValuesDecoder.IntValuesDecoder;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.IntArrayBlock;
+import io.prestosql.spi.block.LongArrayBlock;
 import io.prestosql.spi.type.Type;
+import parquet.column.values.ValuesReader;
+
+import java.util.Optional;
+
+import static io.prestosql.parquet.reader.ValuesDecoders.createIntValuesDecoder;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
 
 public class IntColumnReader
-        extends PrimitiveColumnReader
+        extends BatchColumnReader
 {
+    private IntValuesDecoder valuesDecoder;
+    private int[] values;
+    private int valueCount;
+
     public IntColumnReader(RichColumnDescriptor descriptor)
     {
         super(descriptor);
@@ -43,4 +61,58 @@ public class IntColumnReader
             valuesReader.readInteger();
         }
     }
+
+    @Override
+    protected void initializeValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        valuesDecoder = createIntValuesDecoder(encoding, bytes, offset, dictionary, valuesReader);
+    }
+
+    @Override
+    protected void beginBatch(int maxValueCount)
+    {
+        values = new int[maxValueCount];
+        valueCount = 0;
+    }
+
+    @Override
+    protected void readNonNullValues(int count)
+    {
+        valuesDecoder.read(values, valueCount, count);
+        valueCount += count;
+    }
+
+    @Override
+    protected void skipNonNullValues(int count)
+    {
+        valuesDecoder.skip(count);
+    }
+
+    @Override
+    protected Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull)
+    {
+        if (isNull.isPresent()) {
+            unpackNulls(values, isNull.get(), positionCount);
+        }
+        if (type.equals(INTEGER) || type.equals(DATE)) {
+            return new IntArrayBlock(positionCount, isNull, values);
+        }
+        if (type.equals(BIGINT)) {
+            long[] longValues = new long[positionCount];
+            for (int position = 0; position < positionCount; position++) {
+                longValues[position] = values[position];
+            }
+            return new LongArrayBlock(positionCount, isNull, longValues);
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            if (isNull.isPresent() && isNull.get()[position]) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.writeLong(blockBuilder, values[position]);
+            }
+        }
+        return blockBuilder.build();
+    }
 }
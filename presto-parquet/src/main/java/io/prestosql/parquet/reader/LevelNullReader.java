@@ -13,6 +13,8 @@
  */
 package io.prestosql.parquet.reader;
 
+import java.util.Arrays;
+
 public class LevelNullReader
         implements LevelReader
 {
@@ -21,4 +23,10 @@ public class LevelNullReader
     {
         return 0;
     }
+
+    @Override
+    public void readLevels(int[] levels, int offset, int length)
+    {
+        Arrays.fill(levels, offset, offset + length, 0);
+    }
 }
@@ -13,17 +13,12 @@
  */
 package io.prestosql.parquet.reader;
 
-import parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
-import parquet.io.ParquetDecodingException;
-
-import java.io.IOException;
-
 public class LevelRLEReader
         implements LevelReader
 {
-    private final RunLengthBitPackingHybridDecoder delegate;
+    private final RleBitPackingHybridDecoder delegate;
 
-    public LevelRLEReader(RunLengthBitPackingHybridDecoder delegate)
+    public LevelRLEReader(RleBitPackingHybridDecoder delegate)
     {
         this.delegate = delegate;
     }
@@ -31,11 +26,12 @@ public class LevelRLEReader
     @Override
     public int readLevel()
     {
-        try {
-            return delegate.readInt();
-        }
-        catch (IOException e) {
-            throw new ParquetDecodingException(e);
-        }
+        return delegate.readInt();
+    }
+
+    @Override
+    public void readLevels(int[] levels, int offset, int length)
+    {
+        delegate.readInts(levels, offset, length);
     }
 }
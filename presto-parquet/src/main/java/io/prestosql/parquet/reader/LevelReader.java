@@ -16,4 +16,11 @@ package io.prestosql.parquet.reader;
 public interface LevelReader
 {
     int readLevel();
+
+    default void readLevels(int[] levels, int offset, int length)
+    {
+        for (int i = offset; i < offset + length; i++) {
+            levels[i] = readLevel();
+        }
+    }
 }
@@ -13,13 +13,28 @@
  */
 package io.prestosql.parquet.reader;
 
+import io.prestosql.parquet.ParquetEncoding;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.parquet.reader.ValuesDecoder.LongValuesDecoder;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.LongArrayBlock;
 import io.prestosql.spi.type.Type;
+import parquet.column.values.ValuesReader;
+
+import java.util.Optional;
+
+import static io.prestosql.parquet.reader.ValuesDecoders.createLongValuesDecoder;
+import static io.prestosql.spi.type.BigintType.BIGINT;
 
 public class LongColumnReader
-        extends PrimitiveColumnReader
+        extends BatchColumnReader
 {
+    private LongValuesDecoder valuesDecoder;
+    private long[] values;
+    private int valueCount;
+
     public LongColumnReader(RichColumnDescriptor descriptor)
     {
         super(descriptor);
@@ -43,4 +58,51 @@ public class LongColumnReader
             valuesReader.readLong();
         }
     }
+
+    @Override
+    protected void initializeValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        valuesDecoder = createLongValuesDecoder(encoding, bytes, offset, dictionary, valuesReader);
+    }
+
+    @Override
+    protected void beginBatch(int maxValueCount)
+    {
+        values = new long[maxValueCount];
+        valueCount = 0;
+    }
+
+    @Override
+    protected void readNonNullValues(int count)
+    {
+        valuesDecoder.read(values, valueCount, count);
+        valueCount += count;
+    }
+
+    @Override
+    protected void skipNonNullValues(int count)
+    {
+        valuesDecoder.skip(count);
+    }
+
+    @Override
+    protected Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull)
+    {
+        if (isNull.isPresent()) {
+            unpackNulls(values, isNull.get(), positionCount);
+        }
+        if (type.equals(BIGINT)) {
+            return new LongArrayBlock(positionCount, isNull, values);
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            if (isNull.isPresent() && isNull.get()[position]) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.writeLong(blockBuilder, values[position]);
+            }
+        }
+        return blockBuilder.build();
+    }
 }
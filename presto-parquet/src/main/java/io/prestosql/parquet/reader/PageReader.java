@@ -20,6 +20,7 @@ import io.prestosql.parquet.DictionaryPage;
 import parquet.hadoop.metadata.CompressionCodecName;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -52,6 +53,33 @@ class PageReader
         return valueCount;
     }
 
+    /**
+     * Returns the pages that have not been read yet, still compressed.
+     */
+    public List<DataPage> getCompressedPages()
+    {
+        return Collections.unmodifiableList(compressedPages);
+    }
+
+    /**
+     * Returns the value count of the next page, or -1 if all pages have been read.
+     */
+    public int getNextPageValueCount()
+    {
+        if (compressedPages.isEmpty()) {
+            return -1;
+        }
+        return compressedPages.get(0).getValueCount();
+    }
+
+    /**
+     * Drops the next page without decompressing it.
+     */
+    public void skipPage()
+    {
+        compressedPages.remove(0);
+    }
+
     public DataPage readPage()
     {
         if (compressedPages.isEmpty()) {
@@ -13,14 +13,18 @@
  */
 package io.prestosql.parquet.reader;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.parquet.DataPage;
 import io.prestosql.parquet.Field;
 import io.prestosql.parquet.GroupField;
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.ParquetDataSource;
 import io.prestosql.parquet.PrimitiveField;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
 import io.prestosql.spi.block.ArrayBlock;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RowBlock;
@@ -44,6 +48,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.parquet.ParquetValidationUtils.validateParquet;
@@ -64,6 +69,9 @@ public class ParquetReader
     private final List<PrimitiveColumnIO> columns;
     private final ParquetDataSource dataSource;
     private final AggregatedMemoryContext systemMemoryContext;
+    private final Predicate parquetPredicate;
+    private final Set<ColumnDescriptor> predicateColumns;
+    private final boolean failOnCorruptedParquetStatistics;
 
     private int currentBlock;
     private BlockMetaData currentBlockMetadata;
@@ -71,6 +79,8 @@ public class ParquetReader
     private long currentGroupRowCount;
     private long nextRowInGroup;
     private int batchSize;
+    private RowRanges currentRowRanges = RowRanges.EMPTY;
+    private int currentRange;
     private final PrimitiveColumnReader[] columnReaders;
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
@@ -79,10 +89,29 @@ public class ParquetReader
             List<BlockMetaData> blocks,
             ParquetDataSource dataSource,
             AggregatedMemoryContext systemMemoryContext)
+    {
+        this(messageColumnIO, blocks, dataSource, systemMemoryContext, Predicate.TRUE, ImmutableSet.of(), false);
+    }
+
+    /**
+     * Creates a reader that skips data pages of {@code predicateColumns} whose statistics
+     * do not match {@code parquetPredicate}. The rows of the skipped pages are skipped in
+     * all columns, so only columns without repetition levels take part in the filtering.
+     */
+    public ParquetReader(MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            ParquetDataSource dataSource,
+            AggregatedMemoryContext systemMemoryContext,
+            Predicate parquetPredicate,
+            Set<ColumnDescriptor> predicateColumns,
+            boolean failOnCorruptedParquetStatistics)
     {
         this.blocks = blocks;
         this.dataSource = requireNonNull(dataSource, "dataSource is null");
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
+        this.parquetPredicate = requireNonNull(parquetPredicate, "parquetPredicate is null");
+        this.predicateColumns = ImmutableSet.copyOf(requireNonNull(predicateColumns, "predicateColumns is null"));
+        this.failOnCorruptedParquetStatistics = failOnCorruptedParquetStatistics;
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         columns = messageColumnIO.getLeaves();
         columnReaders = new PrimitiveColumnReader[columns.size()];
@@ -102,12 +131,13 @@ public class ParquetReader
     }
 
     public int nextBatch()
+            throws IOException
     {
-        if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
+        if (!advanceToNextRowRange()) {
             return -1;
         }
 
-        batchSize = toIntExact(min(MAX_VECTOR_LENGTH, currentGroupRowCount - nextRowInGroup));
+        batchSize = toIntExact(min(MAX_VECTOR_LENGTH, currentRowRanges.getEnd(currentRange) - nextRowInGroup));
 
         nextRowInGroup += batchSize;
         currentPosition += batchSize;
@@ -116,7 +146,35 @@ public class ParquetReader
         return batchSize;
     }
 
+    private boolean advanceToNextRowRange()
+            throws IOException
+    {
+        while (true) {
+            if (currentRange < currentRowRanges.getRangeCount()) {
+                if (nextRowInGroup < currentRowRanges.getEnd(currentRange)) {
+                    break;
+                }
+                currentRange++;
+            }
+            else if (!advanceToNextRowGroup()) {
+                return false;
+            }
+        }
+
+        long rangeStart = currentRowRanges.getStart(currentRange);
+        if (nextRowInGroup < rangeStart) {
+            // rows before the range are folded into the next read offset of every column
+            int skippedRows = toIntExact(rangeStart - nextRowInGroup);
+            nextRowInGroup = rangeStart;
+            currentPosition += skippedRows;
+            Arrays.stream(columnReaders)
+                    .forEach(reader -> reader.prepareNextRead(skippedRows));
+        }
+        return true;
+    }
+
     private boolean advanceToNextRowGroup()
+            throws IOException
     {
         currentRowGroupMemoryContext.close();
         currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
@@ -130,9 +188,46 @@ public class ParquetReader
         nextRowInGroup = 0L;
         currentGroupRowCount = currentBlockMetadata.getRowCount();
         initializeColumnReaders();
+        currentRowRanges = getMatchingRowRanges();
+        currentRange = 0;
         return true;
     }
 
+    private RowRanges getMatchingRowRanges()
+            throws IOException
+    {
+        RowRanges rowRanges = RowRanges.all(currentGroupRowCount);
+        for (PrimitiveColumnIO columnIO : columns) {
+            ColumnDescriptor columnDescriptor = columnIO.getColumnDescriptor();
+            if (columnDescriptor.getMaxRepetitionLevel() > 0 || !predicateColumns.contains(columnDescriptor)) {
+                continue;
+            }
+            PrimitiveColumnReader columnReader = columnReaders[columnIO.getId()];
+            initializePageReader(columnReader, columnDescriptor);
+            rowRanges = rowRanges.intersect(getMatchingRowRanges(columnReader.getPageReader(), columnDescriptor));
+            if (rowRanges.isEmpty()) {
+                break;
+            }
+        }
+        return rowRanges;
+    }
+
+    private RowRanges getMatchingRowRanges(PageReader pageReader, ColumnDescriptor columnDescriptor)
+            throws IOException
+    {
+        // without repetition levels, the value count of a page is its row count
+        RowRanges.Builder rowRanges = RowRanges.builder();
+        long firstRow = 0;
+        for (DataPage page : pageReader.getCompressedPages()) {
+            long rowCount = page.getValueCount();
+            if (parquetPredicate.matches(rowCount, ImmutableMap.of(columnDescriptor, page.getStatistics()), dataSource.getId(), failOnCorruptedParquetStatistics)) {
+                rowRanges.add(firstRow, firstRow + rowCount);
+            }
+            firstRow += rowCount;
+        }
+        return rowRanges.build();
+    }
+
     private ColumnChunk readArray(GroupField field)
             throws IOException
     {
@@ -195,6 +290,13 @@ public class ParquetReader
     {
         ColumnDescriptor columnDescriptor = field.getDescriptor();
         PrimitiveColumnReader columnReader = columnReaders[field.getId()];
+        initializePageReader(columnReader, columnDescriptor);
+        return columnReader.readPrimitive(field);
+    }
+
+    private void initializePageReader(PrimitiveColumnReader columnReader, ColumnDescriptor columnDescriptor)
+            throws IOException
+    {
         if (columnReader.getPageReader() == null) {
             validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
             ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
@@ -206,7 +308,6 @@ public class ParquetReader
             ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
             columnReader.setPageReader(columnChunk.readAllPages());
         }
-        return columnReader.readPrimitive(field);
     }
 
     private byte[] allocateBlock(int length)
@@ -29,25 +29,26 @@ import io.prestosql.spi.type.DecimalType;
 import io.prestosql.spi.type.Type;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
-import parquet.bytes.BytesUtils;
 import parquet.column.ColumnDescriptor;
 import parquet.column.values.ValuesReader;
-import parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
 import parquet.io.ParquetDecodingException;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.prestosql.parquet.ParquetEncoding.RLE;
 import static io.prestosql.parquet.ParquetTypeUtils.createDecimalType;
 import static io.prestosql.parquet.ValuesType.DEFINITION_LEVEL;
 import static io.prestosql.parquet.ValuesType.REPETITION_LEVEL;
 import static io.prestosql.parquet.ValuesType.VALUES;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static java.util.Objects.requireNonNull;
+import static parquet.bytes.BytesUtils.getWidthFromMaxInt;
+import static parquet.bytes.BytesUtils.readIntLittleEndian;
 
 public abstract class PrimitiveColumnReader
 {
@@ -73,6 +74,13 @@ public abstract class PrimitiveColumnReader
 
     protected abstract void skipValue();
 
+    /**
+     * Called after the values reader of a data page is initialized.
+     */
+    protected void valuesReaderInitialized(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+    }
+
     protected boolean isValueNull()
     {
         return ParquetTypeUtils.isValueNull(columnDescriptor.isRequired(), definitionLevel, columnDescriptor.getMaxDefinitionLevel());
@@ -173,8 +181,7 @@ public abstract class PrimitiveColumnReader
         }
         checkArgument(valueCount == nextBatchSize, "valueCount %s not equals to batchSize %s", valueCount, nextBatchSize);
 
-        readOffset = 0;
-        nextBatchSize = 0;
+        finishRead();
         return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
     }
 
@@ -218,14 +225,56 @@ public abstract class PrimitiveColumnReader
         updateValueCounts(valueCount);
     }
 
-    private void seek()
+    int getReadOffset()
+    {
+        return readOffset;
+    }
+
+    int getNextBatchSize()
+    {
+        return nextBatchSize;
+    }
+
+    void checkValuesRemaining()
     {
         checkArgument(currentValueCount <= totalValueCount, "Already read all values in column chunk");
+    }
+
+    void finishRead()
+    {
+        readOffset = 0;
+        nextBatchSize = 0;
+    }
+
+    boolean hasPage()
+    {
+        return page != null;
+    }
+
+    int getRemainingValueCountInPage()
+    {
+        return remainingValueCountInPage;
+    }
+
+    LevelReader getDefinitionReader()
+    {
+        return definitionReader;
+    }
+
+    private void seek()
+    {
+        checkValuesRemaining();
         if (readOffset == 0) {
             return;
         }
         int valuePosition = 0;
         while (valuePosition < readOffset) {
+            if (columnDescriptor.getMaxRepetitionLevel() == 0) {
+                valuePosition += skipPages(readOffset - valuePosition);
+                if (valuePosition == readOffset) {
+                    break;
+                }
+            }
             if (page == null) {
                 readNextPage();
             }
@@ -236,7 +285,34 @@ public abstract class PrimitiveColumnReader
         checkArgument(valuePosition == readOffset, "valuePosition %s must be equal to readOffset %s", valuePosition, readOffset);
     }
 
-    private boolean readNextPage()
+    /**
+     * Drops whole pages that fall within the values to skip without decompressing
+     * or decoding them. Only valid for columns without repetition levels, where
+     * every value starts a new row and pages never split a row.
+     */
+    int skipPages(int valuesToSkip)
+    {
+        int skippedValues = 0;
+        if (page != null) {
+            if (remainingValueCountInPage > valuesToSkip) {
+                return 0;
+            }
+            skippedValues = remainingValueCountInPage;
+            updateValueCounts(remainingValueCountInPage);
+            definitionLevel = EMPTY_LEVEL_VALUE;
+            repetitionLevel = EMPTY_LEVEL_VALUE;
+        }
+        int nextPageValueCount = pageReader.getNextPageValueCount();
+        while (nextPageValueCount >= 0 && nextPageValueCount <= valuesToSkip - skippedValues) {
+            pageReader.skipPage();
+            skippedValues += nextPageValueCount;
+            currentValueCount += nextPageValueCount;
+            nextPageValueCount = pageReader.getNextPageValueCount();
+        }
+        return skippedValues;
+    }
+
+    boolean readNextPage()
     {
         verify(page == null, "readNextPage has to be called when page is null");
         page = pageReader.readPage();
@@ -254,7 +330,7 @@ public abstract class PrimitiveColumnReader
         return true;
     }
 
-    private void updateValueCounts(int valuesRead)
+    void updateValueCounts(int valuesRead)
     {
         if (valuesRead == remainingValueCountInPage) {
             page = null;
@@ -275,6 +351,12 @@ public abstract class PrimitiveColumnReader
             rlReader.initFromPage(page.getValueCount(), bytes, 0);
             int offset = rlReader.getNextOffset();
             dlReader.initFromPage(page.getValueCount(), bytes, offset);
+            int maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+            if (maxDefinitionLevel > 0 && page.getDefinitionLevelEncoding() == RLE) {
+                // decode the levels a run at a time; the RLE data is prefixed with its length
+                int length = readIntLittleEndian(bytes, offset);
+                definitionReader = new LevelRLEReader(new RleBitPackingHybridDecoder(getWidthFromMaxInt(maxDefinitionLevel), bytes, offset + SIZE_OF_INT, offset + SIZE_OF_INT + length));
+            }
             offset = dlReader.getNextOffset();
             return initDataReader(page.getValueEncoding(), bytes, offset, page.getValueCount());
         }
@@ -295,7 +377,8 @@ public abstract class PrimitiveColumnReader
         if (maxLevel == 0) {
             return new LevelNullReader();
         }
-        return new LevelRLEReader(new RunLengthBitPackingHybridDecoder(BytesUtils.getWidthFromMaxInt(maxLevel), new ByteArrayInputStream(slice.getBytes())));
+        byte[] bytes = slice.getBytes();
+        return new LevelRLEReader(new RleBitPackingHybridDecoder(getWidthFromMaxInt(maxLevel), bytes, 0, bytes.length));
     }
 
     private ValuesReader initDataReader(ParquetEncoding dataEncoding, byte[] bytes, int offset, int valueCount)
@@ -313,6 +396,7 @@ public abstract class PrimitiveColumnReader
 
         try {
             valuesReader.initFromPage(valueCount, bytes, offset);
+            valuesReaderInitialized(dataEncoding, bytes, offset, dictionary, valuesReader);
             return valuesReader;
         }
         catch (IOException e) {
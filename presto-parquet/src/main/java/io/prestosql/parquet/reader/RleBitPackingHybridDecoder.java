@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import parquet.io.ParquetDecodingException;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.min;
+
+/**
+ * Decodes the RLE/bit-packing hybrid encoding used for definition levels,
+ * repetition levels and dictionary ids a run at a time, instead of a value
+ * at a time like {@link parquet.column.values.rle.RunLengthBitPackingHybridDecoder}.
+ */
+public class RleBitPackingHybridDecoder
+{
+    private final int bitWidth;
+    private final long valueMask;
+    private final int rleValueBytes;
+    private final byte[] buffer;
+    private final int end;
+    private int position;
+
+    private boolean rleRun;
+    private int rleValue;
+    private int[] packedValues = new int[0];
+    private int packedPosition;
+    private int remainingInRun;
+
+    public RleBitPackingHybridDecoder(int bitWidth, byte[] buffer, int offset, int end)
+    {
+        checkArgument(bitWidth >= 0 && bitWidth <= 32, "bitWidth must be between 0 and 32: %s", bitWidth);
+        checkArgument(offset >= 0 && offset <= end && end <= buffer.length, "Invalid buffer range [%s, %s) for buffer of length %s", offset, end, buffer.length);
+        this.bitWidth = bitWidth;
+        this.valueMask = (1L << bitWidth) - 1;
+        this.rleValueBytes = (bitWidth + 7) / 8;
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = end;
+    }
+
+    public int readInt()
+    {
+        if (remainingInRun == 0) {
+            readNextRun();
+        }
+        remainingInRun--;
+        if (rleRun) {
+            return rleValue;
+        }
+        return packedValues[packedPosition++];
+    }
+
+    public void readInts(int[] values, int offset, int length)
+    {
+        while (length > 0) {
+            if (remainingInRun == 0) {
+                readNextRun();
+            }
+            int chunkSize = min(length, remainingInRun);
+            if (rleRun) {
+                Arrays.fill(values, offset, offset + chunkSize, rleValue);
+            }
+            else {
+                System.arraycopy(packedValues, packedPosition, values, offset, chunkSize);
+                packedPosition += chunkSize;
+            }
+            remainingInRun -= chunkSize;
+            offset += chunkSize;
+            length -= chunkSize;
+        }
+    }
+
+    public void skip(int length)
+    {
+        while (length > 0) {
+            if (remainingInRun == 0) {
+                readNextRun();
+            }
+            int chunkSize = min(length, remainingInRun);
+            if (!rleRun) {
+                packedPosition += chunkSize;
+            }
+            remainingInRun -= chunkSize;
+            length -= chunkSize;
+        }
+    }
+
+    private void readNextRun()
+    {
+        if (position >= end) {
+            throw new ParquetDecodingException("Unexpected end of RLE/bit-packed hybrid data");
+        }
+        int header = readUnsignedVarInt();
+        if ((header & 1) == 0) {
+            rleRun = true;
+            remainingInRun = header >>> 1;
+            int value = 0;
+            for (int i = 0; i < rleValueBytes; i++) {
+                value |= (readByte() & 0xFF) << (i * 8);
+            }
+            rleValue = value;
+        }
+        else {
+            rleRun = false;
+            int valueCount = (header >>> 1) * 8;
+            if (packedValues.length < valueCount) {
+                packedValues = new int[valueCount];
+            }
+            unpack(valueCount);
+            packedPosition = 0;
+            remainingInRun = valueCount;
+        }
+    }
+
+    private void unpack(int valueCount)
+    {
+        // values are packed least significant bit first; the last group may be
+        // truncated by writers, in which case the missing bits read as zero
+        long bits = 0;
+        int bitCount = 0;
+        for (int i = 0; i < valueCount; i++) {
+            while (bitCount < bitWidth) {
+                bits |= (readByte() & 0xFFL) << bitCount;
+                bitCount += 8;
+            }
+            packedValues[i] = (int) (bits & valueMask);
+            bits >>>= bitWidth;
+            bitCount -= bitWidth;
+        }
+    }
+
+    private int readUnsignedVarInt()
+    {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (position >= end) {
+                throw new ParquetDecodingException("Unexpected end of RLE/bit-packed hybrid data");
+            }
+            b = buffer[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private byte readByte()
+    {
+        if (position >= end) {
+            return 0;
+        }
+        return buffer[position++];
+    }
+}
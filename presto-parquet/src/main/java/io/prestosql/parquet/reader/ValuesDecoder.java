@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import io.airlift.slice.SliceOutput;
+
+/**
+ * Decodes the non-null values of a data page in batches.
+ */
+public interface ValuesDecoder
+{
+    void skip(int length);
+
+    interface LongValuesDecoder
+            extends ValuesDecoder
+    {
+        void read(long[] values, int offset, int length);
+    }
+
+    interface IntValuesDecoder
+            extends ValuesDecoder
+    {
+        void read(int[] values, int offset, int length);
+    }
+
+    interface BinaryValuesDecoder
+            extends ValuesDecoder
+    {
+        /**
+         * Appends the values to {@code output} and stores the end offset of value
+         * {@code i} in {@code offsets[offset + i + 1]}.
+         */
+        void read(SliceOutput output, int[] offsets, int offset, int length);
+    }
+}
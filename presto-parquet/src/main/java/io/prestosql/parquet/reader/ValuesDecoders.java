@@ -0,0 +1,343 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.prestosql.parquet.ParquetEncoding;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.parquet.reader.ValuesDecoder.BinaryValuesDecoder;
+import io.prestosql.parquet.reader.ValuesDecoder.IntValuesDecoder;
+import io.prestosql.parquet.reader.ValuesDecoder.LongValuesDecoder;
+import parquet.column.values.ValuesReader;
+import parquet.io.ParquetDecodingException;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.parquet.ParquetEncoding.PLAIN;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch decoders for PLAIN and dictionary encoded pages. Other encodings are
+ * decoded value by value through the page's {@link ValuesReader}.
+ */
+public final class ValuesDecoders
+{
+    private ValuesDecoders()
+    {
+    }
+
+    public static LongValuesDecoder createLongValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        if (encoding == PLAIN) {
+            return new PlainLongValuesDecoder(bytes, offset);
+        }
+        if (encoding.usesDictionary()) {
+            return new DictionaryLongValuesDecoder(createDictionaryIdDecoder(bytes, offset), dictionary);
+        }
+        return new LongValuesReaderDecoder(valuesReader);
+    }
+
+    public static IntValuesDecoder createIntValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        if (encoding == PLAIN) {
+            return new PlainIntValuesDecoder(bytes, offset);
+        }
+        if (encoding.usesDictionary()) {
+            return new DictionaryIntValuesDecoder(createDictionaryIdDecoder(bytes, offset), dictionary);
+        }
+        return new IntValuesReaderDecoder(valuesReader);
+    }
+
+    public static BinaryValuesDecoder createBinaryValuesDecoder(ParquetEncoding encoding, byte[] bytes, int offset, Dictionary dictionary, ValuesReader valuesReader)
+    {
+        if (encoding == PLAIN) {
+            return new PlainBinaryValuesDecoder(bytes, offset);
+        }
+        if (encoding.usesDictionary()) {
+            return new DictionaryBinaryValuesDecoder(createDictionaryIdDecoder(bytes, offset), dictionary);
+        }
+        return new BinaryValuesReaderDecoder(valuesReader);
+    }
+
+    private static RleBitPackingHybridDecoder createDictionaryIdDecoder(byte[] bytes, int offset)
+    {
+        if (offset >= bytes.length) {
+            // page without non-null values
+            return new RleBitPackingHybridDecoder(0, bytes, bytes.length, bytes.length);
+        }
+        // the ids are prefixed with their bit width
+        return new RleBitPackingHybridDecoder(bytes[offset] & 0xFF, bytes, offset + 1, bytes.length);
+    }
+
+    private static class PlainLongValuesDecoder
+            implements LongValuesDecoder
+    {
+        private final Slice input;
+        private int position;
+
+        public PlainLongValuesDecoder(byte[] bytes, int offset)
+        {
+            this.input = wrappedBuffer(bytes);
+            this.position = offset;
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = input.getLong(position);
+                position += SIZE_OF_LONG;
+            }
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            position += length * SIZE_OF_LONG;
+        }
+    }
+
+    private static class PlainIntValuesDecoder
+            implements IntValuesDecoder
+    {
+        private final Slice input;
+        private int position;
+
+        public PlainIntValuesDecoder(byte[] bytes, int offset)
+        {
+            this.input = wrappedBuffer(bytes);
+            this.position = offset;
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = input.getInt(position);
+                position += SIZE_OF_INT;
+            }
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            position += length * SIZE_OF_INT;
+        }
+    }
+
+    private static class PlainBinaryValuesDecoder
+            implements BinaryValuesDecoder
+    {
+        private final Slice input;
+        private int position;
+
+        public PlainBinaryValuesDecoder(byte[] bytes, int offset)
+        {
+            this.input = wrappedBuffer(bytes);
+            this.position = offset;
+        }
+
+        @Override
+        public void read(SliceOutput output, int[] offsets, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                int valueLength = input.getInt(position);
+                output.writeBytes(input, position + SIZE_OF_INT, valueLength);
+                position += SIZE_OF_INT + valueLength;
+                offsets[i + 1] = output.size();
+            }
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            for (int i = 0; i < length; i++) {
+                position += SIZE_OF_INT + input.getInt(position);
+            }
+        }
+    }
+
+    private abstract static class DictionaryValuesDecoder
+            implements ValuesDecoder
+    {
+        private final RleBitPackingHybridDecoder idDecoder;
+        protected final Dictionary dictionary;
+        protected int[] ids = new int[0];
+
+        protected DictionaryValuesDecoder(RleBitPackingHybridDecoder idDecoder, Dictionary dictionary)
+        {
+            this.idDecoder = requireNonNull(idDecoder, "idDecoder is null");
+            if (dictionary == null) {
+                throw new ParquetDecodingException("Dictionary is missing for Page");
+            }
+            this.dictionary = dictionary;
+        }
+
+        protected void readIds(int length)
+        {
+            if (ids.length < length) {
+                ids = new int[length];
+            }
+            idDecoder.readInts(ids, 0, length);
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            idDecoder.skip(length);
+        }
+    }
+
+    private static class DictionaryLongValuesDecoder
+            extends DictionaryValuesDecoder
+            implements LongValuesDecoder
+    {
+        public DictionaryLongValuesDecoder(RleBitPackingHybridDecoder idDecoder, Dictionary dictionary)
+        {
+            super(idDecoder, dictionary);
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            readIds(length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = dictionary.decodeToLong(ids[i]);
+            }
+        }
+    }
+
+    private static class DictionaryIntValuesDecoder
+            extends DictionaryValuesDecoder
+            implements IntValuesDecoder
+    {
+        public DictionaryIntValuesDecoder(RleBitPackingHybridDecoder idDecoder, Dictionary dictionary)
+        {
+            super(idDecoder, dictionary);
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            readIds(length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = dictionary.decodeToInt(ids[i]);
+            }
+        }
+    }
+
+    private static class DictionaryBinaryValuesDecoder
+            extends DictionaryValuesDecoder
+            implements BinaryValuesDecoder
+    {
+        public DictionaryBinaryValuesDecoder(RleBitPackingHybridDecoder idDecoder, Dictionary dictionary)
+        {
+            super(idDecoder, dictionary);
+        }
+
+        @Override
+        public void read(SliceOutput output, int[] offsets, int offset, int length)
+        {
+            readIds(length);
+            for (int i = 0; i < length; i++) {
+                output.writeBytes(dictionary.decodeToBinary(ids[i]).getBytes());
+                offsets[offset + i + 1] = output.size();
+            }
+        }
+    }
+
+    private static class LongValuesReaderDecoder
+            implements LongValuesDecoder
+    {
+        private final ValuesReader valuesReader;
+
+        public LongValuesReaderDecoder(ValuesReader valuesReader)
+        {
+            this.valuesReader = requireNonNull(valuesReader, "valuesReader is null");
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = valuesReader.readLong();
+            }
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            for (int i = 0; i < length; i++) {
+                valuesReader.readLong();
+            }
+        }
+    }
+
+    private static class IntValuesReaderDecoder
+            implements IntValuesDecoder
+    {
+        private final ValuesReader valuesReader;
+
+        public IntValuesReaderDecoder(ValuesReader valuesReader)
+        {
+            this.valuesReader = requireNonNull(valuesReader, "valuesReader is null");
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = valuesReader.readInteger();
+            }
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            for (int i = 0; i < length; i++) {
+                valuesReader.readInteger();
+            }
+        }
+    }
+
+    private static class BinaryValuesReaderDecoder
+            implements BinaryValuesDecoder
+    {
+        private final ValuesReader valuesReader;
+
+        public BinaryValuesReaderDecoder(ValuesReader valuesReader)
+        {
+            this.valuesReader = requireNonNull(valuesReader, "valuesReader is null");
+        }
+
+        @Override
+        public void read(SliceOutput output, int[] offsets, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                output.writeBytes(valuesReader.readBytes().getBytes());
+                offsets[i + 1] = output.size();
+            }
+        }
+
+        @Override
+        public void skip(int length)
+        {
+            for (int i = 0; i < length; i++) {
+                valuesReader.readBytes();
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.predicate;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
+import io.prestosql.parquet.ParquetCorruptionException;
+import io.prestosql.parquet.ParquetDataSource;
+import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import org.testng.annotations.Test;
+import parquet.column.ColumnDescriptor;
+import parquet.column.values.plain.PlainValuesWriter;
+import parquet.format.DictionaryPageHeader;
+import parquet.format.Encoding;
+import parquet.format.PageHeader;
+import parquet.format.PageType;
+import parquet.format.Util;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.schema.MessageType;
+import parquet.schema.PrimitiveType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.prestosql.parquet.ParquetTypeUtils.getDescriptors;
+import static io.prestosql.parquet.predicate.PredicateUtils.buildPredicate;
+import static io.prestosql.parquet.predicate.PredicateUtils.predicateMatches;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static parquet.column.statistics.Statistics.getStatsBasedOnType;
+import static parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static parquet.schema.Type.Repetition.REQUIRED;
+
+public class TestPredicateUtils
+{
+    private static final MessageType SCHEMA = new MessageType(
+            "test",
+            new PrimitiveType(REQUIRED, INT64, "a"),
+            new PrimitiveType(REQUIRED, INT64, "b"));
+    private static final Map<List<String>, RichColumnDescriptor> DESCRIPTORS = getDescriptors(SCHEMA, SCHEMA);
+    private static final RichColumnDescriptor A = DESCRIPTORS.get(ImmutableList.of("a"));
+    private static final RichColumnDescriptor B = DESCRIPTORS.get(ImmutableList.of("b"));
+
+    @Test
+    public void testDictionaryOfEveryPredicateColumn()
+            throws IOException
+    {
+        TestFile file = writeFile();
+
+        // both dictionaries contain a matching value
+        assertMatches(file, ImmutableMap.of(A, 2L, B, 20L), true, file.getDictionaryPage(0), file.getDictionaryPage(1));
+
+        // a matches, but b does not, so the second predicate column must be checked as well
+        assertMatches(file, ImmutableMap.of(A, 2L, B, 25L), false, file.getDictionaryPage(0), file.getDictionaryPage(1));
+
+        // the dictionary of b is not read once the dictionary of a has no matching value
+        assertMatches(file, ImmutableMap.of(A, 5L, B, 20L), false, file.getDictionaryPage(0));
+
+        // a column without a predicate is not read
+        assertMatches(file, ImmutableMap.of(B, 30L), true, file.getDictionaryPage(1));
+    }
+
+    @SafeVarargs
+    private static void assertMatches(TestFile file, Map<RichColumnDescriptor, Long> values, boolean expected, Range<Long>... expectedReads)
+            throws ParquetCorruptionException
+    {
+        ImmutableMap.Builder<ColumnDescriptor, Domain> domains = ImmutableMap.builder();
+        values.forEach((column, value) -> domains.put(column, Domain.singleValue(BIGINT, value)));
+        TupleDomain<ColumnDescriptor> tupleDomain = TupleDomain.withColumnDomains(domains.build());
+
+        RecordingParquetDataSource dataSource = new RecordingParquetDataSource(file.getData());
+        boolean matches = predicateMatches(buildPredicate(SCHEMA, tupleDomain, DESCRIPTORS), file.getRowGroup(), dataSource, DESCRIPTORS, tupleDomain, true);
+
+        assertEquals(matches, expected);
+        // only the dictionary pages are read, never the data pages that follow them
+        assertEquals(dataSource.getReads(), asList(expectedReads));
+    }
+
+    /**
+     * Writes a row group where each column chunk holds a dictionary page followed by a data page
+     * with invalid contents, so reading past the dictionary page would be noticed.
+     */
+    private static TestFile writeFile()
+            throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // the dictionary page offset is only used when it is positive, as in a file that starts with the magic number
+        output.write("PAR1".getBytes(US_ASCII));
+
+        BlockMetaData rowGroup = new BlockMetaData();
+        rowGroup.setRowCount(4);
+        List<Range<Long>> dictionaryPages = new ArrayList<>();
+        rowGroup.addColumn(writeColumnChunk(output, A, new long[] {1, 2, 3}, dictionaryPages));
+        rowGroup.addColumn(writeColumnChunk(output, B, new long[] {10, 20, 30}, dictionaryPages));
+        return new TestFile(output.toByteArray(), rowGroup, dictionaryPages);
+    }
+
+    private static ColumnChunkMetaData writeColumnChunk(ByteArrayOutputStream output, ColumnDescriptor column, long[] dictionary, List<Range<Long>> dictionaryPages)
+            throws IOException
+    {
+        PlainValuesWriter writer = new PlainValuesWriter(64, 1024);
+        for (long value : dictionary) {
+            writer.writeLong(value);
+        }
+        byte[] values = writer.getBytes().toByteArray();
+
+        int dictionaryPageOffset = output.size();
+        PageHeader pageHeader = new PageHeader(PageType.DICTIONARY_PAGE, values.length, values.length);
+        pageHeader.setDictionary_page_header(new DictionaryPageHeader(dictionary.length, Encoding.PLAIN_DICTIONARY));
+        Util.writePageHeader(pageHeader, output);
+        output.write(values);
+
+        int dataPageOffset = output.size();
+        output.write(new byte[100]);
+        dictionaryPages.add(Range.closedOpen((long) dictionaryPageOffset, (long) dataPageOffset));
+
+        long size = output.size() - dictionaryPageOffset;
+        return ColumnChunkMetaData.get(
+                ColumnPath.get(column.getPath()),
+                column.getType(),
+                UNCOMPRESSED,
+                ImmutableSet.of(parquet.column.Encoding.PLAIN_DICTIONARY, parquet.column.Encoding.BIT_PACKED),
+                getStatsBasedOnType(column.getType()),
+                dataPageOffset,
+                dictionaryPageOffset,
+                4,
+                size,
+                size);
+    }
+
+    private static class TestFile
+    {
+        private final byte[] data;
+        private final BlockMetaData rowGroup;
+        private final List<Range<Long>> dictionaryPages;
+
+        public TestFile(byte[] data, BlockMetaData rowGroup, List<Range<Long>> dictionaryPages)
+        {
+            this.data = data;
+            this.rowGroup = rowGroup;
+            this.dictionaryPages = dictionaryPages;
+        }
+
+        public byte[] getData()
+        {
+            return data;
+        }
+
+        public BlockMetaData getRowGroup()
+        {
+            return rowGroup;
+        }
+
+        /**
+         * Returns the byte range of the dictionary page of the given column.
+         */
+        public Range<Long> getDictionaryPage(int column)
+        {
+            return dictionaryPages.get(column);
+        }
+    }
+
+    private static class RecordingParquetDataSource
+            implements ParquetDataSource
+    {
+        private final byte[] data;
+        private final List<Range<Long>> reads = new ArrayList<>();
+
+        public RecordingParquetDataSource(byte[] data)
+        {
+            this.data = data;
+        }
+
+        public List<Range<Long>> getReads()
+        {
+            return reads;
+        }
+
+        @Override
+        public ParquetDataSourceId getId()
+        {
+            return new ParquetDataSourceId("test");
+        }
+
+        @Override
+        public long getReadBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getSize()
+        {
+            return data.length;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer)
+        {
+            readFully(position, buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            reads.add(Range.closedOpen(position, position + bufferLength));
+            System.arraycopy(data, (int) position, buffer, bufferOffset, bufferLength);
+        }
+    }
+}
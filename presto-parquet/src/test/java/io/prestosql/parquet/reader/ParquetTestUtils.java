@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import parquet.bytes.BytesInput;
+import parquet.column.values.plain.PlainValuesWriter;
+import parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import parquet.io.api.Binary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+
+final class ParquetTestUtils
+{
+    private static final int PAGE_SIZE = 1024 * 1024;
+
+    private ParquetTestUtils() {}
+
+    /**
+     * Generates values that alternate between repeated runs, which the encoder writes as
+     * RLE runs, and runs of distinct values, which the encoder bit-packs.
+     */
+    public static int[] generateValues(int bitWidth, int count, Random random)
+    {
+        long mask = (1L << bitWidth) - 1;
+        int[] values = new int[count];
+        int position = 0;
+        while (position < count) {
+            if (random.nextBoolean()) {
+                int value = (int) (random.nextLong() & mask);
+                int runEnd = Math.min(count, position + 8 + random.nextInt(100));
+                while (position < runEnd) {
+                    values[position++] = value;
+                }
+            }
+            else {
+                int runEnd = Math.min(count, position + 1 + random.nextInt(20));
+                while (position < runEnd) {
+                    values[position++] = (int) (random.nextLong() & mask);
+                }
+            }
+        }
+        return values;
+    }
+
+    public static byte[] encodeRle(int bitWidth, int[] values)
+    {
+        try {
+            RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 64, PAGE_SIZE);
+            for (int value : values) {
+                encoder.writeInt(value);
+            }
+            return encoder.toBytes().toByteArray();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes dictionary ids the way data pages store them, prefixed with their bit width.
+     */
+    public static byte[] encodeDictionaryIds(int bitWidth, int[] ids)
+    {
+        byte[] encoded = encodeRle(bitWidth, ids);
+        byte[] bytes = new byte[encoded.length + 1];
+        bytes[0] = (byte) bitWidth;
+        System.arraycopy(encoded, 0, bytes, 1, encoded.length);
+        return bytes;
+    }
+
+    public static byte[] encodePlainLongs(long[] values)
+    {
+        PlainValuesWriter writer = new PlainValuesWriter(64, PAGE_SIZE);
+        for (long value : values) {
+            writer.writeLong(value);
+        }
+        return toByteArray(writer.getBytes());
+    }
+
+    public static byte[] encodePlainInts(int[] values)
+    {
+        PlainValuesWriter writer = new PlainValuesWriter(64, PAGE_SIZE);
+        for (int value : values) {
+            writer.writeInteger(value);
+        }
+        return toByteArray(writer.getBytes());
+    }
+
+    public static byte[] encodePlainStrings(List<String> values)
+    {
+        PlainValuesWriter writer = new PlainValuesWriter(64, PAGE_SIZE);
+        for (String value : values) {
+            writer.writeBytes(Binary.fromString(value));
+        }
+        return toByteArray(writer.getBytes());
+    }
+
+    /**
+     * Returns a copy of {@code bytes} that starts at {@code offset}, to check that decoders honor the offset.
+     */
+    public static byte[] withOffset(byte[] bytes, int offset)
+    {
+        byte[] result = new byte[bytes.length + offset];
+        System.arraycopy(bytes, 0, result, offset, bytes.length);
+        return result;
+    }
+
+    private static byte[] toByteArray(BytesInput bytes)
+    {
+        try {
+            return bytes.toByteArray();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
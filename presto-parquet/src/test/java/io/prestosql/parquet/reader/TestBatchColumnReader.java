@@ -0,0 +1,368 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.prestosql.parquet.DataPage;
+import io.prestosql.parquet.DataPageV2;
+import io.prestosql.parquet.DictionaryPage;
+import io.prestosql.parquet.Field;
+import io.prestosql.parquet.ParquetEncoding;
+import io.prestosql.parquet.PrimitiveField;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.Test;
+import parquet.column.ColumnDescriptor;
+import parquet.schema.PrimitiveType;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.EMPTY_SLICE;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.parquet.ParquetEncoding.PLAIN;
+import static io.prestosql.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.prestosql.parquet.reader.BatchColumnReader.unpackNulls;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodeDictionaryIds;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainInts;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainLongs;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainStrings;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodeRle;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static parquet.bytes.BytesUtils.getWidthFromMaxInt;
+import static parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static parquet.schema.Type.Repetition.OPTIONAL;
+import static parquet.schema.Type.Repetition.REQUIRED;
+
+public class TestBatchColumnReader
+{
+    private static final int PAGE_ROWS = 1000;
+    private static final int DICTIONARY_SIZE = 16;
+
+    @Test
+    public void testNullableLongWithDictionaryFallback()
+            throws IOException
+    {
+        // the first pages are dictionary encoded, the writer then falls back to PLAIN mid-chunk
+        TestColumn column = new TestColumn(INT64, 1, false, new Random(1));
+        column.addDictionaryPages(2, 0.3);
+        column.addPlainPages(2, 0.3);
+
+        column.assertReads(new LongColumnReader(column.getDescriptor()), BIGINT, ImmutableList.of(1, 999, 1, 37, 1000, 2, 1500, 460));
+        column.assertReads(new LongColumnReader(column.getDescriptor()), BIGINT, ImmutableList.of(4000));
+    }
+
+    @Test
+    public void testRequiredInt()
+            throws IOException
+    {
+        TestColumn column = new TestColumn(INT32, 0, true, new Random(2));
+        column.addPlainPages(1, 0);
+        column.addDictionaryPages(1, 0);
+        column.addPlainPages(1, 0);
+
+        column.assertReads(new IntColumnReader(column.getDescriptor()), INTEGER, ImmutableList.of(100, 1000, 1900));
+    }
+
+    @Test
+    public void testNullableBinary()
+            throws IOException
+    {
+        TestColumn column = new TestColumn(BINARY, 1, false, new Random(3));
+        column.addDictionaryPages(2, 0.5);
+        column.addPlainPages(1, 0.5);
+
+        column.assertReads(new BinaryColumnReader(column.getDescriptor()), VARCHAR, ImmutableList.of(333, 333, 334, 1000, 1000));
+    }
+
+    @Test
+    public void testColumnInsideNullStruct()
+            throws IOException
+    {
+        // optional field of an optional struct: level 0 is a null struct, 1 a null field and 2 a value
+        TestColumn column = new TestColumn(INT64, 2, false, new Random(4));
+        column.addDictionaryPages(1, 0.4);
+        column.addPlainPages(1, 0.4);
+        column.assertReads(new LongColumnReader(column.getDescriptor()), BIGINT, ImmutableList.of(10, 500, 1490));
+
+        // required field of an optional struct: a null struct has no position and there are no null fields
+        TestColumn requiredField = new TestColumn(INT32, 1, true, new Random(5));
+        requiredField.addPlainPages(2, 0.4);
+        requiredField.assertReads(new IntColumnReader(requiredField.getDescriptor()), INTEGER, ImmutableList.of(700, 700, 600));
+    }
+
+    @Test
+    public void testSkipAcrossPages()
+            throws IOException
+    {
+        TestColumn column = new TestColumn(INT64, 1, false, new Random(6));
+        column.addDictionaryPages(3, 0.2);
+        column.addPlainPages(3, 0.2);
+
+        // skip within a page, into the next page, over whole pages and up to a page boundary
+        column.assertReads(new LongColumnReader(column.getDescriptor()), BIGINT, ImmutableList.of(-10, 20, -1500, 5, -2465, 100, -900, 1000));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            List<Integer> batches = new ArrayList<>();
+            int remaining = column.getRowCount();
+            while (remaining > 0) {
+                int size = Math.min(remaining, 1 + random.nextInt(1200));
+                batches.add(random.nextBoolean() ? size : -size);
+                remaining -= size;
+            }
+            column.assertReads(new LongColumnReader(column.getDescriptor()), BIGINT, batches);
+
+            TestColumn binaryColumn = new TestColumn(BINARY, 1, false, new Random(i));
+            binaryColumn.addDictionaryPages(3, 0.2);
+            binaryColumn.addPlainPages(3, 0.2);
+            binaryColumn.assertReads(new BinaryColumnReader(binaryColumn.getDescriptor()), VARCHAR, batches);
+        }
+    }
+
+    @Test
+    public void testUnpackNulls()
+    {
+        boolean[] isNull = {true, false, false, true, true, false, true};
+        long[] longs = {1, 2, 3, 0, 0, 0, 0};
+        unpackNulls(longs, isNull, isNull.length);
+        assertEquals(longs, new long[] {0, 1, 2, 0, 0, 3, 0});
+
+        int[] ints = {1, 2, 3, 9, 9, 9, 9, 9};
+        unpackNulls(ints, isNull, isNull.length);
+        assertEquals(ints, new int[] {0, 1, 2, 0, 0, 3, 0, 9});
+
+        boolean[] allNull = {true, true};
+        long[] empty = {5, 5};
+        unpackNulls(empty, allNull, allNull.length);
+        assertEquals(empty, new long[] {0, 0});
+
+        boolean[] noNull = {false, false, false};
+        int[] values = {1, 2, 3};
+        unpackNulls(values, noNull, noNull.length);
+        assertEquals(values, new int[] {1, 2, 3});
+    }
+
+    private static class TestColumn
+    {
+        private final PrimitiveTypeName typeName;
+        private final int maxDefinitionLevel;
+        private final boolean required;
+        private final Random random;
+        private final List<DataPage> pages = new ArrayList<>();
+        private final List<Integer> levels = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+        private final Object[] dictionary;
+
+        public TestColumn(PrimitiveTypeName typeName, int maxDefinitionLevel, boolean required, Random random)
+        {
+            this.typeName = typeName;
+            this.maxDefinitionLevel = maxDefinitionLevel;
+            this.required = required;
+            this.random = random;
+            this.dictionary = new Object[DICTIONARY_SIZE];
+            for (int i = 0; i < DICTIONARY_SIZE; i++) {
+                dictionary[i] = randomValue();
+            }
+        }
+
+        public RichColumnDescriptor getDescriptor()
+        {
+            return new RichColumnDescriptor(
+                    new ColumnDescriptor(new String[] {"s", "x"}, typeName, 0, maxDefinitionLevel),
+                    new PrimitiveType(required ? REQUIRED : OPTIONAL, typeName, "x"));
+        }
+
+        public int getRowCount()
+        {
+            return levels.size();
+        }
+
+        public void addDictionaryPages(int count, double nullRatio)
+        {
+            for (int page = 0; page < count; page++) {
+                int[] pageLevels = randomLevels(nullRatio);
+                List<Integer> ids = new ArrayList<>();
+                for (int level : pageLevels) {
+                    Object value = null;
+                    if (level == maxDefinitionLevel) {
+                        int id = random.nextInt(DICTIONARY_SIZE);
+                        ids.add(id);
+                        value = dictionary[id];
+                    }
+                    values.add(value);
+                }
+                byte[] data = encodeDictionaryIds(getWidthFromMaxInt(DICTIONARY_SIZE - 1), ids.stream().mapToInt(Integer::intValue).toArray());
+                addPage(pageLevels, PLAIN_DICTIONARY, data);
+            }
+        }
+
+        public void addPlainPages(int count, double nullRatio)
+        {
+            for (int page = 0; page < count; page++) {
+                int[] pageLevels = randomLevels(nullRatio);
+                List<Object> pageValues = new ArrayList<>();
+                for (int level : pageLevels) {
+                    Object value = null;
+                    if (level == maxDefinitionLevel) {
+                        value = randomValue();
+                        pageValues.add(value);
+                    }
+                    values.add(value);
+                }
+                addPage(pageLevels, PLAIN, encodePlain(pageValues));
+            }
+        }
+
+        /**
+         * Reads the column in consecutive batches and verifies them, skipping the batches
+         * with negative sizes without reading them.
+         */
+        public void assertReads(PrimitiveColumnReader reader, Type type, List<Integer> batches)
+                throws IOException
+        {
+            reader.setPageReader(new PageReader(UNCOMPRESSED, pages, createDictionaryPage()));
+            Field field = new PrimitiveField(type, 0, maxDefinitionLevel, required, getDescriptor(), 0);
+            int row = 0;
+            for (int batch : batches) {
+                int batchSize = Math.abs(batch);
+                reader.prepareNextRead(batchSize);
+                if (batch > 0) {
+                    ColumnChunk chunk = reader.readPrimitive(field);
+                    assertBatch(chunk, type, row, batchSize);
+                }
+                row += batchSize;
+            }
+        }
+
+        private void assertBatch(ColumnChunk chunk, Type type, int startRow, int batchSize)
+        {
+            int[] expectedLevels = new int[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                expectedLevels[i] = levels.get(startRow + i);
+            }
+            assertEquals(chunk.getDefinitionLevels(), expectedLevels, "rows starting at " + startRow);
+
+            Block block = chunk.getBlock();
+            int position = 0;
+            for (int row = startRow; row < startRow + batchSize; row++) {
+                int level = levels.get(row);
+                if (level == maxDefinitionLevel) {
+                    assertFalse(block.isNull(position), "row " + row);
+                    assertEquals(readValue(type, block, position), values.get(row), "row " + row);
+                    position++;
+                }
+                else if (!required && level == maxDefinitionLevel - 1) {
+                    assertTrue(block.isNull(position), "row " + row);
+                    position++;
+                }
+            }
+            assertEquals(block.getPositionCount(), position, "rows starting at " + startRow);
+        }
+
+        private static Object readValue(Type type, Block block, int position)
+        {
+            if (type.equals(VARCHAR)) {
+                return type.getSlice(block, position).toStringUtf8();
+            }
+            return type.getLong(block, position);
+        }
+
+        private int[] randomLevels(double nullRatio)
+        {
+            int[] pageLevels = new int[PAGE_ROWS];
+            for (int i = 0; i < PAGE_ROWS; i++) {
+                if (maxDefinitionLevel > 0 && random.nextDouble() < nullRatio) {
+                    // any level below the maximum: a null value or a null parent
+                    pageLevels[i] = random.nextInt(maxDefinitionLevel);
+                }
+                else {
+                    pageLevels[i] = maxDefinitionLevel;
+                }
+            }
+            return pageLevels;
+        }
+
+        private void addPage(int[] pageLevels, ParquetEncoding encoding, byte[] data)
+        {
+            Slice definitionLevels = EMPTY_SLICE;
+            if (maxDefinitionLevel > 0) {
+                definitionLevels = wrappedBuffer(encodeRle(getWidthFromMaxInt(maxDefinitionLevel), pageLevels));
+            }
+            int nullCount = 0;
+            for (int level : pageLevels) {
+                levels.add(level);
+                if (level < maxDefinitionLevel) {
+                    nullCount++;
+                }
+            }
+            Slice slice = wrappedBuffer(data);
+            pages.add(new DataPageV2(pageLevels.length, nullCount, pageLevels.length, EMPTY_SLICE, definitionLevels, encoding, slice, slice.length() + definitionLevels.length(), null, false));
+        }
+
+        private DictionaryPage createDictionaryPage()
+        {
+            return new DictionaryPage(wrappedBuffer(encodePlain(Arrays.asList(dictionary))), DICTIONARY_SIZE, PLAIN_DICTIONARY);
+        }
+
+        private byte[] encodePlain(List<Object> pageValues)
+        {
+            switch (typeName) {
+                case INT64:
+                    return encodePlainLongs(pageValues.stream().mapToLong(Long.class::cast).toArray());
+                case INT32:
+                    return encodePlainInts(pageValues.stream().mapToInt(value -> ((Long) value).intValue()).toArray());
+                case BINARY:
+                    return encodePlainStrings(pageValues.stream().map(String.class::cast).collect(toImmutableList()));
+                default:
+                    throw new IllegalArgumentException("Unsupported type: " + typeName);
+            }
+        }
+
+        private Object randomValue()
+        {
+            switch (typeName) {
+                case INT64:
+                    return random.nextLong();
+                case INT32:
+                    // int values are read back as longs
+                    return (long) random.nextInt();
+                case BINARY:
+                    int length = random.nextInt(10);
+                    StringBuilder value = new StringBuilder(length);
+                    for (int i = 0; i < length; i++) {
+                        value.append((char) ('a' + random.nextInt(26)));
+                    }
+                    return value.toString();
+                default:
+                    throw new IllegalArgumentException("Unsupported type: " + typeName);
+            }
+        }
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.parquet.Field;
+import io.prestosql.parquet.GroupField;
+import io.prestosql.parquet.ParquetCorruptionException;
+import io.prestosql.parquet.ParquetDataSource;
+import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.PrimitiveField;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.TupleDomainParquetPredicate;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.Test;
+import parquet.column.ColumnDescriptor;
+import parquet.column.Encoding;
+import parquet.format.DataPageHeaderV2;
+import parquet.format.PageHeader;
+import parquet.format.PageType;
+import parquet.format.Statistics;
+import parquet.format.Util;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.io.ColumnIO;
+import parquet.io.GroupColumnIO;
+import parquet.io.MessageColumnIO;
+import parquet.io.PrimitiveColumnIO;
+import parquet.schema.GroupType;
+import parquet.schema.MessageType;
+import parquet.schema.PrimitiveType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.parquet.ParquetTypeUtils.getArrayElementColumn;
+import static io.prestosql.parquet.ParquetTypeUtils.getColumnIO;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainLongs;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainStrings;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodeRle;
+import static io.prestosql.spi.predicate.Range.range;
+import static io.prestosql.spi.predicate.ValueSet.ofRanges;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static parquet.bytes.BytesUtils.getWidthFromMaxInt;
+import static parquet.column.statistics.Statistics.getStatsBasedOnType;
+import static parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static parquet.schema.OriginalType.LIST;
+import static parquet.schema.OriginalType.UTF8;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static parquet.schema.Type.Repetition.OPTIONAL;
+import static parquet.schema.Type.Repetition.REPEATED;
+import static parquet.schema.Type.Repetition.REQUIRED;
+
+/**
+ * Reads a file with a sorted column {@code x} (the row number), a string column {@code s}
+ * (the zero padded row number) and an array column {@code a}, where each column has its own
+ * page boundaries, and checks that the rows read with page skipping line up across columns.
+ */
+public class TestParquetPageSkipping
+{
+    private static final List<Integer> ROW_GROUP_SIZES = ImmutableList.of(3000, 1000);
+    private static final int X_PAGE_ROWS = 100;
+    private static final int S_PAGE_ROWS = 250;
+    private static final int A_PAGE_ROWS = 70;
+
+    private static final ArrayType ARRAY_TYPE = new ArrayType(BIGINT);
+    private static final MessageType SCHEMA = new MessageType(
+            "test",
+            new PrimitiveType(REQUIRED, INT64, "x"),
+            new PrimitiveType(OPTIONAL, BINARY, "s", UTF8),
+            new GroupType(OPTIONAL, "a", LIST, new GroupType(REPEATED, "list", new PrimitiveType(REQUIRED, INT64, "element"))));
+    private static final MessageColumnIO COLUMN_IO = getColumnIO(SCHEMA, SCHEMA);
+    private static final PrimitiveField X_FIELD = createPrimitiveField(BIGINT, COLUMN_IO.getChild("x"));
+    private static final PrimitiveField S_FIELD = createPrimitiveField(VARCHAR, COLUMN_IO.getChild("s"));
+    private static final GroupField A_FIELD = createArrayField(ARRAY_TYPE, (GroupColumnIO) COLUMN_IO.getChild("a"));
+
+    @Test
+    public void testSkipPages()
+            throws IOException
+    {
+        TestFile file = writeFile(PageStatistics.MIN_MAX, PageStatistics.MIN_MAX, row -> row % 4 == 0);
+
+        // the pages of x overlapping [150, 1450] are merged into one range that is split into
+        // two batches, and nothing matches in the second row group
+        TupleDomain<ColumnDescriptor> predicate = xPredicate(ofRanges(range(BIGINT, 150L, true, 1450L, true), range(BIGINT, 2950L, true, 2960L, true)));
+        assertReads(file, predicate, false, ImmutableList.of(1024, 376, 100), rows(100, 1500, 2900, 3000));
+
+        // a single matching page
+        assertReads(file, xPredicate(ofRanges(range(BIGINT, 3333L, true, 3333L, true))), false, ImmutableList.of(100), rows(3300, 3400));
+
+        // no matching page
+        assertReads(file, xPredicate(ofRanges(range(BIGINT, 5000L, true, 6000L, true))), false, ImmutableList.of(), rows());
+
+        // without a predicate every row is read
+        assertReads(file, TupleDomain.all(), false, ImmutableList.of(1024, 1024, 952, 1000), rows(0, 4000));
+    }
+
+    @Test
+    public void testMultiplePredicateColumns()
+            throws IOException
+    {
+        TestFile file = writeFile(PageStatistics.MIN_MAX, PageStatistics.MIN_MAX, row -> row % 4 == 0);
+
+        // only the pages of s within [750, 1250) match, the pages of x narrow the second row group down
+        TupleDomain<ColumnDescriptor> predicate = TupleDomain.withColumnDomains(ImmutableMap.of(
+                X_FIELD.getDescriptor(), Domain.create(ofRanges(range(BIGINT, 0L, true, 1999L, true), range(BIGINT, 3550L, true, 3560L, true)), false),
+                S_FIELD.getDescriptor(), Domain.create(ofRanges(range(VARCHAR, utf8Slice("00900"), true, utf8Slice("01100"), true), range(VARCHAR, utf8Slice("03500"), true, utf8Slice("03999"), true)), false)));
+        assertReads(file, predicate, false, ImmutableList.of(500, 100), rows(750, 1250, 3500, 3600));
+    }
+
+    @Test
+    public void testNoStatistics()
+            throws IOException
+    {
+        TestFile file = writeFile(PageStatistics.NONE, PageStatistics.NONE, row -> row % 4 == 0);
+
+        // pages without statistics can not be skipped
+        assertReads(file, xPredicate(ofRanges(range(BIGINT, 150L, true, 160L, true))), false, ImmutableList.of(1024, 1024, 952, 1000), rows(0, 4000));
+        assertReads(file, sPredicate(Domain.singleValue(VARCHAR, utf8Slice("00150"))), false, ImmutableList.of(1024, 1024, 952, 1000), rows(0, 4000));
+    }
+
+    @Test
+    public void testNullOnlyStatistics()
+            throws IOException
+    {
+        // the page of s that covers [500, 750) only contains nulls
+        TestFile file = writeFile(PageStatistics.MIN_MAX, PageStatistics.MIN_MAX, row -> row >= 500 && row < 750);
+
+        assertReads(file, sPredicate(Domain.create(ofRanges(range(VARCHAR, utf8Slice("00400"), true, utf8Slice("00800"), true)), false)), false, ImmutableList.of(250, 250), rows(250, 500, 750, 1000));
+        assertReads(file, sPredicate(Domain.onlyNull(VARCHAR)), false, ImmutableList.of(250), rows(500, 750));
+        assertReads(file, sPredicate(Domain.create(ofRanges(range(VARCHAR, utf8Slice("00400"), true, utf8Slice("00450"), true)), true)), false, ImmutableList.of(500), rows(250, 750));
+    }
+
+    @Test
+    public void testCorruptedBinaryStatistics()
+            throws IOException
+    {
+        // every page of s has a minimum above its maximum
+        TestFile file = writeFile(PageStatistics.MIN_MAX, PageStatistics.SWAPPED, row -> row % 4 == 0);
+        TupleDomain<ColumnDescriptor> predicate = sPredicate(Domain.create(ofRanges(range(VARCHAR, utf8Slice("00400"), true, utf8Slice("00800"), true)), false));
+
+        // corrupted statistics match everything when they are ignored
+        assertReads(file, predicate, false, ImmutableList.of(1024, 1024, 952, 1000), rows(0, 4000));
+
+        try (ParquetReader reader = createReader(file, predicate, true)) {
+            assertThatExceptionOfType(ParquetCorruptionException.class)
+                    .isThrownBy(reader::nextBatch)
+                    .withMessageStartingWith("Corrupted statistics for column ");
+        }
+    }
+
+    private static void assertReads(TestFile file, TupleDomain<ColumnDescriptor> predicate, boolean failOnCorruptedStatistics, List<Integer> expectedBatchSizes, List<Integer> expectedRows)
+            throws IOException
+    {
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        try (ParquetReader reader = createReader(file, predicate, failOnCorruptedStatistics)) {
+            for (int batchSize = reader.nextBatch(); batchSize > 0; batchSize = reader.nextBatch()) {
+                batchSizes.add(batchSize);
+                Block xBlock = reader.readBlock(X_FIELD);
+                Block sBlock = reader.readBlock(S_FIELD);
+                Block aBlock = reader.readBlock(A_FIELD);
+                assertEquals(xBlock.getPositionCount(), batchSize);
+                assertEquals(sBlock.getPositionCount(), batchSize);
+                assertEquals(aBlock.getPositionCount(), batchSize);
+
+                for (int position = 0; position < batchSize; position++) {
+                    int row = toIntExact(BIGINT.getLong(xBlock, position));
+                    rows.add(row);
+                    assertString(file, sBlock, position, row);
+                    assertArray(aBlock, position, row);
+                }
+            }
+        }
+        assertEquals(rows, expectedRows);
+        assertEquals(batchSizes, expectedBatchSizes);
+    }
+
+    private static void assertString(TestFile file, Block block, int position, int row)
+    {
+        String expected = file.getString(row);
+        if (expected == null) {
+            assertTrue(block.isNull(position), "s of row " + row);
+        }
+        else {
+            assertFalse(block.isNull(position), "s of row " + row);
+            assertEquals(VARCHAR.getSlice(block, position).toStringUtf8(), expected, "s of row " + row);
+        }
+    }
+
+    private static void assertArray(Block block, int position, int row)
+    {
+        List<Long> expected = getArray(row);
+        if (expected == null) {
+            assertTrue(block.isNull(position), "a of row " + row);
+            return;
+        }
+        assertFalse(block.isNull(position), "a of row " + row);
+        Block elements = ARRAY_TYPE.getObject(block, position);
+        List<Long> actual = new ArrayList<>();
+        for (int i = 0; i < elements.getPositionCount(); i++) {
+            actual.add(BIGINT.getLong(elements, i));
+        }
+        assertEquals(actual, expected, "a of row " + row);
+    }
+
+    private static ParquetReader createReader(TestFile file, TupleDomain<ColumnDescriptor> predicate, boolean failOnCorruptedStatistics)
+    {
+        List<RichColumnDescriptor> columns = ImmutableList.of(X_FIELD.getDescriptor(), S_FIELD.getDescriptor());
+        return new ParquetReader(
+                COLUMN_IO,
+                file.getRowGroups(),
+                new TestingParquetDataSource(file.getData()),
+                newSimpleAggregatedMemoryContext(),
+                new TupleDomainParquetPredicate(predicate, columns),
+                predicate.getDomains().map(domains -> ImmutableSet.<ColumnDescriptor>copyOf(domains.keySet())).orElse(ImmutableSet.of()),
+                failOnCorruptedStatistics);
+    }
+
+    private static TupleDomain<ColumnDescriptor> xPredicate(ValueSet values)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(X_FIELD.getDescriptor(), Domain.create(values, false)));
+    }
+
+    private static TupleDomain<ColumnDescriptor> sPredicate(Domain domain)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(S_FIELD.getDescriptor(), domain));
+    }
+
+    /**
+     * Returns the rows of the given [start, end) ranges.
+     */
+    private static List<Integer> rows(int... bounds)
+    {
+        ImmutableList.Builder<Integer> rows = ImmutableList.builder();
+        for (int i = 0; i < bounds.length; i += 2) {
+            for (int row = bounds[i]; row < bounds[i + 1]; row++) {
+                rows.add(row);
+            }
+        }
+        return rows.build();
+    }
+
+    /**
+     * Arrays of rows divisible by five are null, the others hold {@code row % 3} elements starting at the row.
+     */
+    private static List<Long> getArray(int row)
+    {
+        if (row % 5 == 0) {
+            return null;
+        }
+        ImmutableList.Builder<Long> elements = ImmutableList.builder();
+        for (int i = 0; i < row % 3; i++) {
+            elements.add((long) row + i);
+        }
+        return elements.build();
+    }
+
+    private static PrimitiveField createPrimitiveField(Type type, ColumnIO columnIO)
+    {
+        PrimitiveColumnIO primitiveColumnIO = (PrimitiveColumnIO) columnIO;
+        return new PrimitiveField(
+                type,
+                columnIO.getRepetitionLevel(),
+                columnIO.getDefinitionLevel(),
+                columnIO.getType().getRepetition() != OPTIONAL,
+                new RichColumnDescriptor(primitiveColumnIO.getColumnDescriptor(), columnIO.getType().asPrimitiveType()),
+                primitiveColumnIO.getId());
+    }
+
+    private static GroupField createArrayField(ArrayType type, GroupColumnIO columnIO)
+    {
+        Field elementField = createPrimitiveField(type.getElementType(), getArrayElementColumn(columnIO.getChild(0)));
+        return new GroupField(
+                type,
+                columnIO.getRepetitionLevel(),
+                columnIO.getDefinitionLevel(),
+                columnIO.getType().getRepetition() != OPTIONAL,
+                ImmutableList.of(Optional.of(elementField)));
+    }
+
+    private static TestFile writeFile(PageStatistics xStatistics, PageStatistics sStatistics, IntPredicate isNullString)
+            throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImmutableList.Builder<BlockMetaData> rowGroups = ImmutableList.builder();
+        int firstRow = 0;
+        for (int rowCount : ROW_GROUP_SIZES) {
+            BlockMetaData rowGroup = new BlockMetaData();
+            rowGroup.setRowCount(rowCount);
+            int endRow = firstRow + rowCount;
+
+            ColumnChunkWriter x = new ColumnChunkWriter(X_FIELD.getDescriptor(), output);
+            for (int pageStart = firstRow; pageStart < endRow; pageStart += X_PAGE_ROWS) {
+                x.writeLongPage(pageStart, min(endRow, pageStart + X_PAGE_ROWS), xStatistics);
+            }
+            rowGroup.addColumn(x.finish());
+
+            ColumnChunkWriter s = new ColumnChunkWriter(S_FIELD.getDescriptor(), output);
+            for (int pageStart = firstRow; pageStart < endRow; pageStart += S_PAGE_ROWS) {
+                s.writeStringPage(pageStart, min(endRow, pageStart + S_PAGE_ROWS), isNullString, sStatistics);
+            }
+            rowGroup.addColumn(s.finish());
+
+            ColumnChunkWriter a = new ColumnChunkWriter(((PrimitiveField) A_FIELD.getChildren().get(0).get()).getDescriptor(), output);
+            for (int pageStart = firstRow; pageStart < endRow; pageStart += A_PAGE_ROWS) {
+                a.writeArrayPage(pageStart, min(endRow, pageStart + A_PAGE_ROWS));
+            }
+            rowGroup.addColumn(a.finish());
+
+            rowGroup.setTotalByteSize(rowGroup.getColumns().stream()
+                    .mapToLong(ColumnChunkMetaData::getTotalUncompressedSize)
+                    .sum());
+            rowGroups.add(rowGroup);
+            firstRow = endRow;
+        }
+        return new TestFile(output.toByteArray(), rowGroups.build(), isNullString);
+    }
+
+    private enum PageStatistics
+    {
+        MIN_MAX,
+        NONE,
+        // minimum and maximum are swapped, as written by some buggy writers
+        SWAPPED
+    }
+
+    private static class TestFile
+    {
+        private final byte[] data;
+        private final List<BlockMetaData> rowGroups;
+        private final IntPredicate isNullString;
+
+        public TestFile(byte[] data, List<BlockMetaData> rowGroups, IntPredicate isNullString)
+        {
+            this.data = data;
+            this.rowGroups = rowGroups;
+            this.isNullString = isNullString;
+        }
+
+        public byte[] getData()
+        {
+            return data;
+        }
+
+        public List<BlockMetaData> getRowGroups()
+        {
+            return rowGroups;
+        }
+
+        public String getString(int row)
+        {
+            if (isNullString.test(row)) {
+                return null;
+            }
+            return format("%05d", row);
+        }
+    }
+
+    /**
+     * Writes the uncompressed V2 data pages of one column chunk.
+     */
+    private static class ColumnChunkWriter
+    {
+        private final ColumnDescriptor column;
+        private final ByteArrayOutputStream output;
+        private final int startOffset;
+        private long valueCount;
+
+        public ColumnChunkWriter(ColumnDescriptor column, ByteArrayOutputStream output)
+        {
+            this.column = column;
+            this.output = output;
+            this.startOffset = output.size();
+        }
+
+        public void writeLongPage(int startRow, int endRow, PageStatistics statistics)
+                throws IOException
+        {
+            long[] values = new long[endRow - startRow];
+            for (int row = startRow; row < endRow; row++) {
+                values[row - startRow] = row;
+            }
+            Statistics pageStatistics = createStatistics(statistics, encodeLong(startRow), encodeLong(endRow - 1), 0);
+            writePage(values.length, values.length, 0, new byte[0], new byte[0], encodePlainLongs(values), pageStatistics);
+        }
+
+        public void writeStringPage(int startRow, int endRow, IntPredicate isNull, PageStatistics statistics)
+                throws IOException
+        {
+            int[] definitionLevels = new int[endRow - startRow];
+            List<String> values = new ArrayList<>();
+            for (int row = startRow; row < endRow; row++) {
+                if (!isNull.test(row)) {
+                    definitionLevels[row - startRow] = 1;
+                    values.add(format("%05d", row));
+                }
+            }
+            int nullCount = definitionLevels.length - values.size();
+            Statistics pageStatistics;
+            if (values.isEmpty()) {
+                pageStatistics = createStatistics(statistics, null, null, nullCount);
+            }
+            else {
+                // the values are zero padded, so their order is the row order
+                byte[] minimum = values.get(0).getBytes(UTF_8);
+                byte[] maximum = values.get(values.size() - 1).getBytes(UTF_8);
+                pageStatistics = createStatistics(statistics, minimum, maximum, nullCount);
+            }
+            writePage(definitionLevels.length, definitionLevels.length, nullCount, new byte[0], encodeRle(1, definitionLevels), encodePlainStrings(values), pageStatistics);
+        }
+
+        public void writeArrayPage(int startRow, int endRow)
+                throws IOException
+        {
+            List<Integer> repetitionLevels = new ArrayList<>();
+            List<Integer> definitionLevels = new ArrayList<>();
+            List<Long> values = new ArrayList<>();
+            for (int row = startRow; row < endRow; row++) {
+                List<Long> array = getArray(row);
+                if (array == null) {
+                    repetitionLevels.add(0);
+                    definitionLevels.add(0);
+                }
+                else if (array.isEmpty()) {
+                    repetitionLevels.add(0);
+                    definitionLevels.add(1);
+                }
+                else {
+                    for (int i = 0; i < array.size(); i++) {
+                        repetitionLevels.add(i == 0 ? 0 : 1);
+                        definitionLevels.add(2);
+                        values.add(array.get(i));
+                    }
+                }
+            }
+            writePage(
+                    endRow - startRow,
+                    definitionLevels.size(),
+                    definitionLevels.size() - values.size(),
+                    encodeRle(getWidthFromMaxInt(column.getMaxRepetitionLevel()), toIntArray(repetitionLevels)),
+                    encodeRle(getWidthFromMaxInt(column.getMaxDefinitionLevel()), toIntArray(definitionLevels)),
+                    encodePlainLongs(values.stream().mapToLong(Long::longValue).toArray()),
+                    null);
+        }
+
+        public ColumnChunkMetaData finish()
+        {
+            long size = output.size() - startOffset;
+            return ColumnChunkMetaData.get(
+                    ColumnPath.get(column.getPath()),
+                    column.getType(),
+                    UNCOMPRESSED,
+                    ImmutableSet.of(Encoding.PLAIN, Encoding.RLE),
+                    getStatsBasedOnType(column.getType()),
+                    startOffset,
+                    0,
+                    valueCount,
+                    size,
+                    size);
+        }
+
+        private void writePage(int rowCount, int levelCount, int nullCount, byte[] repetitionLevels, byte[] definitionLevels, byte[] values, Statistics statistics)
+                throws IOException
+        {
+            DataPageHeaderV2 dataPageHeader = new DataPageHeaderV2();
+            dataPageHeader.setNum_rows(rowCount);
+            dataPageHeader.setNum_values(levelCount);
+            dataPageHeader.setNum_nulls(nullCount);
+            dataPageHeader.setEncoding(parquet.format.Encoding.PLAIN);
+            dataPageHeader.setRepetition_levels_byte_length(repetitionLevels.length);
+            dataPageHeader.setDefinition_levels_byte_length(definitionLevels.length);
+            dataPageHeader.setIs_compressed(false);
+            if (statistics != null) {
+                dataPageHeader.setStatistics(statistics);
+            }
+
+            int size = repetitionLevels.length + definitionLevels.length + values.length;
+            PageHeader pageHeader = new PageHeader(PageType.DATA_PAGE_V2, size, size);
+            pageHeader.setData_page_header_v2(dataPageHeader);
+            Util.writePageHeader(pageHeader, output);
+            output.write(repetitionLevels);
+            output.write(definitionLevels);
+            output.write(values);
+            valueCount += levelCount;
+        }
+
+        private static Statistics createStatistics(PageStatistics mode, byte[] minimum, byte[] maximum, long nullCount)
+        {
+            switch (mode) {
+                case NONE:
+                    return null;
+                case SWAPPED:
+                    byte[] swapped = minimum;
+                    minimum = maximum;
+                    maximum = swapped;
+                    break;
+                case MIN_MAX:
+                    break;
+            }
+            Statistics statistics = new Statistics();
+            statistics.setNull_count(nullCount);
+            if (minimum != null) {
+                statistics.setMin(ByteBuffer.wrap(minimum));
+                statistics.setMax(ByteBuffer.wrap(maximum));
+            }
+            return statistics;
+        }
+
+        private static byte[] encodeLong(long value)
+        {
+            Slice slice = Slices.allocate(SIZE_OF_LONG);
+            slice.setLong(0, value);
+            return slice.getBytes();
+        }
+
+        private static int[] toIntArray(List<Integer> values)
+        {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static class TestingParquetDataSource
+            implements ParquetDataSource
+    {
+        private final byte[] data;
+
+        public TestingParquetDataSource(byte[] data)
+        {
+            this.data = data;
+        }
+
+        @Override
+        public ParquetDataSourceId getId()
+        {
+            return new ParquetDataSourceId("test");
+        }
+
+        @Override
+        public long getReadBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getSize()
+        {
+            return data.length;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer)
+        {
+            readFully(position, buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            System.arraycopy(data, toIntExact(position), buffer, bufferOffset, bufferLength);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import org.testng.annotations.Test;
+import parquet.io.ParquetDecodingException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodeRle;
+import static io.prestosql.parquet.reader.ParquetTestUtils.generateValues;
+import static io.prestosql.parquet.reader.ParquetTestUtils.withOffset;
+import static org.testng.Assert.assertEquals;
+
+public class TestRleBitPackingHybridDecoder
+{
+    private static final int[] BIT_WIDTHS = {0, 1, 7, 8, 31, 32};
+    private static final int VALUE_COUNT = 10_000;
+
+    @Test
+    public void testReadInts()
+    {
+        for (int bitWidth : BIT_WIDTHS) {
+            Random random = new Random(bitWidth);
+            int[] values = generateValues(bitWidth, VALUE_COUNT, random);
+            byte[] encoded = encodeRle(bitWidth, values);
+            RleBitPackingHybridDecoder decoder = new RleBitPackingHybridDecoder(bitWidth, encoded, 0, encoded.length);
+
+            // read in chunks that do not line up with the runs
+            int[] actual = new int[VALUE_COUNT];
+            int position = 0;
+            while (position < VALUE_COUNT) {
+                int length = Math.min(VALUE_COUNT - position, 1 + random.nextInt(300));
+                decoder.readInts(actual, position, length);
+                position += length;
+            }
+            assertEquals(actual, values, "bitWidth " + bitWidth);
+        }
+    }
+
+    @Test
+    public void testReadInt()
+    {
+        for (int bitWidth : BIT_WIDTHS) {
+            int[] values = generateValues(bitWidth, VALUE_COUNT, new Random(bitWidth));
+            byte[] encoded = encodeRle(bitWidth, values);
+            RleBitPackingHybridDecoder decoder = new RleBitPackingHybridDecoder(bitWidth, encoded, 0, encoded.length);
+            for (int i = 0; i < VALUE_COUNT; i++) {
+                assertEquals(decoder.readInt(), values[i], "bitWidth " + bitWidth + ", position " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testSkip()
+    {
+        for (int bitWidth : BIT_WIDTHS) {
+            Random random = new Random(bitWidth);
+            int[] values = generateValues(bitWidth, VALUE_COUNT, random);
+            byte[] encoded = encodeRle(bitWidth, values);
+            RleBitPackingHybridDecoder decoder = new RleBitPackingHybridDecoder(bitWidth, encoded, 0, encoded.length);
+
+            int position = 0;
+            while (position < VALUE_COUNT) {
+                int skip = Math.min(VALUE_COUNT - position, random.nextInt(200));
+                decoder.skip(skip);
+                position += skip;
+
+                int length = Math.min(VALUE_COUNT - position, 1 + random.nextInt(50));
+                int[] actual = new int[length];
+                decoder.readInts(actual, 0, length);
+                assertEquals(actual, Arrays.copyOfRange(values, position, position + length), "bitWidth " + bitWidth + ", position " + position);
+                position += length;
+            }
+        }
+    }
+
+    @Test
+    public void testOffset()
+    {
+        int bitWidth = 7;
+        int[] values = generateValues(bitWidth, VALUE_COUNT, new Random(42));
+        byte[] encoded = withOffset(encodeRle(bitWidth, values), 5);
+        RleBitPackingHybridDecoder decoder = new RleBitPackingHybridDecoder(bitWidth, encoded, 5, encoded.length);
+        int[] actual = new int[VALUE_COUNT];
+        decoder.readInts(actual, 0, VALUE_COUNT);
+        assertEquals(actual, values);
+    }
+
+    @Test(expectedExceptions = ParquetDecodingException.class)
+    public void testReadPastEnd()
+    {
+        int[] values = {1, 2, 3};
+        byte[] encoded = encodeRle(2, values);
+        RleBitPackingHybridDecoder decoder = new RleBitPackingHybridDecoder(2, encoded, 0, encoded.length);
+        // the bit-packed run is padded to a multiple of 8 values, so reading past it fails
+        decoder.readInts(new int[9], 0, 9);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestRowRanges
+{
+    @Test
+    public void testAll()
+    {
+        assertRanges(RowRanges.all(100), 0, 100);
+        assertSame(RowRanges.all(0), RowRanges.EMPTY);
+        assertTrue(RowRanges.EMPTY.isEmpty());
+        assertEquals(RowRanges.EMPTY.getRowCount(), 0);
+    }
+
+    @Test
+    public void testBuilderMergesAdjacentRanges()
+    {
+        RowRanges ranges = RowRanges.builder()
+                .add(0, 10)
+                .add(10, 20)
+                .add(20, 25)
+                .add(30, 40)
+                .add(40, 50)
+                .add(60, 61)
+                .build();
+        assertRanges(ranges, 0, 25, 30, 50, 60, 61);
+        assertEquals(ranges.getRowCount(), 46);
+
+        assertSame(RowRanges.builder().build(), RowRanges.EMPTY);
+    }
+
+    @Test
+    public void testBuilderRejectsInvalidRanges()
+    {
+        assertThatThrownBy(() -> RowRanges.builder().add(10, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("start 10 must be less than end 10");
+        assertThatThrownBy(() -> RowRanges.builder().add(10, 20).add(15, 30))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ranges must be added in order");
+    }
+
+    @Test
+    public void testIntersect()
+    {
+        RowRanges left = RowRanges.builder()
+                .add(0, 10)
+                .add(20, 30)
+                .add(40, 50)
+                .build();
+
+        assertRanges(left.intersect(RowRanges.all(100)), 0, 10, 20, 30, 40, 50);
+        assertRanges(RowRanges.all(100).intersect(left), 0, 10, 20, 30, 40, 50);
+        assertTrue(left.intersect(RowRanges.EMPTY).isEmpty());
+        assertTrue(RowRanges.EMPTY.intersect(left).isEmpty());
+
+        // partial overlaps on both ends, and a range spanning several ranges of the other side
+        RowRanges right = RowRanges.builder()
+                .add(5, 25)
+                .add(28, 45)
+                .build();
+        assertRanges(left.intersect(right), 5, 10, 20, 25, 28, 30, 40, 45);
+        assertRanges(right.intersect(left), 5, 10, 20, 25, 28, 30, 40, 45);
+
+        // ranges that only touch do not overlap
+        RowRanges touching = RowRanges.builder()
+                .add(10, 20)
+                .add(30, 40)
+                .build();
+        assertTrue(left.intersect(touching).isEmpty());
+
+        // a range of one side split by the gaps of the other side
+        RowRanges gaps = RowRanges.builder()
+                .add(0, 3)
+                .add(4, 8)
+                .add(9, 12)
+                .build();
+        assertRanges(RowRanges.builder().add(2, 10).build().intersect(gaps), 2, 3, 4, 8, 9, 10);
+    }
+
+    private static void assertRanges(RowRanges ranges, long... bounds)
+    {
+        assertEquals(ranges.getRangeCount(), bounds.length / 2);
+        for (int range = 0; range < ranges.getRangeCount(); range++) {
+            assertEquals(ranges.getStart(range), bounds[range * 2], "start of range " + range);
+            assertEquals(ranges.getEnd(range), bounds[range * 2 + 1], "end of range " + range);
+        }
+    }
+}
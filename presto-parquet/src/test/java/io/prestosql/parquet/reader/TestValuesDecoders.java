@@ -0,0 +1,227 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.prestosql.parquet.DictionaryPage;
+import io.prestosql.parquet.dictionary.BinaryDictionary;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.parquet.dictionary.IntegerDictionary;
+import io.prestosql.parquet.dictionary.LongDictionary;
+import io.prestosql.parquet.reader.ValuesDecoder.BinaryValuesDecoder;
+import io.prestosql.parquet.reader.ValuesDecoder.IntValuesDecoder;
+import io.prestosql.parquet.reader.ValuesDecoder.LongValuesDecoder;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.parquet.ParquetEncoding.PLAIN;
+import static io.prestosql.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.prestosql.parquet.ParquetEncoding.RLE_DICTIONARY;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodeDictionaryIds;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainInts;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainLongs;
+import static io.prestosql.parquet.reader.ParquetTestUtils.encodePlainStrings;
+import static io.prestosql.parquet.reader.ParquetTestUtils.generateValues;
+import static io.prestosql.parquet.reader.ParquetTestUtils.withOffset;
+import static io.prestosql.parquet.reader.ValuesDecoders.createBinaryValuesDecoder;
+import static io.prestosql.parquet.reader.ValuesDecoders.createIntValuesDecoder;
+import static io.prestosql.parquet.reader.ValuesDecoders.createLongValuesDecoder;
+import static org.testng.Assert.assertEquals;
+
+public class TestValuesDecoders
+{
+    private static final int VALUE_COUNT = 5_000;
+    private static final int OFFSET = 3;
+
+    @Test
+    public void testPlainLong()
+    {
+        long[] values = randomLongs(VALUE_COUNT, new Random(1));
+        byte[] bytes = withOffset(encodePlainLongs(values), OFFSET);
+        assertLongs(createLongValuesDecoder(PLAIN, bytes, OFFSET, null, null), values);
+    }
+
+    @Test
+    public void testPlainInt()
+    {
+        int[] values = generateValues(32, VALUE_COUNT, new Random(2));
+        byte[] bytes = withOffset(encodePlainInts(values), OFFSET);
+        assertInts(createIntValuesDecoder(PLAIN, bytes, OFFSET, null, null), values);
+    }
+
+    @Test
+    public void testPlainBinary()
+    {
+        List<String> values = randomStrings(VALUE_COUNT, new Random(3));
+        byte[] bytes = withOffset(encodePlainStrings(values), OFFSET);
+        assertBinaries(createBinaryValuesDecoder(PLAIN, bytes, OFFSET, null, null), values);
+    }
+
+    @Test
+    public void testDictionaryLong()
+            throws IOException
+    {
+        long[] dictionaryValues = randomLongs(100, new Random(4));
+        Dictionary dictionary = new LongDictionary(new DictionaryPage(wrappedBuffer(encodePlainLongs(dictionaryValues)), dictionaryValues.length, PLAIN_DICTIONARY));
+        int[] ids = generateValues(7, VALUE_COUNT, new Random(5));
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] %= dictionaryValues.length;
+        }
+        byte[] bytes = withOffset(encodeDictionaryIds(7, ids), OFFSET);
+
+        long[] expected = new long[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            expected[i] = dictionaryValues[ids[i]];
+        }
+        assertLongs(createLongValuesDecoder(PLAIN_DICTIONARY, bytes, OFFSET, dictionary, null), expected);
+    }
+
+    @Test
+    public void testDictionaryInt()
+            throws IOException
+    {
+        int[] dictionaryValues = generateValues(32, 256, new Random(6));
+        Dictionary dictionary = new IntegerDictionary(new DictionaryPage(wrappedBuffer(encodePlainInts(dictionaryValues)), dictionaryValues.length, PLAIN_DICTIONARY));
+        int[] ids = generateValues(8, VALUE_COUNT, new Random(7));
+        byte[] bytes = withOffset(encodeDictionaryIds(8, ids), OFFSET);
+
+        int[] expected = new int[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            expected[i] = dictionaryValues[ids[i]];
+        }
+        assertInts(createIntValuesDecoder(RLE_DICTIONARY, bytes, OFFSET, dictionary, null), expected);
+    }
+
+    @Test
+    public void testDictionaryBinary()
+            throws IOException
+    {
+        List<String> dictionaryValues = randomStrings(2, new Random(8));
+        Dictionary dictionary = new BinaryDictionary(new DictionaryPage(wrappedBuffer(encodePlainStrings(dictionaryValues)), dictionaryValues.size(), PLAIN_DICTIONARY));
+        int[] ids = generateValues(1, VALUE_COUNT, new Random(9));
+        byte[] bytes = withOffset(encodeDictionaryIds(1, ids), OFFSET);
+
+        List<String> expected = new ArrayList<>();
+        for (int id : ids) {
+            expected.add(dictionaryValues.get(id));
+        }
+        assertBinaries(createBinaryValuesDecoder(PLAIN_DICTIONARY, bytes, OFFSET, dictionary, null), expected);
+    }
+
+    @Test
+    public void testDictionaryPageWithoutValues()
+            throws IOException
+    {
+        Dictionary dictionary = new LongDictionary(new DictionaryPage(wrappedBuffer(encodePlainLongs(new long[] {1})), 1, PLAIN_DICTIONARY));
+        // a page with only nulls has no dictionary ids, not even the bit width
+        byte[] bytes = new byte[OFFSET];
+        LongValuesDecoder decoder = createLongValuesDecoder(PLAIN_DICTIONARY, bytes, OFFSET, dictionary, null);
+        decoder.read(new long[0], 0, 0);
+        decoder.skip(0);
+    }
+
+    private static void assertLongs(LongValuesDecoder decoder, long[] expected)
+    {
+        Random random = new Random(expected.length);
+        int position = 0;
+        while (position < expected.length) {
+            int skip = Math.min(expected.length - position, random.nextInt(50));
+            decoder.skip(skip);
+            position += skip;
+
+            int length = Math.min(expected.length - position, random.nextInt(100));
+            long[] actual = new long[length + 1];
+            decoder.read(actual, 1, length);
+            assertEquals(Arrays.copyOfRange(actual, 1, length + 1), Arrays.copyOfRange(expected, position, position + length), "position " + position);
+            position += length;
+        }
+    }
+
+    private static void assertInts(IntValuesDecoder decoder, int[] expected)
+    {
+        Random random = new Random(expected.length);
+        int position = 0;
+        while (position < expected.length) {
+            int skip = Math.min(expected.length - position, random.nextInt(50));
+            decoder.skip(skip);
+            position += skip;
+
+            int length = Math.min(expected.length - position, random.nextInt(100));
+            int[] actual = new int[length + 1];
+            decoder.read(actual, 1, length);
+            assertEquals(Arrays.copyOfRange(actual, 1, length + 1), Arrays.copyOfRange(expected, position, position + length), "position " + position);
+            position += length;
+        }
+    }
+
+    private static void assertBinaries(BinaryValuesDecoder decoder, List<String> expected)
+    {
+        Random random = new Random(expected.size());
+        int position = 0;
+        while (position < expected.size()) {
+            int skip = Math.min(expected.size() - position, random.nextInt(50));
+            decoder.skip(skip);
+            position += skip;
+
+            // append to output that already holds a value, as batches spanning pages do
+            int length = Math.min(expected.size() - position, random.nextInt(100));
+            DynamicSliceOutput output = new DynamicSliceOutput(16);
+            output.writeBytes(utf8Slice("prefix"));
+            int[] offsets = new int[length + 2];
+            offsets[1] = output.size();
+            decoder.read(output, offsets, 1, length);
+
+            Slice data = output.slice();
+            for (int i = 0; i < length; i++) {
+                int start = offsets[i + 1];
+                int end = offsets[i + 2];
+                assertEquals(data.slice(start, end - start).toStringUtf8(), expected.get(position + i), "position " + (position + i));
+            }
+            position += length;
+        }
+    }
+
+    private static long[] randomLongs(int count, Random random)
+    {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+
+    private static List<String> randomStrings(int count, Random random)
+    {
+        ImmutableList.Builder<String> values = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            // include empty values
+            int length = random.nextInt(12);
+            StringBuilder value = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                value.append((char) ('a' + random.nextInt(26)));
+            }
+            values.add(value.toString());
+        }
+        return values.build();
+    }
+}
@@ -15,7 +15,9 @@ package io.prestosql.spi.block;
 
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
 
+import static io.prestosql.spi.block.EncoderUtil.countNonNullPositions;
 import static io.prestosql.spi.block.EncoderUtil.decodeNullBits;
 import static io.prestosql.spi.block.EncoderUtil.encodeNullsAsBits;
 
@@ -38,6 +40,11 @@ public class ByteArrayBlockEncoding
 
         encodeNullsAsBits(sliceOutput, block);
 
+        if (!block.mayHaveNull() && block instanceof ByteArrayBlock) {
+            ((ByteArrayBlock) block).writeValuesTo(sliceOutput);
+            return;
+        }
+
         for (int position = 0; position < positionCount; position++) {
             if (!block.isNull(position)) {
                 sliceOutput.writeByte(block.getByte(position, 0));
@@ -53,9 +60,21 @@ public class ByteArrayBlockEncoding
         boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
 
         byte[] values = new byte[positionCount];
-        for (int position = 0; position < positionCount; position++) {
-            if (valueIsNull == null || !valueIsNull[position]) {
-                values[position] = sliceInput.readByte();
+        if (valueIsNull == null) {
+            sliceInput.readBytes(Slices.wrappedBuffer(values), 0, positionCount);
+        }
+        else {
+            // read the non-null values in bulk, then spread them out to their positions
+            int nonNullPositionCount = countNonNullPositions(valueIsNull);
+            sliceInput.readBytes(Slices.wrappedBuffer(values), 0, nonNullPositionCount);
+            int nonNullPosition = nonNullPositionCount - 1;
+            for (int position = positionCount - 1; position > nonNullPosition; position--) {
+                if (valueIsNull[position]) {
+                    values[position] = 0;
+                }
+                else {
+                    values[position] = values[nonNullPosition--];
+                }
             }
         }
 
@@ -97,4 +97,15 @@ final class EncoderUtil
 
         return Optional.of(valueIsNull);
     }
+
+    public static int countNonNullPositions(boolean[] valueIsNull)
+    {
+        int count = 0;
+        for (boolean isNull : valueIsNull) {
+            if (!isNull) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -15,7 +15,10 @@ package io.prestosql.spi.block;
 
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
 
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.prestosql.spi.block.EncoderUtil.countNonNullPositions;
 import static io.prestosql.spi.block.EncoderUtil.decodeNullBits;
 import static io.prestosql.spi.block.EncoderUtil.encodeNullsAsBits;
 
@@ -38,6 +41,11 @@ public class IntArrayBlockEncoding
 
         encodeNullsAsBits(sliceOutput, block);
 
+        if (!block.mayHaveNull() && block instanceof IntArrayBlock) {
+            ((IntArrayBlock) block).writeValuesTo(sliceOutput);
+            return;
+        }
+
         for (int position = 0; position < positionCount; position++) {
             if (!block.isNull(position)) {
                 sliceOutput.writeInt(block.getInt(position, 0));
@@ -53,9 +61,21 @@ public class IntArrayBlockEncoding
         boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
 
         int[] values = new int[positionCount];
-        for (int position = 0; position < positionCount; position++) {
-            if (valueIsNull == null || !valueIsNull[position]) {
-                values[position] = sliceInput.readInt();
+        if (valueIsNull == null) {
+            sliceInput.readBytes(Slices.wrappedIntArray(values), 0, positionCount * SIZE_OF_INT);
+        }
+        else {
+            // read the non-null values in bulk, then spread them out to their positions
+            int nonNullPositionCount = countNonNullPositions(valueIsNull);
+            sliceInput.readBytes(Slices.wrappedIntArray(values), 0, nonNullPositionCount * SIZE_OF_INT);
+            int nonNullPosition = nonNullPositionCount - 1;
+            for (int position = positionCount - 1; position > nonNullPosition; position--) {
+                if (valueIsNull[position]) {
+                    values[position] = 0;
+                }
+                else {
+                    values[position] = values[nonNullPosition--];
+                }
             }
         }
 
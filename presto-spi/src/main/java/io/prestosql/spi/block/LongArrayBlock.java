@@ -13,6 +13,8 @@
  */
 package io.prestosql.spi.block;
 
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
 import org.openjdk.jol.info.ClassLayout;
 
 import javax.annotation.Nullable;
@@ -255,6 +257,18 @@ public class LongArrayBlock
         return LongArrayBlockEncoding.NAME;
     }
 
+    /**
+     * Writes the values of all positions in one bulk copy. The block must not have nulls,
+     * since the encoding only stores the values of non-null positions.
+     */
+    void writeValuesTo(SliceOutput sliceOutput)
+    {
+        if (mayHaveNull()) {
+            throw new IllegalStateException("Block may have nulls");
+        }
+        sliceOutput.writeBytes(Slices.wrappedLongArray(values, arrayOffset, positionCount));
+    }
+
     @Override
     public String toString()
     {
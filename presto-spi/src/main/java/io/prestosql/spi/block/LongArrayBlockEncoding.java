@@ -15,7 +15,10 @@ package io.prestosql.spi.block;
 
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
 
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.prestosql.spi.block.EncoderUtil.countNonNullPositions;
 import static io.prestosql.spi.block.EncoderUtil.decodeNullBits;
 import static io.prestosql.spi.block.EncoderUtil.encodeNullsAsBits;
 
@@ -38,6 +41,11 @@ public class LongArrayBlockEncoding
 
         encodeNullsAsBits(sliceOutput, block);
 
+        if (!block.mayHaveNull() && block instanceof LongArrayBlock) {
+            ((LongArrayBlock) block).writeValuesTo(sliceOutput);
+            return;
+        }
+
         for (int position = 0; position < positionCount; position++) {
             if (!block.isNull(position)) {
                 sliceOutput.writeLong(block.getLong(position, 0));
@@ -53,9 +61,21 @@ public class LongArrayBlockEncoding
         boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
 
         long[] values = new long[positionCount];
-        for (int position = 0; position < positionCount; position++) {
-            if (valueIsNull == null || !valueIsNull[position]) {
-                values[position] = sliceInput.readLong();
+        if (valueIsNull == null) {
+            sliceInput.readBytes(Slices.wrappedLongArray(values), 0, positionCount * SIZE_OF_LONG);
+        }
+        else {
+            // read the non-null values in bulk, then spread them out to their positions
+            int nonNullPositionCount = countNonNullPositions(valueIsNull);
+            sliceInput.readBytes(Slices.wrappedLongArray(values), 0, nonNullPositionCount * SIZE_OF_LONG);
+            int nonNullPosition = nonNullPositionCount - 1;
+            for (int position = positionCount - 1; position > nonNullPosition; position--) {
+                if (valueIsNull[position]) {
+                    values[position] = 0;
+                }
+                else {
+                    values[position] = values[nonNullPosition--];
+                }
             }
         }
 
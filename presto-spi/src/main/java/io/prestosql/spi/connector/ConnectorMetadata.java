@@ -167,6 +167,17 @@ public interface ConnectorMetadata
         return TableStatistics.empty();
     }
 
+    /**
+     * Get a version of the table data that changes whenever the data is modified,
+     * or empty if the connector cannot track modifications of the table. The engine
+     * uses the version to decide whether cached results that were computed from the
+     * table are still valid.
+     */
+    default OptionalLong getTableVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return OptionalLong.empty();
+    }
+
     /**
      * Creates a schema.
      */
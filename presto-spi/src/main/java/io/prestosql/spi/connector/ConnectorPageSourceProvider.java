@@ -13,6 +13,8 @@
  */
 package io.prestosql.spi.connector;
 
+import io.prestosql.spi.predicate.TupleDomain;
+
 import java.util.List;
 
 public interface ConnectorPageSourceProvider
@@ -21,4 +23,18 @@ public interface ConnectorPageSourceProvider
      * @param columns columns that should show up in the output page, in this order
      */
     ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns);
+
+    /**
+     * Creates a page source that may additionally use a predicate collected at runtime
+     * (for example, from the build side of a join) to skip data. The dynamic filter is
+     * only a hint: the engine still evaluates the join, so implementations are free to
+     * ignore it or to apply it partially.
+     *
+     * @param columns columns that should show up in the output page, in this order
+     * @param dynamicFilter predicate over the columns of the table collected during execution
+     */
+    default ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(transactionHandle, session, split, columns);
+    }
 }
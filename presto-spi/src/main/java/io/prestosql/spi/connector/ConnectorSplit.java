@@ -16,6 +16,7 @@ package io.prestosql.spi.connector;
 import io.prestosql.spi.HostAddress;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ConnectorSplit
 {
@@ -24,4 +25,15 @@ public interface ConnectorSplit
     List<HostAddress> getAddresses();
 
     Object getInfo();
+
+    /**
+     * Returns a value that identifies the data read by this split. Two splits of
+     * the same table with the same identifier must always produce the same rows,
+     * which allows the engine to reuse results computed from one split for the
+     * other. Returns empty if the data read by the split may change.
+     */
+    default Optional<String> getSplitIdentifier()
+    {
+        return Optional.empty();
+    }
 }
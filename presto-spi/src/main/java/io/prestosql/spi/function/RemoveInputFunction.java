@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.function;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks the inverse of an {@link InputFunction}, which takes the same arguments and removes
+ * a previously added value from the state. It allows window functions to evaluate sliding
+ * frames incrementally instead of recomputing the aggregation for every frame.
+ * <p>
+ * The removal must restore the state exactly, so it is only suitable for exact state such
+ * as counts and integer sums. Floating-point state can not be reverted by subtraction,
+ * since adding a large value absorbs the small values already in the state.
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface RemoveInputFunction
+{
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.block;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.prestosql.spi.type.TestingTypeManager;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestLongArrayBlockEncoding
+{
+    private final BlockEncodingSerde blockEncodingSerde = new TestingBlockEncodingSerde(new TestingTypeManager());
+
+    @Test
+    public void testRoundTripWithoutNulls()
+    {
+        long[] values = new long[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 31L - 1000;
+        }
+        Block block = new LongArrayBlock(values.length, Optional.empty(), values);
+        assertRoundTrip(block);
+        assertRoundTrip(block.getRegion(17, 50));
+    }
+
+    @Test
+    public void testRoundTripWithNulls()
+    {
+        long[] values = new long[100];
+        boolean[] valueIsNull = new boolean[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 31L - 1000;
+            valueIsNull[i] = i % 3 == 0 || i > 90;
+        }
+        Block block = new LongArrayBlock(values.length, Optional.of(valueIsNull), values);
+        assertRoundTrip(block);
+        assertRoundTrip(block.getRegion(1, 2));
+        assertRoundTrip(block.getRegion(91, 9));
+    }
+
+    @Test
+    public void testRoundTripBlockBuilder()
+    {
+        BlockBuilder blockBuilder = new LongArrayBlockBuilder(null, 10);
+        for (int i = 0; i < 10; i++) {
+            if (i % 4 == 1) {
+                blockBuilder.appendNull();
+            }
+            else {
+                blockBuilder.writeLong(i).closeEntry();
+            }
+        }
+        assertRoundTrip(blockBuilder);
+    }
+
+    private void assertRoundTrip(Block expected)
+    {
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        blockEncodingSerde.writeBlock(sliceOutput, expected);
+        Block actual = blockEncodingSerde.readBlock(sliceOutput.slice().getInput());
+
+        assertEquals(actual.getPositionCount(), expected.getPositionCount());
+        for (int position = 0; position < actual.getPositionCount(); position++) {
+            if (expected.isNull(position)) {
+                assertTrue(actual.isNull(position));
+            }
+            else {
+                assertFalse(actual.isNull(position));
+                assertEquals(actual.getLong(position, 0), expected.getLong(position, 0));
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import io.prestosql.spi.predicate.TupleDomain;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
@@ -80,6 +81,16 @@ public class TpchSplit
         return this;
     }
 
+    @Override
+    public Optional<String> getSplitIdentifier()
+    {
+        // the data is generated, so it only depends on the table and the part
+        if (!predicate.isAll()) {
+            return Optional.empty();
+        }
+        return Optional.of(tableHandle + ":" + partNumber + "/" + totalParts);
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {